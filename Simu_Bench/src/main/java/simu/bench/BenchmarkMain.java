@@ -0,0 +1,32 @@
+package simu.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar.
+ * Accepts the usual JMH command line and always adds the GC profiler,
+ * so every result reports allocation rate and bytes per operation next to throughput.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class BenchmarkMain {
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args JMH command line arguments (e.g. a benchmark regex, -f, -wi, -i, -rf json)
+     * @throws Exception if the command line is invalid or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,87 @@
+package simu.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.model.Customer;
+import simu.model.CustomerStore;
+import simu.model.ServicePointType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Customer} construction, including attribute assignment
+ * and recording one complete stage of the customer journey, and the pooled
+ * alternative of acquiring and releasing customers from a {@link CustomerStore}.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerBenchmark {
+
+    /** Store used by the pooled benchmark */
+    private CustomerStore store;
+
+    /**
+     * Silences trace output and resets the clock.
+     */
+    @Setup
+    public void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        Clock.getInstance().reset();
+        store = new CustomerStore();
+    }
+
+    /**
+     * Constructs a customer.
+     *
+     * @return The new customer
+     */
+    @Benchmark
+    public Customer construct() {
+        return new Customer();
+    }
+
+    /**
+     * Constructs a customer and records service start and end at a meal station.
+     *
+     * @return The new customer
+     */
+    @Benchmark
+    public Customer constructAndRecordStage() {
+        Customer customer = new Customer();
+        customer.markServiceStart(ServicePointType.MEAL, 1.0);
+        customer.markServiceEnd(ServicePointType.MEAL, 2.0);
+        return customer;
+    }
+
+    /**
+     * Acquires a pooled customer, records one stage and releases it again.
+     *
+     * @return The stage end time, to keep the work observable
+     */
+    @Benchmark
+    public double acquireRecordRelease() {
+        Customer customer = store.acquire();
+        customer.markServiceStart(ServicePointType.MEAL, 1.0);
+        customer.markServiceEnd(ServicePointType.MEAL, 2.0);
+        double end = customer.getServiceEndTime(ServicePointType.MEAL);
+        customer.release();
+        return end;
+    }
+}
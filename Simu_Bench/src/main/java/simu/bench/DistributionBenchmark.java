@@ -0,0 +1,110 @@
+package simu.bench;
+
+import eduni.distributions.Bernoulli;
+import eduni.distributions.Beta;
+import eduni.distributions.BetaPrime;
+import eduni.distributions.Binomial;
+import eduni.distributions.Cauchy;
+import eduni.distributions.ChiSquare;
+import eduni.distributions.ContinuousGenerator;
+import eduni.distributions.DiscreteGenerator;
+import eduni.distributions.Erlang;
+import eduni.distributions.FDistribution;
+import eduni.distributions.FixedTimeGenerator;
+import eduni.distributions.Gamma;
+import eduni.distributions.Geometric;
+import eduni.distributions.Invgamma;
+import eduni.distributions.LogNormal;
+import eduni.distributions.Logistic;
+import eduni.distributions.Negexp;
+import eduni.distributions.Normal;
+import eduni.distributions.Pareto;
+import eduni.distributions.Pascal;
+import eduni.distributions.Poisson;
+import eduni.distributions.RandomGenerator;
+import eduni.distributions.Tstudent;
+import eduni.distributions.Uniform;
+import eduni.distributions.Weibull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one sample from every generator in {@code eduni.distributions}.
+ * Parameters are chosen in the range the cafeteria model uses (service times in seconds).
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistributionBenchmark {
+
+    /** Name of the generator class to benchmark */
+    @Param({"RandomGenerator", "FixedTimeGenerator", "Uniform", "Negexp", "Normal", "LogNormal",
+            "Erlang", "Gamma", "Invgamma", "Beta", "BetaPrime", "Cauchy", "ChiSquare",
+            "FDistribution", "Logistic", "Pareto", "Tstudent", "Weibull",
+            "Bernoulli", "Binomial", "Geometric", "Pascal", "Poisson"})
+    public String distribution;
+
+    private ContinuousGenerator continuous;
+    private DiscreteGenerator discrete;
+
+    /**
+     * Creates the generator selected by {@link #distribution} with a fixed seed.
+     */
+    @Setup
+    public void setUp() {
+        long seed = 12345;
+        switch (distribution) {
+            case "RandomGenerator" -> continuous = new RandomGenerator(seed);
+            case "FixedTimeGenerator" -> continuous = new FixedTimeGenerator(30.0, seed);
+            case "Uniform" -> continuous = new Uniform(10.0, 50.0, seed);
+            case "Negexp" -> continuous = new Negexp(30.0, seed);
+            case "Normal" -> continuous = new Normal(30.0, 3.0, seed);
+            case "LogNormal" -> continuous = new LogNormal(3.0, 0.25, seed);
+            case "Erlang" -> continuous = new Erlang(3, 10.0, seed);
+            case "Gamma" -> continuous = new Gamma(10.0, 2.5, seed);
+            case "Invgamma" -> continuous = new Invgamma(10.0, 2.5, seed);
+            case "Beta" -> continuous = new Beta(2.0, 5.0, seed);
+            case "BetaPrime" -> continuous = new BetaPrime(2.0, 5.0, seed);
+            case "Cauchy" -> continuous = new Cauchy(30.0, 2.0, seed);
+            case "ChiSquare" -> continuous = new ChiSquare(5, seed);
+            case "FDistribution" -> continuous = new FDistribution(5, 10, seed);
+            case "Logistic" -> continuous = new Logistic(30.0, 2.0, seed);
+            case "Pareto" -> continuous = new Pareto(10.0, 3.0, seed);
+            case "Tstudent" -> continuous = new Tstudent(5, seed);
+            case "Weibull" -> continuous = new Weibull(30.0, 1.0, seed);
+            case "Bernoulli" -> discrete = new Bernoulli(0.3, seed);
+            case "Binomial" -> discrete = new Binomial(0.3, 10, seed);
+            case "Geometric" -> discrete = new Geometric(0.3, seed);
+            case "Pascal" -> discrete = new Pascal(0.3, 5, seed);
+            case "Poisson" -> discrete = new Poisson(4.0, seed);
+            default -> throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+    }
+
+    /**
+     * Draws one sample from the selected generator.
+     *
+     * @return The sample, widened to double for discrete generators
+     */
+    @Benchmark
+    public double sample() {
+        return continuous != null ? continuous.sample() : discrete.sample();
+    }
+}
@@ -0,0 +1,95 @@
+package simu.bench;
+
+import controller.HeadlessController;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.model.Customer;
+import simu.model.MyEngine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of a headless {@link MyEngine} run (one opening day)
+ * at several arrival rates. Besides runs per second, the number of dispatched
+ * events is reported as an auxiliary "events" counter (events per second).
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    /** Arrival rate in students per hour */
+    @Param({"60", "120", "600", "3600"})
+    public double arrivalRate;
+
+    /** Simulated opening hours per run */
+    @Param({"3"})
+    public double openingHours;
+
+    /**
+     * Auxiliary counters reported per benchmark operation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounters {
+        /** Number of dispatched simulation events */
+        public long events;
+
+        /**
+         * Resets the counters before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    /**
+     * Silences trace output.
+     */
+    @Setup
+    public void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    /**
+     * Runs one complete simulation on the benchmark thread.
+     *
+     * @param counters Counters receiving the number of dispatched events
+     * @return The engine after the run
+     */
+    @Benchmark
+    public MyEngine run(EventCounters counters) {
+        Clock.getInstance().reset();
+        Customer.reset();
+        MyEngine engine = new MyEngine(new HeadlessController(),
+                45.0, 40.0, 30.0,
+                20.0, 12.0, 10.0,
+                true, true, true,
+                arrivalRate, Integer.MAX_VALUE);
+        engine.setResultsFile(null);
+        engine.setSimulationTime(openingHours * 3600.0);
+        engine.run();
+        counters.events += engine.getDispatchedEvents();
+        return engine;
+    }
+}
@@ -0,0 +1,82 @@
+package simu.bench;
+
+import eduni.distributions.Negexp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simu.framework.Event;
+import simu.framework.EventList;
+import simu.model.EventType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the future event list with the classic "hold" model:
+ * remove the earliest event and schedule a new one a random delay later,
+ * keeping the number of pending events constant.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventListBenchmark {
+
+    /** Number of events pending in the list */
+    @Param({"16", "1024", "65536"})
+    public int pending;
+
+    private EventList eventList;
+    private Negexp delays;
+
+    /**
+     * Fills the event list with the requested number of pending events.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        eventList = new EventList();
+        delays = new Negexp(1.0, 42);
+        for (int i = 0; i < pending; i++) {
+            eventList.add(new Event(EventType.ARR1, delays.sample()));
+        }
+    }
+
+    /**
+     * Hold operation that reuses the removed event, measuring only the queue.
+     *
+     * @return The rescheduled event
+     */
+    @Benchmark
+    public Event holdReusingEvent() {
+        Event event = eventList.remove();
+        event.setTime(event.getTime() + delays.sample());
+        eventList.add(event);
+        return event;
+    }
+
+    /**
+     * Hold operation that allocates a new event, as the engine does today.
+     *
+     * @return The newly scheduled event
+     */
+    @Benchmark
+    public Event holdAllocatingEvent() {
+        Event removed = eventList.remove();
+        Event event = new Event(removed.getType(), removed.getTime() + delays.sample());
+        eventList.add(event);
+        return event;
+    }
+}
@@ -0,0 +1,149 @@
+package simu.bench;
+
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.model.Customer;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Scalability sweep over model size and load.
+ * Runs a headless {@link SyntheticCafeteriaEngine} for every combination of station
+ * count and arrival rate and writes one CSV row per run with events per second,
+ * peak heap, GC pause time and pending event counts, so scaling curves can be
+ * plotted and compared between releases.
+ * <p>
+ * Each run simulates long enough for the requested number of arrivals and is
+ * stopped after a wall-clock limit; runs that hit the limit are marked as not completed.
+ * <pre>
+ * java -cp target/benchmarks.jar simu.bench.ScalabilityBenchmark \
+ *      --stations=7,70,700,7000,10000 --rates=100,1000,10000,100000,1000000,10000000 \
+ *      --customers=200000 --maxWallSeconds=60 --capacity=unlimited --out=scalability.csv
+ * </pre>
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class ScalabilityBenchmark {
+    /** CSV header of the report */
+    static final String HEADER = "stations,lines,arrivalRate,simulatedSeconds,completed,simTimeReached,wallSeconds,"
+            + "events,eventsPerSecond,customersServed,customersRejected,peakHeapBytes,gcPauseMillis,gcCount,"
+            + "peakPendingEvents,finalPendingEvents";
+
+    /**
+     * Runs the sweep.
+     *
+     * @param args Options of the form {@code --name=value}, see the class documentation
+     * @throws IOException if the report cannot be written
+     * @throws InterruptedException if the benchmark thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int[] stations = {7, 70, 700, 7000, 10000};
+        double[] rates = {100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+        long customers = 200_000;
+        long maxWallSeconds = 60;
+        int capacity = Integer.MAX_VALUE;
+        String out = "scalability.csv";
+
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            switch (kv[0]) {
+                case "stations" -> stations = Arrays.stream(kv[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "rates" -> rates = Arrays.stream(kv[1].split(",")).mapToDouble(Double::parseDouble).toArray();
+                case "customers" -> customers = Long.parseLong(kv[1]);
+                case "maxWallSeconds" -> maxWallSeconds = Long.parseLong(kv[1]);
+                case "capacity" -> capacity = kv[1].equals("unlimited") ? Integer.MAX_VALUE : Integer.parseInt(kv[1]);
+                case "out" -> out = kv[1];
+                default -> throw new IllegalArgumentException("Unknown option " + kv[0]);
+            }
+        }
+
+        Trace.setTraceLevel(Trace.Level.ERR);
+        try (PrintWriter writer = new PrintWriter(new FileWriter(out))) {
+            writer.println(HEADER);
+            System.out.println(HEADER);
+            for (int stationCount : stations) {
+                for (double rate : rates) {
+                    String row = run(stationCount, rate, customers, maxWallSeconds, capacity);
+                    writer.println(row);
+                    writer.flush();
+                    System.out.println(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one configuration on a fresh engine thread.
+     *
+     * @param stationCount Requested number of service points
+     * @param rate Arrival rate in students per hour
+     * @param customers Expected number of arrivals to simulate
+     * @param maxWallSeconds Wall-clock limit for the run
+     * @param capacity Maximum queue length per station
+     * @return The CSV row for this run
+     * @throws InterruptedException if the benchmark thread is interrupted
+     */
+    static String run(int stationCount, double rate, long customers, long maxWallSeconds, int capacity)
+            throws InterruptedException {
+        double simulatedSeconds = customers * 3600.0 / rate;
+
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        long gcMillisBefore = 0;
+        long gcCountBefore = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcMillisBefore += Math.max(0, gc.getCollectionTime());
+            gcCountBefore += Math.max(0, gc.getCollectionCount());
+        }
+
+        Clock.getInstance().reset();
+        Customer.reset();
+        SyntheticCafeteriaEngine engine = new SyntheticCafeteriaEngine(stationCount, rate, capacity, 42);
+        engine.setSimulationTime(simulatedSeconds);
+
+        long start = System.nanoTime();
+        engine.start();
+        engine.join(maxWallSeconds * 1000);
+        boolean completed = !engine.isAlive();
+        if (!completed) {
+            engine.interrupt();
+            engine.join();
+        }
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        long gcMillis = 0;
+        long gcCount = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcMillis += Math.max(0, gc.getCollectionTime());
+            gcCount += Math.max(0, gc.getCollectionCount());
+        }
+
+        long events = engine.getDispatchedEvents();
+        return String.format(Locale.ROOT, "%d,%d,%.0f,%.3f,%b,%.3f,%.3f,%d,%.1f,%d,%d,%d,%d,%d,%d,%d",
+                engine.getStationCount(), engine.getStationCount() / SyntheticCafeteriaEngine.STATIONS_PER_LINE,
+                rate, simulatedSeconds, completed, Clock.getInstance().getTime(), wallSeconds,
+                events, events / wallSeconds, engine.getCustomersServed(), engine.getCustomersRejected(),
+                peakHeap, gcMillis - gcMillisBefore, gcCount - gcCountBefore,
+                engine.getPeakPendingEvents(), engine.getPendingEvents());
+    }
+}
@@ -0,0 +1,104 @@
+package simu.bench;
+
+import eduni.distributions.Negexp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simu.framework.Clock;
+import simu.framework.EventList;
+import simu.framework.Trace;
+import simu.model.Customer;
+import simu.model.EventType;
+import simu.model.ServicePoint;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the queue operations of a single {@link ServicePoint}
+ * with a configurable number of customers already waiting.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServicePointBenchmark {
+
+    /** Number of customers waiting behind the one being processed */
+    @Param({"0", "100", "10000"})
+    public int queued;
+
+    private ServicePoint servicePoint;
+    private EventList eventList;
+    /** Customers cycled through the queue so that no customer is queued twice */
+    private Customer[] customers;
+    private int next;
+
+    /**
+     * Creates the service point and fills its queue.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        Clock.getInstance().reset();
+        eventList = new EventList();
+        servicePoint = new ServicePoint(new Negexp(10.0, 7), eventList, EventType.MEAL_GRILL_DEP, "Bench");
+        customers = new Customer[queued + 1];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = new Customer();
+        }
+        for (int i = 0; i < queued; i++) {
+            servicePoint.addQueue(customers[i]);
+        }
+        next = queued;
+    }
+
+    /**
+     * One full customer cycle: join the queue, start service, complete service.
+     * The scheduled departure event is drained so the event list stays empty.
+     *
+     * @return The customer who completed service
+     */
+    @Benchmark
+    public Customer addBeginRemove() {
+        servicePoint.addQueue(nextCustomer());
+        servicePoint.beginService();
+        eventList.remove();
+        return servicePoint.removeQueue();
+    }
+
+    /**
+     * Join the queue and leave it again, without sampling a service time.
+     *
+     * @return The customer removed from the head of the queue
+     */
+    @Benchmark
+    public Customer addRemove() {
+        servicePoint.addQueue(nextCustomer());
+        return servicePoint.removeQueue();
+    }
+
+    /**
+     * Gets the next customer in round-robin order.
+     *
+     * @return A customer that is not currently queued
+     */
+    private Customer nextCustomer() {
+        Customer customer = customers[next];
+        next = (next + 1) % customers.length;
+        return customer;
+    }
+}
@@ -0,0 +1,229 @@
+package simu.bench;
+
+import controller.HeadlessController;
+import eduni.distributions.Negexp;
+import eduni.distributions.Normal;
+import eduni.distributions.RandomGenerator;
+import simu.framework.ArrivalProcess;
+import simu.framework.Clock;
+import simu.framework.Engine;
+import simu.framework.Event;
+import simu.model.Customer;
+import simu.model.CustomerStore;
+import simu.model.EventType;
+import simu.model.PaymentType;
+import simu.model.ServicePoint;
+
+/**
+ * Headless cafeteria model of configurable size used by the scalability benchmark.
+ * The model consists of parallel serving lines, each a copy of the seven stations
+ * of {@code MyEngine} (grill, vegan, normal, two cashiers, self-service, coffee).
+ * Arriving customers pick a line uniformly at random and then follow the usual
+ * meal, payment and optional coffee route within that line. Service is started by
+ * the engine's C-phase scan, so the cost of that scan grows with the model size.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class SyntheticCafeteriaEngine extends Engine {
+    /** Number of stations in one serving line */
+    public static final int STATIONS_PER_LINE = 7;
+
+    private static final int GRILL = 0;
+    private static final int VEGAN = 1;
+    private static final int NORMAL = 2;
+    private static final int CASHIER = 3;
+    private static final int CASHIER_2 = 4;
+    private static final int SELF_SERVICE = 5;
+    private static final int COFFEE = 6;
+
+    private final int lines;
+    private final int maxQueueCapacity;
+    private final ArrivalProcess arrivalProcess;
+    private final RandomGenerator lineChooser;
+    private final CustomerStore customerStore = new CustomerStore();
+
+    private long customersServed = 0;
+    private long customersRejected = 0;
+    private int peakPendingEvents = 0;
+
+    /**
+     * Constructs a synthetic model.
+     *
+     * @param requestedStations Requested number of service points; rounded up to whole lines of seven
+     * @param arrivalRate Customer arrival rate (students per hour) for the whole cafeteria
+     * @param maxQueueCapacity Maximum queue length per station (Integer.MAX_VALUE means unlimited)
+     * @param seed Seed for arrivals, line choice and service times
+     */
+    public SyntheticCafeteriaEngine(int requestedStations, double arrivalRate, int maxQueueCapacity, long seed) {
+        super(new HeadlessController());
+        this.lines = Math.max(1, (requestedStations + STATIONS_PER_LINE - 1) / STATIONS_PER_LINE);
+        this.maxQueueCapacity = maxQueueCapacity;
+
+        servicePoints = new ServicePoint[lines * STATIONS_PER_LINE];
+        for (int line = 0; line < lines; line++) {
+            long s = seed + 1000L * line;
+            servicePoints[index(line, GRILL)] = station(45.0, EventType.MEAL_GRILL_DEP, "Grill", line, s + 1);
+            servicePoints[index(line, VEGAN)] = station(40.0, EventType.MEAL_VEGAN_DEP, "Vegan", line, s + 2);
+            servicePoints[index(line, NORMAL)] = station(30.0, EventType.MEAL_NORMAL_DEP, "Normal", line, s + 3);
+            servicePoints[index(line, CASHIER)] = station(20.0, EventType.PAYMENT_CASHIER_DEP, "Cashier", line, s + 4);
+            servicePoints[index(line, CASHIER_2)] = station(20.0, EventType.PAYMENT_CASHIER_DEP, "Cashier", line, s + 5);
+            servicePoints[index(line, SELF_SERVICE)] = station(12.0, EventType.PAYMENT_SELF_DEP, "Self-Service", line, s + 6);
+            servicePoints[index(line, COFFEE)] = station(10.0, EventType.COFFEE_DEP, "Coffee", line, s + 7);
+        }
+
+        arrivalProcess = new ArrivalProcess(new Negexp(3600.0 / arrivalRate, seed), eventList, EventType.ARR1);
+        lineChooser = new RandomGenerator(seed + 17);
+    }
+
+    /**
+     * Creates the first arrival.
+     */
+    @Override
+    protected void initialization() {
+        arrivalProcess.generateNext();
+    }
+
+    /**
+     * Routes customers through their serving line.
+     *
+     * @param t The event to process
+     */
+    @Override
+    protected void runEvent(Event t) {
+        switch ((EventType) t.getType()) {
+            case ARR1 -> {
+                Customer c = customerStore.acquire();
+                int line = (int) (lineChooser.sample() * lines);
+                int meal = switch (c.getMealType()) {
+                    case GRILL -> GRILL;
+                    case VEGAN -> VEGAN;
+                    case NORMAL -> NORMAL;
+                };
+                enter(servicePoints[index(line, meal)], c);
+                arrivalProcess.generateNext();
+            }
+            case MEAL_GRILL_DEP, MEAL_VEGAN_DEP, MEAL_NORMAL_DEP -> {
+                SyntheticStation station = (SyntheticStation) t.getServicePoint();
+                Customer c = station.removeQueue();
+                int line = station.getLine();
+                ServicePoint payment;
+                if (c.getPaymentType() == PaymentType.SELF_SERVICE) {
+                    payment = servicePoints[index(line, SELF_SERVICE)];
+                } else {
+                    ServicePoint cashier = servicePoints[index(line, CASHIER)];
+                    ServicePoint cashier2 = servicePoints[index(line, CASHIER_2)];
+                    payment = cashier.getQueueLength() <= cashier2.getQueueLength() ? cashier : cashier2;
+                }
+                enter(payment, c);
+            }
+            case PAYMENT_CASHIER_DEP, PAYMENT_SELF_DEP -> {
+                SyntheticStation station = (SyntheticStation) t.getServicePoint();
+                Customer c = station.removeQueue();
+                if (c.isWantsCoffee()) {
+                    enter(servicePoints[index(station.getLine(), COFFEE)], c);
+                } else {
+                    exit(c);
+                }
+            }
+            case COFFEE_DEP -> exit(t.getServicePoint().removeQueue());
+            default -> throw new IllegalStateException("Unexpected event " + t.getType());
+        }
+        peakPendingEvents = Math.max(peakPendingEvents, eventList.size());
+    }
+
+    /**
+     * Finalizes the statistics of all stations.
+     */
+    @Override
+    protected void results() {
+        for (ServicePoint sp : servicePoints) {
+            sp.finalizeStatistics();
+        }
+    }
+
+    /**
+     * Gets the actual number of service points (a multiple of seven).
+     *
+     * @return The number of service points
+     */
+    public int getStationCount() {
+        return servicePoints.length;
+    }
+
+    /**
+     * Gets the number of customers who left the cafeteria.
+     *
+     * @return Customers served
+     */
+    public long getCustomersServed() {
+        return customersServed;
+    }
+
+    /**
+     * Gets the number of customers turned away because a queue was full.
+     *
+     * @return Customers rejected
+     */
+    public long getCustomersRejected() {
+        return customersRejected;
+    }
+
+    /**
+     * Gets the largest number of pending events observed after an event.
+     *
+     * @return Peak event list size
+     */
+    public int getPeakPendingEvents() {
+        return peakPendingEvents;
+    }
+
+    /**
+     * Gets the number of events still pending.
+     *
+     * @return Current event list size
+     */
+    public int getPendingEvents() {
+        return eventList.size();
+    }
+
+    /**
+     * Adds a customer to a station queue, or rejects the customer if the queue is full.
+     *
+     * @param station The station to join
+     * @param c The customer
+     */
+    private void enter(ServicePoint station, Customer c) {
+        if (station.hasQueueCapacity(maxQueueCapacity)) {
+            station.addQueue(c);
+        } else {
+            customersRejected++;
+            c.release();
+        }
+    }
+
+    /**
+     * Records a customer leaving the cafeteria.
+     *
+     * @param c The customer
+     */
+    private void exit(Customer c) {
+        c.setRemovalTime(Clock.getInstance().getTime());
+        customersServed++;
+        c.release();
+    }
+
+    /**
+     * Creates one station with normally distributed service times (10% variance, as in the GUI).
+     */
+    private SyntheticStation station(double meanTime, EventType type, String name, int line, long seed) {
+        return new SyntheticStation(new Normal(meanTime, meanTime * 0.1, seed), eventList, type, name, line);
+    }
+
+    /**
+     * Gets the index of a station in the service point array.
+     */
+    private static int index(int line, int station) {
+        return line * STATIONS_PER_LINE + station;
+    }
+}
@@ -0,0 +1,40 @@
+package simu.bench;
+
+import eduni.distributions.ContinuousGenerator;
+import simu.framework.EventList;
+import simu.model.EventType;
+import simu.model.ServicePoint;
+
+/**
+ * Service point of a synthetic cafeteria model that knows which serving line it belongs to.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class SyntheticStation extends ServicePoint {
+    /** Index of the serving line this station belongs to */
+    private final int line;
+
+    /**
+     * Constructs a new SyntheticStation.
+     *
+     * @param generator The service time generator
+     * @param eventList The event list for scheduling departures
+     * @param type The departure event type
+     * @param name The station name
+     * @param line Index of the serving line
+     */
+    public SyntheticStation(ContinuousGenerator generator, EventList eventList, EventType type, String name, int line) {
+        super(generator, eventList, type, name);
+        this.line = line;
+    }
+
+    /**
+     * Gets the serving line this station belongs to.
+     *
+     * @return The line index
+     */
+    public int getLine() {
+        return line;
+    }
+}
@@ -6,17 +6,18 @@ import javafx.fxml.Initializable;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.Pane;
+import simu.framework.BucketedHistory;
 import simu.framework.Clock;
 import simu.framework.IEngine;
+import simu.framework.WindowedTimeSeries;
 import simu.model.Customer;
 import simu.model.MealType;
 import simu.model.MyEngine;
 import simu.model.PaymentType;
+import simu.model.ServicePointFactory;
 import view.ISimulatorUI;
 
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -65,55 +66,14 @@ public class Controller implements IControllerVtoM, IControllerMtoV, Initializab
 	@FXML private BarChart<String, Number> utilChart;
 	
 	// Chart data tracking
+	/** Number of time buckets kept for each chart history */
+	private static final int HISTORY_BUCKETS = 1024;
 	private XYChart.Series<Number, Number> totalQueueSeries;
-	private List<ChartDataPoint> queueHistory = new ArrayList<>();
-	private int[] latestQueueData = new int[6]; // Store latest queue data for utilization chart
-	private double lastCollectionTime = -1.0; // Track last collection time to avoid duplicates
+	/** Total queue length per engine time series window, aggregated into a fixed number of buckets */
+	private final BucketedHistory queueHistory = new BucketedHistory(HISTORY_BUCKETS, 1, 1.0);
 	
-	// Track utilization data (time when each station was busy)
-	private List<UtilizationDataPoint> utilizationHistory = new ArrayList<>();
-	
-	/**
-	 * Helper class to track utilization data points over time.
-	 */
-	private static class UtilizationDataPoint {
-		/** Simulation time for this data point */
-		double time;
-		/** Queue lengths for all 6 stations at this time */
-		int[] queueLengths; // Queue lengths for all 6 stations
-		
-		/**
-		 * Constructs a new UtilizationDataPoint.
-		 *
-		 * @param time Simulation time
-		 * @param queueLengths Array of queue lengths for all stations
-		 */
-		UtilizationDataPoint(double time, int[] queueLengths) {
-			this.time = time;
-			this.queueLengths = queueLengths.clone();
-		}
-	}
-	
-	/**
-	 * Helper class to track chart data points for queue length over time.
-	 */
-	private static class ChartDataPoint {
-		/** Simulation time for this data point */
-		double time;
-		/** Total queue length at this time */
-		int queueLength;
-		
-		/**
-		 * Constructs a new ChartDataPoint.
-		 *
-		 * @param time Simulation time
-		 * @param queueLength Total queue length
-		 */
-		ChartDataPoint(double time, int queueLength) {
-			this.time = time;
-			this.queueLength = queueLength;
-		}
-	}
+	/** Mean queue lengths of the 6 stations (cashiers combined) per window, aggregated into buckets */
+	private final BucketedHistory utilizationHistory = new BucketedHistory(HISTORY_BUCKETS, 6, 1.0);
 	
 	// Queue progress bars
 	@FXML private ProgressBar veganQueueProgress;
@@ -399,8 +359,6 @@ public class Controller implements IControllerVtoM, IControllerMtoV, Initializab
 		}
 		queueHistory.clear();
 		utilizationHistory.clear();
-		latestQueueData = new int[6];
-		lastCollectionTime = -1.0;
 		
 		if (utilChart != null) {
 			utilChart.getData().clear();
@@ -621,74 +579,76 @@ public class Controller implements IControllerVtoM, IControllerMtoV, Initializab
 			if (coffeeQueueLabel != null) {
 				coffeeQueueLabel.setText("Queue: " + coffeeQueue);
 			}
-			
-			// Collect data for charts (but don't update display until simulation ends)
-			collectChartData(grillQueue, veganQueue, normalQueue, cashierQueue, cashierQueue2, selfServiceQueue, coffeeQueue);
 		});
 	}
 	
 	/**
-	 * Collects chart data during simulation without updating the display.
-	 * Data is stored and displayed only when simulation ends.
+	 * Receives a completed time series window from the engine. Called on the
+	 * simulation thread: the mean queue lengths are read there and recorded in
+	 * the chart histories on the JavaFX thread.
 	 *
-	 * @param grillQueue Queue length at grill station
-	 * @param veganQueue Queue length at vegan station
-	 * @param normalQueue Queue length at normal station
-	 * @param cashierQueue Queue length at first cashier station
-	 * @param cashierQueue2 Queue length at second cashier station
-	 * @param selfServiceQueue Queue length at self-service station
-	 * @param coffeeQueue Queue length at coffee station
+	 * @param timeSeries The engine's time series, channels indexed like the service points
+	 * @param window Index of the completed window
 	 */
-	private void collectChartData(int grillQueue, int veganQueue, int normalQueue,
-	                              int cashierQueue, int cashierQueue2, int selfServiceQueue, int coffeeQueue) {
-		// Get current simulation time (in seconds)
-		double currentTime = Clock.getInstance().getTime();
-		
-		// Calculate total queue length (combine both cashier queues for total)
-		int totalQueue = grillQueue + veganQueue + normalQueue + cashierQueue + cashierQueue2 + selfServiceQueue + coffeeQueue;
-		
-		// Collect data points for queue chart at every update to get full simulation data
-		// Only skip if time hasn't changed (avoid duplicate points at same time)
-		if (currentTime != lastCollectionTime) {
-			queueHistory.add(new ChartDataPoint(currentTime, totalQueue));
-			
-			if (queueChart != null && totalQueueSeries != null) {
-				Platform.runLater(() -> {
-					totalQueueSeries.getData().add(new XYChart.Data<>(currentTime, totalQueue));
+	@Override
+	public void updateTimeSeries(WindowedTimeSeries timeSeries, int window) {
+		double windowStart = timeSeries.getWindowStart(window);
+		double[] stationQueues = new double[6];
+		// Cashier queues are combined in the charts
+		stationQueues[0] = meanQueue(timeSeries, window, ServicePointFactory.GRILL_STATION);
+		stationQueues[1] = meanQueue(timeSeries, window, ServicePointFactory.VEGAN_STATION);
+		stationQueues[2] = meanQueue(timeSeries, window, ServicePointFactory.NORMAL_STATION);
+		stationQueues[3] = meanQueue(timeSeries, window, ServicePointFactory.CASHIER_STATION)
+				+ meanQueue(timeSeries, window, ServicePointFactory.CASHIER_STATION_2);
+		stationQueues[4] = meanQueue(timeSeries, window, ServicePointFactory.SELF_SERVICE_STATION);
+		stationQueues[5] = meanQueue(timeSeries, window, ServicePointFactory.COFFEE_STATION);
+		Platform.runLater(() -> recordWindow(windowStart, stationQueues));
+	}
 
-					if (totalQueueSeries.getData().size() > 1000) {
-						totalQueueSeries.getData().remove(0);
-					}
-				});
-			}
+	private static double meanQueue(WindowedTimeSeries timeSeries, int window, int station) {
+		return timeSeries.getValue(window, station, WindowedTimeSeries.MEAN_QUEUE);
+	}
 
-			int combinedCashierQueue = cashierQueue + cashierQueue2;
-			int[] queueLengths = new int[]{grillQueue, veganQueue, normalQueue, combinedCashierQueue, selfServiceQueue, coffeeQueue};
-			utilizationHistory.add(new UtilizationDataPoint(currentTime, queueLengths));
-			
-			lastCollectionTime = currentTime;
+	/**
+	 * Records the mean queue lengths of a time series window in the chart histories
+	 * and appends the total to the live queue chart.
+	 *
+	 * @param windowStart Simulation time at which the window started
+	 * @param stationQueues Mean queue lengths of the 6 chart stations (cashiers combined)
+	 */
+	private void recordWindow(double windowStart, double[] stationQueues) {
+		double totalQueue = 0.0;
+		for (int i = 0; i < stationQueues.length; i++) {
+			totalQueue += stationQueues[i];
+			utilizationHistory.record(windowStart, i, stationQueues[i]);
+		}
+		queueHistory.record(windowStart, 0, totalQueue);
+
+		if (queueChart != null && totalQueueSeries != null) {
+			totalQueueSeries.getData().add(new XYChart.Data<>(windowStart, totalQueue));
+			if (totalQueueSeries.getData().size() > 1000) {
+				totalQueueSeries.getData().remove(0);
+			}
 		}
-		
-		// Store latest queue data for utilization chart (combine cashier queues)
-		int combinedCashierQueue = cashierQueue + cashierQueue2;
-		latestQueueData = new int[]{grillQueue, veganQueue, normalQueue, combinedCashierQueue, selfServiceQueue, coffeeQueue};
 	}
 	
 	/**
 	 * Updates charts with collected data when simulation ends.
-	 * Displays queue length over time and average station utilization.
+	 * Displays queue length over time (mean per history bucket) and average station utilization.
 	 */
 	private void updateChartsAtEnd() {
 		// Update queue chart with all collected data
 		if (queueChart != null && totalQueueSeries != null) {
 			totalQueueSeries.getData().clear();
-			for (ChartDataPoint point : queueHistory) {
-				totalQueueSeries.getData().add(new XYChart.Data<>(point.time, point.queueLength));
+			for (int b = 0; b < queueHistory.getBucketCount(); b++) {
+				if (queueHistory.getCount(b, 0) > 0) {
+					totalQueueSeries.getData().add(new XYChart.Data<>(queueHistory.getBucketStart(b), queueHistory.getMean(b, 0)));
+				}
 			}
 		}
 		
 		// Update utilization chart with average utilization over entire simulation
-		if (utilChart != null && !utilizationHistory.isEmpty()) {
+		if (utilChart != null && utilizationHistory.getBucketCount() > 0) {
 			utilChart.getData().clear();
 			
 			XYChart.Series<String, Number> series = new XYChart.Series<>();
@@ -699,18 +659,8 @@ public class Controller implements IControllerVtoM, IControllerMtoV, Initializab
 			
 			// Calculate average queue length for each station over entire simulation
 			double[] avgQueueLengths = new double[6];
-			for (UtilizationDataPoint point : utilizationHistory) {
-				for (int i = 0; i < 6; i++) {
-					avgQueueLengths[i] += point.queueLengths[i];
-				}
-			}
-			
-			// Calculate averages
-			int dataPoints = utilizationHistory.size();
-			if (dataPoints > 0) {
-				for (int i = 0; i < 6; i++) {
-					avgQueueLengths[i] /= dataPoints;
-				}
+			for (int i = 0; i < 6; i++) {
+				avgQueueLengths[i] = utilizationHistory.getOverallMean(i);
 			}
 			
 			// Add data to chart
@@ -0,0 +1,46 @@
+package controller;
+
+import simu.framework.WindowedTimeSeries;
+import simu.model.MealType;
+import simu.model.PaymentType;
+
+/**
+ * Model-to-view controller that discards all updates.
+ * Used to run the engine without a GUI, e.g. in benchmarks, tests and batch runs.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class HeadlessController implements IControllerMtoV {
+
+	@Override
+	public void showEndTime(double time) {}
+
+	@Override
+	public void visualiseCustomer(MealType mealType) {}
+
+	@Override
+	public void visualiseCustomerToPayment(MealType mealType, PaymentType paymentType, int cashierStationNumber) {}
+
+	@Override
+	public void visualiseCustomerToCoffee(PaymentType paymentType, int cashierStationNumber) {}
+
+	@Override
+	public void visualiseCustomerExitFromCoffee() {}
+
+	@Override
+	public void visualiseCustomerExitFromPayment(PaymentType paymentType, int cashierStationNumber) {}
+
+	@Override
+	public void updateQueueDisplays(int grillQueue, int veganQueue, int normalQueue,
+	                                int cashierQueue, int cashierQueue2, int selfServiceQueue, int coffeeQueue) {}
+
+	@Override
+	public void updateStatistics(double throughput, double avgWaitTime, int peakQueue, double simTime) {}
+
+	@Override
+	public void updateUtilization(double[] utilizationPercentages, double simTime) {}
+
+	@Override
+	public void updateTimeSeries(WindowedTimeSeries timeSeries, int window) {}
+}
@@ -1,5 +1,6 @@
 package controller;
 
+import simu.framework.WindowedTimeSeries;
 import simu.model.MealType;
 import simu.model.PaymentType;
 
@@ -15,4 +16,5 @@ public interface IControllerMtoV {
 		                                int cashierQueue, int cashierQueue2, int selfServiceQueue, int coffeeQueue);
 	public void updateStatistics(double throughput, double avgWaitTime, int peakQueue, double simTime);
 	public void updateUtilization(double[] utilizationPercentages, double simTime);
+	public void updateTimeSeries(WindowedTimeSeries timeSeries, int window);
 }
@@ -8,6 +8,17 @@ public abstract class Generator implements Seedable {
     Generator () { distrib = new Distributions(); }
     Generator (long seed) { distrib = new Distributions(seed); }
     
+    /**
+     * Switches the underlying random generator to antithetic variates; every
+     * distribution then transforms <code>1-U</code> instead of <code>U</code>.
+     * @param antithetic true for antithetic variates
+     * @see RandomGenerator#setAntithetic(boolean)
+     */
+    public void setAntithetic(boolean antithetic) {
+	if (distrib.source instanceof RandomGenerator)
+	    ((RandomGenerator) distrib.source).setAntithetic(antithetic);
+    }
+
     // ----- implements Seedable { -----
     public void setSeed(long seed) { distrib.source.setSeed(seed); }
     public long getSeed() { return distrib.source.getSeed(); }
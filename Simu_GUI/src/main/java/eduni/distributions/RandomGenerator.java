@@ -22,13 +22,16 @@ public class RandomGenerator implements ContinuousGenerator {
     private final long m = 2147483647;
     // The last computed random number
     private long seed;
+    // Whether sample() returns 1-U instead of U (antithetic variates)
+    private boolean antithetic = false;
     
     public RandomGenerator () { reseed(); }
     public RandomGenerator (long seed) { setSeed(seed); }
     
     // ----- implements ContinuousGenerator { -----
     public double sample() { 
-	return ((double)nextLong()) / m;
+	long x = nextLong();
+	return ((double)(antithetic ? m - x : x)) / m;
     }
     // ----- } implements ContinuousGenerator -----
 
@@ -39,6 +42,20 @@ public class RandomGenerator implements ContinuousGenerator {
 	return seed = (a * seed) % m;
     }
     
+    /**
+     * Switches to antithetic variates: with the same seed, <code>sample()</code>
+     * returns <code>1-U</code> for every <code>U</code> it would otherwise return,
+     * so a replication run on antithetic streams is negatively correlated with
+     * the one run on the original streams. <code>nextLong()</code> is unaffected.
+     * @param antithetic true to return <code>1-U</code>
+     */
+    public void setAntithetic(boolean antithetic) { this.antithetic = antithetic; }
+
+    /**
+     * @return true if <code>sample()</code> returns antithetic variates
+     */
+    public boolean isAntithetic() { return antithetic; }
+
     // ----- implements Seedable { -----
     public void setSeed(long seed) { this.seed = seed; }
     public long getSeed() { return seed; }
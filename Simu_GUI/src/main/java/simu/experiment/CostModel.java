@@ -0,0 +1,84 @@
+package simu.experiment;
+
+import simu.stats.RunningStatistics;
+
+/**
+ * Hourly cost of running the cafeteria with a {@link Staffing}: the wages of
+ * the staff on duty and the running cost of the self-service station, plus
+ * penalties for the time customers spend waiting in queues and for customers
+ * turned away by full queues. Only queue waits are charged: time in service
+ * is not, since the pooled server of {@link Staffing} shortens it by the
+ * staff count even at idle stations, where real extra staff would not help.
+ * Both penalties are taken from the mean across replications of the queue
+ * hours and rejections per simulated hour.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class CostModel {
+    /** Wage of one member of staff per hour */
+    private final double staffCostPerHour;
+    /** Running cost of the open self-service station per hour */
+    private final double selfServiceCostPerHour;
+    /** Penalty per hour a customer spends waiting in a queue */
+    private final double waitCostPerHour;
+    /** Penalty per customer turned away */
+    private final double rejectionCost;
+
+    /**
+     * Constructs a cost model.
+     *
+     * @param staffCostPerHour Wage of one member of staff per hour
+     * @param selfServiceCostPerHour Running cost of the open self-service station per hour
+     * @param waitCostPerHour Penalty per hour a customer spends waiting in a queue
+     * @param rejectionCost Penalty per customer turned away
+     */
+    public CostModel(double staffCostPerHour, double selfServiceCostPerHour,
+                     double waitCostPerHour, double rejectionCost) {
+        if (staffCostPerHour < 0 || selfServiceCostPerHour < 0 || waitCostPerHour < 0 || rejectionCost < 0) {
+            throw new IllegalArgumentException("Costs must not be negative");
+        }
+        this.staffCostPerHour = staffCostPerHour;
+        this.selfServiceCostPerHour = selfServiceCostPerHour;
+        this.waitCostPerHour = waitCostPerHour;
+        this.rejectionCost = rejectionCost;
+    }
+
+    /**
+     * Computes the cost of the staff and stations of a staffing.
+     *
+     * @param staffing The staffing
+     * @return Staff wages plus the self-service running cost, per hour
+     */
+    public double getStaffCost(Staffing staffing) {
+        return staffing.getTotalStaff() * staffCostPerHour
+                + (staffing.isSelfService() ? selfServiceCostPerHour : 0.0);
+    }
+
+    /**
+     * Computes the penalty for the service customers received.
+     *
+     * @param summary Replications of the staffing's scenario
+     * @return Wait and rejection penalties, per hour
+     */
+    public double getServiceCost(ReplicationSummary summary) {
+        return mean(summary, "QueueHoursPerHour") * waitCostPerHour
+                + mean(summary, "RejectedPerHour") * rejectionCost;
+    }
+
+    /**
+     * Computes the total cost of a staffing.
+     *
+     * @param staffing The staffing
+     * @param summary Replications of the staffing's scenario
+     * @return Staff and service costs, per hour
+     */
+    public double getCost(Staffing staffing, ReplicationSummary summary) {
+        return getStaffCost(staffing) + getServiceCost(summary);
+    }
+
+    private static double mean(ReplicationSummary summary, String metric) {
+        RunningStatistics statistics = summary.getStatistics(metric);
+        return statistics != null && statistics.getCount() > 0 ? statistics.getMean() : 0.0;
+    }
+}
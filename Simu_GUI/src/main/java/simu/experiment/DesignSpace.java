@@ -0,0 +1,176 @@
+package simu.experiment;
+
+import simu.stats.LatinHypercube;
+import simu.stats.SobolSequence;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The region of parameter space an experiment explores, for space-filling
+ * designs: each varied parameter gets a range, and points of the unit cube
+ * (one coordinate per varied parameter) are mapped to scenarios. Unlike a
+ * {@link ParameterGrid}, whose size is the product of the numbers of levels,
+ * a space-filling design covers all varied parameters with any number of
+ * scenarios, e.g. a few hundred for all eleven parameters.
+ * <p>
+ * A coordinate u maps to {@code lower + u * (upper - lower)} for times and the
+ * arrival rate, to one of the whole numbers from lower to upper with equal
+ * probability for the queue capacity, and to off below 0.5 and on above for
+ * toggles.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class DesignSpace {
+    /** Scenario supplying the parameters that are not varied */
+    private final Scenario base;
+    /** Lower and upper bound of each varied parameter, in the order they were added */
+    private final Map<Parameter, double[]> ranges = new LinkedHashMap<>();
+
+    /**
+     * Constructs a design space around the default scenario.
+     */
+    public DesignSpace() {
+        this(Scenario.defaults());
+    }
+
+    /**
+     * Constructs a design space around a base scenario.
+     *
+     * @param base The scenario supplying the parameters that are not varied
+     */
+    public DesignSpace(Scenario base) {
+        this.base = base;
+    }
+
+    /**
+     * Varies a parameter between two bounds.
+     *
+     * @param parameter The parameter (not a toggle)
+     * @param lower The lower bound, valid for the parameter
+     * @param upper The upper bound, valid for the parameter and at least the lower bound
+     * @return This design space
+     */
+    public DesignSpace addRange(Parameter parameter, double lower, double upper) {
+        if (parameter.isToggle()) {
+            throw new IllegalArgumentException(parameter.getColumnName() + " is a toggle");
+        }
+        if (!parameter.isValid(lower) || !parameter.isValid(upper) || upper < lower) {
+            throw new IllegalArgumentException("Invalid range for " + parameter.getColumnName()
+                    + ": " + lower + " to " + upper);
+        }
+        ranges.put(parameter, new double[]{lower, upper});
+        return this;
+    }
+
+    /**
+     * Varies a toggle between off and on.
+     *
+     * @param parameter A toggle parameter
+     * @return This design space
+     */
+    public DesignSpace addToggle(Parameter parameter) {
+        if (!parameter.isToggle()) {
+            throw new IllegalArgumentException(parameter.getColumnName() + " is not a toggle");
+        }
+        ranges.put(parameter, new double[]{0.0, 1.0});
+        return this;
+    }
+
+    /**
+     * Gets the varied parameters, in the order of the coordinates.
+     *
+     * @return The parameters
+     */
+    public List<Parameter> getParameters() {
+        return new ArrayList<>(ranges.keySet());
+    }
+
+    /**
+     * Gets the number of varied parameters.
+     *
+     * @return The dimension of the unit cube
+     */
+    public int getDimensions() {
+        return ranges.size();
+    }
+
+    /**
+     * Maps a point of the unit cube to a scenario.
+     *
+     * @param point One coordinate in [0, 1] per varied parameter
+     * @return The scenario
+     */
+    public Scenario scenarioAt(double[] point) {
+        if (point.length != ranges.size()) {
+            throw new IllegalArgumentException("Expected " + ranges.size() + " coordinates, got " + point.length);
+        }
+        Scenario scenario = base;
+        int d = 0;
+        for (Map.Entry<Parameter, double[]> entry : ranges.entrySet()) {
+            scenario = scenario.with(entry.getKey(), value(entry.getKey(), entry.getValue(), point[d++]));
+        }
+        return scenario;
+    }
+
+    /**
+     * Maps points of the unit cube to scenarios.
+     *
+     * @param points The points, one row per point
+     * @return One scenario per point
+     */
+    public List<Scenario> scenarios(double[][] points) {
+        List<Scenario> scenarios = new ArrayList<>(points.length);
+        for (double[] point : points) {
+            scenarios.add(scenarioAt(point));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Generates a maximin Latin hypercube design.
+     *
+     * @param n Number of scenarios
+     * @param seed Seed of the design
+     * @return The scenarios, e.g. for a {@link SweepRunner}
+     */
+    public List<Scenario> latinHypercube(int n, long seed) {
+        LatinHypercube design = new LatinHypercube(requireDimensions());
+        design.setSeed(seed);
+        return scenarios(design.design(n));
+    }
+
+    /**
+     * Generates a design of the first n points of the Sobol sequence.
+     *
+     * @param n Number of scenarios, best a power of two
+     * @return The scenarios, e.g. for a {@link SweepRunner}
+     */
+    public List<Scenario> sobol(int n) {
+        return scenarios(new SobolSequence(requireDimensions()).next(n));
+    }
+
+    private int requireDimensions() {
+        if (ranges.isEmpty()) {
+            throw new IllegalStateException("No parameters are varied");
+        }
+        return ranges.size();
+    }
+
+    /**
+     * Maps a coordinate to a value of a parameter.
+     */
+    private static double value(Parameter parameter, double[] range, double u) {
+        if (parameter.isToggle()) {
+            return u < 0.5 ? 0.0 : 1.0;
+        }
+        if (parameter == Parameter.MAX_QUEUE_CAPACITY) {
+            double count = range[1] - range[0] + 1;
+            return Math.min(range[1], range[0] + Math.floor(u * count));
+        }
+        return range[0] + u * (range[1] - range[0]);
+    }
+}
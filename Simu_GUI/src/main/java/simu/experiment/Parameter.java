@@ -0,0 +1,87 @@
+package simu.experiment;
+
+/**
+ * The parameters of a {@link simu.model.MyEngine} scenario, in constructor order.
+ * Every value is held as a double: toggles are 0 (off) or 1 (on), and the queue
+ * capacity is a whole number with {@link Integer#MAX_VALUE} for unlimited.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public enum Parameter {
+    /** Mean service time of the grill station in seconds */
+    GRILL_TIME("GrillTime", 45.0),
+    /** Mean service time of the vegan station in seconds */
+    VEGAN_TIME("VeganTime", 40.0),
+    /** Mean service time of the normal station in seconds */
+    NORMAL_TIME("NormalTime", 30.0),
+    /** Mean service time of the cashiers in seconds */
+    CASHIER_TIME("CashierTime", 20.0),
+    /** Mean service time of the self-service station in seconds */
+    SELF_SERVICE_TIME("SelfServiceTime", 12.0),
+    /** Mean service time of the coffee station in seconds */
+    COFFEE_TIME("CoffeeTime", 10.0),
+    /** Whether service times vary (normal distribution) instead of being fixed */
+    VARIABILITY_ENABLED("Variability", 0.0),
+    /** Whether the self-service station is open */
+    SELF_SERVICE_ENABLED("SelfService", 0.0),
+    /** Whether the coffee station is open */
+    COFFEE_ENABLED("Coffee", 0.0),
+    /** Arrival rate in students per hour */
+    ARRIVAL_RATE("ArrivalRate", 120.0),
+    /** Maximum queue length per station */
+    MAX_QUEUE_CAPACITY("MaxQueueCapacity", Integer.MAX_VALUE);
+
+    /** Column name in result files */
+    private final String columnName;
+    /** Value used when a sweep does not vary the parameter (the GUI's default) */
+    private final double defaultValue;
+
+    Parameter(String columnName, double defaultValue) {
+        this.columnName = columnName;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Gets the column name of the parameter in result files.
+     *
+     * @return The column name, e.g. "ArrivalRate"
+     */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * Gets the value the parameter has unless a sweep varies it.
+     *
+     * @return The default value
+     */
+    public double getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Checks whether the parameter is an on/off toggle.
+     *
+     * @return true for the variability, self-service and coffee toggles
+     */
+    public boolean isToggle() {
+        return this == VARIABILITY_ENABLED || this == SELF_SERVICE_ENABLED || this == COFFEE_ENABLED;
+    }
+
+    /**
+     * Checks whether a value is valid for the parameter.
+     *
+     * @param value The value
+     * @return true if the value can be used in a scenario
+     */
+    public boolean isValid(double value) {
+        if (isToggle()) {
+            return value == 0.0 || value == 1.0;
+        }
+        if (this == MAX_QUEUE_CAPACITY) {
+            return value >= 1 && value <= Integer.MAX_VALUE && value == Math.rint(value);
+        }
+        return value > 0 && !Double.isInfinite(value);
+    }
+}
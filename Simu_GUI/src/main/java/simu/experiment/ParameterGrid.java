@@ -0,0 +1,303 @@
+package simu.experiment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expands parameter ranges into the scenarios of an experimental design.
+ * Each varied parameter (a factor) gets a list of levels; parameters that are
+ * not varied keep their value in the base scenario.
+ * <p>
+ * The {@linkplain #fullFactorial() full factorial} design contains every
+ * combination of levels. A {@linkplain #fractionalFactorial(int) fractional
+ * factorial} design of two-level factors runs only a {@code 1/2^p} fraction:
+ * the first {@code k - p} factors form a full factorial in -1/+1 coding and
+ * each remaining factor is set to the product of the columns of a group of
+ * them (its generator), so main effects stay estimable from far fewer runs
+ * at the price of aliasing them with interactions. The generators are chosen
+ * for minimum aberration: highest resolution first, then the fewest aliases
+ * among the shortest words, e.g. E=ABC, F=BCD, G=ACD for {@code 2^(7-3)},
+ * which leaves main effects clear of two-factor interactions.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class ParameterGrid {
+    /** Scenario supplying the parameters that are not varied */
+    private final Scenario base;
+    /** Levels of each factor, in the order the factors were added */
+    private final Map<Parameter, double[]> factors = new LinkedHashMap<>();
+
+    /**
+     * Constructs a grid around the default scenario.
+     */
+    public ParameterGrid() {
+        this(Scenario.defaults());
+    }
+
+    /**
+     * Constructs a grid around a base scenario.
+     *
+     * @param base The scenario supplying the parameters that are not varied
+     */
+    public ParameterGrid(Scenario base) {
+        this.base = base;
+    }
+
+    /**
+     * Varies a parameter over the given levels.
+     *
+     * @param parameter The parameter
+     * @param levels Its levels, at least one, each valid for the parameter
+     * @return This grid
+     */
+    public ParameterGrid addLevels(Parameter parameter, double... levels) {
+        if (levels.length < 1) {
+            throw new IllegalArgumentException("No levels for " + parameter.getColumnName());
+        }
+        for (double level : levels) {
+            if (!parameter.isValid(level)) {
+                throw new IllegalArgumentException("Invalid level for " + parameter.getColumnName() + ": " + level);
+            }
+        }
+        factors.put(parameter, levels.clone());
+        return this;
+    }
+
+    /**
+     * Varies a parameter over evenly spaced levels from {@code from} to {@code to}.
+     *
+     * @param parameter The parameter
+     * @param from The first level
+     * @param to The last level
+     * @param levels Number of levels, at least 2
+     * @return This grid
+     */
+    public ParameterGrid addRange(Parameter parameter, double from, double to, int levels) {
+        if (levels < 2) {
+            throw new IllegalArgumentException("A range needs at least 2 levels");
+        }
+        double[] values = new double[levels];
+        for (int i = 0; i < levels; i++) {
+            values[i] = i == levels - 1 ? to : from + (to - from) * i / (levels - 1);
+            if (parameter == Parameter.MAX_QUEUE_CAPACITY) {
+                values[i] = Math.rint(values[i]);
+            }
+        }
+        return addLevels(parameter, values);
+    }
+
+    /**
+     * Varies a toggle between off and on.
+     *
+     * @param parameter A toggle parameter
+     * @return This grid
+     */
+    public ParameterGrid addToggle(Parameter parameter) {
+        if (!parameter.isToggle()) {
+            throw new IllegalArgumentException(parameter.getColumnName() + " is not a toggle");
+        }
+        return addLevels(parameter, 0.0, 1.0);
+    }
+
+    /**
+     * Gets the factors in the order they were added.
+     *
+     * @return The varied parameters
+     */
+    public List<Parameter> getFactors() {
+        return new ArrayList<>(factors.keySet());
+    }
+
+    /**
+     * Gets the number of scenarios of the full factorial design.
+     *
+     * @return The product of the numbers of levels
+     */
+    public long getFullFactorialSize() {
+        long size = 1;
+        for (double[] levels : factors.values()) {
+            size = Math.multiplyExact(size, levels.length);
+        }
+        return size;
+    }
+
+    /**
+     * Expands the full factorial design. The first factor changes slowest and the
+     * last one fastest.
+     *
+     * @return Every combination of levels
+     */
+    public List<Scenario> fullFactorial() {
+        long size = getFullFactorialSize();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many scenarios: " + size);
+        }
+        List<Parameter> parameters = getFactors();
+        List<Scenario> scenarios = new ArrayList<>((int) size);
+        for (int index = 0; index < size; index++) {
+            Scenario scenario = base;
+            int rest = index;
+            for (int f = parameters.size() - 1; f >= 0; f--) {
+                double[] levels = factors.get(parameters.get(f));
+                scenario = scenario.with(parameters.get(f), levels[rest % levels.length]);
+                rest /= levels.length;
+            }
+            scenarios.add(scenario);
+        }
+        return scenarios;
+    }
+
+    /**
+     * Expands a {@code 2^(k-p)} fractional factorial design of the k factors, which
+     * must all have two levels (the first level is coded -1, the second +1). The
+     * last p factors are generated from the first {@code k - p}: each gets the
+     * product of a different group of at least two of them, chosen for minimum
+     * aberration (see {@link #generators(int, int)}).
+     *
+     * @param p Number of generated factors; 0 gives the full factorial
+     * @return The {@code 2^(k-p)} scenarios
+     * @throws IllegalArgumentException if a factor does not have two levels, or
+     *         p is too large for the number of factors
+     */
+    public List<Scenario> fractionalFactorial(int p) {
+        List<Parameter> parameters = getFactors();
+        int k = parameters.size();
+        for (Parameter parameter : parameters) {
+            if (factors.get(parameter).length != 2) {
+                throw new IllegalArgumentException("Fractional designs need two-level factors: "
+                        + parameter.getColumnName());
+            }
+        }
+        int baseFactors = k - p;
+        if (p < 0 || baseFactors < 0 || baseFactors > 30) {
+            throw new IllegalArgumentException("Cannot generate " + p + " of " + k + " factors");
+        }
+        int[] generators = generators(baseFactors, p);
+
+        List<Scenario> scenarios = new ArrayList<>(1 << baseFactors);
+        for (int run = 0; run < 1 << baseFactors; run++) {
+            Scenario scenario = base;
+            for (int f = 0; f < k; f++) {
+                // Base factor b is +1 where bit (baseFactors - 1 - b) of the run is set, so the first changes
+                // slowest; the product of the columns is +1 when an even number of them are -1
+                int columns = f < baseFactors ? 1 << f : generators[f - baseFactors];
+                boolean high = true;
+                for (int b = 0; b < baseFactors; b++) {
+                    if ((columns & (1 << b)) != 0 && (run & (1 << (baseFactors - 1 - b))) == 0) {
+                        high = !high;
+                    }
+                }
+                scenario = scenario.with(parameters.get(f), factors.get(parameters.get(f))[high ? 1 : 0]);
+            }
+            scenarios.add(scenario);
+        }
+        return scenarios;
+    }
+
+    /**
+     * Chooses the generators of the added factors: bit masks over the base factors
+     * with at least two bits, forming a minimum-aberration design. Each set of
+     * generators defines the words of the defining relation, the products of any
+     * of the generator words {@code added factor x its group}; the resolution is
+     * the length of the shortest word, and aberration counts the words of each
+     * length. Sets are searched depth first in mask order, comparing the counts of
+     * words by length lexicographically (fewer short words is better); adding a
+     * generator only adds words, so a partial set already worse than the best
+     * complete one is pruned with its extensions.
+     *
+     * @param baseFactors Number of base factors
+     * @param p Number of generators
+     * @return The generator masks, bit b standing for base factor b
+     */
+    static int[] generators(int baseFactors, int p) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int mask = 1; mask < 1 << baseFactors; mask++) {
+            if (Integer.bitCount(mask) >= 2) {
+                candidates.add(mask);
+            }
+        }
+        if (candidates.size() < p) {
+            throw new IllegalArgumentException("Cannot generate " + p + " factors from " + baseFactors);
+        }
+        GeneratorSearch search = new GeneratorSearch(candidates, p);
+        search.extend(0, 0, new int[]{0}, new int[]{0}, new int[baseFactors + p + 1]);
+        return search.best;
+    }
+
+    /**
+     * Depth-first search for the minimum-aberration generators.
+     */
+    private static final class GeneratorSearch {
+        /** Masks that may serve as generators, ascending */
+        private final List<Integer> candidates;
+        /** Number of generators */
+        private final int p;
+        /** Generators of the set being extended */
+        private final int[] chosen;
+        /** Best complete set so far */
+        private int[] best;
+        /** Number of words of each length of the best set */
+        private int[] bestPattern;
+
+        GeneratorSearch(List<Integer> candidates, int p) {
+            this.candidates = candidates;
+            this.p = p;
+            this.chosen = new int[p];
+        }
+
+        /**
+         * Tries every candidate from index {@code from} as the next generator.
+         *
+         * @param depth Number of generators chosen so far
+         * @param from Index of the first candidate to try
+         * @param masks Base-factor masks of the words of the defining relation so far, identity included
+         * @param added Number of added factors in each of those words
+         * @param pattern Number of words of each length
+         */
+        void extend(int depth, int from, int[] masks, int[] added, int[] pattern) {
+            if (bestPattern != null && compare(pattern, bestPattern) > 0) {
+                return;
+            }
+            if (depth == p) {
+                if (bestPattern == null || compare(pattern, bestPattern) < 0) {
+                    best = chosen.clone();
+                    bestPattern = pattern.clone();
+                }
+                return;
+            }
+            for (int c = from; c <= candidates.size() - (p - depth); c++) {
+                int generator = candidates.get(c);
+                int[] nextMasks = new int[masks.length * 2];
+                int[] nextAdded = new int[added.length * 2];
+                int[] nextPattern = pattern.clone();
+                for (int w = 0; w < masks.length; w++) {
+                    nextMasks[w] = masks[w];
+                    nextAdded[w] = added[w];
+                    // Multiplying by the new word adds its added factor, which no earlier word contains
+                    int mask = masks[w] ^ generator;
+                    nextMasks[masks.length + w] = mask;
+                    nextAdded[masks.length + w] = added[w] + 1;
+                    nextPattern[Integer.bitCount(mask) + added[w] + 1]++;
+                }
+                chosen[depth] = generator;
+                extend(depth + 1, c + 1, nextMasks, nextAdded, nextPattern);
+            }
+        }
+
+        /**
+         * Compares word-length patterns: negative if {@code a} has fewer words of the shortest
+         * length where they differ.
+         */
+        private static int compare(int[] a, int[] b) {
+            for (int length = 0; length < a.length; length++) {
+                if (a[length] != b[length]) {
+                    return Integer.compare(a[length], b[length]);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package simu.experiment;
+
+import simu.framework.Clock;
+import simu.framework.RandomStreams;
+import simu.model.Customer;
+import simu.model.MyEngine;
+import simu.model.SimulationStatistics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs independent replications of a simulation in parallel and combines
+ * their results. Each replication runs to completion on a worker thread of a
+ * fork-join pool, with its own clock; the per-replication statistics are
+ * combined by a tree reduction, merging the summaries of two halves of the
+ * replication range as soon as both are done, so no single thread merges
+ * every result.
+ * <p>
+ * Replication {@code r} draws from {@code streams.forReplication(r)} of the
+ * runner's base streams, so two runners with the same base seed use common
+ * random numbers. In antithetic mode, replications {@code 2k} and {@code 2k+1}
+ * both use the streams of index {@code k}, the second one with antithetic
+ * variates, and every metric is averaged over the pair before it enters the
+ * summary.
+ * <p>
+ * An optional {@link Listener} receives the partial summary each time a
+ * replication finishes, so that a dashboard can show the confidence
+ * intervals converging while the remaining replications run.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class ReplicationRunner {
+
+    /**
+     * Creates the engine of one replication.
+     */
+    public interface EngineFactory {
+        /**
+         * Creates a new engine, called on the thread that will run it.
+         *
+         * @param replication The replication index, from 0
+         * @param streams The random streams the engine must draw from
+         * @return The engine
+         */
+        MyEngine create(int replication, RandomStreams streams);
+    }
+
+    /**
+     * Receives partial results while replications are running.
+     */
+    public interface Listener {
+        /**
+         * Called on a worker thread after a replication has finished; calls are
+         * not concurrent. In antithetic mode the partial summary only changes
+         * once both replications of a pair have finished.
+         *
+         * @param replication The index of the replication that finished
+         * @param statistics The statistics of that replication
+         * @param partial A copy of the summary of all replications finished so far
+         */
+        void replicationCompleted(int replication, SimulationStatistics statistics, ReplicationSummary partial);
+    }
+
+    /** Creates the engine of each replication */
+    private final EngineFactory factory;
+    /** Simulation time of each replication */
+    private final double simulationTime;
+    /** Number of worker threads */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /** Base streams the streams of each replication are derived from */
+    private RandomStreams randomStreams = RandomStreams.defaultStreams();
+    /** Whether replications run in antithetic pairs */
+    private boolean antithetic = false;
+    /** Receiver of partial results, or null */
+    private Listener listener;
+    /** Summary of the replications finished so far, when a listener is set */
+    private ReplicationSummary progress;
+
+    /**
+     * Constructs a runner.
+     *
+     * @param factory Creates the engine of each replication
+     * @param simulationTime Simulation time of each replication in seconds
+     */
+    public ReplicationRunner(EngineFactory factory, double simulationTime) {
+        this.factory = factory;
+        this.simulationTime = simulationTime;
+    }
+
+    /**
+     * Sets the number of replications that run at the same time.
+     *
+     * @param parallelism The number of worker threads, at least 1 (default: number of processors)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the base streams the streams of each replication are derived from.
+     *
+     * @param randomStreams The base streams (default: {@link RandomStreams#defaultStreams()})
+     */
+    public void setRandomStreams(RandomStreams randomStreams) {
+        this.randomStreams = randomStreams;
+    }
+
+    /**
+     * Turns antithetic pairs of replications on or off.
+     *
+     * @param antithetic true to run replications in antithetic pairs
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    /**
+     * Sets the receiver of partial results.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the replications and waits for all of them to finish.
+     *
+     * @param replications The number of replications (even in antithetic mode)
+     * @return The combined results
+     */
+    public ReplicationSummary run(int replications) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("replications must be at least 1");
+        }
+        if (antithetic && replications % 2 != 0) {
+            throw new IllegalArgumentException("Antithetic replications come in pairs: " + replications);
+        }
+        progress = listener != null ? new ReplicationSummary() : null;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ReplicationTask(0, antithetic ? replications / 2 : replications));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs a single replication on the current thread.
+     *
+     * @param factory Creates the engine
+     * @param replication The replication index
+     * @param streams The random streams of the replication
+     * @param simulationTime Simulation time in seconds
+     * @return The statistics of the replication at its end
+     */
+    public static SimulationStatistics runReplication(EngineFactory factory, int replication,
+                                                      RandomStreams streams, double simulationTime) {
+        // The engine and its service points read the clock of the thread they are created on
+        Clock.newInstance();
+        Customer.reset();
+        MyEngine engine = factory.create(replication, streams);
+        engine.setResultsFile(null);
+        engine.setSimulationTime(simulationTime);
+        engine.run();
+        return engine.getStatistics();
+    }
+
+    /**
+     * Runs replication {@code replication} of this runner on the current thread.
+     */
+    private SimulationStatistics runReplication(int replication) {
+        RandomStreams streams = antithetic ? randomStreams.forReplication(replication / 2)
+                : randomStreams.forReplication(replication);
+        if (antithetic && replication % 2 == 1) {
+            streams = streams.antithetic();
+        }
+        return runReplication(factory, replication, streams, simulationTime);
+    }
+
+    /**
+     * Adds a finished replication, or antithetic pair, to the partial summary and
+     * passes it to the listener.
+     */
+    private void report(int replication, SimulationStatistics statistics, SimulationStatistics pairStatistics) {
+        synchronized (progress) {
+            if (pairStatistics == null) {
+                progress.add(statistics);
+                listener.replicationCompleted(replication, statistics, progress.copy());
+            } else {
+                progress.addPair(statistics, pairStatistics);
+                ReplicationSummary partial = progress.copy();
+                listener.replicationCompleted(replication, statistics, partial);
+                listener.replicationCompleted(replication + 1, pairStatistics, partial);
+            }
+        }
+    }
+
+    /**
+     * Runs a range of replications, or of antithetic pairs: a single one directly
+     * (the two runs of a pair in parallel), otherwise both halves in parallel,
+     * merging their summaries.
+     */
+    private class ReplicationTask extends RecursiveTask<ReplicationSummary> {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        ReplicationTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReplicationSummary compute() {
+            if (to - from == 1 && antithetic) {
+                int first = 2 * from;
+                RecursiveTask<SimulationStatistics> second = new RecursiveTask<>() {
+                    @Override
+                    protected SimulationStatistics compute() {
+                        return runReplication(first + 1);
+                    }
+                };
+                second.fork();
+                SimulationStatistics statistics = runReplication(first);
+                SimulationStatistics pairStatistics = second.join();
+                if (progress != null) {
+                    report(first, statistics, pairStatistics);
+                }
+                ReplicationSummary summary = new ReplicationSummary();
+                summary.addPair(statistics, pairStatistics);
+                return summary;
+            }
+            if (to - from == 1) {
+                SimulationStatistics statistics = runReplication(from);
+                if (progress != null) {
+                    report(from, statistics, null);
+                }
+                ReplicationSummary summary = new ReplicationSummary();
+                summary.add(statistics);
+                return summary;
+            }
+            int middle = (from + to) >>> 1;
+            ReplicationTask right = new ReplicationTask(middle, to);
+            right.fork();
+            ReplicationSummary summary = new ReplicationTask(from, middle).compute();
+            // Merging the right half into the left keeps the per-replication values in replication order
+            summary.merge(right.join());
+            return summary;
+        }
+    }
+}
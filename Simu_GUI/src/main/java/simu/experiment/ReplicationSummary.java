@@ -0,0 +1,524 @@
+package simu.experiment;
+
+import simu.framework.jfr.ExportEvent;
+import simu.model.SimulationStatistics;
+import simu.model.StationStatistics;
+import simu.stats.Bootstrap;
+import simu.stats.ConfidenceInterval;
+import simu.stats.ControlVariates;
+import simu.stats.LogLinearHistogram;
+import simu.stats.OccupancyDistribution;
+import simu.stats.QuantileSketch;
+import simu.stats.RunningStatistics;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Results of independent replications combined. Every metric of
+ * {@link SimulationStatistics} and of each station is kept as a
+ * {@link RunningStatistics} over the replications (one observation per
+ * replication), from which Student-t confidence intervals follow; in addition
+ * the time-in-system sketch and the per-station wait histograms and queue
+ * occupancy of all replications are pooled. The per-replication values are
+ * kept as well, for bootstrap intervals of metrics that are far from normal.
+ * <p>
+ * The {@linkplain #CONTROLLED_METRICS average wait and throughput} also get a
+ * control-variate estimate: the observed mean inter-arrival time and mean
+ * service time of each station are compared with the means of their
+ * distributions, and the part of the metric's variation explained by these
+ * input deviations is regressed out.
+ * <p>
+ * Summaries merge associatively, so partial summaries computed on different
+ * threads can be combined in any grouping, e.g. in a tree reduction.
+ * <p>
+ * System metrics are named like the columns of the results CSV ({@code AvgWait},
+ * {@code Throughput}, ...); station metrics are prefixed with the station index,
+ * e.g. {@code Station3.AvgWait}.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class ReplicationSummary {
+    /** Metrics with a control-variate estimate */
+    public static final String[] CONTROLLED_METRICS = {"AvgWait", "Throughput"};
+
+    /** Metric name to its statistics over the replications, in insertion order */
+    private final Map<String, RunningStatistics> metrics = new LinkedHashMap<>();
+    /** Metric name to its value in each replication */
+    private final Map<String, Values> values = new LinkedHashMap<>();
+    /** Number of replications added */
+    private int replications = 0;
+    /** Pooled time in system of all replications */
+    private final QuantileSketch timeInSystemQuantiles = new QuantileSketch();
+    /** Pooled wait time histogram per station, or null before the first replication */
+    private LogLinearHistogram[] waitHistograms;
+    /** Pooled queue occupancy per station, or null before the first replication */
+    private OccupancyDistribution[] queueOccupancy;
+    /** Station names, or null before the first replication */
+    private String[] stationNames;
+    /** Control-variate estimator per controlled metric, or null before the first replication */
+    private Map<String, ControlVariates> controlVariates;
+
+    /**
+     * Adds the results of one replication.
+     *
+     * @param stats The statistics of the replication at its end
+     */
+    public void add(SimulationStatistics stats) {
+        replications++;
+        Map<String, Double> metrics = metricValues(stats);
+        for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+            observe(metric.getKey(), metric.getValue());
+        }
+        control(metrics, inputDeviations(stats));
+        pool(stats);
+    }
+
+    /**
+     * Adds the results of an antithetic pair of replications as a single observation:
+     * the value of every metric is the average over the pair. The pair average has a
+     * lower variance than one replication of twice the length when the two runs are
+     * negatively correlated, which gives narrower intervals for the same work.
+     *
+     * @param first The statistics of the replication on the original streams
+     * @param second The statistics of the replication on the antithetic streams
+     */
+    public void addPair(SimulationStatistics first, SimulationStatistics second) {
+        replications += 2;
+        Map<String, Double> secondValues = metricValues(second);
+        Map<String, Double> averages = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> metric : metricValues(first).entrySet()) {
+            Double other = secondValues.get(metric.getKey());
+            double average = other != null ? (metric.getValue() + other) / 2 : Double.NaN;
+            observe(metric.getKey(), average);
+            averages.put(metric.getKey(), average);
+        }
+        double[] deviations = inputDeviations(first);
+        double[] secondDeviations = inputDeviations(second);
+        for (int i = 0; i < deviations.length; i++) {
+            deviations[i] = (deviations[i] + secondDeviations[i]) / 2;
+        }
+        control(averages, deviations);
+        pool(first);
+        pool(second);
+    }
+
+    /**
+     * Merges the replications of another summary into this one.
+     *
+     * @param other The summary to merge; not modified
+     */
+    public void merge(ReplicationSummary other) {
+        replications += other.replications;
+        for (Map.Entry<String, RunningStatistics> entry : other.metrics.entrySet()) {
+            metrics.computeIfAbsent(entry.getKey(), k -> new RunningStatistics()).merge(entry.getValue());
+        }
+        for (Map.Entry<String, Values> entry : other.values.entrySet()) {
+            values.computeIfAbsent(entry.getKey(), k -> new Values()).addAll(entry.getValue());
+        }
+        timeInSystemQuantiles.merge(other.timeInSystemQuantiles);
+        if (other.stationNames != null) {
+            ensureStations(other.stationNames.length);
+            for (int i = 0; i < other.stationNames.length; i++) {
+                stationNames[i] = other.stationNames[i];
+                waitHistograms[i].merge(other.waitHistograms[i]);
+                queueOccupancy[i].merge(other.queueOccupancy[i]);
+            }
+        }
+        if (other.controlVariates != null) {
+            ensureControlVariates(other.stationNames.length + 1);
+            for (String name : CONTROLLED_METRICS) {
+                controlVariates.get(name).merge(other.controlVariates.get(name));
+            }
+        }
+    }
+
+    /**
+     * Creates an independent copy of this summary.
+     *
+     * @return A new summary with the same replications
+     */
+    public ReplicationSummary copy() {
+        ReplicationSummary copy = new ReplicationSummary();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Gets the number of replications combined in this summary. For antithetic
+     * pairs, the statistics of each metric have one observation per pair.
+     *
+     * @return The replication count
+     */
+    public int getReplicationCount() {
+        return replications;
+    }
+
+    /**
+     * Gets the names of all metrics, system metrics first.
+     *
+     * @return The metric names
+     */
+    public List<String> getMetricNames() {
+        return new ArrayList<>(metrics.keySet());
+    }
+
+    /**
+     * Gets the statistics of a metric over the replications.
+     *
+     * @param name The metric name
+     * @return The statistics (one observation per replication), or null for an unknown metric
+     */
+    public RunningStatistics getStatistics(String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * Computes the Student-t confidence interval of a metric across replications.
+     *
+     * @param name The metric name
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval, or null for an unknown metric
+     */
+    public ConfidenceInterval getInterval(String name, double confidence) {
+        RunningStatistics statistics = metrics.get(name);
+        return statistics != null ? ConfidenceInterval.of(statistics, confidence) : null;
+    }
+
+    /**
+     * Gets the value of a metric in each replication, skipping replications where it was undefined.
+     *
+     * @param name The metric name
+     * @return A new array of the values, empty for an unknown metric
+     */
+    public double[] getValues(String name) {
+        Values metric = values.get(name);
+        return metric != null ? metric.toArray() : new double[0];
+    }
+
+    /**
+     * Computes a bootstrap confidence interval of a metric across replications, for
+     * skewed metrics such as the peak queue length or a high wait percentile.
+     *
+     * @param name The metric name
+     * @param confidence Confidence level, e.g. 0.95
+     * @param bootstrap The bootstrap, with the statistic of the per-replication values
+     * @param method Percentile or BCa
+     * @return The interval, or null if the metric has fewer than two values
+     */
+    public ConfidenceInterval getBootstrapInterval(String name, double confidence,
+                                                   Bootstrap bootstrap, Bootstrap.Method method) {
+        double[] data = getValues(name);
+        return data.length >= 2 ? bootstrap.interval(data, confidence, method) : null;
+    }
+
+    /**
+     * Computes the control-variate confidence interval of one of the
+     * {@link #CONTROLLED_METRICS}: the mean across replications, corrected for the
+     * deviations of the observed arrival and service means from their known values.
+     *
+     * @param name The metric name, e.g. "AvgWait"
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval, or null for a metric without controls
+     */
+    public ConfidenceInterval getControlledInterval(String name, double confidence) {
+        ControlVariates estimator = controlVariates != null ? controlVariates.get(name) : null;
+        return estimator != null ? estimator.getInterval(confidence) : null;
+    }
+
+    /**
+     * Gets the variance reduction the control variates achieve for one of the
+     * {@link #CONTROLLED_METRICS}.
+     *
+     * @param name The metric name
+     * @return One minus the ratio of the controlled to the plain variance of the mean
+     *         (e.g. 0.6 for 60% less variance); NaN if unknown
+     */
+    public double getVarianceReduction(String name) {
+        ControlVariates estimator = controlVariates != null ? controlVariates.get(name) : null;
+        return estimator != null ? estimator.getVarianceReduction() : Double.NaN;
+    }
+
+    /**
+     * Gets the time in system of the customers of all replications together.
+     *
+     * @return The pooled sketch
+     */
+    public QuantileSketch getTimeInSystemQuantiles() {
+        return timeInSystemQuantiles;
+    }
+
+    /**
+     * Gets the number of stations.
+     *
+     * @return The station count, 0 before the first replication
+     */
+    public int getStationCount() {
+        return stationNames != null ? stationNames.length : 0;
+    }
+
+    /**
+     * Gets the name of a station.
+     *
+     * @param station The station index
+     * @return The station name
+     */
+    public String getStationName(int station) {
+        return stationNames[station];
+    }
+
+    /**
+     * Gets the wait times at a station in all replications together.
+     *
+     * @param station The station index
+     * @return The pooled histogram
+     */
+    public LogLinearHistogram getWaitHistogram(int station) {
+        return waitHistograms[station];
+    }
+
+    /**
+     * Gets the queue length distribution of a station over all replications together.
+     *
+     * @param station The station index
+     * @return The pooled distribution
+     */
+    public OccupancyDistribution getQueueOccupancy(int station) {
+        return queueOccupancy[station];
+    }
+
+    /**
+     * Exports the confidence interval of every metric to a CSV file, one row per metric.
+     *
+     * @param file The file path where the CSV will be written
+     * @param confidence Confidence level, e.g. 0.95
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public void exportCsv(String file, double confidence) throws IOException {
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("Metric,Station,Replications,Mean,StdDev,HalfWidth,Lower,Upper,Confidence,"
+                    + "ControlledMean,ControlledHalfWidth,VarianceReduction");
+            for (Map.Entry<String, RunningStatistics> entry : metrics.entrySet()) {
+                String name = entry.getKey();
+                RunningStatistics statistics = entry.getValue();
+                ConfidenceInterval interval = ConfidenceInterval.of(statistics, confidence);
+                writer.printf(Locale.ROOT, "%s,%s,%d,%.6f,%.6f,%.6f,%.6f,%.6f,%.3f",
+                        name,
+                        stationName(name),
+                        statistics.getCount(),
+                        interval.getMean(),
+                        statistics.getStandardDeviation(),
+                        interval.getHalfWidth(),
+                        interval.getLower(),
+                        interval.getUpper(),
+                        confidence);
+                ConfidenceInterval controlled = getControlledInterval(name, confidence);
+                if (controlled != null) {
+                    writer.printf(Locale.ROOT, ",%.6f,%.6f,%.4f%n",
+                            controlled.getMean(), controlled.getHalfWidth(), getVarianceReduction(name));
+                } else {
+                    writer.println(",,,");
+                }
+            }
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Gets the station name for a station metric.
+     */
+    private String stationName(String metric) {
+        if (!metric.startsWith("Station")) {
+            return "";
+        }
+        int dot = metric.indexOf('.');
+        return stationNames[Integer.parseInt(metric.substring("Station".length(), dot))];
+    }
+
+    /**
+     * Adds one replication's value of a metric, skipping values that are undefined in that
+     * replication (e.g. the wait at a disabled station).
+     */
+    private void observe(String name, double value) {
+        RunningStatistics statistics = metrics.computeIfAbsent(name, k -> new RunningStatistics());
+        Values metric = values.computeIfAbsent(name, k -> new Values());
+        if (!Double.isNaN(value)) {
+            statistics.add(value);
+            metric.add(value);
+        }
+    }
+
+    /**
+     * Adds one replication's (or pair's) controlled metrics and input deviations to the
+     * control-variate estimators, skipping metrics that are undefined.
+     */
+    private void control(Map<String, Double> metrics, double[] deviations) {
+        ensureControlVariates(deviations.length);
+        for (String name : CONTROLLED_METRICS) {
+            double response = metrics.get(name);
+            if (!Double.isNaN(response)) {
+                controlVariates.get(name).add(response, deviations);
+            }
+        }
+    }
+
+    /**
+     * Gets the deviations of the observed input means of one replication from their known
+     * means: the inter-arrival time first, then the service time of each station. Inputs that
+     * were not sampled (e.g. at a disabled station) or have no known mean count as 0, so they
+     * carry no information and drop out of the fit.
+     */
+    private static double[] inputDeviations(SimulationStatistics stats) {
+        StationStatistics[] stations = stats.getStationStatistics();
+        double[] deviations = new double[stations.length + 1];
+        deviations[0] = deviation(stats.getObservedInterArrivalTime(), stats.getExpectedInterArrivalTime());
+        for (int i = 0; i < stations.length; i++) {
+            deviations[i + 1] = deviation(meanOf(stations[i].getServiceTime()), stations[i].getExpectedServiceTime());
+        }
+        return deviations;
+    }
+
+    private static double deviation(double observed, double expected) {
+        double deviation = observed - expected;
+        return Double.isNaN(deviation) ? 0.0 : deviation;
+    }
+
+    /**
+     * Creates the control-variate estimators on first use.
+     */
+    private void ensureControlVariates(int controls) {
+        if (controlVariates != null) {
+            return;
+        }
+        controlVariates = new LinkedHashMap<>();
+        for (String name : CONTROLLED_METRICS) {
+            controlVariates.put(name, new ControlVariates(controls));
+        }
+    }
+
+    /**
+     * Extracts the value of every metric of one replication, in metric order.
+     */
+    private static Map<String, Double> metricValues(SimulationStatistics stats) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        QuantileSketch tis = stats.getTimeInSystemQuantiles();
+        values.put("Customers", (double) stats.getCustomersServed());
+        values.put("Rejected", (double) stats.getCustomersRejected());
+        values.put("Throughput", stats.getThroughput());
+        values.put("AvgWait", stats.getAverageWait());
+        values.put("PeakQueue", (double) stats.getPeakQueueLength());
+        values.put("TimeInSystemStdDev", stats.getTimeInSystemStatistics().getStandardDeviation());
+        values.put("TimeInSystemP50", tis.getQuantile(0.5));
+        values.put("TimeInSystemP95", tis.getQuantile(0.95));
+        values.put("AvgQueueLength", stats.getQueueLengthStatistics().getMean());
+        values.put("AvgStationWait", meanOf(stats.getWaitStatistics()));
+
+        StationStatistics[] stations = stats.getStationStatistics();
+        // Rates over the simulated time the statistics were collected, so they exist without served customers
+        double hours = (stats.getCurrentTime() - stats.getStatisticsStartTime()) / 3600.0;
+        double queueSeconds = 0.0;
+        for (StationStatistics station : stations) {
+            RunningStatistics wait = station.getWaitTime();
+            queueSeconds += wait.getCount() > 0 ? wait.getCount() * wait.getMean() : 0.0;
+        }
+        values.put("RejectedPerHour", hours > 0 ? stats.getCustomersRejected() / hours : 0.0);
+        values.put("QueueHoursPerHour", hours > 0 ? queueSeconds / 3600.0 / hours : 0.0);
+        for (int i = 0; i < stations.length; i++) {
+            StationStatistics station = stations[i];
+            String prefix = "Station" + i + ".";
+            values.put(prefix + "Served", (double) station.getCustomersServed());
+            values.put(prefix + "Utilization", station.getUtilization());
+            values.put(prefix + "PeakQueue", (double) station.getPeakQueueLength());
+            values.put(prefix + "AvgWait", meanOf(station.getWaitTime()));
+            values.put(prefix + "WaitP95", station.getWaitQuantiles().getQuantile(0.95));
+            values.put(prefix + "AvgService", meanOf(station.getServiceTime()));
+            values.put(prefix + "AvgSojourn", meanOf(station.getSojournTime()));
+            values.put(prefix + "AvgQueueLength", station.getQueueLength().getMean());
+        }
+        return values;
+    }
+
+    /**
+     * Adds the distributions of one replication to the pooled ones.
+     */
+    private void pool(SimulationStatistics stats) {
+        timeInSystemQuantiles.merge(stats.getTimeInSystemQuantiles());
+        StationStatistics[] stations = stats.getStationStatistics();
+        ensureStations(stations.length);
+        for (int i = 0; i < stations.length; i++) {
+            stationNames[i] = stations[i].getName();
+            waitHistograms[i].merge(stations[i].getWaitHistogram());
+            queueOccupancy[i].merge(stations[i].getQueueOccupancy());
+        }
+    }
+
+    /**
+     * Gets the mean of a per-replication accumulator, NaN if it has no observations.
+     */
+    private static double meanOf(RunningStatistics statistics) {
+        return statistics.getCount() > 0 ? statistics.getMean() : Double.NaN;
+    }
+
+    /**
+     * Creates the pooled per-station accumulators on first use.
+     */
+    private void ensureStations(int count) {
+        if (stationNames != null) {
+            if (stationNames.length != count) {
+                throw new IllegalArgumentException("Replications have different numbers of stations: "
+                        + stationNames.length + " and " + count);
+            }
+            return;
+        }
+        stationNames = new String[count];
+        waitHistograms = new LogLinearHistogram[count];
+        queueOccupancy = new OccupancyDistribution[count];
+        for (int i = 0; i < count; i++) {
+            waitHistograms[i] = LogLinearHistogram.forDurations();
+            queueOccupancy[i] = new OccupancyDistribution();
+        }
+    }
+
+    /**
+     * Growable array of the per-replication values of a metric.
+     */
+    private static final class Values {
+        private double[] data = new double[8];
+        private int size = 0;
+
+        void add(double value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void addAll(Values other) {
+            if (size + other.size > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package simu.experiment;
+
+import controller.HeadlessController;
+import simu.framework.RandomStreams;
+import simu.model.MyEngine;
+
+import java.util.Arrays;
+
+/**
+ * One point of an experiment: a value for each of the {@link Parameter}s of
+ * {@link MyEngine}. Scenarios are immutable; {@link #with(Parameter, double)}
+ * returns a changed copy.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public final class Scenario {
+    /** Number of parameters */
+    private static final int PARAMETERS = Parameter.values().length;
+
+    /** Value of each parameter, indexed by ordinal */
+    private final double[] values;
+
+    private Scenario(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Gets the scenario with every parameter at its default value.
+     *
+     * @return The default scenario
+     */
+    public static Scenario defaults() {
+        double[] values = new double[PARAMETERS];
+        for (Parameter parameter : Parameter.values()) {
+            values[parameter.ordinal()] = parameter.getDefaultValue();
+        }
+        return new Scenario(values);
+    }
+
+    /**
+     * Gets a copy of this scenario with one parameter changed.
+     *
+     * @param parameter The parameter
+     * @param value The new value
+     * @return The changed scenario
+     * @throws IllegalArgumentException if the value is not valid for the parameter
+     */
+    public Scenario with(Parameter parameter, double value) {
+        if (!parameter.isValid(value)) {
+            throw new IllegalArgumentException("Invalid value for " + parameter.getColumnName() + ": " + value);
+        }
+        double[] changed = values.clone();
+        changed[parameter.ordinal()] = value;
+        return new Scenario(changed);
+    }
+
+    /**
+     * Gets the value of a parameter.
+     *
+     * @param parameter The parameter
+     * @return The value (0 or 1 for toggles)
+     */
+    public double get(Parameter parameter) {
+        return values[parameter.ordinal()];
+    }
+
+    /**
+     * Checks whether a toggle is on.
+     *
+     * @param parameter A toggle parameter
+     * @return true if the toggle is on
+     */
+    public boolean isEnabled(Parameter parameter) {
+        return values[parameter.ordinal()] != 0.0;
+    }
+
+    /**
+     * Creates a headless engine for this scenario.
+     *
+     * @param streams The random streams the engine draws from
+     * @return The engine
+     */
+    public MyEngine createEngine(RandomStreams streams) {
+        return new MyEngine(new HeadlessController(),
+                get(Parameter.GRILL_TIME), get(Parameter.VEGAN_TIME), get(Parameter.NORMAL_TIME),
+                get(Parameter.CASHIER_TIME), get(Parameter.SELF_SERVICE_TIME), get(Parameter.COFFEE_TIME),
+                isEnabled(Parameter.VARIABILITY_ENABLED), isEnabled(Parameter.SELF_SERVICE_ENABLED),
+                isEnabled(Parameter.COFFEE_ENABLED),
+                get(Parameter.ARRIVAL_RATE), (int) get(Parameter.MAX_QUEUE_CAPACITY),
+                streams);
+    }
+
+    /**
+     * Gets an engine factory for replications of this scenario.
+     *
+     * @return The factory
+     */
+    public ReplicationRunner.EngineFactory engineFactory() {
+        return (replication, streams) -> createEngine(streams);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Scenario && Arrays.equals(values, ((Scenario) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Scenario[");
+        for (Parameter parameter : Parameter.values()) {
+            if (parameter.ordinal() > 0) {
+                text.append(", ");
+            }
+            text.append(parameter.getColumnName()).append('=');
+            double value = get(parameter);
+            if (parameter.isToggle()) {
+                text.append(value != 0.0);
+            } else if (value == Integer.MAX_VALUE) {
+                text.append("unlimited");
+            } else {
+                text.append(value);
+            }
+        }
+        return text.append(']').toString();
+    }
+}
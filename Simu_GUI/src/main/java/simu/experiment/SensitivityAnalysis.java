@@ -0,0 +1,462 @@
+package simu.experiment;
+
+import simu.framework.RandomStreams;
+import simu.stats.Bootstrap;
+import simu.stats.ConfidenceInterval;
+import simu.stats.RunningStatistics;
+import simu.stats.SobolSequence;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Variance-based global sensitivity analysis of one metric over the varied
+ * parameters of a {@link DesignSpace}: how much of the variance of, say, the
+ * average wait is caused by each parameter. The first-order index S_i is the
+ * share of the variance explained by parameter i on its own; the total index
+ * ST_i adds every interaction it takes part in, so a parameter with a total
+ * index near zero can be left out of further sweeps.
+ * <p>
+ * The indices are estimated with the Saltelli scheme from two independent
+ * matrices A and B of N points each (the two halves of a {@code 2k}-dimensional
+ * Sobol sequence) and the k matrices A_B^i, which are A with column i taken
+ * from B, for {@code N * (k + 2)} scenarios in all:
+ * <pre>
+ *   S_i  = mean((f(B) - m) * (f(A_B^i) - f(A))) / V     (Saltelli 2010)
+ *   ST_i = mean((f(A) - f(A_B^i))^2) / (2 V)            (Jansen)
+ * </pre>
+ * where m and V are the mean and variance of f over A and B together;
+ * subtracting m does not change the expectation of S_i, but keeps a large
+ * mean wait from inflating its variance. The scenarios run as one
+ * {@link SweepRunner} sweep, so every evaluation runs in parallel and under
+ * the same common random numbers, which keeps the simulation noise out of
+ * the differences f(A_B^i) - f(A). Confidence intervals are percentile
+ * bootstrap intervals over the N sample rows.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class SensitivityAnalysis {
+    /** Parameters and scenario ranges under analysis */
+    private final DesignSpace space;
+    /** Number of base samples N */
+    private final int samples;
+    /** Replications averaged per evaluation */
+    private final int replications;
+    /** Simulation time of each replication */
+    private final double simulationTime;
+    /** Name of the analysed metric, one of {@link SweepRunner#METRICS} */
+    private String metric = "AvgWait";
+    /** Number of worker threads */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /** Base streams shared by all evaluations */
+    private RandomStreams randomStreams = RandomStreams.defaultStreams();
+    /** Confidence level of the intervals */
+    private double confidence = 0.95;
+    /** Number of bootstrap resamples */
+    private int resamples = 1000;
+    /** Seed of the bootstrap */
+    private long seed = 4851L;
+    /** Receiver of progress, or null */
+    private SweepRunner.Listener listener;
+    /** The sweep while the analysis is running */
+    private volatile SweepRunner sweep;
+    /** Set by {@link #cancel()} */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs an analysis.
+     *
+     * @param space The varied parameters, at most {@code SobolSequence.MAX_DIMENSIONS / 2}
+     * @param samples Number of base samples N, at least 2 (a few hundred for stable indices)
+     * @param replications Replications averaged per evaluation, at least 1
+     * @param simulationTime Simulation time of each replication in seconds
+     */
+    public SensitivityAnalysis(DesignSpace space, int samples, int replications, double simulationTime) {
+        int k = space.getDimensions();
+        if (k < 1 || 2 * k > SobolSequence.MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Need 1 to " + SobolSequence.MAX_DIMENSIONS / 2
+                    + " varied parameters: " + k);
+        }
+        if (samples < 2) {
+            throw new IllegalArgumentException("samples must be at least 2");
+        }
+        if (replications < 1) {
+            throw new IllegalArgumentException("replications must be at least 1");
+        }
+        if ((long) samples * (k + 2) * replications > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many evaluations: " + samples + " x " + (k + 2));
+        }
+        this.space = space;
+        this.samples = samples;
+        this.replications = replications;
+        this.simulationTime = simulationTime;
+    }
+
+    /**
+     * Sets the analysed metric.
+     *
+     * @param metric One of {@link SweepRunner#METRICS} (default: AvgWait)
+     */
+    public void setMetric(String metric) {
+        if (!Arrays.asList(SweepRunner.METRICS).contains(metric)) {
+            throw new IllegalArgumentException("Unknown metric: " + metric);
+        }
+        this.metric = metric;
+    }
+
+    /**
+     * Sets the number of replications that run at the same time.
+     *
+     * @param parallelism The number of worker threads, at least 1 (default: number of processors)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the base streams shared by all evaluations.
+     *
+     * @param randomStreams The base streams (default: {@link RandomStreams#defaultStreams()})
+     */
+    public void setRandomStreams(RandomStreams randomStreams) {
+        this.randomStreams = randomStreams;
+    }
+
+    /**
+     * Sets the confidence level of the intervals.
+     *
+     * @param confidence Confidence level, e.g. 0.95 (the default)
+     */
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+
+    /**
+     * Sets the number of bootstrap resamples of the intervals.
+     *
+     * @param resamples Number of resamples, at least 1 (default: 1,000)
+     */
+    public void setResamples(int resamples) {
+        if (resamples < 1) {
+            throw new IllegalArgumentException("resamples must be at least 1");
+        }
+        this.resamples = resamples;
+    }
+
+    /**
+     * Sets the seed of the bootstrap, so that intervals can be reproduced.
+     *
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the receiver of progress, called once per evaluated scenario.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(SweepRunner.Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the number of scenarios the analysis evaluates.
+     *
+     * @return {@code N * (k + 2)}
+     */
+    public int getEvaluationCount() {
+        return samples * (space.getDimensions() + 2);
+    }
+
+    /**
+     * Stops the analysis: evaluations that have not started are skipped. May be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        SweepRunner running = sweep;
+        if (running != null) {
+            running.cancel();
+        }
+    }
+
+    /**
+     * Builds the scenarios of the Saltelli scheme: for each sample j, in this order,
+     * A_j, B_j and A_B^i_j for every parameter i.
+     *
+     * @return The {@link #getEvaluationCount()} scenarios
+     */
+    public List<Scenario> scenarios() {
+        int k = space.getDimensions();
+        SobolSequence sequence = new SobolSequence(2 * k);
+        // The first point is the origin, the corner of both matrices
+        sequence.skip(1);
+        double[] point = new double[2 * k];
+        double[] mixed = new double[k];
+        List<Scenario> scenarios = new ArrayList<>(getEvaluationCount());
+        for (int j = 0; j < samples; j++) {
+            sequence.next(point);
+            double[] a = Arrays.copyOfRange(point, 0, k);
+            double[] b = Arrays.copyOfRange(point, k, 2 * k);
+            scenarios.add(space.scenarioAt(a));
+            scenarios.add(space.scenarioAt(b));
+            for (int i = 0; i < k; i++) {
+                System.arraycopy(a, 0, mixed, 0, k);
+                mixed[i] = b[i];
+                scenarios.add(space.scenarioAt(mixed));
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Runs the evaluations in parallel and estimates the indices.
+     *
+     * @return The indices, or null if the analysis was cancelled
+     * @throws IllegalStateException if fewer than two samples have a defined value of the metric
+     */
+    public Result run() {
+        int k = space.getDimensions();
+        double[] values = new double[getEvaluationCount()];
+        Arrays.fill(values, Double.NaN);
+
+        SweepRunner runner = new SweepRunner(scenarios(), replications, simulationTime);
+        runner.setParallelism(parallelism);
+        runner.setRandomStreams(randomStreams);
+        runner.setListener((index, scenario, summary, completed, total) -> {
+            RunningStatistics statistics = summary.getStatistics(metric);
+            values[index] = statistics != null && statistics.getCount() > 0 ? statistics.getMean() : Double.NaN;
+            if (listener != null) {
+                listener.scenarioCompleted(index, scenario, summary, completed, total);
+            }
+        });
+        sweep = runner;
+        if (cancelled) {
+            runner.cancel();
+        }
+        int completed;
+        try {
+            completed = runner.run(null);
+        } catch (IOException e) {
+            // Not reached: without a results file nothing is written
+            throw new IllegalStateException(e);
+        } finally {
+            sweep = null;
+        }
+        if (completed < values.length) {
+            return null;
+        }
+
+        // Rows of f(A), f(B), f(A_B^1) .. f(A_B^k), without samples where the metric is undefined
+        List<double[]> rows = new ArrayList<>(samples);
+        for (int j = 0; j < samples; j++) {
+            double[] row = Arrays.copyOfRange(values, j * (k + 2), (j + 1) * (k + 2));
+            if (Arrays.stream(row).noneMatch(Double::isNaN)) {
+                rows.add(row);
+            }
+        }
+        if (rows.size() < 2) {
+            throw new IllegalStateException(metric + " is undefined in all but " + rows.size() + " samples");
+        }
+        double[][] f = rows.toArray(new double[0][]);
+
+        // The bootstrap resamples row indices; the same seed gives every index the same resamples
+        double[] indices = new double[f.length];
+        for (int j = 0; j < f.length; j++) {
+            indices[j] = j;
+        }
+        List<Parameter> parameters = space.getParameters();
+        ConfidenceInterval[] firstOrder = new ConfidenceInterval[k];
+        ConfidenceInterval[] total = new ConfidenceInterval[k];
+        for (int i = 0; i < k; i++) {
+            int column = 2 + i;
+            firstOrder[i] = interval(indices, (sample, length) -> firstOrder(f, sample, length, column));
+            total[i] = interval(indices, (sample, length) -> total(f, sample, length, column));
+        }
+        return new Result(metric, parameters, firstOrder, total, moments(f, indices, f.length).getVariance(),
+                f.length);
+    }
+
+    private ConfidenceInterval interval(double[] indices, Bootstrap.Statistic statistic) {
+        Bootstrap bootstrap = new Bootstrap(statistic, resamples);
+        bootstrap.setSeed(seed);
+        return bootstrap.interval(indices, confidence, Bootstrap.Method.PERCENTILE);
+    }
+
+    /**
+     * Saltelli estimator of the first-order index of a column, over the rows in {@code sample}.
+     */
+    private static double firstOrder(double[][] f, double[] sample, int length, int column) {
+        RunningStatistics moments = moments(f, sample, length);
+        double sum = 0.0;
+        for (int t = 0; t < length; t++) {
+            double[] row = f[(int) sample[t]];
+            sum += (row[1] - moments.getMean()) * (row[column] - row[0]);
+        }
+        return sum / length / moments.getVariance();
+    }
+
+    /**
+     * Jansen estimator of the total index of a column, over the rows in {@code sample}.
+     */
+    private static double total(double[][] f, double[] sample, int length, int column) {
+        double sum = 0.0;
+        for (int t = 0; t < length; t++) {
+            double[] row = f[(int) sample[t]];
+            double d = row[0] - row[column];
+            sum += d * d;
+        }
+        return sum / (2.0 * length) / moments(f, sample, length).getVariance();
+    }
+
+    /**
+     * Mean and variance of f(A) and f(B) together, over the rows in {@code sample}.
+     */
+    private static RunningStatistics moments(double[][] f, double[] sample, int length) {
+        RunningStatistics statistics = new RunningStatistics();
+        for (int t = 0; t < length; t++) {
+            double[] row = f[(int) sample[t]];
+            statistics.add(row[0]);
+            statistics.add(row[1]);
+        }
+        return statistics;
+    }
+
+    /**
+     * The estimated indices of an analysis.
+     */
+    public static class Result {
+        /** The analysed metric */
+        private final String metric;
+        /** The varied parameters */
+        private final List<Parameter> parameters;
+        /** First-order index per parameter */
+        private final ConfidenceInterval[] firstOrder;
+        /** Total index per parameter */
+        private final ConfidenceInterval[] total;
+        /** Variance of the metric over the design space */
+        private final double variance;
+        /** Number of samples the indices are based on */
+        private final int sampleCount;
+
+        Result(String metric, List<Parameter> parameters, ConfidenceInterval[] firstOrder,
+               ConfidenceInterval[] total, double variance, int sampleCount) {
+            this.metric = metric;
+            this.parameters = parameters;
+            this.firstOrder = firstOrder;
+            this.total = total;
+            this.variance = variance;
+            this.sampleCount = sampleCount;
+        }
+
+        /**
+         * Gets the analysed metric.
+         *
+         * @return The metric name
+         */
+        public String getMetric() {
+            return metric;
+        }
+
+        /**
+         * Gets the varied parameters.
+         *
+         * @return The parameters, in the order of the design space
+         */
+        public List<Parameter> getParameters() {
+            return new ArrayList<>(parameters);
+        }
+
+        /**
+         * Gets the first-order index of a parameter: the share of the variance it causes on its own.
+         *
+         * @param parameter A varied parameter
+         * @return The index with its bootstrap interval
+         */
+        public ConfidenceInterval getFirstOrder(Parameter parameter) {
+            return firstOrder[indexOf(parameter)];
+        }
+
+        /**
+         * Gets the total index of a parameter: the share of the variance it causes
+         * on its own and through interactions with other parameters.
+         *
+         * @param parameter A varied parameter
+         * @return The index with its bootstrap interval
+         */
+        public ConfidenceInterval getTotal(Parameter parameter) {
+            return total[indexOf(parameter)];
+        }
+
+        /**
+         * Gets the variance of the metric over the design space.
+         *
+         * @return The variance the indices are shares of
+         */
+        public double getVariance() {
+            return variance;
+        }
+
+        /**
+         * Gets the number of samples the indices are based on.
+         *
+         * @return N, less any samples where the metric was undefined
+         */
+        public int getSampleCount() {
+            return sampleCount;
+        }
+
+        /**
+         * Gets the parameters from most to least influential.
+         *
+         * @return The parameters in order of decreasing total index
+         */
+        public List<Parameter> getRanking() {
+            List<Parameter> ranking = getParameters();
+            ranking.sort(Comparator.comparingDouble((Parameter p) -> getTotal(p).getMean()).reversed());
+            return ranking;
+        }
+
+        /**
+         * Writes the indices as CSV, one row per parameter in order of decreasing total index.
+         *
+         * @param file The output file
+         * @throws IOException if the file cannot be written
+         */
+        public void exportCsv(String file) throws IOException {
+            try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+                out.println("Metric,Parameter,FirstOrder,FirstOrderLower,FirstOrderUpper,"
+                        + "Total,TotalLower,TotalUpper,Samples");
+                for (Parameter parameter : getRanking()) {
+                    ConfidenceInterval s = getFirstOrder(parameter);
+                    ConfidenceInterval st = getTotal(parameter);
+                    out.println(String.format(Locale.ROOT, "%s,%s,%.6f,%.6f,%.6f,%.6f,%.6f,%.6f,%d",
+                            metric, parameter.getColumnName(), s.getMean(), s.getLower(), s.getUpper(),
+                            st.getMean(), st.getLower(), st.getUpper(), sampleCount));
+                }
+                if (out.checkError()) {
+                    throw new IOException("Error writing " + file);
+                }
+            }
+        }
+
+        private int indexOf(Parameter parameter) {
+            int index = parameters.indexOf(parameter);
+            if (index < 0) {
+                throw new IllegalArgumentException(parameter.getColumnName() + " is not varied");
+            }
+            return index;
+        }
+    }
+}
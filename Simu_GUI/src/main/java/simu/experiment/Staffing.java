@@ -0,0 +1,230 @@
+package simu.experiment;
+
+import java.util.Arrays;
+
+/**
+ * A staffing and layout of the cafeteria: the number of staff at each
+ * staffed station, whether the self-service station is open and the queue
+ * capacity. Every station of {@link simu.model.MyEngine} is a single queue
+ * with one service at a time, so c staff working a station are modelled as
+ * one server c times as fast: the station's mean service time is divided by
+ * c. The pooled server is a close approximation of c parallel servers only
+ * while all of them are busy. At light load it is optimistic: a lone customer
+ * is served c times as fast instead of by a single member of staff, so the
+ * time in system drops by up to a factor of c where real staff would make no
+ * difference. {@link CostModel} therefore charges queue waits only.
+ * Staffings are immutable.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public final class Staffing {
+
+    /**
+     * A staffed station.
+     */
+    public enum Station {
+        /** The grill station */
+        GRILL(Parameter.GRILL_TIME, 1),
+        /** The vegan station */
+        VEGAN(Parameter.VEGAN_TIME, 1),
+        /** The normal meal station */
+        NORMAL(Parameter.NORMAL_TIME, 1),
+        /** The two cashier tills; the staff count is per till */
+        CASHIER(Parameter.CASHIER_TIME, 2),
+        /** The coffee station; 0 staff closes it */
+        COFFEE(Parameter.COFFEE_TIME, 1);
+
+        /** Mean service time of the station with one member of staff */
+        private final Parameter serviceTime;
+        /** Number of identical tills the staff count applies to */
+        private final int tills;
+
+        Station(Parameter serviceTime, int tills) {
+            this.serviceTime = serviceTime;
+            this.tills = tills;
+        }
+
+        /**
+         * Gets the parameter holding the station's mean service time.
+         *
+         * @return The service time parameter
+         */
+        public Parameter getServiceTime() {
+            return serviceTime;
+        }
+
+        /**
+         * Gets the number of tills the staff count applies to.
+         *
+         * @return 2 for the cashiers, 1 otherwise
+         */
+        public int getTills() {
+            return tills;
+        }
+
+        /**
+         * Checks whether the station can be closed by giving it no staff.
+         *
+         * @return true for the coffee station
+         */
+        public boolean isClosable() {
+            return this == COFFEE;
+        }
+    }
+
+    /** Staff per station (per till for the cashiers), indexed by ordinal */
+    private final int[] staff;
+    /** Whether the self-service station is open */
+    private final boolean selfService;
+    /** Maximum queue length per station */
+    private final int queueCapacity;
+
+    /**
+     * Constructs a staffing.
+     *
+     * @param staff Staff per station in {@link Station} order, at least 1 (0 allowed for a closable station)
+     * @param selfService Whether the self-service station is open
+     * @param queueCapacity Maximum queue length per station, at least 1
+     */
+    public Staffing(int[] staff, boolean selfService, int queueCapacity) {
+        if (staff.length != Station.values().length) {
+            throw new IllegalArgumentException("Expected " + Station.values().length + " staff counts, got "
+                    + staff.length);
+        }
+        for (Station station : Station.values()) {
+            int count = staff[station.ordinal()];
+            if (count < (station.isClosable() ? 0 : 1)) {
+                throw new IllegalArgumentException("Invalid staff for " + station + ": " + count);
+            }
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+        this.staff = staff.clone();
+        this.selfService = selfService;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets the staff of a station.
+     *
+     * @param station The station
+     * @return Staff at the station, per till for the cashiers
+     */
+    public int getStaff(Station station) {
+        return staff[station.ordinal()];
+    }
+
+    /**
+     * Gets a copy of this staffing with the staff of one station changed.
+     *
+     * @param station The station
+     * @param count The new staff count
+     * @return The changed staffing
+     */
+    public Staffing withStaff(Station station, int count) {
+        int[] changed = staff.clone();
+        changed[station.ordinal()] = count;
+        return new Staffing(changed, selfService, queueCapacity);
+    }
+
+    /**
+     * Gets the total number of staff on duty.
+     *
+     * @return The sum over all stations and tills
+     */
+    public int getTotalStaff() {
+        int total = 0;
+        for (Station station : Station.values()) {
+            total += staff[station.ordinal()] * station.getTills();
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether the self-service station is open.
+     *
+     * @return true if it is open
+     */
+    public boolean isSelfService() {
+        return selfService;
+    }
+
+    /**
+     * Gets a copy of this staffing with the self-service station opened or closed.
+     *
+     * @param open Whether the self-service station is open
+     * @return The changed staffing
+     */
+    public Staffing withSelfService(boolean open) {
+        return new Staffing(staff, open, queueCapacity);
+    }
+
+    /**
+     * Gets the queue capacity.
+     *
+     * @return Maximum queue length per station
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Gets a copy of this staffing with another queue capacity.
+     *
+     * @param capacity Maximum queue length per station
+     * @return The changed staffing
+     */
+    public Staffing withQueueCapacity(int capacity) {
+        return new Staffing(staff, selfService, capacity);
+    }
+
+    /**
+     * Builds the scenario simulating this staffing.
+     *
+     * @param base Scenario with the service times of one member of staff, the arrival rate and variability
+     * @return The scenario
+     */
+    public Scenario toScenario(Scenario base) {
+        Scenario scenario = base
+                .with(Parameter.SELF_SERVICE_ENABLED, selfService ? 1.0 : 0.0)
+                .with(Parameter.MAX_QUEUE_CAPACITY, queueCapacity);
+        for (Station station : Station.values()) {
+            int count = staff[station.ordinal()];
+            if (station.isClosable()) {
+                scenario = scenario.with(Parameter.COFFEE_ENABLED, count > 0 ? 1.0 : 0.0);
+            }
+            if (count > 0) {
+                scenario = scenario.with(station.getServiceTime(), base.get(station.getServiceTime()) / count);
+            }
+        }
+        return scenario;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Staffing)) {
+            return false;
+        }
+        Staffing other = (Staffing) o;
+        return Arrays.equals(staff, other.staff) && selfService == other.selfService
+                && queueCapacity == other.queueCapacity;
+    }
+
+    @Override
+    public int hashCode() {
+        return (Arrays.hashCode(staff) * 31 + Boolean.hashCode(selfService)) * 31 + queueCapacity;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Staffing[");
+        for (Station station : Station.values()) {
+            text.append(station.name().toLowerCase()).append('=').append(staff[station.ordinal()]).append(", ");
+        }
+        text.append("selfService=").append(selfService).append(", queueCapacity=")
+                .append(queueCapacity == Integer.MAX_VALUE ? "unlimited" : String.valueOf(queueCapacity));
+        return text.append(']').toString();
+    }
+}
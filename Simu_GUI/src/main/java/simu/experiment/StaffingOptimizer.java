@@ -0,0 +1,513 @@
+package simu.experiment;
+
+import simu.framework.RandomStreams;
+import simu.stats.RunningStatistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches staffings for the lowest cost under a {@link CostModel} by
+ * simulated annealing, within a wall-time budget. Each step proposes a batch
+ * of neighbours of the current staffing, each one member of staff more or
+ * less at one station, the self-service station opened or closed, or the next
+ * larger or smaller queue capacity. The batch is simulated in parallel as one
+ * {@link SweepRunner} sweep, and the best neighbour replaces the current
+ * staffing if it is cheaper, or otherwise with the Metropolis probability
+ * {@code exp(-increase / T)}. The temperature T falls geometrically from its
+ * initial value to a thousandth of it over the budget, so the search wanders
+ * widely at first and settles into the best region found at the end.
+ * <p>
+ * Every staffing is simulated at most once: results are cached, and the
+ * search revisits cached staffings for free. All replications use the same
+ * common random numbers, so differences in cost come from the staffing and
+ * not from the arrivals each candidate happened to see.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class StaffingOptimizer {
+
+    /**
+     * Receives progress while the search is running.
+     */
+    public interface Listener {
+        /**
+         * Called on the searching thread when a cheaper staffing than any before has been found.
+         *
+         * @param best The best staffing so far
+         * @param evaluations Number of staffings simulated so far
+         */
+        void improved(Evaluation best, int evaluations);
+    }
+
+    /** Scenario with the service times of one member of staff, the arrival rate and variability */
+    private final Scenario base;
+    /** Cost of a staffing */
+    private final CostModel costModel;
+    /** Replications per staffing */
+    private final int replications;
+    /** Simulation time of each replication */
+    private final double simulationTime;
+    /** Smallest and largest staff count per station */
+    private final Map<Staffing.Station, int[]> staffRanges = new EnumMap<>(Staffing.Station.class);
+    /** Whether the search opens and closes the self-service station */
+    private boolean selfServiceVaried = true;
+    /** Queue capacities the search chooses from, ascending */
+    private int[] capacities;
+    /** Number of worker threads */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /** Neighbours proposed per step */
+    private int batchSize = parallelism;
+    /** Base streams shared by all staffings */
+    private RandomStreams randomStreams = RandomStreams.defaultStreams();
+    /** Initial temperature, or 0 for a tenth of the cost of the first staffing */
+    private double initialTemperature = 0.0;
+    /** Seed of the search */
+    private long seed = 4851L;
+    /** Receiver of progress, or null */
+    private Listener listener;
+
+    /** Simulated staffings */
+    private final Map<Staffing, Evaluation> cache = new ConcurrentHashMap<>();
+    /** The sweep of the current batch, while it runs */
+    private volatile SweepRunner sweep;
+    /** Set by {@link #cancel()} or when the budget runs out */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs an optimizer. By default the meal stations and cashier tills have 1 to 3
+     * staff, the coffee station 0 (closed) to 2, the self-service station may be
+     * opened or closed, and the queue capacity is that of the base scenario.
+     *
+     * @param base Scenario with the service times of one member of staff, the arrival rate and variability
+     * @param costModel Cost of a staffing
+     * @param replications Replications per staffing, at least 1
+     * @param simulationTime Simulation time of each replication in seconds
+     */
+    public StaffingOptimizer(Scenario base, CostModel costModel, int replications, double simulationTime) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("replications must be at least 1");
+        }
+        this.base = base;
+        this.costModel = costModel;
+        this.replications = replications;
+        this.simulationTime = simulationTime;
+        for (Staffing.Station station : Staffing.Station.values()) {
+            staffRanges.put(station, station.isClosable() ? new int[]{0, 2} : new int[]{1, 3});
+        }
+        capacities = new int[]{(int) base.get(Parameter.MAX_QUEUE_CAPACITY)};
+    }
+
+    /**
+     * Sets the staff counts the search chooses from at a station.
+     *
+     * @param station The station
+     * @param min The smallest count, at least 1 (or 0 for a closable station)
+     * @param max The largest count, at least min
+     */
+    public void setStaffRange(Staffing.Station station, int min, int max) {
+        if (min < (station.isClosable() ? 0 : 1) || max < min) {
+            throw new IllegalArgumentException("Invalid staff range for " + station + ": " + min + " to " + max);
+        }
+        staffRanges.put(station, new int[]{min, max});
+    }
+
+    /**
+     * Sets whether the search opens and closes the self-service station.
+     *
+     * @param varied true to search both (the default), false to keep it as in the base scenario
+     */
+    public void setSelfServiceVaried(boolean varied) {
+        this.selfServiceVaried = varied;
+    }
+
+    /**
+     * Sets the queue capacities the search chooses from; duplicates are ignored.
+     *
+     * @param capacities One or more capacities, each at least 1
+     */
+    public void setQueueCapacities(int... capacities) {
+        if (capacities.length < 1) {
+            throw new IllegalArgumentException("Need at least one queue capacity");
+        }
+        int[] sorted = Arrays.stream(capacities).distinct().sorted().toArray();
+        if (sorted[0] < 1) {
+            throw new IllegalArgumentException("Queue capacities must be at least 1");
+        }
+        this.capacities = sorted;
+    }
+
+    /**
+     * Sets the number of replications that run at the same time.
+     *
+     * @param parallelism The number of worker threads, at least 1 (default: number of processors)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the number of neighbours proposed, and simulated in parallel, per step.
+     *
+     * @param batchSize Neighbours per step, at least 1 (default: number of processors)
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the base streams shared by all staffings.
+     *
+     * @param randomStreams The base streams (default: {@link RandomStreams#defaultStreams()})
+     */
+    public void setRandomStreams(RandomStreams randomStreams) {
+        this.randomStreams = randomStreams;
+    }
+
+    /**
+     * Sets the initial temperature of the annealing.
+     *
+     * @param initialTemperature A cost increase per hour accepted with probability 1/e at the start;
+     *                           0 for a tenth of the cost of the first staffing (the default)
+     */
+    public void setInitialTemperature(double initialTemperature) {
+        if (initialTemperature < 0) {
+            throw new IllegalArgumentException("initialTemperature must not be negative");
+        }
+        this.initialTemperature = initialTemperature;
+    }
+
+    /**
+     * Sets the seed of the search, so that searches can be reproduced.
+     *
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the receiver of progress.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops the search: the batch being simulated is abandoned and the best staffings so far
+     * are returned. May be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        SweepRunner running = sweep;
+        if (running != null) {
+            running.cancel();
+        }
+    }
+
+    /**
+     * Gets the number of staffings simulated so far, including those of earlier searches.
+     *
+     * @return The size of the result cache
+     */
+    public int getEvaluationCount() {
+        return cache.size();
+    }
+
+    /**
+     * Searches until the budget runs out, every staffing has been simulated, or the search is cancelled.
+     * Staffings simulated by earlier searches of this optimizer are reused.
+     *
+     * @param budgetMillis Wall-time budget in milliseconds
+     * @param count Number of staffings to return
+     * @return The cheapest staffings found, cheapest first
+     */
+    public List<Evaluation> optimize(long budgetMillis, int count) {
+        if (budgetMillis <= 0 || count < 1) {
+            throw new IllegalArgumentException("Need a positive budget and count");
+        }
+        cancelled = false;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StaffingOptimizer-budget");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.schedule(this::cancel, budgetMillis, TimeUnit.MILLISECONDS);
+        try {
+            search(start, deadline);
+        } finally {
+            timer.shutdownNow();
+        }
+        List<Evaluation> best = new ArrayList<>(cache.values());
+        best.sort(Comparator.comparingDouble(Evaluation::getCost));
+        return new ArrayList<>(best.subList(0, Math.min(count, best.size())));
+    }
+
+    /**
+     * Runs the annealing until the deadline, the whole space has been simulated, or a cancel.
+     */
+    private void search(long start, long deadline) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Evaluation current = evaluate(List.of(initialStaffing())).get(0);
+        if (current == null) {
+            return;
+        }
+        Evaluation best = bestCached();
+        report(best);
+        double t0 = initialTemperature > 0 ? initialTemperature : Math.max(current.getCost() / 10.0, 1e-9);
+        long size = spaceSize();
+
+        while (!cancelled && System.nanoTime() < deadline && cache.size() < size) {
+            List<Staffing> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                batch.add(neighbour(current.getStaffing(), random));
+            }
+            Evaluation candidate = null;
+            for (Evaluation evaluation : evaluate(batch)) {
+                if (evaluation != null && (candidate == null || evaluation.getCost() < candidate.getCost())) {
+                    candidate = evaluation;
+                }
+            }
+            if (candidate == null) {
+                break;
+            }
+            double fraction = Math.min(1.0, (double) (System.nanoTime() - start) / (deadline - start));
+            double temperature = t0 * Math.pow(1e-3, fraction);
+            double increase = candidate.getCost() - current.getCost();
+            if (increase <= 0 || random.nextDouble() < Math.exp(-increase / temperature)) {
+                current = candidate;
+            }
+            if (candidate.getCost() < best.getCost()) {
+                best = candidate;
+                report(best);
+            }
+        }
+    }
+
+    /**
+     * Simulates the staffings that are not cached yet, in parallel, and looks all of them up.
+     *
+     * @return One evaluation per staffing, null where the simulation was cancelled
+     */
+    private List<Evaluation> evaluate(List<Staffing> staffings) {
+        List<Staffing> missing = new ArrayList<>();
+        List<Scenario> scenarios = new ArrayList<>();
+        for (Staffing staffing : staffings) {
+            if (!cache.containsKey(staffing) && !missing.contains(staffing)) {
+                missing.add(staffing);
+                scenarios.add(staffing.toScenario(base));
+            }
+        }
+        if (!missing.isEmpty() && !cancelled) {
+            SweepRunner runner = new SweepRunner(scenarios, replications, simulationTime);
+            runner.setParallelism(parallelism);
+            runner.setRandomStreams(randomStreams);
+            runner.setListener((index, scenario, summary, completed, total) -> {
+                Staffing staffing = missing.get(index);
+                cache.put(staffing, new Evaluation(staffing, scenario, summary, costModel));
+            });
+            sweep = runner;
+            if (cancelled) {
+                runner.cancel();
+            }
+            try {
+                runner.run(null);
+            } catch (IOException e) {
+                // Not reached: without a results file nothing is written
+                throw new IllegalStateException(e);
+            } finally {
+                sweep = null;
+            }
+        }
+        List<Evaluation> evaluations = new ArrayList<>(staffings.size());
+        for (Staffing staffing : staffings) {
+            evaluations.add(cache.get(staffing));
+        }
+        return evaluations;
+    }
+
+    /**
+     * Gets the staffing the search starts from: the smallest staff in every range, with the
+     * self-service station and the queue capacity closest to the base scenario.
+     */
+    private Staffing initialStaffing() {
+        int[] staff = new int[Staffing.Station.values().length];
+        for (Staffing.Station station : Staffing.Station.values()) {
+            int[] range = staffRanges.get(station);
+            staff[station.ordinal()] = station.isClosable() ? Math.max(range[0], Math.min(range[1], 1)) : range[0];
+        }
+        int capacity = (int) base.get(Parameter.MAX_QUEUE_CAPACITY);
+        int closest = capacities[0];
+        for (int c : capacities) {
+            if (Math.abs((long) c - capacity) < Math.abs((long) closest - capacity)) {
+                closest = c;
+            }
+        }
+        return new Staffing(staff, base.isEnabled(Parameter.SELF_SERVICE_ENABLED), closest);
+    }
+
+    /**
+     * Proposes a neighbour: one step in one of the varied dimensions.
+     */
+    private Staffing neighbour(Staffing staffing, SplittableRandom random) {
+        List<Staffing> moves = new ArrayList<>();
+        for (Staffing.Station station : Staffing.Station.values()) {
+            int[] range = staffRanges.get(station);
+            int count = staffing.getStaff(station);
+            if (count > range[0]) {
+                moves.add(staffing.withStaff(station, count - 1));
+            }
+            if (count < range[1]) {
+                moves.add(staffing.withStaff(station, count + 1));
+            }
+        }
+        if (selfServiceVaried) {
+            moves.add(staffing.withSelfService(!staffing.isSelfService()));
+        }
+        int level = Arrays.binarySearch(capacities, staffing.getQueueCapacity());
+        if (level > 0) {
+            moves.add(staffing.withQueueCapacity(capacities[level - 1]));
+        }
+        if (level >= 0 && level < capacities.length - 1) {
+            moves.add(staffing.withQueueCapacity(capacities[level + 1]));
+        }
+        return moves.isEmpty() ? staffing : moves.get(random.nextInt(moves.size()));
+    }
+
+    /**
+     * Gets the number of staffings the search can reach.
+     */
+    private long spaceSize() {
+        long size = (selfServiceVaried ? 2L : 1L) * capacities.length;
+        for (int[] range : staffRanges.values()) {
+            size *= range[1] - range[0] + 1;
+        }
+        return size;
+    }
+
+    private Evaluation bestCached() {
+        return cache.values().stream().min(Comparator.comparingDouble(Evaluation::getCost)).orElse(null);
+    }
+
+    private void report(Evaluation best) {
+        if (listener != null) {
+            listener.improved(best, cache.size());
+        }
+    }
+
+    /**
+     * A simulated staffing and its cost.
+     */
+    public static class Evaluation {
+        /** The staffing */
+        private final Staffing staffing;
+        /** Its scenario */
+        private final Scenario scenario;
+        /** Its replications */
+        private final ReplicationSummary summary;
+        /** Staff and station cost per hour */
+        private final double staffCost;
+        /** Wait and rejection penalties per hour */
+        private final double serviceCost;
+
+        Evaluation(Staffing staffing, Scenario scenario, ReplicationSummary summary, CostModel costModel) {
+            this.staffing = staffing;
+            this.scenario = scenario;
+            this.summary = summary;
+            this.staffCost = costModel.getStaffCost(staffing);
+            this.serviceCost = costModel.getServiceCost(summary);
+        }
+
+        /**
+         * Gets the staffing.
+         *
+         * @return The staffing
+         */
+        public Staffing getStaffing() {
+            return staffing;
+        }
+
+        /**
+         * Gets the simulated scenario.
+         *
+         * @return The scenario
+         */
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        /**
+         * Gets the replications of the scenario.
+         *
+         * @return The summary
+         */
+        public ReplicationSummary getSummary() {
+            return summary;
+        }
+
+        /**
+         * Gets the total cost.
+         *
+         * @return Staff and service costs per hour
+         */
+        public double getCost() {
+            return staffCost + serviceCost;
+        }
+
+        /**
+         * Gets the cost of the staff and stations.
+         *
+         * @return Wages and the self-service running cost per hour
+         */
+        public double getStaffCost() {
+            return staffCost;
+        }
+
+        /**
+         * Gets the penalties for the service customers received.
+         *
+         * @return Wait and rejection penalties per hour
+         */
+        public double getServiceCost() {
+            return serviceCost;
+        }
+
+        /**
+         * Gets the mean time in system across replications.
+         *
+         * @return Average wait in seconds
+         */
+        public double getAverageWait() {
+            RunningStatistics statistics = summary.getStatistics("AvgWait");
+            return statistics != null ? statistics.getMean() : Double.NaN;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s cost=%.2f (staff %.2f, service %.2f) wait=%.1fs",
+                    staffing, getCost(), staffCost, serviceCost, getAverageWait());
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package simu.experiment;
+
+import simu.framework.RandomStreams;
+import simu.model.SimulationStatistics;
+import simu.stats.ConfidenceInterval;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs a parameter sweep: several replications of every scenario of a design,
+ * e.g. from a {@link ParameterGrid}, with one row per scenario in a results
+ * file. Every (scenario, replication) pair is a separate job; the job range is
+ * split recursively on a work-stealing fork-join pool, so idle workers take
+ * over jobs from busy ones and a long sweep keeps every core busy until the
+ * last few jobs.
+ * <p>
+ * Replication {@code r} of every scenario draws from
+ * {@code streams.forReplication(r)}, so the scenarios are compared under common
+ * random numbers. When the last replication of a scenario finishes, its
+ * replications are combined into a {@link ReplicationSummary} in replication
+ * order and the row is written; rows are written in scenario order, so the
+ * file is the same for any number of threads. A row that completes before
+ * rows of earlier scenarios waits for them as a line of text only.
+ * <p>
+ * {@link #cancel()} stops the sweep from another thread: jobs that have not
+ * started are skipped, replications already running finish, and the rows of
+ * the scenarios completed so far are written to the file, with gaps for the
+ * scenarios that were not.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class SweepRunner {
+    /** Metrics written for every scenario, with their mean and confidence half-width */
+    public static final String[] METRICS = {
+            "Customers", "Rejected", "Throughput", "AvgWait", "TimeInSystemP95", "AvgQueueLength", "PeakQueue"
+    };
+
+    /**
+     * Receives progress while a sweep is running.
+     */
+    public interface Listener {
+        /**
+         * Called on a worker thread when all replications of a scenario have finished;
+         * calls are not concurrent, but need not come in scenario order.
+         *
+         * @param index The index of the scenario in the sweep
+         * @param scenario The scenario
+         * @param summary Its replications combined
+         * @param completed Number of scenarios completed so far
+         * @param total Number of scenarios in the sweep
+         */
+        void scenarioCompleted(int index, Scenario scenario, ReplicationSummary summary, int completed, int total);
+    }
+
+    /** Scenarios of the sweep */
+    private final List<Scenario> scenarios;
+    /** Replications per scenario */
+    private final int replications;
+    /** Simulation time of each replication */
+    private final double simulationTime;
+    /** Number of worker threads */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /** Base streams the streams of each replication are derived from */
+    private RandomStreams randomStreams = RandomStreams.defaultStreams();
+    /** Confidence level of the half-widths in the results file */
+    private double confidence = 0.95;
+    /** Receiver of progress, or null */
+    private Listener listener;
+    /** Set by {@link #cancel()} */
+    private volatile boolean cancelled;
+
+    /** Statistics of each finished replication, per scenario, until the scenario is complete */
+    private SimulationStatistics[][] results;
+    /** Replications still to finish, per scenario */
+    private AtomicIntegerArray remaining;
+    /** Rows of completed scenarios waiting for an earlier scenario to complete */
+    private TreeMap<Integer, String> pendingRows;
+    /** Index of the next row to write */
+    private int nextRow;
+    /** Number of scenarios completed */
+    private int completedScenarios;
+    /** Writer of the results file */
+    private PrintWriter writer;
+
+    /**
+     * Constructs a sweep.
+     *
+     * @param scenarios The scenarios, e.g. {@link ParameterGrid#fullFactorial()}
+     * @param replications Replications per scenario, at least 1
+     * @param simulationTime Simulation time of each replication in seconds
+     */
+    public SweepRunner(List<Scenario> scenarios, int replications, double simulationTime) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("replications must be at least 1");
+        }
+        if ((long) scenarios.size() * replications > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many jobs: " + scenarios.size() + " x " + replications);
+        }
+        this.scenarios = new ArrayList<>(scenarios);
+        this.replications = replications;
+        this.simulationTime = simulationTime;
+    }
+
+    /**
+     * Sets the number of replications that run at the same time.
+     *
+     * @param parallelism The number of worker threads, at least 1 (default: number of processors)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the base streams the streams of each replication are derived from.
+     *
+     * @param randomStreams The base streams (default: {@link RandomStreams#defaultStreams()})
+     */
+    public void setRandomStreams(RandomStreams randomStreams) {
+        this.randomStreams = randomStreams;
+    }
+
+    /**
+     * Sets the confidence level of the half-widths in the results file.
+     *
+     * @param confidence Confidence level, e.g. 0.95 (the default)
+     */
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+
+    /**
+     * Sets the receiver of progress.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops the sweep: jobs that have not started are skipped. May be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the sweep was cancelled.
+     *
+     * @return true after {@link #cancel()}
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Runs the sweep and waits for it to finish or to be cancelled.
+     *
+     * @param file The results file, one row per scenario, or null to report the
+     *             scenarios to the listener only
+     * @return The number of scenarios completed (all of them unless cancelled)
+     * @throws IOException if the results file cannot be written
+     */
+    public int run(String file) throws IOException {
+        int jobs = scenarios.size() * replications;
+        results = new SimulationStatistics[scenarios.size()][];
+        remaining = new AtomicIntegerArray(scenarios.size());
+        for (int s = 0; s < scenarios.size(); s++) {
+            remaining.set(s, replications);
+        }
+        pendingRows = new TreeMap<>();
+        nextRow = 0;
+        completedScenarios = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        if (file == null) {
+            try {
+                if (jobs > 0) {
+                    pool.invoke(new SweepTask(0, jobs));
+                }
+            } finally {
+                pool.shutdown();
+                results = null;
+            }
+            return completedScenarios;
+        }
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            writer = out;
+            writer.println(header());
+            if (jobs > 0) {
+                pool.invoke(new SweepTask(0, jobs));
+            }
+            // After a cancel, rows may still wait for scenarios that will not complete
+            for (String row : pendingRows.values()) {
+                writer.println(row);
+            }
+            pendingRows.clear();
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Error writing " + file);
+            }
+        } finally {
+            pool.shutdown();
+            writer = null;
+            results = null;
+        }
+        return completedScenarios;
+    }
+
+    /**
+     * Runs one job: replication {@code job % replications} of scenario {@code job / replications}.
+     */
+    private void runJob(int job) {
+        if (cancelled) {
+            return;
+        }
+        int s = job / replications;
+        int replication = job % replications;
+        SimulationStatistics statistics = ReplicationRunner.runReplication(scenarios.get(s).engineFactory(),
+                replication, randomStreams.forReplication(replication), simulationTime);
+        synchronized (results) {
+            if (results[s] == null) {
+                results[s] = new SimulationStatistics[replications];
+            }
+            results[s][replication] = statistics;
+        }
+        if (remaining.decrementAndGet(s) == 0) {
+            SimulationStatistics[] finished;
+            synchronized (results) {
+                finished = results[s];
+                results[s] = null;
+            }
+            ReplicationSummary summary = new ReplicationSummary();
+            for (SimulationStatistics replicationStatistics : finished) {
+                summary.add(replicationStatistics);
+            }
+            completed(s, summary);
+        }
+    }
+
+    /**
+     * Writes the row of a completed scenario, and those of later scenarios that were
+     * waiting for it, in scenario order.
+     */
+    private synchronized void completed(int s, ReplicationSummary summary) {
+        completedScenarios++;
+        if (writer != null) {
+            pendingRows.put(s, row(s, summary));
+            while (!pendingRows.isEmpty() && pendingRows.firstKey() == nextRow) {
+                writer.println(pendingRows.pollFirstEntry().getValue());
+                nextRow++;
+            }
+        }
+        if (listener != null) {
+            listener.scenarioCompleted(s, scenarios.get(s), summary, completedScenarios, scenarios.size());
+        }
+    }
+
+    /**
+     * Builds the header of the results file.
+     */
+    private static String header() {
+        StringBuilder header = new StringBuilder("Scenario");
+        for (Parameter parameter : Parameter.values()) {
+            header.append(',').append(parameter.getColumnName());
+        }
+        header.append(",Replications");
+        for (String metric : METRICS) {
+            header.append(',').append(metric).append(',').append(metric).append("HalfWidth");
+        }
+        return header.toString();
+    }
+
+    /**
+     * Builds the row of a scenario.
+     */
+    private String row(int s, ReplicationSummary summary) {
+        Scenario scenario = scenarios.get(s);
+        StringBuilder row = new StringBuilder().append(s);
+        for (Parameter parameter : Parameter.values()) {
+            double value = scenario.get(parameter);
+            row.append(',');
+            if (parameter.isToggle() || parameter == Parameter.MAX_QUEUE_CAPACITY) {
+                row.append((long) value);
+            } else {
+                row.append(String.format(Locale.ROOT, "%.6f", value));
+            }
+        }
+        row.append(',').append(summary.getReplicationCount());
+        for (String metric : METRICS) {
+            ConfidenceInterval interval = summary.getInterval(metric, confidence);
+            double mean = interval != null ? interval.getMean() : Double.NaN;
+            double halfWidth = interval != null ? interval.getHalfWidth() : Double.NaN;
+            row.append(String.format(Locale.ROOT, ",%.6f,%.6f", mean, halfWidth));
+        }
+        return row.toString();
+    }
+
+    /**
+     * Runs a range of jobs: one directly, otherwise both halves in parallel.
+     */
+    private class SweepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        SweepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled) {
+                return;
+            }
+            if (to - from == 1) {
+                runJob(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SweepTask(from, middle), new SweepTask(middle, to));
+        }
+    }
+}
@@ -15,6 +15,10 @@ public class ArrivalProcess {
 	private EventList eventList;
 	/** Type of arrival event to create */
 	private EventType type;
+	/** Sum of the inter-arrival times sampled since the last reset */
+	private double interArrivalSum = 0.0;
+	/** Number of inter-arrival times sampled since the last reset */
+	private long interArrivalCount = 0;
 
 	/**
 	 * Constructs a new ArrivalProcess with the specified generator and event list.
@@ -35,8 +39,29 @@ public class ArrivalProcess {
 	 * an arrival event at the current time plus the inter-arrival time.
 	 */
 	public void generateNext() {
-		Event t = new Event(type, Clock.getInstance().getTime() + generator.sample());
+		double interArrivalTime = generator.sample();
+		interArrivalSum += interArrivalTime;
+		interArrivalCount++;
+		Event t = new Event(type, Clock.getInstance().getTime() + interArrivalTime);
 		eventList.add(t);
 	}
 
+	/**
+	 * Gets the mean of the inter-arrival times sampled since the last reset.
+	 * Compared with the mean of the distribution it serves as a control variate.
+	 *
+	 * @return The observed mean inter-arrival time, or NaN if none was sampled
+	 */
+	public double getObservedMeanInterArrivalTime() {
+		return interArrivalCount > 0 ? interArrivalSum / interArrivalCount : Double.NaN;
+	}
+
+	/**
+	 * Forgets the inter-arrival times sampled so far, e.g. at the end of the warm-up.
+	 */
+	public void resetStatistics() {
+		interArrivalSum = 0.0;
+		interArrivalCount = 0;
+	}
+
 }
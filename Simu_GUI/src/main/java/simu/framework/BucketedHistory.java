@@ -0,0 +1,202 @@
+package simu.framework;
+
+import java.util.Arrays;
+
+/**
+ * Time series history of fixed size.
+ * Samples of one or more series are aggregated (count, sum, maximum) into
+ * equally wide time buckets. When a sample falls beyond the last bucket,
+ * neighbouring buckets are merged pairwise and the bucket width doubles,
+ * so the memory used stays the same however long the simulation runs,
+ * while the resolution adapts to the simulated horizon.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class BucketedHistory {
+	/** Maximum number of buckets (even) */
+	private final int maxBuckets;
+	/** Number of series recorded per bucket */
+	private final int seriesCount;
+	/** Width of the buckets at construction and after a clear */
+	private final double initialWidth;
+	/** Current bucket width in simulation time units */
+	private double bucketWidth;
+	/** Number of buckets in use (index of the last bucket touched + 1) */
+	private int bucketCount = 0;
+
+	/** Number of samples per bucket and series */
+	private final long[] counts;
+	/** Sum of the samples per bucket and series */
+	private final double[] sums;
+	/** Largest sample per bucket and series */
+	private final double[] maxima;
+
+	/**
+	 * Constructs a new history.
+	 *
+	 * @param maxBuckets Maximum number of buckets kept (rounded up to an even number, at least 2)
+	 * @param seriesCount Number of series recorded
+	 * @param initialWidth Initial bucket width in simulation time units
+	 */
+	public BucketedHistory(int maxBuckets, int seriesCount, double initialWidth) {
+		if (seriesCount < 1 || !(initialWidth > 0)) {
+			throw new IllegalArgumentException("Need at least one series and a positive bucket width");
+		}
+		this.maxBuckets = Math.max(2, maxBuckets + (maxBuckets & 1));
+		this.seriesCount = seriesCount;
+		this.initialWidth = initialWidth;
+		this.bucketWidth = initialWidth;
+		this.counts = new long[this.maxBuckets * seriesCount];
+		this.sums = new double[this.maxBuckets * seriesCount];
+		this.maxima = new double[this.maxBuckets * seriesCount];
+		Arrays.fill(maxima, Double.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Adds a sample to the bucket containing the given time.
+	 *
+	 * @param time Simulation time of the sample (not negative)
+	 * @param series Index of the series
+	 * @param value The sample value
+	 */
+	public void record(double time, int series, double value) {
+		int bucket = (int) (time / bucketWidth);
+		while (bucket >= maxBuckets) {
+			compact();
+			bucket = (int) (time / bucketWidth);
+		}
+		if (bucket >= bucketCount) {
+			bucketCount = bucket + 1;
+		}
+		int slot = bucket * seriesCount + series;
+		counts[slot]++;
+		sums[slot] += value;
+		if (value > maxima[slot]) {
+			maxima[slot] = value;
+		}
+	}
+
+	/**
+	 * Merges buckets pairwise and doubles the bucket width.
+	 */
+	private void compact() {
+		int half = maxBuckets / 2;
+		for (int b = 0; b < half; b++) {
+			for (int s = 0; s < seriesCount; s++) {
+				int to = b * seriesCount + s;
+				int left = 2 * b * seriesCount + s;
+				int right = left + seriesCount;
+				counts[to] = counts[left] + counts[right];
+				sums[to] = sums[left] + sums[right];
+				maxima[to] = Math.max(maxima[left], maxima[right]);
+			}
+		}
+		int from = half * seriesCount;
+		Arrays.fill(counts, from, counts.length, 0L);
+		Arrays.fill(sums, from, sums.length, 0.0);
+		Arrays.fill(maxima, from, maxima.length, Double.NEGATIVE_INFINITY);
+		bucketCount = (bucketCount + 1) / 2;
+		bucketWidth *= 2;
+	}
+
+	/**
+	 * Removes all samples and restores the initial bucket width.
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0L);
+		Arrays.fill(sums, 0.0);
+		Arrays.fill(maxima, Double.NEGATIVE_INFINITY);
+		bucketCount = 0;
+		bucketWidth = initialWidth;
+	}
+
+	/**
+	 * Gets the number of buckets in use.
+	 *
+	 * @return The number of buckets up to and including the last one with samples
+	 */
+	public int getBucketCount() {
+		return bucketCount;
+	}
+
+	/**
+	 * Gets the current bucket width.
+	 *
+	 * @return The width in simulation time units
+	 */
+	public double getBucketWidth() {
+		return bucketWidth;
+	}
+
+	/**
+	 * Gets the start time of a bucket.
+	 *
+	 * @param bucket Index of the bucket
+	 * @return The simulation time at which the bucket starts
+	 */
+	public double getBucketStart(int bucket) {
+		return bucket * bucketWidth;
+	}
+
+	/**
+	 * Gets the number of samples in a bucket.
+	 *
+	 * @param bucket Index of the bucket
+	 * @param series Index of the series
+	 * @return The number of samples
+	 */
+	public long getCount(int bucket, int series) {
+		return counts[bucket * seriesCount + series];
+	}
+
+	/**
+	 * Gets the sum of the samples in a bucket.
+	 *
+	 * @param bucket Index of the bucket
+	 * @param series Index of the series
+	 * @return The sum of the samples
+	 */
+	public double getSum(int bucket, int series) {
+		return sums[bucket * seriesCount + series];
+	}
+
+	/**
+	 * Gets the mean of the samples in a bucket.
+	 *
+	 * @param bucket Index of the bucket
+	 * @param series Index of the series
+	 * @return The mean, or NaN if the bucket has no samples
+	 */
+	public double getMean(int bucket, int series) {
+		long count = getCount(bucket, series);
+		return count > 0 ? getSum(bucket, series) / count : Double.NaN;
+	}
+
+	/**
+	 * Gets the largest sample in a bucket.
+	 *
+	 * @param bucket Index of the bucket
+	 * @param series Index of the series
+	 * @return The maximum, or NaN if the bucket has no samples
+	 */
+	public double getMax(int bucket, int series) {
+		return getCount(bucket, series) > 0 ? maxima[bucket * seriesCount + series] : Double.NaN;
+	}
+
+	/**
+	 * Gets the mean of all samples of a series.
+	 *
+	 * @param series Index of the series
+	 * @return The mean, or NaN if the series has no samples
+	 */
+	public double getOverallMean(int series) {
+		long count = 0;
+		double sum = 0.0;
+		for (int b = 0; b < bucketCount; b++) {
+			count += getCount(b, series);
+			sum += getSum(b, series);
+		}
+		return count > 0 ? sum / count : Double.NaN;
+	}
+}
@@ -3,6 +3,10 @@ package simu.framework;
 /**
  * Singleton class representing the simulation clock.
  * Maintains the current simulation time and provides methods to get, set, and reset it.
+ * <p>
+ * There is one clock per thread, so that independent replications can run
+ * in parallel; an {@link Engine} binds the clock it was constructed with to
+ * the thread that runs it.
  * 
  * @author Group 8
  * @version 1.0
@@ -10,8 +14,8 @@ package simu.framework;
 public class Clock {
 	/** Current simulation time */
 	private double time;
-	/** Singleton instance of the clock */
-	private static Clock instance;
+	/** Clock of the simulation running on each thread */
+	private static final ThreadLocal<Clock> instance = ThreadLocal.withInitial(Clock::new);
 	
 	/**
 	 * Private constructor for singleton pattern.
@@ -22,16 +26,35 @@ public class Clock {
 	}
 	
 	/**
-	 * Gets the singleton instance of the Clock.
+	 * Gets the Clock instance of the current thread.
 	 * Creates a new instance if one doesn't exist.
 	 * 
-	 * @return The singleton Clock instance
+	 * @return The Clock instance of the current thread
 	 */
 	public static Clock getInstance(){
-		if (instance == null){
-			instance = new Clock();
-		}
-		return instance;
+		return instance.get();
+	}
+
+	/**
+	 * Replaces the clock of the current thread with a new one at time 0.
+	 * Used before constructing an engine on a thread that may have run
+	 * another simulation, e.g. a pooled worker thread.
+	 * 
+	 * @return The new Clock instance of the current thread
+	 */
+	public static Clock newInstance(){
+		Clock clock = new Clock();
+		instance.set(clock);
+		return clock;
+	}
+
+	/**
+	 * Makes the given clock the clock of the current thread.
+	 * 
+	 * @param clock The clock of the engine running on this thread
+	 */
+	static void bind(Clock clock){
+		instance.set(clock);
 	}
 	
 	/**
@@ -0,0 +1,227 @@
+package simu.framework;
+
+import simu.model.ServicePoint;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Optional wall-clock profiler for the simulation engine.
+ * Records count, total and maximum nanoseconds per event type (B-phase dispatch)
+ * and per service point (beginService and removeQueue), and produces a report
+ * ranked by total time.
+ * <p>
+ * The engine only calls into the profiler when one is installed, so a disabled
+ * profiler costs a single null check per event. Event types get an array slot
+ * when first seen and are found again by a linear search, which for the handful
+ * of types of a model is as fast as a hash lookup and works for any
+ * {@link IEventType}, not only enums.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class DispatchProfiler {
+	/** Event types seen so far, in the order they were first seen */
+	private IEventType[] eventTypes = new IEventType[16];
+	/** Number of event types seen so far */
+	private int eventTypeCount = 0;
+	/** Number of dispatches per event type */
+	private long[] eventCount = new long[16];
+	/** Total wall nanoseconds per event type */
+	private long[] eventTotalNanos = new long[16];
+	/** Longest single dispatch per event type */
+	private long[] eventMaxNanos = new long[16];
+
+	/** Names of the attached service points */
+	private String[] stationNames = new String[0];
+	/** Number of profiled operations per service point */
+	private long[] stationCount = new long[0];
+	/** Total wall nanoseconds per service point */
+	private long[] stationTotalNanos = new long[0];
+	/** Longest single operation per service point */
+	private long[] stationMaxNanos = new long[0];
+
+	/**
+	 * Attaches this profiler to the given service points.
+	 * Each service point reports its queue operations under its array index.
+	 *
+	 * @param servicePoints The service points of the engine
+	 */
+	public void attach(ServicePoint[] servicePoints) {
+		int n = servicePoints.length;
+		stationNames = new String[n];
+		stationCount = new long[n];
+		stationTotalNanos = new long[n];
+		stationMaxNanos = new long[n];
+		for (int i = 0; i < n; i++) {
+			if (servicePoints[i] != null) {
+				stationNames[i] = servicePoints[i].getName() + " #" + i;
+				servicePoints[i].setProfiler(this, i);
+			}
+		}
+	}
+
+	/**
+	 * Records one dispatched event.
+	 *
+	 * @param type The type of the dispatched event
+	 * @param nanos Wall time spent handling the event
+	 */
+	public void recordEvent(IEventType type, long nanos) {
+		int i = slotOf(type);
+		eventCount[i]++;
+		eventTotalNanos[i] += nanos;
+		if (nanos > eventMaxNanos[i]) {
+			eventMaxNanos[i] = nanos;
+		}
+	}
+
+	/**
+	 * Records one service point operation.
+	 *
+	 * @param index Index of the service point given in {@link #attach}
+	 * @param nanos Wall time spent in the operation
+	 */
+	public void recordServicePoint(int index, long nanos) {
+		stationCount[index]++;
+		stationTotalNanos[index] += nanos;
+		if (nanos > stationMaxNanos[index]) {
+			stationMaxNanos[index] = nanos;
+		}
+	}
+
+	/**
+	 * Gets the report rows, event types first and service points second,
+	 * each group ranked by total time (largest first).
+	 *
+	 * @return The ranked report rows
+	 */
+	public List<Row> getRows() {
+		List<Row> events = new ArrayList<>();
+		for (int i = 0; i < eventTypeCount; i++) {
+			if (eventCount[i] > 0) {
+				events.add(new Row("event", eventTypes[i].toString(), eventCount[i], eventTotalNanos[i], eventMaxNanos[i]));
+			}
+		}
+		List<Row> stations = new ArrayList<>();
+		for (int i = 0; i < stationCount.length; i++) {
+			if (stationCount[i] > 0) {
+				stations.add(new Row("station", stationNames[i], stationCount[i], stationTotalNanos[i], stationMaxNanos[i]));
+			}
+		}
+		events.sort((a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+		stations.sort((a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+		events.addAll(stations);
+		return events;
+	}
+
+	/**
+	 * Prints the ranked report as a table.
+	 *
+	 * @param out The stream to print to
+	 */
+	public void printReport(PrintStream out) {
+		out.println("=== Dispatch Profile ===");
+		out.println(String.format(Locale.ROOT, "%-8s %-24s %12s %14s %12s %12s",
+				"Kind", "Name", "Count", "Total (ms)", "Mean (ns)", "Max (ns)"));
+		for (Row row : getRows()) {
+			out.println(String.format(Locale.ROOT, "%-8s %-24s %12d %14.3f %12.0f %12d",
+					row.kind, row.name, row.count, row.totalNanos / 1e6, row.getMeanNanos(), row.maxNanos));
+		}
+	}
+
+	/**
+	 * Exports the ranked report to a CSV file.
+	 *
+	 * @param file The file path where the CSV will be written
+	 * @throws IOException if an I/O error occurs while writing the file
+	 */
+	public void exportCsv(String file) throws IOException {
+		try (FileWriter writer = new FileWriter(file)) {
+			writer.write("Kind,Name,Count,TotalNanos,MeanNanos,MaxNanos\n");
+			for (Row row : getRows()) {
+				writer.write(row.kind + "," + row.name + "," + row.count + "," + row.totalNanos + ","
+						+ row.getMeanNanos() + "," + row.maxNanos + "\n");
+			}
+		}
+	}
+
+	/**
+	 * Finds the slot of an event type, adding one if the type is new.
+	 *
+	 * @param type The event type
+	 * @return Its index in the per-event-type arrays
+	 */
+	private int slotOf(IEventType type) {
+		for (int i = 0; i < eventTypeCount; i++) {
+			if (eventTypes[i].equals(type)) {
+				return i;
+			}
+		}
+		if (eventTypeCount == eventTypes.length) {
+			grow(eventTypeCount + 1);
+		}
+		eventTypes[eventTypeCount] = type;
+		return eventTypeCount++;
+	}
+
+	/**
+	 * Grows the per-event-type arrays.
+	 *
+	 * @param minLength Required minimum length
+	 */
+	private void grow(int minLength) {
+		int length = Math.max(minLength, eventCount.length * 2);
+		eventTypes = Arrays.copyOf(eventTypes, length);
+		eventCount = Arrays.copyOf(eventCount, length);
+		eventTotalNanos = Arrays.copyOf(eventTotalNanos, length);
+		eventMaxNanos = Arrays.copyOf(eventMaxNanos, length);
+	}
+
+	/**
+	 * One line of the profile report.
+	 */
+	public static class Row {
+		/** Either "event" or "station" */
+		public final String kind;
+		/** Event type or service point name */
+		public final String name;
+		/** Number of recorded operations */
+		public final long count;
+		/** Total wall nanoseconds */
+		public final long totalNanos;
+		/** Longest single operation in nanoseconds */
+		public final long maxNanos;
+
+		/**
+		 * Constructs a new report row.
+		 *
+		 * @param kind Either "event" or "station"
+		 * @param name Event type or service point name
+		 * @param count Number of recorded operations
+		 * @param totalNanos Total wall nanoseconds
+		 * @param maxNanos Longest single operation in nanoseconds
+		 */
+		Row(String kind, String name, long count, long totalNanos, long maxNanos) {
+			this.kind = kind;
+			this.name = name;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+		}
+
+		/**
+		 * Gets the mean time per operation.
+		 *
+		 * @return Mean wall nanoseconds per operation
+		 */
+		public double getMeanNanos() {
+			return count > 0 ? (double) totalNanos / count : 0.0;
+		}
+	}
+}
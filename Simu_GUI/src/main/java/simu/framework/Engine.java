@@ -1,6 +1,10 @@
 package simu.framework;
 
 import controller.IControllerMtoV;
+import simu.framework.jfr.DispatchEvent;
+import simu.framework.jfr.JfrSampler;
+import simu.framework.jfr.ReplicationEvent;
+import simu.framework.jfr.ServiceStartEvent;
 import simu.model.ServicePoint;
 
 /**
@@ -20,6 +24,20 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 	private Clock clock;				// in order to simplify the code (clock.getClock() instead Clock.getInstance().getClock())
 	/** Flag indicating if the simulation is paused */
 	private volatile boolean paused = false;  // Pause flag
+	/** Number of B-phase events dispatched so far */
+	private long dispatchedEvents = 0;
+	/** Selects which dispatches are timed for JFR */
+	private final JfrSampler dispatchSampler = new JfrSampler();
+	/** Selects which C-phase service starts are timed for JFR */
+	private final JfrSampler serviceStartSampler = new JfrSampler();
+	/** Dispatch profiler, or null when profiling is disabled */
+	protected DispatchProfiler profiler = Boolean.getBoolean("simu.profile") ? new DispatchProfiler() : null;
+	/** Rule that may end the run before the simulation time, or null */
+	private StoppingRule stoppingRule;
+	/** Whether the last run was ended by the stopping rule */
+	private boolean stoppedByRule = false;
+	/** Whether the model keeps only bounded, aggregated history (for very long horizons) */
+	protected boolean constantMemoryMode = Boolean.getBoolean("simu.constantMemory");
 	
 	/** List of scheduled events */
 	protected EventList eventList;
@@ -77,6 +95,13 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 	 */
 	@Override
 	public void run() {
+		ReplicationEvent replicationEvent = new ReplicationEvent();
+		replicationEvent.begin();
+
+		Clock.bind(clock);
+		if (profiler != null) {
+			profiler.attach(servicePoints);
+		}
 		initialization(); // creating, e.g., the first event
 
 		while (simulate() && !Thread.currentThread().isInterrupted()){
@@ -102,6 +127,64 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 		}
 
 		results();
+
+		replicationEvent.end();
+		if (replicationEvent.shouldCommit()) {
+			replicationEvent.engine = getClass().getSimpleName();
+			replicationEvent.endTime = clock.getTime();
+			replicationEvent.dispatchedEvents = dispatchedEvents;
+			replicationEvent.commit();
+		}
+	}
+	
+	/**
+	 * Enables or disables the built-in dispatch profiler.
+	 * Profiling is off unless enabled here or with {@code -Dsimu.profile=true}.
+	 * 
+	 * @param enabled true to record per-event-type and per-service-point timings
+	 */
+	@Override
+	public void setProfilingEnabled(boolean enabled) {
+		profiler = enabled ? new DispatchProfiler() : null;
+	}
+	
+	/**
+	 * Enables or disables constant-memory mode.
+	 * The mode is off unless enabled here or with {@code -Dsimu.constantMemory=true}.
+	 * 
+	 * @param enabled true to keep memory use independent of the simulated horizon
+	 */
+	@Override
+	public void setConstantMemoryMode(boolean enabled) {
+		constantMemoryMode = enabled;
+	}
+	
+	/**
+	 * Sets a rule that can end the run before the simulation time is reached.
+	 * The simulation time then acts as the maximum run length.
+	 * 
+	 * @param stoppingRule The rule, checked before every simulation step, or null to run to the simulation time
+	 */
+	public void setStoppingRule(StoppingRule stoppingRule) {
+		this.stoppingRule = stoppingRule;
+	}
+	
+	/**
+	 * Checks whether the run was ended by the stopping rule rather than by reaching the simulation time.
+	 * 
+	 * @return true if the stopping rule ended the run
+	 */
+	public boolean isStoppedByRule() {
+		return stoppedByRule;
+	}
+	
+	/**
+	 * Gets the dispatch profiler.
+	 * 
+	 * @return The profiler, or null when profiling is disabled
+	 */
+	public DispatchProfiler getProfiler() {
+		return profiler;
 	}
 	
 	/**
@@ -130,13 +213,44 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 		return paused;
 	}
 	
+	/**
+	 * Gets the number of B-phase events dispatched so far.
+	 * 
+	 * @return The number of dispatched events
+	 */
+	public long getDispatchedEvents() {
+		return dispatchedEvents;
+	}
+	
 	/**
 	 * Processes all B-phase events scheduled for the current simulation time.
 	 * B-phase events are events that occur at a specific time (e.g., arrivals, departures).
+	 * When a JFR recording is active, a sample of the dispatches is timed
+	 * and recorded as {@link DispatchEvent}s. When profiling is enabled,
+	 * every dispatch is timed by the {@link DispatchProfiler}.
 	 */
 	private void runBEvents() {
 		while (eventList.getNextTime() == clock.getTime()){
-			runEvent(eventList.remove());
+			Event event = eventList.remove();
+			dispatchedEvents++;
+			long start = profiler != null ? System.nanoTime() : 0L;
+			DispatchEvent jfrEvent = new DispatchEvent();
+			if (jfrEvent.isEnabled() && dispatchSampler.sample()) {
+				jfrEvent.begin();
+				runEvent(event);
+				jfrEvent.end();
+				if (jfrEvent.shouldCommit()) {
+					jfrEvent.eventType = String.valueOf(event.getType());
+					jfrEvent.simTime = event.getTime();
+					jfrEvent.pending = eventList.size();
+					jfrEvent.commit();
+				}
+			} else {
+				runEvent(event);
+			}
+			if (profiler != null) {
+				profiler.recordEvent(event.getType(), System.nanoTime() - start);
+			}
 		}
 	}
 
@@ -148,7 +262,19 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 	private void tryCEvents() {    // define protected, if you want to overwrite
 		for (ServicePoint p: servicePoints){
 			if (!p.isReserved() && p.isOnQueue()){
-				p.beginService();
+				ServiceStartEvent jfrEvent = new ServiceStartEvent();
+				if (jfrEvent.isEnabled() && serviceStartSampler.sample()) {
+					jfrEvent.begin();
+					p.beginService();
+					jfrEvent.end();
+					if (jfrEvent.shouldCommit()) {
+						jfrEvent.station = p.getName();
+						jfrEvent.simTime = clock.getTime();
+						jfrEvent.commit();
+					}
+				} else {
+					p.beginService();
+				}
 			}
 		}
 	}
@@ -165,11 +291,21 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 	/**
 	 * Checks if the simulation should continue running.
 	 * 
-	 * @return true if current time is less than simulation end time, false otherwise
+	 * @return true if current time is less than simulation end time and the
+	 *         stopping rule (if any) does not end the run, false otherwise
 	 */
 	private boolean simulate() {
-		Trace.out(Trace.Level.INFO, "Time is: " + clock.getTime());
-		return clock.getTime() < simulationTime;
+		if (Trace.isEnabled(Trace.Level.INFO)) {
+			Trace.out(Trace.Level.INFO, "Time is: " + clock.getTime());
+		}
+		if (clock.getTime() >= simulationTime) {
+			return false;
+		}
+		if (stoppingRule != null && stoppingRule.shouldStop()) {
+			stoppedByRule = true;
+			return false;
+		}
+		return true;
 	}
 
 	/**
@@ -178,6 +314,9 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 	 */
 	private void delay() { // NEW
 		Trace.out(Trace.Level.INFO, "Delay " + delay);
+		if (delay == 0) {
+			return; // headless runs do not pace the simulation
+		}
 		try {
 			sleep(delay);
 		} catch (InterruptedException e) {
@@ -1,5 +1,7 @@
 package simu.framework;
 
+import simu.model.ServicePoint;
+
 /**
  * Represents an event in the discrete event simulation.
  * Events are scheduled at specific times and processed by the engine.
@@ -13,6 +15,8 @@ public class Event implements Comparable<Event> {
 	private IEventType type;
 	/** Simulation time when this event should occur */
 	private double time;
+	/** Service point that scheduled this event, or null */
+	private ServicePoint servicePoint;
 	
 	/**
 	 * Constructs a new Event with the specified type and time.
@@ -25,6 +29,18 @@ public class Event implements Comparable<Event> {
 		this.time = time;
 	}
 	
+	/**
+	 * Constructs a new Event scheduled by a service point (e.g. a departure).
+	 * 
+	 * @param type The type of event
+	 * @param time The simulation time when the event should occur
+	 * @param servicePoint The service point that scheduled the event
+	 */
+	public Event(IEventType type, double time, ServicePoint servicePoint) {
+		this(type, time);
+		this.servicePoint = servicePoint;
+	}
+	
 	/**
 	 * Sets the event type.
 	 * 
@@ -61,6 +77,17 @@ public class Event implements Comparable<Event> {
 		return time;
 	}
 
+	/**
+	 * Gets the service point that scheduled this event.
+	 * Lets engines with many stations of the same type find the station
+	 * a departure belongs to without probing.
+	 * 
+	 * @return The scheduling service point, or null for events not scheduled by a service point
+	 */
+	public ServicePoint getServicePoint() {
+		return servicePoint;
+	}
+
 	/**
 	 * Compares this event to another event by time.
 	 * Used for ordering events in priority queues.
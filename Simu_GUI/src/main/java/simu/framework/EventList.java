@@ -45,6 +45,15 @@ public class EventList {
 	public double getNextTime(){
 		return lista.peek().getTime();
 	}
+
+	/**
+	 * Gets the number of events currently scheduled.
+	 * 
+	 * @return The number of pending events
+	 */
+	public int size(){
+		return lista.size();
+	}
 	
 	
 }
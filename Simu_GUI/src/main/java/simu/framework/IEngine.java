@@ -45,4 +45,21 @@ public interface IEngine { // NEW
 	 * @return true if paused, false otherwise
 	 */
 	public boolean isPaused();
+	
+	/**
+	 * Enables or disables the built-in dispatch profiler.
+	 * Must be called before the simulation is started.
+	 * 
+	 * @param enabled true to record per-event-type and per-service-point timings
+	 */
+	public void setProfilingEnabled(boolean enabled);
+	
+	/**
+	 * Enables or disables constant-memory mode, in which the model keeps only
+	 * bounded, aggregated history so that memory use stays flat regardless of
+	 * the simulated horizon. Must be called before the simulation is started.
+	 * 
+	 * @param enabled true to keep memory use independent of the simulated horizon
+	 */
+	public void setConstantMemoryMode(boolean enabled);
 }
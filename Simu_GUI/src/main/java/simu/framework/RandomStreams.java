@@ -0,0 +1,134 @@
+package simu.framework;
+
+import eduni.distributions.RandomGenerator;
+
+/**
+ * Named random number streams for common random numbers. Every source of
+ * randomness in a model (the arrival process, the service times of each
+ * station, each customer attribute) draws from its own stream, whose seed is
+ * derived from a base seed and the stream name only. Two scenarios simulated
+ * with the same base seed therefore see identical arrivals, identical service
+ * time sequences at every station they share and identical customer
+ * attributes, so the difference between their results reflects the change in
+ * the scenario instead of unrelated noise, and paired comparisons need far
+ * fewer replications.
+ * <p>
+ * The seeds are spread over the whole seed range of the
+ * {@link RandomGenerator} with the SplitMix64 finalizer, so streams with
+ * different names or base seeds are practically independent for runs that
+ * use a small part of the generator's period.
+ * <p>
+ * The {@link #antithetic() antithetic} counterpart of a set of streams has
+ * the same seeds but turns every uniform number U into 1-U, for antithetic
+ * pairs of replications.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class RandomStreams {
+	/** Base seed used when none is given (overridden by {@code -Dsimu.seed}) */
+	public static final long DEFAULT_SEED = 4851L;
+	/** Modulus of the {@link RandomGenerator}; valid seeds are 1 to MODULUS - 1 */
+	private static final long MODULUS = 2147483647L;
+
+	/** Base seed of all streams */
+	private final long seed;
+	/** Whether the streams return 1-U instead of U */
+	private final boolean antithetic;
+
+	/**
+	 * Constructs the streams of a base seed.
+	 *
+	 * @param seed The base seed
+	 */
+	public RandomStreams(long seed) {
+		this(seed, false);
+	}
+
+	private RandomStreams(long seed, boolean antithetic) {
+		this.seed = seed;
+		this.antithetic = antithetic;
+	}
+
+	/**
+	 * Gets the streams of the base seed set with {@code -Dsimu.seed}, or of
+	 * {@link #DEFAULT_SEED} if the property is not set.
+	 *
+	 * @return The default streams
+	 */
+	public static RandomStreams defaultStreams() {
+		return new RandomStreams(Long.getLong("simu.seed", DEFAULT_SEED));
+	}
+
+	/**
+	 * Gets the base seed.
+	 *
+	 * @return The base seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Checks whether the streams return antithetic variates.
+	 *
+	 * @return true if every uniform number U is replaced by 1-U
+	 */
+	public boolean isAntithetic() {
+		return antithetic;
+	}
+
+	/**
+	 * Gets the antithetic counterpart of these streams: the same seeds, with every
+	 * uniform number U replaced by 1-U.
+	 *
+	 * @return The antithetic streams
+	 */
+	public RandomStreams antithetic() {
+		return new RandomStreams(seed, true);
+	}
+
+	/**
+	 * Derives the streams of one replication. Replications with different indices
+	 * are independent; the same index gives the same streams, so replication
+	 * {@code r} of two scenarios can be compared pairwise.
+	 *
+	 * @param replication The replication index
+	 * @return The streams of the replication (antithetic if these streams are)
+	 */
+	public RandomStreams forReplication(int replication) {
+		return new RandomStreams(mix(seed + (replication + 1) * 0x9E3779B97F4A7C15L), antithetic);
+	}
+
+	/**
+	 * Gets the seed of a named stream.
+	 *
+	 * @param name The stream name, e.g. "arrivals"
+	 * @return A seed between 1 and 2^31 - 2, valid for the {@link RandomGenerator}
+	 */
+	public long seed(String name) {
+		long h = mix(mix(seed) ^ name.hashCode());
+		return 1 + Math.floorMod(h, MODULUS - 1);
+	}
+
+	/**
+	 * Creates a uniform generator on a named stream.
+	 *
+	 * @param name The stream name
+	 * @return A new generator of uniform numbers between 0 and 1
+	 */
+	public RandomGenerator uniform(String name) {
+		RandomGenerator generator = new RandomGenerator(seed(name));
+		generator.setAntithetic(antithetic);
+		return generator;
+	}
+
+	/**
+	 * The SplitMix64 finalizer: a bijective mix of the bits of a long.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
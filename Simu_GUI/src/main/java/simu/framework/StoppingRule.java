@@ -0,0 +1,18 @@
+package simu.framework;
+
+/**
+ * Condition that ends a simulation run before its simulation time is reached,
+ * e.g. when an estimate is precise enough. Checked by the {@link Engine}
+ * before every simulation step.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public interface StoppingRule {
+	/**
+	 * Checks whether the run can stop.
+	 *
+	 * @return true to end the run now
+	 */
+	boolean shouldStop();
+}
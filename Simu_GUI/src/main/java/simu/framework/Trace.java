@@ -34,6 +34,17 @@ public class Trace {
 		traceLevel = lvl;
 	}
 	
+	/**
+	 * Checks whether messages of the given level are currently output.
+	 * Lets callers skip building message strings that would be discarded.
+	 * 
+	 * @param lvl The severity level to check
+	 * @return true if messages of this level are output
+	 */
+	public static boolean isEnabled(Level lvl){
+		return lvl.ordinal() >= traceLevel.ordinal();
+	}
+	
 	/**
 	 * Outputs a trace message if its level is at or above the current trace level.
 	 * 
@@ -0,0 +1,312 @@
+package simu.framework;
+
+import java.util.Arrays;
+
+/**
+ * Per-station time series aggregated into fixed simulation-time windows.
+ * The model reports the queue length of a channel (one per service point)
+ * whenever it changes; within the current window the time-weighted queue
+ * length, the largest queue, the arrivals (increases), the departures
+ * (decreases) and the busy time (time with at least one customer) are
+ * accumulated. When the simulation time passes the end of the window, the
+ * window is completed: its values are stored in a primitive ring buffer
+ * holding the most recent windows and published to the listener.
+ * <p>
+ * Consumers therefore see one row per window, e.g. 60 per simulated hour
+ * with one-minute windows, however many events the model processes.
+ * Neither recording nor publishing allocates.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class WindowedTimeSeries {
+	/** Field: time-weighted mean queue length in the window */
+	public static final int MEAN_QUEUE = 0;
+	/** Field: largest queue length in the window */
+	public static final int MAX_QUEUE = 1;
+	/** Field: number of customers who joined the queue */
+	public static final int ARRIVALS = 2;
+	/** Field: number of customers who left the queue */
+	public static final int DEPARTURES = 3;
+	/** Field: fraction of the window with at least one customer at the station */
+	public static final int UTILIZATION = 4;
+	/** Number of fields per channel */
+	public static final int FIELDS = 5;
+
+	/**
+	 * Receives completed windows. Called on the simulation thread; the window
+	 * must be read before returning, as the ring buffer may overwrite it later.
+	 */
+	public interface Listener {
+		/**
+		 * Called when a window is completed.
+		 *
+		 * @param timeSeries The time series
+		 * @param window Index of the completed window, the newest kept
+		 */
+		void windowCompleted(WindowedTimeSeries timeSeries, int window);
+	}
+
+	/** Number of channels */
+	private final int channels;
+	/** Width of a window in simulation time units */
+	private final double windowWidth;
+	/** Number of completed windows kept */
+	private final int capacity;
+
+	/** Values of the kept windows, FIELDS values per channel and window */
+	private final double[] windows;
+	/** Start time per kept window */
+	private final double[] windowStarts;
+	/** End time per kept window */
+	private final double[] windowEnds;
+	/** Number of windows completed since the start */
+	private long completedWindows = 0;
+
+	/** Start of the current window */
+	private double windowStart;
+	/** Queue length integral per channel in the current window */
+	private final double[] queueArea;
+	/** Busy time per channel in the current window */
+	private final double[] busyTime;
+	/** Largest queue length per channel in the current window */
+	private final int[] maxQueue;
+	/** Arrivals per channel in the current window */
+	private final int[] arrivals;
+	/** Departures per channel in the current window */
+	private final int[] departures;
+	/** Current queue length per channel */
+	private final int[] level;
+	/** Time of the last change per channel */
+	private final double[] lastChange;
+
+	/** Receiver of completed windows, or null */
+	private Listener listener;
+
+	/**
+	 * Constructs a new time series starting at time 0.
+	 *
+	 * @param channels Number of channels (service points)
+	 * @param windowWidth Width of a window in simulation time units
+	 * @param capacity Number of completed windows kept in the ring buffer
+	 */
+	public WindowedTimeSeries(int channels, double windowWidth, int capacity) {
+		if (channels < 1 || !(windowWidth > 0) || capacity < 1) {
+			throw new IllegalArgumentException("Need at least one channel, a positive window width and capacity");
+		}
+		this.channels = channels;
+		this.windowWidth = windowWidth;
+		this.capacity = capacity;
+		this.windows = new double[capacity * channels * FIELDS];
+		this.windowStarts = new double[capacity];
+		this.windowEnds = new double[capacity];
+		this.queueArea = new double[channels];
+		this.busyTime = new double[channels];
+		this.maxQueue = new int[channels];
+		this.arrivals = new int[channels];
+		this.departures = new int[channels];
+		this.level = new int[channels];
+		this.lastChange = new double[channels];
+	}
+
+	/**
+	 * Sets the receiver of completed windows.
+	 *
+	 * @param listener The listener, or null
+	 */
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Discards all windows and starts the first window at the given time
+	 * with every queue empty.
+	 *
+	 * @param time Simulation time at which the first window starts
+	 */
+	public void start(double time) {
+		completedWindows = 0;
+		windowStart = time;
+		Arrays.fill(level, 0);
+		Arrays.fill(lastChange, time);
+		clearCurrentWindow();
+	}
+
+	/**
+	 * Records the queue length of a channel after it changed.
+	 *
+	 * @param time The current simulation time
+	 * @param channel The channel
+	 * @param queueLength The new queue length
+	 */
+	public void record(double time, int channel, int queueLength) {
+		advanceTo(time);
+		accumulate(channel, time);
+		int delta = queueLength - level[channel];
+		if (delta > 0) {
+			arrivals[channel] += delta;
+		} else {
+			departures[channel] -= delta;
+		}
+		level[channel] = queueLength;
+		if (queueLength > maxQueue[channel]) {
+			maxQueue[channel] = queueLength;
+		}
+	}
+
+	/**
+	 * Completes every window that ends at or before the given time.
+	 *
+	 * @param time The current simulation time
+	 */
+	public void advanceTo(double time) {
+		while (time >= windowStart + windowWidth) {
+			completeWindow(windowStart + windowWidth);
+		}
+	}
+
+	/**
+	 * Completes all windows up to the given time, including a final partial window.
+	 *
+	 * @param time The simulation time at which the run ends
+	 */
+	public void finish(double time) {
+		advanceTo(time);
+		if (time > windowStart) {
+			completeWindow(time);
+		}
+	}
+
+	/**
+	 * Gets the number of channels.
+	 *
+	 * @return The channel count
+	 */
+	public int getChannelCount() {
+		return channels;
+	}
+
+	/**
+	 * Gets the width of a window.
+	 *
+	 * @return The window width in simulation time units
+	 */
+	public double getWindowWidth() {
+		return windowWidth;
+	}
+
+	/**
+	 * Gets the number of windows completed since the start, including those
+	 * no longer kept.
+	 *
+	 * @return The completed window count
+	 */
+	public long getCompletedWindowCount() {
+		return completedWindows;
+	}
+
+	/**
+	 * Gets the number of completed windows kept.
+	 *
+	 * @return The number of windows that can be read, oldest first
+	 */
+	public int getWindowCount() {
+		return (int) Math.min(completedWindows, capacity);
+	}
+
+	/**
+	 * Gets the start time of a kept window.
+	 *
+	 * @param window Index of the window, 0 being the oldest kept
+	 * @return The start time
+	 */
+	public double getWindowStart(int window) {
+		return windowStarts[slot(window)];
+	}
+
+	/**
+	 * Gets the end time of a kept window.
+	 *
+	 * @param window Index of the window, 0 being the oldest kept
+	 * @return The end time
+	 */
+	public double getWindowEnd(int window) {
+		return windowEnds[slot(window)];
+	}
+
+	/**
+	 * Gets a value of a kept window.
+	 *
+	 * @param window Index of the window, 0 being the oldest kept
+	 * @param channel The channel
+	 * @param field The field, e.g. {@link #MEAN_QUEUE}
+	 * @return The value
+	 */
+	public double getValue(int window, int channel, int field) {
+		return windows[slot(window) * channels * FIELDS + channel * FIELDS + field];
+	}
+
+	/**
+	 * Maps a window index (oldest kept first) to its slot in the ring buffer.
+	 */
+	private int slot(int window) {
+		if (window < 0 || window >= getWindowCount()) {
+			throw new IndexOutOfBoundsException("Window " + window + " of " + getWindowCount());
+		}
+		return (int) ((completedWindows - getWindowCount() + window) % capacity);
+	}
+
+	/**
+	 * Closes the current window at the given end time, stores and publishes it
+	 * and starts the next window there.
+	 */
+	private void completeWindow(double windowEnd) {
+		int slot = (int) (completedWindows % capacity);
+		double width = windowEnd - windowStart;
+		for (int c = 0; c < channels; c++) {
+			accumulate(c, windowEnd);
+			int base = (slot * channels + c) * FIELDS;
+			windows[base + MEAN_QUEUE] = queueArea[c] / width;
+			windows[base + MAX_QUEUE] = maxQueue[c];
+			windows[base + ARRIVALS] = arrivals[c];
+			windows[base + DEPARTURES] = departures[c];
+			windows[base + UTILIZATION] = busyTime[c] / width;
+		}
+		windowStarts[slot] = windowStart;
+		windowEnds[slot] = windowEnd;
+		completedWindows++;
+
+		windowStart = windowEnd;
+		clearCurrentWindow();
+
+		if (listener != null) {
+			listener.windowCompleted(this, getWindowCount() - 1);
+		}
+	}
+
+	/**
+	 * Clears the accumulators of the current window; the largest queue starts
+	 * at the queue length carried over from the previous window.
+	 */
+	private void clearCurrentWindow() {
+		Arrays.fill(queueArea, 0.0);
+		Arrays.fill(busyTime, 0.0);
+		Arrays.fill(arrivals, 0);
+		Arrays.fill(departures, 0);
+		System.arraycopy(level, 0, maxQueue, 0, channels);
+	}
+
+	/**
+	 * Weights the current queue length of a channel by the time since its last change.
+	 */
+	private void accumulate(int channel, double time) {
+		double dt = time - lastChange[channel];
+		if (dt > 0) {
+			queueArea[channel] += level[channel] * dt;
+			if (level[channel] > 0) {
+				busyTime[channel] += dt;
+			}
+		}
+		lastChange[channel] = time;
+	}
+}
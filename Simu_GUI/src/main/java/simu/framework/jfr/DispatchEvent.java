@@ -0,0 +1,35 @@
+package simu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event emitted around the dispatch of a single B-phase event
+ * (see {@code Engine.runBEvents}).
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@Name("simu.EventDispatch")
+@Label("Event Dispatch")
+@Category({"Simulation", "Engine"})
+@Description("Wall time spent handling one scheduled (B-phase) event")
+@Threshold("20 us")
+@StackTrace(false)
+public class DispatchEvent extends jdk.jfr.Event {
+	/** Type of the simulation event that was dispatched */
+	@Label("Event Type")
+	public String eventType;
+
+	/** Simulation time of the dispatched event */
+	@Label("Simulation Time")
+	public double simTime;
+
+	/** Number of events still pending after this one was removed */
+	@Label("Pending Events")
+	public int pending;
+}
@@ -0,0 +1,28 @@
+package simu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event emitted around writing simulation results to disk.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@Name("simu.Export")
+@Label("Results Export")
+@Category({"Simulation", "I/O"})
+@Description("Simulation results written to a file")
+public class ExportEvent extends jdk.jfr.Event {
+	/** Path of the file that was written */
+	@Label("File")
+	public String file;
+
+	/** Number of characters written */
+	@Label("Size")
+	@DataAmount
+	public long bytes;
+}
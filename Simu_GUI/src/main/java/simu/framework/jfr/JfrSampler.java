@@ -0,0 +1,54 @@
+package simu.framework.jfr;
+
+/**
+ * Counts hot-path operations and selects every n-th one for JFR timing.
+ * Only the selected operations pay for the begin/end timestamps, so the
+ * per-event overhead of an enabled recording is divided by the sampling interval.
+ * <p>
+ * The interval is read from the {@code simu.jfr.sampleEvery} system property
+ * (default 16) and rounded up to a power of two. A value of 1 times every operation.
+ * Each owner keeps its own sampler, so no state is shared between threads.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class JfrSampler {
+	/** Default sampling interval when the system property is not set */
+	public static final int DEFAULT_INTERVAL = 16;
+	/** Sampling interval shared by all samplers, as a power-of-two mask */
+	private static final int MASK = toMask(Integer.getInteger("simu.jfr.sampleEvery", DEFAULT_INTERVAL));
+
+	/** Number of operations seen by this sampler */
+	private int count;
+
+	/**
+	 * Counts one operation.
+	 *
+	 * @return true if this operation should be timed and recorded
+	 */
+	public boolean sample() {
+		return (++count & MASK) == 0;
+	}
+
+	/**
+	 * Gets the effective sampling interval.
+	 *
+	 * @return The number of operations per recorded sample
+	 */
+	public static int getInterval() {
+		return MASK + 1;
+	}
+
+	/**
+	 * Converts an interval to a bit mask, rounding up to the next power of two.
+	 *
+	 * @param interval Requested sampling interval
+	 * @return Mask such that {@code (count & mask) == 0} once per interval
+	 */
+	private static int toMask(int interval) {
+		if (interval <= 1) {
+			return 0;
+		}
+		return Integer.highestOneBit(interval - 1) * 2 - 1;
+	}
+}
@@ -0,0 +1,31 @@
+package simu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning one complete simulation run (one replication),
+ * from initialization to the end of {@code results()}.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@Name("simu.Replication")
+@Label("Replication")
+@Category({"Simulation", "Engine"})
+@Description("One complete simulation run")
+public class ReplicationEvent extends jdk.jfr.Event {
+	/** Simple class name of the engine that ran */
+	@Label("Engine")
+	public String engine;
+
+	/** Simulation time reached when the run ended */
+	@Label("End Simulation Time")
+	public double endTime;
+
+	/** Number of B-phase events dispatched during the run */
+	@Label("Dispatched Events")
+	public long dispatchedEvents;
+}
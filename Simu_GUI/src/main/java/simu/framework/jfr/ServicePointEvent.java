@@ -0,0 +1,39 @@
+package simu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event emitted around {@code ServicePoint.beginService} and
+ * {@code ServicePoint.removeQueue}.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@Name("simu.ServicePoint")
+@Label("Service Point Operation")
+@Category({"Simulation", "Service Point"})
+@Description("Queue operation performed by a service point")
+@Threshold("20 us")
+@StackTrace(false)
+public class ServicePointEvent extends jdk.jfr.Event {
+	/** Operation name, either "beginService" or "removeQueue" */
+	@Label("Operation")
+	public String operation;
+
+	/** Name of the service point */
+	@Label("Station")
+	public String station;
+
+	/** Queue length after the operation */
+	@Label("Queue Length")
+	public int queueLength;
+
+	/** Simulation time of the operation */
+	@Label("Simulation Time")
+	public double simTime;
+}
@@ -0,0 +1,31 @@
+package simu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event emitted when the C-phase starts service at an idle service point
+ * (see {@code Engine.tryCEvents}).
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+@Name("simu.ServiceStart")
+@Label("C-Phase Service Start")
+@Category({"Simulation", "Engine"})
+@Description("Service started by the conditional (C-phase) scan")
+@Threshold("20 us")
+@StackTrace(false)
+public class ServiceStartEvent extends jdk.jfr.Event {
+	/** Name of the service point that started service */
+	@Label("Station")
+	public String station;
+
+	/** Simulation time at which service started */
+	@Label("Simulation Time")
+	public double simTime;
+}
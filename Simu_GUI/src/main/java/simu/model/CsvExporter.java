@@ -1,7 +1,22 @@
 package simu.model;
 
+import simu.framework.BucketedHistory;
+import simu.framework.WindowedTimeSeries;
+import simu.framework.jfr.ExportEvent;
+import simu.stats.ConfidenceInterval;
+import simu.stats.OccupancyDistribution;
+import simu.stats.QuantileSketch;
+import simu.stats.RegenerativeCycles;
+import simu.stats.RunningStatistics;
+import simu.stats.TimeWeightedStatistics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
 
 /**
  * Utility class for exporting simulation statistics to CSV format.
@@ -11,6 +26,11 @@ import java.io.IOException;
  */
 public class CsvExporter {
 
+    /** Percentiles exported for wait and time in system */
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+    /** Queue lengths k for which the fraction of time with at least k customers is exported */
+    private static final int[] QUEUE_THRESHOLDS = {5, 10, 20};
+
     /**
      * Exports simulation statistics to a CSV file.
      * 
@@ -21,15 +41,316 @@ public class CsvExporter {
     public static void export(SimulationStatistics stats, String file)
             throws IOException {
 
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
+
+        String header = "Customers,Throughput,AvgWait,PeakQueue,Time,Rejected,"
+                + "TimeInSystemStdDev,TimeInSystemMax,AvgQueueLength,QueueLengthStdDev,"
+                + "AvgStationWait,StationWaitStdDev,"
+                + "TimeInSystemP50,TimeInSystemP90,TimeInSystemP95,TimeInSystemP99,"
+                + "StationWaitP50,StationWaitP90,StationWaitP95,StationWaitP99,"
+                + "AvgWaitHalfWidth,ThroughputHalfWidth,StoppedByPrecision,WarmUpTime,StatisticsStart,"
+                + "RegenerativeCycles,RegenerativeAvgWait,RegenerativeAvgWaitHalfWidth,"
+                + "RegenerativeThroughput,RegenerativeThroughputHalfWidth\n";
+        RunningStatistics timeInSystem = stats.getTimeInSystemStatistics();
+        TimeWeightedStatistics queueLength = stats.getQueueLengthStatistics();
+        RunningStatistics wait = stats.getWaitStatistics();
+        // Regenerative intervals at the confidence level of the batch-means intervals
+        RegenerativeCycles cycles = stats.getRegenerativeCycles();
+        double confidence = stats.getWaitInterval() != null ? stats.getWaitInterval().getConfidence() : 0.95;
+        ConfidenceInterval regenerativeWait = cycles.getTimeInSystemInterval(confidence);
+        ConfidenceInterval regenerativeThroughput = cycles.getThroughputInterval(confidence);
+        String row = stats.getCustomersServed() + "," +
+                stats.throughput + "," +
+                stats.getAverageWait() + "," +
+                stats.peakQueueLength + "," +
+                stats.currentTime + "," +
+                stats.getCustomersRejected() + "," +
+                timeInSystem.getStandardDeviation() + "," +
+                timeInSystem.getMax() + "," +
+                queueLength.getMean() + "," +
+                queueLength.getStandardDeviation() + "," +
+                wait.getMean() + "," +
+                wait.getStandardDeviation() + "," +
+                joinPercentiles(stats.getTimeInSystemQuantiles()) + "," +
+                joinPercentiles(stats.getWaitQuantiles()) + "," +
+                halfWidth(stats.getWaitInterval()) + "," +
+                halfWidth(stats.getThroughputInterval()) + "," +
+                stats.isStoppedByPrecision() + "," +
+                stats.getWarmUpTime() + "," +
+                stats.getStatisticsStartTime() + "," +
+                cycles.getCycleCount() + "," +
+                regenerativeWait.getMean() + "," +
+                regenerativeWait.getHalfWidth() + "," +
+                regenerativeThroughput.getMean() + "," +
+                regenerativeThroughput.getHalfWidth();
         try (FileWriter writer = new FileWriter(file)) {
-            writer.write("Customers,Throughput,AvgWait,PeakQueue,Time\n");
-            writer.write(
-                    stats.getCustomersServed() + "," +
-                            stats.throughput + "," +
-                            stats.getAverageWait() + "," +
-                            stats.peakQueueLength  );
+            writer.write(header);
+            writer.write(row);
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.bytes = header.length() + row.length();
+            jfrEvent.commit();
         }
     }
-}
 
+    /**
+     * Gets the half-width of an interval for export.
+     *
+     * @param interval The confidence interval, or null
+     * @return The half-width, NaN if there is no interval
+     */
+    private static double halfWidth(ConfidenceInterval interval) {
+        return interval != null ? interval.getHalfWidth() : Double.NaN;
+    }
+
+    /**
+     * Formats the exported percentiles of a sketch as comma-separated values.
+     *
+     * @param sketch The quantile sketch
+     * @return The percentiles, comma-separated
+     */
+    private static String joinPercentiles(QuantileSketch sketch) {
+        double[] values = sketch.getQuantiles(PERCENTILES);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exports the per-station statistics to a CSV file, one row per service point.
+     * 
+     * @param stats The SimulationStatistics object containing the station statistics
+     * @param file The file path where the CSV will be written
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public static void exportStations(SimulationStatistics stats, String file)
+            throws IOException {
+
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("Index,Station,Served,Utilization,PeakQueue,"
+                    + "AvgWait,WaitStdDev,MaxWait,AvgService,ServiceStdDev,"
+                    + "AvgSojourn,SojournStdDev,AvgQueueLength,QueueLengthStdDev,"
+                    + "WaitP50,WaitP90,WaitP95,WaitP99,"
+                    + "QueueAtLeast5,QueueAtLeast10,QueueAtLeast20");
+            StationStatistics[] stations = stats.getStationStatistics();
+            for (int i = 0; i < stations.length; i++) {
+                StationStatistics station = stations[i];
+                double[] wait = station.getWaitQuantiles().getQuantiles(PERCENTILES);
+                OccupancyDistribution occupancy = station.getQueueOccupancy();
+                writer.printf(Locale.ROOT, "%d,%s,%d,%.3f,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.4f,%.4f,"
+                                + "%.3f,%.3f,%.3f,%.3f,%.5f,%.5f,%.5f%n",
+                        i,
+                        station.getName(),
+                        station.getCustomersServed(),
+                        station.getUtilization(),
+                        station.getPeakQueueLength(),
+                        station.getWaitTime().getMean(),
+                        station.getWaitTime().getStandardDeviation(),
+                        station.getWaitTime().getMax(),
+                        station.getServiceTime().getMean(),
+                        station.getServiceTime().getStandardDeviation(),
+                        station.getSojournTime().getMean(),
+                        station.getSojournTime().getStandardDeviation(),
+                        station.getQueueLength().getMean(),
+                        station.getQueueLength().getStandardDeviation(),
+                        wait[0], wait[1], wait[2], wait[3],
+                        occupancy.getFractionAtLeast(QUEUE_THRESHOLDS[0]),
+                        occupancy.getFractionAtLeast(QUEUE_THRESHOLDS[1]),
+                        occupancy.getFractionAtLeast(QUEUE_THRESHOLDS[2]));
+            }
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Exports the queue occupancy curve of every station to a CSV file: for each
+     * queue length k up to the longest queue, the fraction of time the station
+     * had at least k customers (including the one in service).
+     * 
+     * @param stats The SimulationStatistics object containing the station statistics
+     * @param file The file path where the CSV will be written
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public static void exportOccupancy(SimulationStatistics stats, String file)
+            throws IOException {
+
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
 
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("Index,Station,QueueLength,FractionOfTime,FractionAtLeast");
+            StationStatistics[] stations = stats.getStationStatistics();
+            for (int i = 0; i < stations.length; i++) {
+                OccupancyDistribution occupancy = stations[i].getQueueOccupancy();
+                double[] atLeast = occupancy.getFractionAtLeastCurve();
+                for (int k = 0; k < atLeast.length; k++) {
+                    writer.printf(Locale.ROOT, "%d,%s,%d,%.6f,%.6f%n",
+                            i, stations[i].getName(), k, occupancy.getFraction(k), atLeast[k]);
+                }
+            }
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Exports the kept windows of the per-station time series to a CSV file,
+     * one row per window and station.
+     * 
+     * @param timeSeries The windowed time series, channels indexed like the stations
+     * @param stats The SimulationStatistics object providing the station names
+     * @param file The file path where the CSV will be written
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public static void exportTimeSeries(WindowedTimeSeries timeSeries, SimulationStatistics stats, String file)
+            throws IOException {
+
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
+
+        StationStatistics[] stations = stats.getStationStatistics();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("WindowStart,WindowEnd,Index,Station,AvgQueue,MaxQueue,Arrivals,Departures,Utilization");
+            for (int w = 0; w < timeSeries.getWindowCount(); w++) {
+                for (int c = 0; c < timeSeries.getChannelCount(); c++) {
+                    writer.printf(Locale.ROOT, "%.1f,%.1f,%d,%s,%.4f,%.0f,%.0f,%.0f,%.4f%n",
+                            timeSeries.getWindowStart(w),
+                            timeSeries.getWindowEnd(w),
+                            c,
+                            c < stations.length ? stations[c].getName() : "",
+                            timeSeries.getValue(w, c, WindowedTimeSeries.MEAN_QUEUE),
+                            timeSeries.getValue(w, c, WindowedTimeSeries.MAX_QUEUE),
+                            timeSeries.getValue(w, c, WindowedTimeSeries.ARRIVALS),
+                            timeSeries.getValue(w, c, WindowedTimeSeries.DEPARTURES),
+                            timeSeries.getValue(w, c, WindowedTimeSeries.UTILIZATION));
+                }
+            }
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Exports the wait and service time histograms of every station to a CSV file,
+     * one row per non-empty bucket, for plotting.
+     * 
+     * @param stats The SimulationStatistics object containing the station statistics
+     * @param file The file path where the CSV will be written
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public static void exportHistograms(SimulationStatistics stats, String file)
+            throws IOException {
+
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("Index,Metric,LowerBound,UpperBound,Count,CumulativeFraction");
+            StationStatistics[] stations = stats.getStationStatistics();
+            for (int i = 0; i < stations.length; i++) {
+                stations[i].getWaitHistogram().writeCsvRows(writer, i + ",Wait");
+                stations[i].getServiceHistogram().writeCsvRows(writer, i + ",Service");
+            }
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Exports the wait and service time histograms of every station in the compact
+     * binary form of {@link simu.stats.LogLinearHistogram}: the station count, then
+     * per station its name, wait histogram and service histogram. The histograms can
+     * be read back with {@link simu.stats.LogLinearHistogram#readFrom(java.io.DataInput)}
+     * and merged across replications.
+     * 
+     * @param stats The SimulationStatistics object containing the station statistics
+     * @param file The file path where the data will be written
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public static void exportHistogramsBinary(SimulationStatistics stats, String file)
+            throws IOException {
+
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            StationStatistics[] stations = stats.getStationStatistics();
+            out.writeInt(stations.length);
+            for (StationStatistics station : stations) {
+                out.writeUTF(station.getName());
+                station.getWaitHistogram().writeTo(out);
+                station.getServiceHistogram().writeTo(out);
+            }
+            jfrEvent.bytes = out.size();
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Exports the bucketed run history of {@link MyEngine} to a CSV file, one row per bucket.
+     * 
+     * @param history The history with total queue length and time in system series
+     * @param file The file path where the CSV will be written
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public static void exportHistory(BucketedHistory history, String file)
+            throws IOException {
+
+        ExportEvent jfrEvent = new ExportEvent();
+        jfrEvent.begin();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("BucketStart,BucketEnd,AvgQueue,MaxQueue,CustomersServed,AvgTimeInSystem");
+            for (int b = 0; b < history.getBucketCount(); b++) {
+                writer.printf(Locale.ROOT, "%.1f,%.1f,%.3f,%.0f,%d,%.3f%n",
+                        history.getBucketStart(b),
+                        history.getBucketStart(b) + history.getBucketWidth(),
+                        history.getMean(b, MyEngine.HISTORY_QUEUE),
+                        history.getMax(b, MyEngine.HISTORY_QUEUE),
+                        history.getCount(b, MyEngine.HISTORY_TIME_IN_SYSTEM),
+                        history.getMean(b, MyEngine.HISTORY_TIME_IN_SYSTEM));
+            }
+        }
+
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.file = file;
+            jfrEvent.commit();
+        }
+    }
+}
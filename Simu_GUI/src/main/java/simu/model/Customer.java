@@ -3,45 +3,28 @@ package simu.model;
 import simu.framework.Clock;
 import simu.framework.Trace;
 
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.Random;
-
 /**
  * Represents a customer in the cafeteria simulation.
  * Each customer has attributes such as meal type, payment preference, and coffee preference.
  * Tracks timing information for statistics collection.
+ * <p>
+ * A customer is a thin view over one handle of a {@link CustomerStore}, which
+ * holds the attributes and journey record in primitive arrays. The engine
+ * obtains pooled customers from {@link CustomerStore#acquire()} and
+ * {@link #release() releases} them when they leave; customers created with
+ * {@code new Customer()} are backed by a private single-entry store, which
+ * draws their attributes from the default random streams.
  * 
  * @author Group 8
  * @version 1.0
  */
 public class Customer {
-	/** Time when the customer arrived at the system */
-	private double arrivalTime;
-	/** Time when the customer left the system */
-	private double removalTime;
-	/** Unique identifier for this customer */
-	private int id;
-	/** Static counter for generating unique customer IDs */
-	private static int i = 1;
-	/** Static accumulator for total service times across all customers */
-	private static long sum = 0;
-
-    /** Random number generator for customer attribute assignment */
-    private static final Random rand = new Random();
-	/** Type of meal the customer wants (GRILL, VEGAN, or NORMAL) */
-	private MealType mealType;
-    /** Payment method preference (SELF_SERVICE or CASHIER) */
-    private PaymentType paymentType;
-    /** Whether the customer wants coffee */
-    private boolean wantsCoffee;
-
-    /** Map tracking wait times at each service point type */
-    private Map<ServicePointType, Double> waitTimes = new EnumMap<>(ServicePointType.class);
-    /** Map tracking service start times at each service point type */
-    private Map<ServicePointType, Double> serviceStartTimes = new EnumMap<>(ServicePointType.class);
-    /** Map tracking service end times at each service point type */
-    private Map<ServicePointType, Double> serviceEndTimes = new EnumMap<>(ServicePointType.class);
+	/** Store holding this customer's attributes and journey record */
+	private final CustomerStore store;
+	/** Handle of this customer in the store */
+	private final int handle;
+	/** Customer ID counter and service time accumulator of the simulation running on each thread */
+	private static final ThreadLocal<Counters> counters = ThreadLocal.withInitial(Counters::new);
 
     /**
      * Constructs a new Customer instance.
@@ -49,15 +32,56 @@ public class Customer {
      * payment type, and coffee preference based on predefined probabilities.
      */
     public Customer() {
-	    id = i++;
-	    
-		arrivalTime = Clock.getInstance().getTime();
-		Trace.out(Trace.Level.INFO, "New customer #" + id + " arrived at  " + arrivalTime);
-        mealType = assignMealType();
-        paymentType = assignPaymentType();
-        wantsCoffee = assignCoffeeDecision();
+        store = new CustomerStore(1);
+        handle = store.allocate();
+        initialize();
 	}
 
+    /**
+     * Constructs a pooled view bound to a handle of the given store.
+     *
+     * @param store The owning store
+     * @param handle The handle in the store
+     */
+    Customer(CustomerStore store, int handle) {
+        this.store = store;
+        this.handle = handle;
+    }
+
+    /**
+     * Starts a new customer journey at this view's handle: assigns the next ID,
+     * the current time as arrival time and random meal, payment and coffee preferences.
+     */
+    final void initialize() {
+        int id = counters.get().nextId++;
+        double arrivalTime = Clock.getInstance().getTime();
+        if (Trace.isEnabled(Trace.Level.INFO)) {
+            Trace.out(Trace.Level.INFO, "New customer #" + id + " arrived at  " + arrivalTime);
+        }
+        MealType mealType = assignMealType();
+        PaymentType paymentType = assignPaymentType();
+        boolean wantsCoffee = assignCoffeeDecision();
+        store.initialize(handle, id, arrivalTime, mealType, paymentType, wantsCoffee);
+    }
+
+    /**
+     * Gets the id of this customer, numbered from 1 in each simulation run.
+     *
+     * @return The customer id
+     */
+    public int getId() {
+        return store.getId(handle);
+    }
+
+    /**
+     * Releases this customer after it has left the system. The view and its
+     * handle are recycled by the store for a later arrival, so the customer
+     * must not be used afterwards.
+     */
+    public void release() {
+        store.release(handle);
+    }
+
     /**
      * Marks the start of service at a specific service point.
      * 
@@ -65,7 +89,7 @@ public class Customer {
      * @param time The simulation time when service started
      */
     public void markServiceStart(ServicePointType type, double time) {
-        serviceStartTimes.put(type, time);
+        store.setStageTime(handle, CustomerStore.SERVICE_START, type, time);
     }
     
     /**
@@ -75,7 +99,7 @@ public class Customer {
      * @param time The simulation time when service ended
      */
     public void markServiceEnd(ServicePointType type, double time) {
-        serviceEndTimes.put(type, time);
+        store.setStageTime(handle, CustomerStore.SERVICE_END, type, time);
     }
     
     /**
@@ -85,7 +109,37 @@ public class Customer {
      * @param time The wait time in seconds
      */
     public void addWaitTime(ServicePointType type, double time) {
-        waitTimes.put(type, time);
+        store.setStageTime(handle, CustomerStore.WAIT, type, time);
+    }
+
+    /**
+     * Gets the time service started at a specific service point type.
+     *
+     * @param type The type of service point
+     * @return The service start time, or NaN if the customer has not been there
+     */
+    public double getServiceStartTime(ServicePointType type) {
+        return store.getStageTime(handle, CustomerStore.SERVICE_START, type);
+    }
+
+    /**
+     * Gets the time service ended at a specific service point type.
+     *
+     * @param type The type of service point
+     * @return The service end time, or NaN if service has not ended there
+     */
+    public double getServiceEndTime(ServicePointType type) {
+        return store.getStageTime(handle, CustomerStore.SERVICE_END, type);
+    }
+
+    /**
+     * Gets the wait time recorded at a specific service point type.
+     *
+     * @param type The type of service point
+     * @return The wait time in seconds, or NaN if none was recorded
+     */
+    public double getWaitTime(ServicePointType type) {
+        return store.getStageTime(handle, CustomerStore.WAIT, type);
     }
 
     /**
@@ -95,9 +149,9 @@ public class Customer {
      * @return The assigned MealType
      */
     private MealType assignMealType() {
-        int r = rand.nextInt(100);
-        if (r < 30) return MealType.GRILL;
-        if (r < 60) return MealType.VEGAN;
+        double u = store.uniform(CustomerStore.MEAL_STREAM);
+        if (u < 0.30) return MealType.GRILL;
+        if (u < 0.60) return MealType.VEGAN;
         return MealType.NORMAL;
     }
 
@@ -109,8 +163,7 @@ public class Customer {
      * @return The assigned PaymentType
      */
     private PaymentType assignPaymentType() {
-        int r = rand.nextInt(100);
-        return r < 60 ? PaymentType.SELF_SERVICE : PaymentType.CASHIER;
+        return store.uniform(CustomerStore.PAYMENT_STREAM) < 0.60 ? PaymentType.SELF_SERVICE : PaymentType.CASHIER;
     }
 
     /**
@@ -120,7 +173,7 @@ public class Customer {
      * @return true if customer wants coffee, false otherwise
      */
     private boolean assignCoffeeDecision() {
-        return rand.nextDouble() < 0.30;
+        return store.uniform(CustomerStore.COFFEE_STREAM) < 0.30;
     }
     
     /**
@@ -131,9 +184,9 @@ public class Customer {
      */
     public boolean isWantsCoffee() {
         if (assignCoffeeDecision()) {
-            wantsCoffee = true;
+            store.setWantsCoffee(handle);
         }
-        return wantsCoffee;
+        return store.isWantsCoffee(handle);
     }
 
     /**
@@ -142,7 +195,7 @@ public class Customer {
      * @return The MealType assigned to this customer
      */
     public MealType getMealType() {
-        return mealType;
+        return store.getMealType(handle);
     }
 
     /**
@@ -151,7 +204,16 @@ public class Customer {
      * @return The PaymentType assigned to this customer
      */
     public PaymentType getPaymentType() {
-        return paymentType;
+        return store.getPaymentType(handle);
+    }
+
+    /**
+     * Sets the payment type for this customer.
+     * 
+     * @param paymentType The PaymentType to use
+     */
+    public void setPaymentType(PaymentType paymentType) {
+        store.setPaymentType(handle, paymentType);
     }
 
     /**
@@ -160,7 +222,7 @@ public class Customer {
      * @return The simulation time when the customer left the system
      */
     public double getRemovalTime() {
-		return removalTime;
+		return store.getTime(handle, CustomerStore.REMOVAL);
 	}
 
 	/**
@@ -169,7 +231,7 @@ public class Customer {
 	 * @param removalTime The simulation time when the customer left the system
 	 */
 	public void setRemovalTime(double removalTime) {
-		this.removalTime = removalTime;
+		store.setTime(handle, CustomerStore.REMOVAL, removalTime);
 	}
 
 	/**
@@ -178,7 +240,7 @@ public class Customer {
 	 * @return The simulation time when the customer arrived
 	 */
 	public double getArrivalTime() {
-		return arrivalTime;
+		return store.getTime(handle, CustomerStore.ARRIVAL);
 	}
 
 	/**
@@ -187,7 +249,7 @@ public class Customer {
 	 * @param arrivalTime The simulation time when the customer arrived
 	 */
 	public void setArrivalTime(double arrivalTime) {
-		this.arrivalTime = arrivalTime;
+		store.setTime(handle, CustomerStore.ARRIVAL, arrivalTime);
 	}
 	
 	/**
@@ -196,24 +258,41 @@ public class Customer {
 	 * Also updates the running mean of customer service times.
 	 */
 	public void reportResults() {
+		int id = store.getId(handle);
+		double arrivalTime = getArrivalTime();
+		double removalTime = getRemovalTime();
+		Counters c = counters.get();
+		c.sum += (removalTime - arrivalTime);
+		if (!Trace.isEnabled(Trace.Level.INFO)) {
+			return;
+		}
 		Trace.out(Trace.Level.INFO, "\nCustomer " + id + " ready! ");
 		Trace.out(Trace.Level.INFO, "Customer "   + id + " arrived: " + arrivalTime);
 		Trace.out(Trace.Level.INFO,"Customer "    + id + " removed: " + removalTime);
 		Trace.out(Trace.Level.INFO,"Customer "    + id + " stayed: "  + (removalTime - arrivalTime));
 
-		sum += (removalTime - arrivalTime);
-		double mean = sum/id;
-		System.out.println("Current mean of the customer service times " + mean);
+		double mean = c.sum/id;
+		Trace.out(Trace.Level.INFO, "Current mean of the customer service times " + mean);
 	}
 	
 	/**
-	 * Resets the static customer counters.
+	 * Resets the customer counters of the current thread.
 	 * Used when starting a new simulation to reset customer ID generation
 	 * and accumulated statistics.
 	 */
 	public static void reset() {
-		i = 1;
-		sum = 0;
+		counters.remove();
+	}
+
+	/**
+	 * Per-thread counters, so that replications on different threads number
+	 * their customers independently.
+	 */
+	private static final class Counters {
+		/** Next customer ID */
+		int nextId = 1;
+		/** Accumulated time in system */
+		long sum = 0;
 	}
 
 }
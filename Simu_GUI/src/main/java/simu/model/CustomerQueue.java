@@ -0,0 +1,113 @@
+package simu.model;
+
+import java.util.Arrays;
+
+/**
+ * FIFO queue of customers used by {@link ServicePoint}.
+ * Customers and their enqueue times are kept side by side in two growable
+ * ring buffers, so adding and removing customers is O(1) and does not
+ * allocate once the buffers have grown to the largest queue seen.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+final class CustomerQueue {
+    /** Initial capacity of the ring buffers (always a power of two) */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Customers in the queue, starting at {@code head} */
+    private Customer[] customers = new Customer[INITIAL_CAPACITY];
+    /** Time each customer joined the queue, parallel to {@code customers} */
+    private double[] enqueueTimes = new double[INITIAL_CAPACITY];
+    /** Index of the first customer */
+    private int head = 0;
+    /** Number of customers in the queue */
+    private int size = 0;
+
+    /**
+     * Adds a customer to the end of the queue.
+     *
+     * @param customer The customer to add
+     * @param time The time the customer joined the queue
+     */
+    void add(Customer customer, double time) {
+        if (size == customers.length) {
+            grow();
+        }
+        int tail = (head + size) & (customers.length - 1);
+        customers[tail] = customer;
+        enqueueTimes[tail] = time;
+        size++;
+    }
+
+    /**
+     * Gets the customer at the front of the queue without removing it.
+     *
+     * @return The first customer, or null if the queue is empty
+     */
+    Customer peek() {
+        return size == 0 ? null : customers[head];
+    }
+
+    /**
+     * Gets the time the customer at the front of the queue joined it.
+     *
+     * @return The enqueue time, or NaN if the queue is empty or the time was discarded
+     */
+    double peekEnqueueTime() {
+        return size == 0 ? Double.NaN : enqueueTimes[head];
+    }
+
+    /**
+     * Removes and returns the customer at the front of the queue.
+     *
+     * @return The first customer, or null if the queue is empty
+     */
+    Customer poll() {
+        if (size == 0) {
+            return null;
+        }
+        Customer customer = customers[head];
+        customers[head] = null;
+        head = (head + 1) & (customers.length - 1);
+        size--;
+        return customer;
+    }
+
+    /**
+     * Gets the number of customers in the queue.
+     *
+     * @return The queue length
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Discards the enqueue times of the customers currently in the queue,
+     * so their waits are not counted after a statistics reset.
+     */
+    void discardEnqueueTimes() {
+        for (int i = 0; i < size; i++) {
+            enqueueTimes[(head + i) & (enqueueTimes.length - 1)] = Double.NaN;
+        }
+    }
+
+    /**
+     * Doubles the capacity, moving the queue to the start of the new buffers.
+     */
+    private void grow() {
+        int capacity = customers.length;
+        Customer[] newCustomers = Arrays.copyOf(customers, capacity * 2);
+        double[] newTimes = Arrays.copyOf(enqueueTimes, capacity * 2);
+        if (head != 0) {
+            // Unwrap: the part before head belongs after the old end
+            int wrapped = head;
+            System.arraycopy(customers, 0, newCustomers, capacity, wrapped);
+            System.arraycopy(enqueueTimes, 0, newTimes, capacity, wrapped);
+            Arrays.fill(newCustomers, 0, wrapped, null);
+        }
+        customers = newCustomers;
+        enqueueTimes = newTimes;
+    }
+}
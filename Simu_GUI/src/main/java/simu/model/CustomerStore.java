@@ -0,0 +1,275 @@
+package simu.model;
+
+import eduni.distributions.RandomGenerator;
+import simu.framework.RandomStreams;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for customer attributes and journey records.
+ * Every customer occupies one integer handle; its id, packed attributes
+ * (meal type, payment type, coffee flag) and its journey record (arrival and
+ * removal time plus service start, service end and wait time per
+ * {@link ServicePointType}) live in parallel primitive arrays at that handle.
+ * <p>
+ * Handles of customers who left the system are recycled through a free list,
+ * together with the {@link Customer} view object bound to the handle, so a
+ * running simulation stops allocating customers once the store has grown to
+ * the largest number of customers present at the same time.
+ * <p>
+ * The random attributes of new customers are drawn from one named
+ * {@link RandomStreams stream} per attribute, so that scenarios run with the
+ * same streams see the same sequence of customers.
+ * <p>
+ * Like the rest of the simulation model, a store is not thread-safe and is
+ * meant to be used by a single engine thread.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public final class CustomerStore {
+    /** Number of service point types recorded per customer */
+    private static final int STAGES = ServicePointType.values().length;
+    /** Offset of the arrival time in a journey record */
+    static final int ARRIVAL = 0;
+    /** Offset of the removal time in a journey record */
+    static final int REMOVAL = 1;
+    /** Offset of the service start times in a journey record */
+    static final int SERVICE_START = 2;
+    /** Offset of the service end times in a journey record */
+    static final int SERVICE_END = SERVICE_START + STAGES;
+    /** Offset of the wait times in a journey record */
+    static final int WAIT = SERVICE_END + STAGES;
+    /** Number of doubles in one journey record */
+    private static final int RECORD_SIZE = WAIT + STAGES;
+
+    /** Bits of the packed attributes holding the meal type ordinal */
+    private static final int MEAL_MASK = 0x3;
+    /** Bit of the packed attributes holding the payment type ordinal */
+    private static final int PAYMENT_SHIFT = 2;
+    /** Bit of the packed attributes set when the customer wants coffee */
+    private static final int COFFEE_BIT = 1 << 3;
+
+    /** Stream of the meal type draws */
+    static final int MEAL_STREAM = 0;
+    /** Stream of the payment type draws */
+    static final int PAYMENT_STREAM = 1;
+    /** Stream of the coffee decision draws */
+    static final int COFFEE_STREAM = 2;
+    /** Names of the attribute streams, by stream index */
+    private static final String[] STREAM_NAMES = {"customer.meal", "customer.payment", "customer.coffee"};
+
+    private static final MealType[] MEAL_TYPES = MealType.values();
+    private static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+
+    /** Journey records, {@code RECORD_SIZE} doubles per handle */
+    private double[] records;
+    /** Customer ids by handle */
+    private int[] ids;
+    /** Packed meal type, payment type and coffee flag by handle */
+    private byte[] attributes;
+    /** Customer views by handle, reused when a handle is recycled */
+    private Customer[] views;
+    /** Whether each handle belongs to a customer still in the system */
+    private boolean[] live;
+    /** Stack of released handles */
+    private int[] freeHandles;
+    /** Number of handles on the free stack */
+    private int freeCount = 0;
+    /** Number of handles ever handed out (the high-water mark) */
+    private int used = 0;
+    /** Uniform generators of the customer attributes, by stream index */
+    private final RandomGenerator[] attributeStreams = new RandomGenerator[STREAM_NAMES.length];
+
+    /**
+     * Constructs a store with room for 64 customers before it grows.
+     */
+    public CustomerStore() {
+        this(64);
+    }
+
+    /**
+     * Constructs a store with the given initial capacity.
+     *
+     * @param initialCapacity Number of customers the store holds before it grows
+     */
+    public CustomerStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        records = new double[capacity * RECORD_SIZE];
+        ids = new int[capacity];
+        attributes = new byte[capacity];
+        views = new Customer[capacity];
+        live = new boolean[capacity];
+        freeHandles = new int[capacity];
+        setRandomStreams(RandomStreams.defaultStreams());
+    }
+
+    /**
+     * Sets the streams the customer attributes are drawn from.
+     *
+     * @param streams The random streams of the simulation
+     */
+    public void setRandomStreams(RandomStreams streams) {
+        for (int i = 0; i < STREAM_NAMES.length; i++) {
+            attributeStreams[i] = streams.uniform(STREAM_NAMES[i]);
+        }
+    }
+
+    /**
+     * Draws a uniform number for a customer attribute.
+     *
+     * @param stream The attribute stream, e.g. {@link #MEAL_STREAM}
+     * @return A number between 0 and 1
+     */
+    double uniform(int stream) {
+        return attributeStreams[stream].sample();
+    }
+
+    /**
+     * Creates a new customer arriving at the current simulation time.
+     * The returned view is owned by the store and is reused once the
+     * customer has been {@link Customer#release() released}.
+     *
+     * @return The customer view
+     */
+    public Customer acquire() {
+        int handle = allocateHandle();
+        Customer view = views[handle];
+        if (view == null) {
+            view = new Customer(this, handle);
+            views[handle] = view;
+        }
+        view.initialize();
+        return view;
+    }
+
+    /**
+     * Allocates a handle for a customer view created outside the store. The view
+     * is not bound to the handle, so {@link #acquire()} creates its own view if
+     * the handle is recycled.
+     *
+     * @return The handle
+     */
+    int allocate() {
+        return allocateHandle();
+    }
+
+    /**
+     * Returns a handle to the free list.
+     *
+     * @param handle The handle of a customer who left the system
+     * @throws IllegalStateException if the handle was already released, which would
+     *         otherwise hand the same record to two later customers
+     */
+    void release(int handle) {
+        if (!live[handle]) {
+            throw new IllegalStateException("Customer #" + ids[handle] + " was already released");
+        }
+        live[handle] = false;
+        freeHandles[freeCount++] = handle;
+    }
+
+    /**
+     * Gets the number of customers currently held by the store.
+     *
+     * @return The number of live customers
+     */
+    public int size() {
+        return used - freeCount;
+    }
+
+    /**
+     * Gets the number of customers the store can hold without growing.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * Clears the journey record of a handle and stores its id and attributes.
+     */
+    void initialize(int handle, int id, double arrivalTime, MealType mealType, PaymentType paymentType,
+                    boolean wantsCoffee) {
+        int base = handle * RECORD_SIZE;
+        Arrays.fill(records, base, base + RECORD_SIZE, Double.NaN);
+        records[base + ARRIVAL] = arrivalTime;
+        records[base + REMOVAL] = 0.0;
+        ids[handle] = id;
+        attributes[handle] = (byte) (mealType.ordinal()
+                | paymentType.ordinal() << PAYMENT_SHIFT
+                | (wantsCoffee ? COFFEE_BIT : 0));
+    }
+
+    double getTime(int handle, int offset) {
+        return records[handle * RECORD_SIZE + offset];
+    }
+
+    void setTime(int handle, int offset, double time) {
+        records[handle * RECORD_SIZE + offset] = time;
+    }
+
+    double getStageTime(int handle, int offset, ServicePointType type) {
+        return records[handle * RECORD_SIZE + offset + type.ordinal()];
+    }
+
+    void setStageTime(int handle, int offset, ServicePointType type, double time) {
+        records[handle * RECORD_SIZE + offset + type.ordinal()] = time;
+    }
+
+    int getId(int handle) {
+        return ids[handle];
+    }
+
+    MealType getMealType(int handle) {
+        return MEAL_TYPES[attributes[handle] & MEAL_MASK];
+    }
+
+    PaymentType getPaymentType(int handle) {
+        return PAYMENT_TYPES[(attributes[handle] >> PAYMENT_SHIFT) & 1];
+    }
+
+    void setPaymentType(int handle, PaymentType paymentType) {
+        attributes[handle] = (byte) ((attributes[handle] & ~(1 << PAYMENT_SHIFT))
+                | paymentType.ordinal() << PAYMENT_SHIFT);
+    }
+
+    boolean isWantsCoffee(int handle) {
+        return (attributes[handle] & COFFEE_BIT) != 0;
+    }
+
+    void setWantsCoffee(int handle) {
+        attributes[handle] |= COFFEE_BIT;
+    }
+
+    /**
+     * Pops a recycled handle or hands out a new one, growing the arrays if needed.
+     */
+    private int allocateHandle() {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (used == ids.length) {
+                grow();
+            }
+            handle = used++;
+        }
+        live[handle] = true;
+        return handle;
+    }
+
+    /**
+     * Doubles the capacity of all arrays.
+     */
+    private void grow() {
+        int capacity = ids.length * 2;
+        records = Arrays.copyOf(records, capacity * RECORD_SIZE);
+        ids = Arrays.copyOf(ids, capacity);
+        attributes = Arrays.copyOf(attributes, capacity);
+        views = Arrays.copyOf(views, capacity);
+        live = Arrays.copyOf(live, capacity);
+        freeHandles = Arrays.copyOf(freeHandles, capacity);
+    }
+}
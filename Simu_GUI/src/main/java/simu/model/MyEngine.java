@@ -3,11 +3,23 @@ package simu.model;
 import controller.IControllerMtoV;
 import eduni.distributions.Negexp;
 import simu.framework.ArrivalProcess;
+import simu.framework.BucketedHistory;
 import simu.framework.Clock;
 import simu.framework.Engine;
 import simu.framework.Event;
+import simu.framework.RandomStreams;
+import simu.framework.Trace;
+import simu.framework.WindowedTimeSeries;
+import simu.stats.BatchMeans;
+import simu.stats.ConfidenceInterval;
+import simu.stats.Mser;
+import simu.stats.QuantileSketch;
+import simu.stats.RegenerativeCycles;
+import simu.stats.RunningStatistics;
+import simu.stats.TimeWeightedStatistics;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Main simulation engine for the cafeteria simulation.
@@ -19,6 +31,8 @@ import java.io.IOException;
  */
 public class MyEngine extends Engine {
     private ArrivalProcess arrivalProcess;
+    /** Mean of the inter-arrival time distribution in seconds */
+    private double meanInterArrivalTime;
 
     // Service points are stored in the protected servicePoints array from Engine
     // Individual references for easier access
@@ -48,6 +62,97 @@ public class MyEngine extends Engine {
     /** Peak queue length observed during the simulation */
     private int peakQueueLength = 0;
     private int customersRejected = 0;
+    /** Time in system of the customers who left */
+    private final RunningStatistics timeInSystemStatistics = new RunningStatistics();
+    /** Quantile sketch of the time in system */
+    private final QuantileSketch timeInSystemQuantiles = new QuantileSketch();
+    /** Batch means of the time in system, for a confidence interval on the average wait */
+    private final BatchMeans waitBatches = new BatchMeans(WAIT_BATCH_SIZE);
+    /** Batch means of the throughput observed per interval, in customers per hour */
+    private final BatchMeans throughputBatches = new BatchMeans(1);
+    /** Customers who left during the current throughput interval */
+    private int exitsInInterval = 0;
+    /** End of the current throughput interval */
+    private double nextThroughputObservation = THROUGHPUT_INTERVAL;
+    /** Confidence level of the reported intervals */
+    private double confidenceLevel = 0.95;
+    /** Target relative half-width of the precision stopping rule, or 0 when it is off */
+    private double targetPrecision = 0.0;
+    /** Batch counts at the last precision check, to skip checks until a batch completes */
+    private int checkedWaitBatches = -1;
+    private int checkedThroughputBatches = -1;
+    /** Whether the warm-up is detected automatically and excluded from the statistics */
+    private boolean warmUpDetection = Boolean.getBoolean("simu.autoWarmUp");
+    /** Total mean queue length per completed time series window, until the warm-up is detected */
+    private double[] warmUpSeries = new double[256];
+    /** Number of windows in the warm-up series */
+    private int warmUpWindows = 0;
+    /** Time up to which the warm-up was discarded, or NaN while not detected */
+    private double warmUpTime = Double.NaN;
+    /** Whether the statistics are to be reset at the end of the current step */
+    private boolean warmUpResetPending = false;
+    /** Simulation time from which the statistics are collected */
+    private double statisticsStartTime = 0.0;
+    /** Time-weighted total number of customers queued or in service */
+    private final TimeWeightedStatistics queueLengthStatistics = new TimeWeightedStatistics();
+    /** Cycles between arrivals at an empty cafeteria; not reset after the warm-up, since cycles need none */
+    private final RegenerativeCycles regenerativeCycles = new RegenerativeCycles();
+    /** Pooled storage of the customers currently in the cafeteria */
+    private final CustomerStore customerStore = new CustomerStore();
+    /** File the results are exported to at the end of the run, or null to skip the export */
+    private String resultsFile = "SimulationResults.csv";
+    /** Whether the per-station files are exported along with the results */
+    private boolean detailedResults = Boolean.getBoolean("simu.detailedResults");
+    /** File the bucketed history is exported to in constant-memory mode */
+    private static final String HISTORY_FILE = "SimulationHistory.csv";
+    /** File the per-station statistics are exported to with the detailed results */
+    private static final String STATIONS_FILE = "SimulationStations.csv";
+    /** File for the per-station queue occupancy curves P(queue >= k) */
+    private static final String OCCUPANCY_FILE = "SimulationOccupancy.csv";
+    /** File for the per-station time series windows */
+    private static final String TIME_SERIES_FILE = "SimulationTimeSeries.csv";
+    /** File for the per-station wait and service time histograms */
+    private static final String HISTOGRAMS_FILE = "SimulationHistograms.csv";
+    /** File for the same histograms in binary form, for merging across runs */
+    private static final String HISTOGRAMS_BINARY_FILE = "SimulationHistograms.bin";
+
+    /** Customers per batch at the start of the wait batch means */
+    private static final int WAIT_BATCH_SIZE = 10;
+    /** Simulated seconds per throughput observation */
+    private static final double THROUGHPUT_INTERVAL = 60.0;
+    /** Batches both estimates need before the precision rule may end the run */
+    private static final int MIN_BATCHES = 20;
+
+    /** Windows between checks for the end of the warm-up */
+    private static final int WARM_UP_CHECK_INTERVAL = 10;
+    /** Windows needed before the first check for the end of the warm-up */
+    private static final int MIN_WARM_UP_WINDOWS = 50;
+    /** Windows after which the warm-up search gives up and keeps all data */
+    private static final int MAX_WARM_UP_WINDOWS = 100_000;
+
+    /** Number of time buckets kept in the run history */
+    private static final int HISTORY_BUCKETS = 1024;
+    /** History series: total queue length, sampled after every event */
+    public static final int HISTORY_QUEUE = 0;
+    /** History series: time in system, recorded when a customer leaves */
+    public static final int HISTORY_TIME_IN_SYSTEM = 1;
+    /** Queue length and time in system over the run, in a fixed number of buckets */
+    private final BucketedHistory history = new BucketedHistory(HISTORY_BUCKETS, 2, 60.0);
+    /** Width of the time series windows in simulated seconds */
+    private static final double TIME_SERIES_WINDOW = 60.0;
+    /** Number of completed time series windows kept (one simulated day of minutes) */
+    private static final int TIME_SERIES_CAPACITY = 1440;
+    /** Per-station queue length, arrivals, departures and utilization per simulated minute */
+    private final WindowedTimeSeries timeSeries;
+    /** Simulated seconds between display updates in constant-memory mode */
+    private static final double CONSTANT_MEMORY_DISPLAY_INTERVAL = 60.0;
+    /** Simulation time of the next display update in constant-memory mode */
+    private double nextDisplayUpdate = 0.0;
+
+    /** Name of the random stream of the inter-arrival times */
+    public static final String ARRIVAL_STREAM = "arrivals";
+    /** Random streams of the arrivals, service times and customer attributes */
+    private final RandomStreams randomStreams;
 
     /**
      * Constructs a new MyEngine instance with the specified simulation parameters.
@@ -70,11 +175,40 @@ public class MyEngine extends Engine {
                     double cashierTime, double selfServiceTime, double coffeeTime,
                     boolean variabilityEnabled, boolean selfServiceEnabled, boolean coffeeEnabled,
                     double arrivalRate, int maxQueueCapacity) {
-        super(controller);
-
+        this(controller, grillTime, veganTime, normalTime, cashierTime, selfServiceTime, coffeeTime,
+                variabilityEnabled, selfServiceEnabled, coffeeEnabled, arrivalRate, maxQueueCapacity,
+                RandomStreams.defaultStreams());
+    }
 
+    /**
+     * Constructs a new MyEngine instance that draws all randomness from the given streams.
+     * Engines constructed with the same streams use common random numbers: the same
+     * arrivals, customer attributes and per-station service time sequences.
+     *
+     * @param controller The controller interface for model-to-view communication
+     * @param grillTime Mean service time for grill station (seconds)
+     * @param veganTime Mean service time for vegan station (seconds)
+     * @param normalTime Mean service time for normal station (seconds)
+     * @param cashierTime Mean service time for cashier station (seconds)
+     * @param selfServiceTime Mean service time for self-service station (seconds)
+     * @param coffeeTime Mean service time for coffee station (seconds)
+     * @param variabilityEnabled Whether to enable service time variability (normal distribution vs fixed)
+     * @param selfServiceEnabled Whether the self-service station is enabled
+     * @param coffeeEnabled Whether the coffee station is enabled
+     * @param arrivalRate Customer arrival rate (students per hour)
+     * @param maxQueueCapacity Maximum queue capacity for service points
+     * @param randomStreams The random streams, e.g. {@code new RandomStreams(seed).forReplication(r)}
+     */
+    public MyEngine(IControllerMtoV controller,
+                    double grillTime, double veganTime, double normalTime,
+                    double cashierTime, double selfServiceTime, double coffeeTime,
+                    boolean variabilityEnabled, boolean selfServiceEnabled, boolean coffeeEnabled,
+                    double arrivalRate, int maxQueueCapacity, RandomStreams randomStreams) {
+        super(controller);
 
         this.maxQueueCapacity = maxQueueCapacity;
+        this.randomStreams = randomStreams;
+        customerStore.setRandomStreams(randomStreams);
 
         // Create all service points through the factory with user-provided values
         servicePoints = ServicePointFactory.createServicePoints(
@@ -83,7 +217,8 @@ public class MyEngine extends Engine {
                 variabilityEnabled,
                 selfServiceEnabled,
                 coffeeEnabled,
-                eventList
+                eventList,
+                randomStreams
         );
 
         grillStation = servicePoints[ServicePointFactory.GRILL_STATION];
@@ -94,12 +229,282 @@ public class MyEngine extends Engine {
         selfServiceStation = servicePoints[ServicePointFactory.SELF_SERVICE_STATION];
         coffeeStation = servicePoints[ServicePointFactory.COFFEE_STATION];
 
+        timeSeries = new WindowedTimeSeries(servicePoints.length, TIME_SERIES_WINDOW, TIME_SERIES_CAPACITY);
+        timeSeries.start(Clock.getInstance().getTime());
+        timeSeries.setListener(this::windowCompleted);
+        for (int i = 0; i < servicePoints.length; i++) {
+            servicePoints[i].setTimeSeries(timeSeries, i);
+        }
+
         // Convert arrival rate (students/hour) to inter-arrival time (seconds)
         // If arrivalRate is students/hour, mean inter-arrival time = 3600/arrivalRate seconds
         // Example: 120 students/hour = 3600/120 = 30 seconds between arrivals
         // Negexp constructor: Negexp(mean, seed) - mean is in seconds
-        double meanInterArrivalTime = arrivalRate > 0 ? 3600.0 / arrivalRate : 30.0;
-        arrivalProcess = new ArrivalProcess(new Negexp(meanInterArrivalTime, 5), eventList, EventType.ARR1);
+        meanInterArrivalTime = arrivalRate > 0 ? 3600.0 / arrivalRate : 30.0;
+        Negexp interArrivalTimes = new Negexp(meanInterArrivalTime, randomStreams.seed(ARRIVAL_STREAM));
+        interArrivalTimes.setAntithetic(randomStreams.isAntithetic());
+        arrivalProcess = new ArrivalProcess(interArrivalTimes, eventList, EventType.ARR1);
+
+        double precision = Double.parseDouble(System.getProperty("simu.targetPrecision", "0"));
+        if (precision > 0) {
+            // The stopping rule itself is installed by initialization()
+            targetPrecision = precision;
+            warmUpDetection = true;
+        }
+    }
+
+    /**
+     * Turns on steady-state analysis with a sequential stopping rule: the run ends
+     * as soon as the batch-means confidence intervals of both the average wait
+     * (time in system) and the throughput have a relative half-width of at most
+     * the target, or when the simulation time is reached, whichever comes first.
+     * Off unless enabled here or with {@code -Dsimu.targetPrecision=<relative half-width>}.
+     *
+     * @param relativeHalfWidth Target half-width relative to the estimate, e.g. 0.05; 0 turns the rule off
+     * @param confidence Confidence level of the intervals, e.g. 0.95
+     */
+    public void setTargetPrecision(double relativeHalfWidth, double confidence) {
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("confidence must be between 0 and 1");
+        }
+        this.targetPrecision = relativeHalfWidth;
+        this.confidenceLevel = confidence;
+        setStoppingRule(relativeHalfWidth > 0 ? this::precisionReached : null);
+        if (relativeHalfWidth > 0) {
+            setWarmUpDetection(true);
+        }
+    }
+
+    /**
+     * Turns automatic warm-up detection on or off. When on, the total queue length per
+     * time series window is analysed with MSER-5 as the run progresses; once the end of
+     * the initial transient is found, all statistics are reset so that the results and
+     * exports only cover the steady state. Off unless enabled here, with
+     * {@code -Dsimu.autoWarmUp=true} or by {@link #setTargetPrecision(double, double)}.
+     *
+     * @param enabled true to detect and exclude the warm-up
+     */
+    public void setWarmUpDetection(boolean enabled) {
+        this.warmUpDetection = enabled;
+    }
+
+    /**
+     * Gets the length of the discarded warm-up. The statistics are reset when MSER-5
+     * finds the end of the transient, which is only checked every few windows, so this
+     * is the time of that reset rather than the truncation point itself.
+     *
+     * @return The simulation time from which the statistics are collected, or NaN if the
+     *         warm-up has not (yet) been detected
+     */
+    public double getWarmUpTime() {
+        return warmUpTime;
+    }
+
+    /**
+     * Publishes a completed time series window to the controller and, while the
+     * warm-up has not been detected, adds it to the warm-up series.
+     *
+     * @param series The time series
+     * @param window Index of the completed window
+     */
+    private void windowCompleted(WindowedTimeSeries series, int window) {
+        controller.updateTimeSeries(series, window);
+        if (warmUpDetection && Double.isNaN(warmUpTime) && warmUpSeries != null) {
+            double totalQueue = 0.0;
+            for (int c = 0; c < series.getChannelCount(); c++) {
+                totalQueue += series.getValue(window, c, WindowedTimeSeries.MEAN_QUEUE);
+            }
+            detectWarmUp(totalQueue);
+        }
+    }
+
+    /**
+     * Adds a window to the warm-up series and periodically checks it with MSER-5.
+     * When a truncation point is found, the statistics are reset at the end of the
+     * current step, since the window may complete in the middle of an event. If none
+     * is found within {@link #MAX_WARM_UP_WINDOWS} windows, no data is discarded.
+     *
+     * @param totalQueue Total mean queue length of the window
+     */
+    private void detectWarmUp(double totalQueue) {
+        if (warmUpWindows == warmUpSeries.length) {
+            warmUpSeries = Arrays.copyOf(warmUpSeries, warmUpWindows * 2);
+        }
+        warmUpSeries[warmUpWindows++] = totalQueue;
+        if (warmUpWindows < MIN_WARM_UP_WINDOWS || warmUpWindows % WARM_UP_CHECK_INTERVAL != 0) {
+            return;
+        }
+        int truncation = Mser.truncationPoint(warmUpSeries, warmUpWindows, Mser.DEFAULT_BATCH_SIZE);
+        if (truncation < 0) {
+            if (warmUpWindows < MAX_WARM_UP_WINDOWS) {
+                return;
+            }
+            Trace.out(Trace.Level.WAR, "No warm-up detected within " + warmUpWindows
+                    + " windows, keeping all data");
+            truncation = 0;
+        }
+        warmUpSeries = null;
+        if (truncation > 0) {
+            warmUpResetPending = true;
+            Trace.out(Trace.Level.INFO, "Warm-up detected: transient ended at "
+                    + truncation * TIME_SERIES_WINDOW + " s, statistics reset at "
+                    + Clock.getInstance().getTime() + " s");
+        } else {
+            warmUpTime = statisticsStartTime;
+        }
+    }
+
+    /**
+     * Discards the statistics collected during the warm-up. Customers present stay
+     * in the system; from now on only the steady state is measured.
+     *
+     * @param currentTime The current simulation time
+     */
+    private void resetStatistics(double currentTime) {
+        statisticsStartTime = currentTime;
+        customersServed = 0;
+        customersRejected = 0;
+        totalWaitTime = 0.0;
+        peakQueueLength = 0;
+        timeInSystemStatistics.reset();
+        timeInSystemQuantiles.reset();
+        queueLengthStatistics.reset(currentTime);
+        waitBatches.reset();
+        throughputBatches.reset();
+        exitsInInterval = 0;
+        nextThroughputObservation = currentTime + THROUGHPUT_INTERVAL;
+        for (ServicePoint sp : servicePoints) {
+            sp.resetStatistics();
+        }
+        arrivalProcess.resetStatistics();
+    }
+
+    /**
+     * Gets the batch-means confidence interval of the average wait (time in system).
+     *
+     * @return The interval at the configured confidence level
+     */
+    public ConfidenceInterval getWaitInterval() {
+        return waitBatches.getConfidenceInterval(confidenceLevel);
+    }
+
+    /**
+     * Gets the batch-means confidence interval of the throughput in customers per hour.
+     *
+     * @return The interval at the configured confidence level
+     */
+    public ConfidenceInterval getThroughputInterval() {
+        return throughputBatches.getConfidenceInterval(confidenceLevel);
+    }
+
+    /**
+     * Checks the precision stopping rule. The intervals are only recomputed when a
+     * batch of either estimate has completed since the last check.
+     *
+     * @return true when the warm-up (if detected automatically) is over and both estimates
+     *         have enough batches and reached the target precision
+     */
+    private boolean precisionReached() {
+        if (warmUpDetection && (Double.isNaN(warmUpTime) || warmUpResetPending)) {
+            return false;
+        }
+        int waitCount = waitBatches.getBatchCount();
+        int throughputCount = throughputBatches.getBatchCount();
+        if (waitCount == checkedWaitBatches && throughputCount == checkedThroughputBatches) {
+            return false;
+        }
+        checkedWaitBatches = waitCount;
+        checkedThroughputBatches = throughputCount;
+        if (waitCount < MIN_BATCHES || throughputCount < MIN_BATCHES) {
+            return false;
+        }
+        return getWaitInterval().getRelativeHalfWidth() <= targetPrecision
+                && getThroughputInterval().getRelativeHalfWidth() <= targetPrecision;
+    }
+
+    /**
+     * Adds the throughput of every interval that ended by the given time to the batch means.
+     *
+     * @param currentTime The current simulation time
+     */
+    private void observeThroughput(double currentTime) {
+        while (currentTime >= nextThroughputObservation) {
+            throughputBatches.add(exitsInInterval * 3600.0 / THROUGHPUT_INTERVAL);
+            exitsInInterval = 0;
+            nextThroughputObservation += THROUGHPUT_INTERVAL;
+        }
+    }
+
+    /**
+     * Sets the file the results are exported to when the run completes.
+     *
+     * @param resultsFile The CSV file path, or null to skip the export (e.g. in headless batch runs)
+     */
+    public void setResultsFile(String resultsFile) {
+        this.resultsFile = resultsFile;
+    }
+
+    /**
+     * Derives the file the dispatch profile is exported to from the results file, so
+     * runs writing to different results files do not overwrite each other's profile.
+     *
+     * @param resultsFile The results file path
+     * @return The path with "Profile" inserted before the ".csv" extension, or appended
+     */
+    static String profileFile(String resultsFile) {
+        String base = resultsFile.endsWith(".csv")
+                ? resultsFile.substring(0, resultsFile.length() - ".csv".length())
+                : resultsFile;
+        return base + "Profile.csv";
+    }
+
+    /**
+     * Sets whether the per-station statistics, histograms, occupancy curves and time
+     * series are exported next to the results file. Off by default, so that a normal
+     * run writes the results file only.
+     *
+     * @param detailedResults true to export the per-station files (also {@code -Dsimu.detailedResults=true})
+     */
+    public void setDetailedResults(boolean detailedResults) {
+        this.detailedResults = detailedResults;
+    }
+
+    /**
+     * Gets the random streams the engine draws from.
+     *
+     * @return The random streams
+     */
+    public RandomStreams getRandomStreams() {
+        return randomStreams;
+    }
+
+    /**
+     * Gets the store holding the customers currently in the cafeteria.
+     *
+     * @return The customer store
+     */
+    public CustomerStore getCustomerStore() {
+        return customerStore;
+    }
+
+    /**
+     * Gets the run history of total queue length ({@link #HISTORY_QUEUE}) and
+     * time in system ({@link #HISTORY_TIME_IN_SYSTEM}) in fixed-size time buckets.
+     *
+     * @return The bucketed history
+     */
+    public BucketedHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Gets the per-station time series, aggregated per simulated minute.
+     * Channels are the service point indices of {@link ServicePointFactory}.
+     *
+     * @return The windowed time series
+     */
+    public WindowedTimeSeries getTimeSeries() {
+        return timeSeries;
     }
 
     /**
@@ -108,15 +513,22 @@ public class MyEngine extends Engine {
      */
     @Override
     protected void initialization() {
+        if (targetPrecision > 0) {
+            setStoppingRule(this::precisionReached);
+        }
         arrivalProcess.generateNext();     // First arrival in the system
     }
 
     /**
      * Helper method to introduce a small delay in the simulation thread.
      * Used to prevent the simulation from running too fast and to allow
-     * UI updates to be processed.
+     * UI updates to be processed. Skipped when the engine runs without
+     * a step delay (headless runs).
      */
     private void helperSleep() {
+        if (getDelay() == 0) {
+            return;
+        }
         try {
             Thread.sleep(5);
         } catch (InterruptedException e) {
@@ -135,7 +547,7 @@ public class MyEngine extends Engine {
     protected void runEvent(Event t) {  // B phase events
         switch ((EventType) t.getType()) {
             case ARR1: {
-                Customer c = new Customer();
+                Customer c = customerStore.acquire();
                 MealType mealType = c.getMealType();
                 helperSleep();
 
@@ -149,6 +561,10 @@ public class MyEngine extends Engine {
                 // Only add customer if the target station has capacity
                 if (targetStation != null && targetStation.hasQueueCapacity(maxQueueCapacity)) {
                     double arrivalTime = Clock.getInstance().getTime();
+                    if (customerStore.size() == 1) {
+                        // Arrival at an empty cafeteria: nothing queued or in service
+                        regenerativeCycles.regenerate(arrivalTime);
+                    }
                     targetStation.addQueue(c);
 
                     c.markServiceStart(ServicePointType.MEAL, arrivalTime);
@@ -157,10 +573,13 @@ public class MyEngine extends Engine {
                         targetStation.beginService();
                     }
 
-                    controller.visualiseCustomer(mealType);
+                    if (!constantMemoryMode) {
+                        controller.visualiseCustomer(mealType);
+                    }
                     arrivalsStopped = false;
                 } else {
                     customersRejected++;
+                    c.release();
                 }
 
                 // Check if all first-row SPs are at max capacity
@@ -193,7 +612,9 @@ public class MyEngine extends Engine {
                 }
 
                 int cashierStation = routeToPayment(c);
-                controller.visualiseCustomerToPayment(c.getMealType(), c.getPaymentType(), cashierStation);
+                if (!constantMemoryMode) {
+                    controller.visualiseCustomerToPayment(c.getMealType(), c.getPaymentType(), cashierStation);
+                }
                 if (arrivalsStopped && grillStation.hasQueueCapacity(maxQueueCapacity)) {
                     checkAndResumeArrivals();
                 }
@@ -213,7 +634,9 @@ public class MyEngine extends Engine {
                 }
 
                 int cashierStation = routeToPayment(c);
-                controller.visualiseCustomerToPayment(c.getMealType(), c.getPaymentType(), cashierStation);
+                if (!constantMemoryMode) {
+                    controller.visualiseCustomerToPayment(c.getMealType(), c.getPaymentType(), cashierStation);
+                }
                 // Resume arrivals if they were stopped and now capacity is available
                 if (arrivalsStopped && veganStation.hasQueueCapacity(maxQueueCapacity)) {
                     checkAndResumeArrivals();
@@ -234,7 +657,9 @@ public class MyEngine extends Engine {
                 }
 
                 int cashierStation = routeToPayment(c);
-                controller.visualiseCustomerToPayment(c.getMealType(), c.getPaymentType(), cashierStation);
+                if (!constantMemoryMode) {
+                    controller.visualiseCustomerToPayment(c.getMealType(), c.getPaymentType(), cashierStation);
+                }
                 // Resume arrivals if they were stopped and now capacity is available
                 if (arrivalsStopped && normalStation.hasQueueCapacity(maxQueueCapacity)) {
                     checkAndResumeArrivals();
@@ -304,15 +729,10 @@ public class MyEngine extends Engine {
                     coffeeStation.beginService();
                 }
 
-                controller.visualiseCustomerExitFromCoffee();
-                c.setRemovalTime(Clock.getInstance().getTime());
-
-                // Update statistics
-                customersServed++;
-                double totalTimeInSystem = c.getRemovalTime() - c.getArrivalTime();
-                totalWaitTime += totalTimeInSystem;
-
-                c.reportResults();
+                if (!constantMemoryMode) {
+                    controller.visualiseCustomerExitFromCoffee();
+                }
+                customerExited(c);
                 updateQueueDisplays();
                 break;
             }
@@ -349,14 +769,10 @@ public class MyEngine extends Engine {
                         selfServiceStation.beginService();
                     }
                 } else {
+                    // redirectToCashier queues the customer at the chosen cashier
                     cashierStationNumber = redirectToCashier(customer);
-                    cashierStation.addQueue(customer);
-                    paymentStation = cashierStation;
-                    cashierStationNumber = 1;
+                    paymentStation = (cashierStationNumber == 1) ? cashierStation : cashierStation2;
                     customer.markServiceStart(ServicePointType.CASHIER, arrivalTime);
-                    if (!cashierStation.isReserved() && cashierStation.isOnQueue()) {
-                        cashierStation.beginService();
-                    }
                 }
                 break;
             case CASHIER:
@@ -418,7 +834,9 @@ public class MyEngine extends Engine {
     private void routeAfterPayment(Customer customer, int cashierStationNumber) {
         if (ServicePointFactory.shouldVisitCoffeeStation(servicePoints, customer.isWantsCoffee())) {
             double arrivalTime = Clock.getInstance().getTime();
-            controller.visualiseCustomerToCoffee(customer.getPaymentType(), cashierStationNumber);
+            if (!constantMemoryMode) {
+                controller.visualiseCustomerToCoffee(customer.getPaymentType(), cashierStationNumber);
+            }
             coffeeStation.addQueue(customer);
 
             customer.markServiceStart(ServicePointType.COFFEE, arrivalTime);
@@ -429,17 +847,37 @@ public class MyEngine extends Engine {
 
             updateQueueDisplays();
         } else {
-            controller.visualiseCustomerExitFromPayment(customer.getPaymentType(), cashierStationNumber);
-            customer.setRemovalTime(Clock.getInstance().getTime());
-
-            customersServed++;
-            double totalTimeInSystem = customer.getRemovalTime() - customer.getArrivalTime();
-            totalWaitTime += totalTimeInSystem;
-
-            customer.reportResults();
+            if (!constantMemoryMode) {
+                controller.visualiseCustomerExitFromPayment(customer.getPaymentType(), cashierStationNumber);
+            }
+            customerExited(customer);
         }
     }
 
+    /**
+     * Records a customer leaving the cafeteria and releases it back to the customer store.
+     *
+     * @param customer The customer who left
+     */
+    private void customerExited(Customer customer) {
+        double removalTime = Clock.getInstance().getTime();
+        customer.setRemovalTime(removalTime);
+        observeThroughput(removalTime);
+
+        customersServed++;
+        exitsInInterval++;
+        double totalTimeInSystem = customer.getRemovalTime() - customer.getArrivalTime();
+        totalWaitTime += totalTimeInSystem;
+        timeInSystemStatistics.add(totalTimeInSystem);
+        timeInSystemQuantiles.add(totalTimeInSystem);
+        waitBatches.add(totalTimeInSystem);
+        regenerativeCycles.customerLeft(totalTimeInSystem);
+        history.record(removalTime, HISTORY_TIME_IN_SYSTEM, totalTimeInSystem);
+
+        customer.reportResults();
+        customer.release();
+    }
+
     /**
      * Checks if arrivals should be resumed after being stopped.
      * Resumes arrivals if at least one first-row service point (grill, vegan, or normal)
@@ -459,7 +897,10 @@ public class MyEngine extends Engine {
 
     /**
      * Updates the queue length displays for all service points.
-     * Also tracks peak queue length and updates the controller with current queue states.
+     * Also tracks peak queue length, records the total queue length in the run history
+     * and updates the controller with current queue states. In constant-memory mode the
+     * controller is updated at most once per simulated minute, so that display updates
+     * cannot pile up faster than the UI consumes them.
      */
     private void updateQueueDisplays() {
         int grillQueue = grillStation.getQueueLength();
@@ -478,6 +919,20 @@ public class MyEngine extends Engine {
             peakQueueLength = currentMaxQueue;
         }
 
+        double currentTime = Clock.getInstance().getTime();
+        int totalQueue = grillQueue + veganQueue + normalQueue
+                + cashierQueue + cashierQueue2 + selfServiceQueue + coffeeQueue;
+        history.record(currentTime, HISTORY_QUEUE, totalQueue);
+        queueLengthStatistics.update(currentTime, totalQueue);
+        regenerativeCycles.update(currentTime, totalQueue);
+        observeThroughput(currentTime);
+        if (constantMemoryMode) {
+            if (currentTime < nextDisplayUpdate) {
+                return;
+            }
+            nextDisplayUpdate = currentTime + CONSTANT_MEMORY_DISPLAY_INTERVAL;
+        }
+
         controller.updateQueueDisplays(grillQueue, veganQueue, normalQueue,
                                       cashierQueue, cashierQueue2, selfServiceQueue, coffeeQueue);
 
@@ -492,7 +947,7 @@ public class MyEngine extends Engine {
      */
     private void updateStatistics() {
         double currentTime = Clock.getInstance().getTime();
-        double simulationHours = currentTime / 3600.0;
+        double simulationHours = (currentTime - statisticsStartTime) / 3600.0;
 
         double throughput = simulationHours > 0 ? customersServed / simulationHours : 0.0;
 
@@ -517,9 +972,9 @@ public class MyEngine extends Engine {
      *
      * @return SimulationStatistics object with current statistics
      */
-    private SimulationStatistics getStatistics() {
+    public SimulationStatistics getStatistics() {
         double currentTime = Clock.getInstance().getTime();
-        double simulationHours = currentTime / 3600.0;
+        double simulationHours = (currentTime - statisticsStartTime) / 3600.0;
 
         double throughput = simulationHours > 0
                 ? customersServed / simulationHours
@@ -529,7 +984,7 @@ public class MyEngine extends Engine {
                 ? totalWaitTime / customersServed
                 : 0.0;
 
-        return new SimulationStatistics(
+        SimulationStatistics statistics = new SimulationStatistics(
                 customersServed,
                 throughput,
                 avgWaitTime,
@@ -537,16 +992,40 @@ public class MyEngine extends Engine {
                 currentTime,
                 customersRejected
         );
+
+        queueLengthStatistics.close(currentTime);
+        statistics.setTimeInSystemStatistics(timeInSystemStatistics.copy());
+        statistics.setTimeInSystemQuantiles(timeInSystemQuantiles.copy());
+        statistics.setQueueLengthStatistics(queueLengthStatistics.copy());
+        StationStatistics[] stations = new StationStatistics[servicePoints.length];
+        for (int i = 0; i < servicePoints.length; i++) {
+            stations[i] = new StationStatistics(servicePoints[i], currentTime);
+        }
+        statistics.setStationStatistics(stations);
+        statistics.setWaitInterval(getWaitInterval());
+        statistics.setThroughputInterval(getThroughputInterval());
+        statistics.setStoppedByPrecision(isStoppedByRule());
+        statistics.setWarmUpTime(warmUpTime);
+        statistics.setStatisticsStartTime(statisticsStartTime);
+        statistics.setRegenerativeCycles(regenerativeCycles.copy());
+        statistics.setInterArrivalTimes(arrivalProcess.getObservedMeanInterArrivalTime(), meanInterArrivalTime);
+        return statistics;
     }
 
 
 
     /**
      * Updates all displays during the simulation.
-     * Called periodically by the engine to refresh UI elements.
+     * Called by the engine after every step to refresh UI elements; a pending
+     * warm-up reset is applied first, between events.
      */
     @Override
     protected void updateDisplays() {
+        if (warmUpResetPending) {
+            warmUpResetPending = false;
+            resetStatistics(Clock.getInstance().getTime());
+            warmUpTime = statisticsStartTime;
+        }
         // Update queue displays periodically during simulation
         updateQueueDisplays();
     }
@@ -590,7 +1069,8 @@ public class MyEngine extends Engine {
     }
     /**
      * Called when the simulation completes.
-     * Exports simulation statistics to CSV and displays the end time.
+     * Exports simulation statistics to CSV (and the dispatch profile, when profiling
+     * is enabled) and displays the end time.
      */
     @Override
     protected void results() {
@@ -599,9 +1079,27 @@ public class MyEngine extends Engine {
                 sp.finalizeStatistics();
             }
         }
+        timeSeries.finish(Clock.getInstance().getTime());
 
         try {
-            CsvExporter.export(getStatistics(), "SimulationResults.csv");
+            if (resultsFile != null) {
+                SimulationStatistics statistics = getStatistics();
+                CsvExporter.export(statistics, resultsFile);
+                if (detailedResults) {
+                    CsvExporter.exportStations(statistics, STATIONS_FILE);
+                    CsvExporter.exportHistograms(statistics, HISTOGRAMS_FILE);
+                    CsvExporter.exportHistogramsBinary(statistics, HISTOGRAMS_BINARY_FILE);
+                    CsvExporter.exportOccupancy(statistics, OCCUPANCY_FILE);
+                    CsvExporter.exportTimeSeries(timeSeries, statistics, TIME_SERIES_FILE);
+                }
+                if (constantMemoryMode) {
+                    CsvExporter.exportHistory(history, HISTORY_FILE);
+                }
+                if (profiler != null) {
+                    profiler.printReport(System.out);
+                    profiler.exportCsv(profileFile(resultsFile));
+                }
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -2,10 +2,17 @@ package simu.model;
 
 import eduni.distributions.ContinuousGenerator;
 import simu.framework.Clock;
+import simu.framework.DispatchProfiler;
 import simu.framework.Event;
 import simu.framework.EventList;
-
-import java.util.LinkedList;
+import simu.framework.WindowedTimeSeries;
+import simu.framework.jfr.JfrSampler;
+import simu.framework.jfr.ServicePointEvent;
+import simu.stats.LogLinearHistogram;
+import simu.stats.OccupancyDistribution;
+import simu.stats.QuantileSketch;
+import simu.stats.RunningStatistics;
+import simu.stats.TimeWeightedStatistics;
 
 /**
  * Represents a service point in the cafeteria simulation.
@@ -16,8 +23,8 @@ import java.util.LinkedList;
  * @version 1.0
  */
 public class ServicePoint {
-    /** Queue of customers waiting for service (FIFO) */
-    private LinkedList<Customer> jono = new LinkedList<Customer>(); // Data Structure used
+    /** Queue of customers waiting for service (FIFO), with their enqueue times */
+    private final CustomerQueue jono = new CustomerQueue(); // Data Structure used
     /** Generator for service time distribution */
     private ContinuousGenerator generator;
     /** Event list for scheduling departure events */
@@ -30,6 +37,8 @@ public class ServicePoint {
     private boolean enabled = true;
     /** Name of the service point for identification */
     private String name;
+    /** Mean of the service time distribution, or NaN if unknown */
+    private double expectedServiceTime = Double.NaN;
     
     private int totalCustomersServed = 0;
     private double totalBusyTime = 0.0;
@@ -43,8 +52,34 @@ public class ServicePoint {
     
     private double totalWaitTime = 0.0;
     private double totalServiceTime = 0.0;
-    
-    private java.util.Map<Customer, Double> customerArrivalTimes = new java.util.HashMap<>();
+
+    /** Time from joining the queue to the start of service, per customer */
+    private final RunningStatistics waitStatistics = new RunningStatistics();
+    /** Quantile sketch of the wait times */
+    private final QuantileSketch waitQuantiles = new QuantileSketch();
+    /** Log-linear histogram of the wait times */
+    private final LogLinearHistogram waitHistogram = LogLinearHistogram.forDurations();
+    /** Sampled service times */
+    private final RunningStatistics serviceStatistics = new RunningStatistics();
+    /** Log-linear histogram of the sampled service times */
+    private final LogLinearHistogram serviceHistogram = LogLinearHistogram.forDurations();
+    /** Time from joining the queue to leaving the service point, per customer */
+    private final RunningStatistics sojournStatistics = new RunningStatistics();
+    /** Time-weighted queue length (including the customer in service) */
+    private final TimeWeightedStatistics queueLengthStatistics = new TimeWeightedStatistics();
+    /** Time spent at each queue length (including the customer in service) */
+    private final OccupancyDistribution queueOccupancy = new OccupancyDistribution();
+
+    /** Selects which queue operations are timed for JFR */
+    private final JfrSampler jfrSampler = new JfrSampler();
+    /** Dispatch profiler, or null when profiling is disabled */
+    private DispatchProfiler profiler;
+    /** Index under which this service point reports to the profiler */
+    private int profilerIndex;
+    /** Windowed time series this service point reports its queue length to, or null */
+    private WindowedTimeSeries timeSeries;
+    /** Channel under which this service point reports to the time series */
+    private int timeSeriesChannel;
 
     /**
      * Constructs a new ServicePoint with the specified parameters.
@@ -60,6 +95,7 @@ public class ServicePoint {
         this.enabled = true;
         this.simulationStartTime = Clock.getInstance().getTime();
         this.lastQueueLengthChangeTime = simulationStartTime;
+        this.queueLengthStatistics.update(simulationStartTime, 0);
     }
 
     /**
@@ -90,9 +126,11 @@ public class ServicePoint {
         
         updateQueueLengthStatistics(currentTime);
         
-        customerArrivalTimes.put(a, currentTime);
-        
-        jono.add(a);
+        jono.add(a, currentTime);
+        queueLengthStatistics.update(currentTime, jono.size());
+        if (timeSeries != null) {
+            timeSeries.record(currentTime, timeSeriesChannel, jono.size());
+        }
         
         if (jono.size() > peakQueueLength) {
             peakQueueLength = jono.size();
@@ -106,6 +144,30 @@ public class ServicePoint {
      * @return The customer who completed service, or null if queue is empty
      */
     public Customer removeQueue(){		// Remove serviced customer
+        long start = profiler != null ? System.nanoTime() : 0L;
+        Customer customer;
+        ServicePointEvent jfrEvent = new ServicePointEvent();
+        if (jfrEvent.isEnabled() && jfrSampler.sample()) {
+            jfrEvent.begin();
+            customer = removeServedCustomer();
+            jfrEvent.end();
+            commitJfrEvent(jfrEvent, "removeQueue");
+        } else {
+            customer = removeServedCustomer();
+        }
+        if (profiler != null) {
+            profiler.recordServicePoint(profilerIndex, System.nanoTime() - start);
+        }
+        return customer;
+    }
+
+    /**
+     * Removes the customer who completed service and updates the busy-time
+     * and queue-length statistics.
+     *
+     * @return The customer who completed service, or null if queue is empty
+     */
+    private Customer removeServedCustomer() {
         double currentTime = Clock.getInstance().getTime();
         
         if (lastServiceStartTime >= 0) {
@@ -115,11 +177,18 @@ public class ServicePoint {
         
         updateQueueLengthStatistics(currentTime);
         
+        double enqueueTime = jono.peekEnqueueTime();
         Customer customer = jono.poll();
         
         if (customer != null) {
             totalCustomersServed++;
-            customerArrivalTimes.remove(customer);
+            if (!Double.isNaN(enqueueTime)) {
+                sojournStatistics.add(currentTime - enqueueTime);
+            }
+            queueLengthStatistics.update(currentTime, jono.size());
+            if (timeSeries != null) {
+                timeSeries.record(currentTime, timeSeriesChannel, jono.size());
+            }
         }
         
         reserved = false;
@@ -135,6 +204,26 @@ public class ServicePoint {
         if (!enabled) {
             return;
         }
+        long start = profiler != null ? System.nanoTime() : 0L;
+        ServicePointEvent jfrEvent = new ServicePointEvent();
+        if (jfrEvent.isEnabled() && jfrSampler.sample()) {
+            jfrEvent.begin();
+            startService();
+            jfrEvent.end();
+            commitJfrEvent(jfrEvent, "beginService");
+        } else {
+            startService();
+        }
+        if (profiler != null) {
+            profiler.recordServicePoint(profilerIndex, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Samples a service time for the customer at the front of the queue,
+     * records its wait time and schedules the departure event.
+     */
+    private void startService() {
         double currentTime = Clock.getInstance().getTime();
         
         lastServiceStartTime = currentTime;
@@ -143,17 +232,57 @@ public class ServicePoint {
         double serviceTime = generator.sample();
         
         totalServiceTime += serviceTime;
+        serviceStatistics.add(serviceTime);
+        serviceHistogram.record(serviceTime);
         
-        Customer customerBeingServed = jono.peek();
-        if (customerBeingServed != null) {
-            Double arrivalTime = customerArrivalTimes.get(customerBeingServed);
-            if (arrivalTime != null) {
-                double waitTime = currentTime - arrivalTime;
-                totalWaitTime += waitTime;
-            }
+        double arrivalTime = jono.peekEnqueueTime();
+        if (!Double.isNaN(arrivalTime)) {
+            double waitTime = currentTime - arrivalTime;
+            totalWaitTime += waitTime;
+            waitStatistics.add(waitTime);
+            waitQuantiles.add(waitTime);
+            waitHistogram.record(waitTime);
         }
         
-        eventList.add(new Event(eventTypeScheduled, currentTime + serviceTime));
+        eventList.add(new Event(eventTypeScheduled, currentTime + serviceTime, this));
+    }
+
+    /**
+     * Fills in and commits a timed JFR event if it passed its threshold.
+     *
+     * @param jfrEvent The timed event
+     * @param operation The operation that was timed
+     */
+    private void commitJfrEvent(ServicePointEvent jfrEvent, String operation) {
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.operation = operation;
+            jfrEvent.station = name;
+            jfrEvent.queueLength = jono.size();
+            jfrEvent.simTime = Clock.getInstance().getTime();
+            jfrEvent.commit();
+        }
+    }
+
+    /**
+     * Installs the dispatch profiler that times this service point's queue operations.
+     *
+     * @param profiler The profiler, or null to disable profiling
+     * @param index Index under which this service point reports
+     */
+    public void setProfiler(DispatchProfiler profiler, int index) {
+        this.profiler = profiler;
+        this.profilerIndex = index;
+    }
+
+    /**
+     * Installs the windowed time series this service point reports its queue length to.
+     *
+     * @param timeSeries The time series, or null to stop reporting
+     * @param channel Channel under which this service point reports
+     */
+    public void setTimeSeries(WindowedTimeSeries timeSeries, int channel) {
+        this.timeSeries = timeSeries;
+        this.timeSeriesChannel = channel;
     }
 
     /**
@@ -219,6 +348,25 @@ public class ServicePoint {
         this.name = name;
     }
 
+    /**
+     * Gets the mean of the service time distribution, against which the observed mean
+     * service time can be used as a control variate.
+     *
+     * @return The expected service time in seconds, or NaN if unknown
+     */
+    public double getExpectedServiceTime() {
+        return expectedServiceTime;
+    }
+
+    /**
+     * Sets the mean of the service time distribution.
+     *
+     * @param expectedServiceTime The expected service time in seconds
+     */
+    public void setExpectedServiceTime(double expectedServiceTime) {
+        this.expectedServiceTime = expectedServiceTime;
+    }
+
     /**
      * Checks if the service point has available queue capacity.
      * 
@@ -236,6 +384,7 @@ public class ServicePoint {
         if (lastQueueLengthChangeTime >= 0) {
             double timeDelta = currentTime - lastQueueLengthChangeTime;
             totalQueueLengthTime += lastQueueLength * timeDelta;
+            queueOccupancy.record(lastQueueLength, timeDelta);
         }
         lastQueueLength = jono.size();
         lastQueueLengthChangeTime = currentTime;
@@ -244,6 +393,7 @@ public class ServicePoint {
     public void finalizeStatistics() {
         double currentTime = Clock.getInstance().getTime();
         updateQueueLengthStatistics(currentTime);
+        queueLengthStatistics.close(currentTime);
         
         if (lastServiceStartTime >= 0) {
             totalBusyTime += (currentTime - lastServiceStartTime);
@@ -259,41 +409,162 @@ public class ServicePoint {
         return totalBusyTime;
     }
     
+    /**
+     * Gets the utilization since the statistics were started or last reset.
+     *
+     * @param simulationTime The current simulation time
+     * @return The busy time in percent of the observed time
+     */
     public double getUtilization(double simulationTime) {
-        if (simulationTime <= 0) return 0.0;
-        return (totalBusyTime / simulationTime) * 100.0;
+        double observedTime = simulationTime - simulationStartTime;
+        if (observedTime <= 0) return 0.0;
+        return (totalBusyTime / observedTime) * 100.0;
     }
     
+    /**
+     * Gets the time-averaged queue length since the statistics were started or last reset.
+     *
+     * @param simulationTime The current simulation time
+     * @return The average queue length
+     */
     public double getAverageQueueLength(double simulationTime) {
-        if (simulationTime <= 0) return 0.0;
-        return totalQueueLengthTime / simulationTime;
+        double observedTime = simulationTime - simulationStartTime;
+        if (observedTime <= 0) return 0.0;
+        return totalQueueLengthTime / observedTime;
+    }
+    
+    /**
+     * Gets the simulation time from which the statistics are collected.
+     *
+     * @return The time of construction or of the last reset
+     */
+    public double getStatisticsStartTime() {
+        return simulationStartTime;
     }
     
     public int getPeakQueueLength() {
         return peakQueueLength;
     }
     
+    /**
+     * Gets the mean wait over the recorded waits; customers whose enqueue time was
+     * discarded at a reset are not counted.
+     *
+     * @return The average wait time, or 0 if no wait was recorded
+     */
     public double getAverageWaitTime() {
-        if (totalCustomersServed == 0) return 0.0;
-        return totalWaitTime / totalCustomersServed;
+        if (waitStatistics.getCount() == 0) return 0.0;
+        return totalWaitTime / waitStatistics.getCount();
     }
     
+    /**
+     * Gets the mean over the service times sampled since the statistics were started
+     * or last reset.
+     *
+     * @return The average service time, or 0 if no service was started
+     */
     public double getAverageServiceTime() {
-        if (totalCustomersServed == 0) return 0.0;
-        return totalServiceTime / totalCustomersServed;
+        if (serviceStatistics.getCount() == 0) return 0.0;
+        return totalServiceTime / serviceStatistics.getCount();
     }
     
+    /**
+     * Discards all statistics collected so far, e.g. at the end of the warm-up.
+     * Customers in the queue stay; a service in progress counts as busy from now on,
+     * and the waits of customers already queued are not recorded.
+     */
     public void resetStatistics() {
         totalCustomersServed = 0;
         totalBusyTime = 0.0;
-        lastServiceStartTime = -1.0;
         simulationStartTime = Clock.getInstance().getTime();
+        lastServiceStartTime = reserved ? simulationStartTime : -1.0;
         totalQueueLengthTime = 0.0;
         lastQueueLengthChangeTime = simulationStartTime;
-        lastQueueLength = 0;
-        peakQueueLength = 0;
+        lastQueueLength = jono.size();
+        peakQueueLength = jono.size();
         totalWaitTime = 0.0;
         totalServiceTime = 0.0;
-        customerArrivalTimes.clear();
+        jono.discardEnqueueTimes();
+        waitStatistics.reset();
+        waitQuantiles.reset();
+        waitHistogram.reset();
+        serviceStatistics.reset();
+        serviceHistogram.reset();
+        sojournStatistics.reset();
+        queueLengthStatistics.reset(simulationStartTime);
+        queueOccupancy.reset();
+    }
+
+    /**
+     * Gets the streaming statistics of the wait times (queue join to service start).
+     *
+     * @return The wait time accumulator
+     */
+    public RunningStatistics getWaitStatistics() {
+        return waitStatistics;
+    }
+
+    /**
+     * Gets the quantile sketch of the wait times (queue join to service start).
+     *
+     * @return The wait time sketch
+     */
+    public QuantileSketch getWaitQuantiles() {
+        return waitQuantiles;
+    }
+
+    /**
+     * Gets the histogram of the wait times (queue join to service start).
+     *
+     * @return The wait time histogram
+     */
+    public LogLinearHistogram getWaitHistogram() {
+        return waitHistogram;
+    }
+
+    /**
+     * Gets the histogram of the sampled service times.
+     *
+     * @return The service time histogram
+     */
+    public LogLinearHistogram getServiceHistogram() {
+        return serviceHistogram;
+    }
+
+    /**
+     * Gets the streaming statistics of the sampled service times.
+     *
+     * @return The service time accumulator
+     */
+    public RunningStatistics getServiceStatistics() {
+        return serviceStatistics;
+    }
+
+    /**
+     * Gets the streaming statistics of the sojourn times (queue join to departure).
+     *
+     * @return The sojourn time accumulator
+     */
+    public RunningStatistics getSojournStatistics() {
+        return sojournStatistics;
+    }
+
+    /**
+     * Gets the time-weighted statistics of the queue length, including the customer in service.
+     *
+     * @return The queue length accumulator
+     */
+    public TimeWeightedStatistics getQueueLengthStatistics() {
+        return queueLengthStatistics;
+    }
+
+    /**
+     * Gets the time-weighted distribution of the queue length (including the customer in service).
+     * Up to date after {@link #finalizeStatistics()}.
+     *
+     * @return The queue occupancy distribution
+     */
+    public OccupancyDistribution getQueueOccupancy() {
+        return queueOccupancy;
     }
 }
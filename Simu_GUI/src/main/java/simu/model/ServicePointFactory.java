@@ -2,8 +2,11 @@ package simu.model;
 
 import eduni.distributions.ContinuousGenerator;
 import eduni.distributions.FixedTimeGenerator;
-import eduni.distributions.Normal;
+import eduni.distributions.RandomGenerator;
 import simu.framework.EventList;
+import simu.framework.RandomStreams;
+import simu.framework.Trace;
+import simu.stats.StudentT;
 
 /**
  * Factory class for creating service points in the cafeteria simulation.
@@ -43,63 +46,93 @@ public class ServicePointFactory {
      * @param selfServiceEnabled Whether self-service station should be enabled
      * @param coffeeEnabled Whether coffee station should be enabled
      * @param eventList The event list for scheduling departure events
+     * @param streams The random streams; each station draws its service times from its own
+     *                {@link #serviceStream(int) stream}
      * @return Array of ServicePoint objects in the order defined by the station constants
      */
     public static ServicePoint[] createServicePoints(
             double grillTime, double veganTime, double normalTime,
             double cashierTime, double selfServiceTime, double coffeeTime,
             boolean variabilityEnabled, boolean selfServiceEnabled, boolean coffeeEnabled,
-            EventList eventList) {
+            EventList eventList, RandomStreams streams) {
 
         ServicePoint[] servicePoints = new ServicePoint[7];
-        System.out.println("self-service enabled? " + selfServiceEnabled);
+        Trace.out(Trace.Level.INFO, "self-service enabled? " + selfServiceEnabled);
         servicePoints[GRILL_STATION] = new ServicePoint(
-                createGenerator(grillTime, variabilityEnabled),
+                createGenerator(grillTime, variabilityEnabled, streams, serviceStream(GRILL_STATION)),
                 eventList, EventType.MEAL_GRILL_DEP, "Grill Station");
 
         servicePoints[VEGAN_STATION] = new ServicePoint(
-                createGenerator(veganTime, variabilityEnabled),
+                createGenerator(veganTime, variabilityEnabled, streams, serviceStream(VEGAN_STATION)),
                 eventList, EventType.MEAL_VEGAN_DEP, "Vegan Station");
 
         servicePoints[NORMAL_STATION] = new ServicePoint(
-                createGenerator(normalTime, variabilityEnabled),
+                createGenerator(normalTime, variabilityEnabled, streams, serviceStream(NORMAL_STATION)),
                 eventList, EventType.MEAL_NORMAL_DEP, "Normal Station");
 
         servicePoints[CASHIER_STATION] = new ServicePoint(
-                createGenerator(cashierTime, variabilityEnabled),
+                createGenerator(cashierTime, variabilityEnabled, streams, serviceStream(CASHIER_STATION)),
                 eventList, EventType.PAYMENT_CASHIER_DEP, "Cashier");
 
         servicePoints[CASHIER_STATION_2] = new ServicePoint(
-                createGenerator(cashierTime, variabilityEnabled),
+                createGenerator(cashierTime, variabilityEnabled, streams, serviceStream(CASHIER_STATION_2)),
                 eventList, EventType.PAYMENT_CASHIER_DEP, "Cashier");
 
 
         servicePoints[SELF_SERVICE_STATION] = new ServicePoint(
-                createGenerator(selfServiceTime, variabilityEnabled),
+                createGenerator(selfServiceTime, variabilityEnabled, streams, serviceStream(SELF_SERVICE_STATION)),
                 eventList, EventType.PAYMENT_SELF_DEP, "Self-Service");
         servicePoints[SELF_SERVICE_STATION].setEnabled(selfServiceEnabled);
 
         servicePoints[COFFEE_STATION] = new ServicePoint(
-                createGenerator(coffeeTime, variabilityEnabled),
+                createGenerator(coffeeTime, variabilityEnabled, streams, serviceStream(COFFEE_STATION)),
                 eventList, EventType.COFFEE_DEP, "Coffee Station");
         servicePoints[COFFEE_STATION].setEnabled(coffeeEnabled);
 
+        double[] meanTimes = new double[7];
+        meanTimes[GRILL_STATION] = grillTime;
+        meanTimes[VEGAN_STATION] = veganTime;
+        meanTimes[NORMAL_STATION] = normalTime;
+        meanTimes[CASHIER_STATION] = cashierTime;
+        meanTimes[CASHIER_STATION_2] = cashierTime;
+        meanTimes[SELF_SERVICE_STATION] = selfServiceTime;
+        meanTimes[COFFEE_STATION] = coffeeTime;
+        for (int i = 0; i < servicePoints.length; i++) {
+            servicePoints[i].setExpectedServiceTime(meanTimes[i]);
+        }
+
         return servicePoints;
     }
 
+    /**
+     * Gets the name of the random stream of a station's service times.
+     *
+     * @param station The station index, e.g. {@link #GRILL_STATION}
+     * @return The stream name
+     */
+    public static String serviceStream(int station) {
+        return "service." + station;
+    }
+
     /**
      * Creates a service time generator based on the variability setting.
      * 
      * @param meanTime Mean service time in seconds
-     * @param variabilityEnabled If true, uses Normal distribution with 10% standard deviation;
+     * @param variabilityEnabled If true, uses a normal distribution with variance 10% of the mean;
      *                          if false, uses FixedTimeGenerator
+     * @param streams The random streams
+     * @param stream Name of the stream the generator draws from
      * @return A ContinuousGenerator for service times
      */
-    private static ContinuousGenerator createGenerator(double meanTime, boolean variabilityEnabled) {
+    private static ContinuousGenerator createGenerator(double meanTime, boolean variabilityEnabled,
+                                                       RandomStreams streams, String stream) {
+        long seed = streams.seed(stream);
         if (variabilityEnabled) {
-            return new Normal(meanTime, meanTime * 0.1);
+            RandomGenerator uniform = new RandomGenerator(seed);
+            uniform.setAntithetic(streams.isAntithetic());
+            return new InverseNormal(meanTime, Math.sqrt(meanTime * 0.1), uniform);
         } else {
-            return new FixedTimeGenerator(meanTime);
+            return new FixedTimeGenerator(meanTime, seed);
         }
     }
 
@@ -138,5 +171,44 @@ public class ServicePointFactory {
         }
         return customerWantsCoffee;
     }
-}
 
+    /**
+     * Normal service times by inversion of one uniform number per sample. Unlike
+     * the Box-Muller transform of {@link eduni.distributions.Normal}, which mixes
+     * two uniforms through a sine, inversion maps an antithetic {@code 1-U} to the
+     * mirror image {@code 2 * mean - x} of the original sample, so the two runs of
+     * an antithetic pair have perfectly negatively correlated service times.
+     */
+    private static final class InverseNormal implements ContinuousGenerator {
+        private final double mean;
+        private final double standardDeviation;
+        /** Uniform numbers strictly between 0 and 1 */
+        private final RandomGenerator uniform;
+
+        InverseNormal(double mean, double standardDeviation, RandomGenerator uniform) {
+            this.mean = mean;
+            this.standardDeviation = standardDeviation;
+            this.uniform = uniform;
+        }
+
+        @Override
+        public double sample() {
+            return mean + standardDeviation * StudentT.normalQuantile(uniform.sample());
+        }
+
+        @Override
+        public void setSeed(long seed) {
+            uniform.setSeed(seed);
+        }
+
+        @Override
+        public long getSeed() {
+            return uniform.getSeed();
+        }
+
+        @Override
+        public void reseed() {
+            uniform.reseed();
+        }
+    }
+}
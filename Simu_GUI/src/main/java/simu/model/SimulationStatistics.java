@@ -1,8 +1,14 @@
 package simu.model;
 
+import simu.stats.ConfidenceInterval;
+import simu.stats.QuantileSketch;
+import simu.stats.RegenerativeCycles;
+import simu.stats.RunningStatistics;
+import simu.stats.TimeWeightedStatistics;
+
 public class SimulationStatistics {
     /** Throughput metric (customers per hour) */
-    protected int throughput;
+    protected double throughput;
     /** Average wait time in seconds */
     protected double avgWaitTime;
     /** Peak queue length observed during simulation */
@@ -15,6 +21,31 @@ public class SimulationStatistics {
     /** Total wait time accumulated across all customers */
     private double totalWaitTime;
 
+    /** Time in system of the customers who left */
+    private RunningStatistics timeInSystem = new RunningStatistics();
+    /** Quantile sketch of the time in system */
+    private QuantileSketch timeInSystemQuantiles = new QuantileSketch();
+    /** Time-weighted total number of customers queued or in service */
+    private TimeWeightedStatistics queueLength = new TimeWeightedStatistics();
+    /** Per-station statistics */
+    private StationStatistics[] stations = new StationStatistics[0];
+    /** Batch-means confidence interval of the average wait, or null */
+    private ConfidenceInterval waitInterval;
+    /** Batch-means confidence interval of the throughput, or null */
+    private ConfidenceInterval throughputInterval;
+    /** Whether the run ended because the target precision was reached */
+    private boolean stoppedByPrecision;
+    /** Time up to which the warm-up was discarded, or NaN if none was detected */
+    private double warmUpTime = Double.NaN;
+    /** Simulation time from which the statistics were collected */
+    private double statisticsStartTime = 0.0;
+    /** Completed regeneration cycles of the run */
+    private RegenerativeCycles regenerativeCycles = new RegenerativeCycles();
+    /** Mean of the sampled inter-arrival times */
+    private double observedInterArrivalTime = Double.NaN;
+    /** Mean of the inter-arrival time distribution */
+    private double expectedInterArrivalTime = Double.NaN;
+
     /**
      * Constructs a new SimulationStatistics object with the specified values.
      *
@@ -29,6 +60,7 @@ public class SimulationStatistics {
 
     public SimulationStatistics(int customersServed, double throughput, double avgWaitTime, int peakQueueLength, double currentTime) {
         this.customersServed = customersServed;
+        this.throughput = throughput;
         this.avgWaitTime = avgWaitTime;
         this.peakQueueLength = peakQueueLength;
         this.currentTime = currentTime;
@@ -37,6 +69,7 @@ public class SimulationStatistics {
 
     public SimulationStatistics(int customersServed, double throughput, double avgWaitTime, int peakQueueLength, double currentTime, int customersRejected) {
         this.customersServed = customersServed;
+        this.throughput = throughput;
         this.avgWaitTime = avgWaitTime;
         this.peakQueueLength = peakQueueLength;
         this.currentTime = currentTime;
@@ -65,10 +98,15 @@ public class SimulationStatistics {
 
     /**
      * Calculates and returns the average wait time.
+     * Falls back to the average passed to the constructor when no customers
+     * were recorded through {@link #customerServed(double, double)}.
      *
      * @return Average wait time in seconds, or 0 if no customers served
      */
     public double getAverageWait() {
+        if (totalWaitTime == 0) {
+            return avgWaitTime;
+        }
         return customersServed > 0
                 ? totalWaitTime / customersServed
                 : 0;
@@ -77,4 +115,268 @@ public class SimulationStatistics {
     public int getCustomersRejected() {
         return customersRejected;
     }
+
+    /**
+     * Gets the throughput.
+     *
+     * @return Throughput in customers per hour
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Gets the peak queue length.
+     *
+     * @return Largest total queue length observed
+     */
+    public int getPeakQueueLength() {
+        return peakQueueLength;
+    }
+
+    /**
+     * Gets the simulation time the statistics refer to.
+     *
+     * @return Simulation time in seconds
+     */
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Gets the streaming statistics of the time in system of the customers who left.
+     *
+     * @return The time in system accumulator
+     */
+    public RunningStatistics getTimeInSystemStatistics() {
+        return timeInSystem;
+    }
+
+    /**
+     * Sets the streaming statistics of the time in system.
+     *
+     * @param timeInSystem The time in system accumulator
+     */
+    public void setTimeInSystemStatistics(RunningStatistics timeInSystem) {
+        this.timeInSystem = timeInSystem;
+    }
+
+    /**
+     * Gets the quantile sketch of the time in system of the customers who left.
+     *
+     * @return The time in system sketch
+     */
+    public QuantileSketch getTimeInSystemQuantiles() {
+        return timeInSystemQuantiles;
+    }
+
+    /**
+     * Sets the quantile sketch of the time in system.
+     *
+     * @param timeInSystemQuantiles The time in system sketch
+     */
+    public void setTimeInSystemQuantiles(QuantileSketch timeInSystemQuantiles) {
+        this.timeInSystemQuantiles = timeInSystemQuantiles;
+    }
+
+    /**
+     * Gets the quantile sketch of the wait times at all stations combined.
+     *
+     * @return A new sketch merging the wait time sketches of all stations
+     */
+    public QuantileSketch getWaitQuantiles() {
+        QuantileSketch all = new QuantileSketch();
+        for (StationStatistics station : stations) {
+            all.merge(station.getWaitQuantiles());
+        }
+        return all;
+    }
+
+    /**
+     * Gets the time-weighted statistics of the total number of customers queued or in service.
+     *
+     * @return The system-wide queue length accumulator
+     */
+    public TimeWeightedStatistics getQueueLengthStatistics() {
+        return queueLength;
+    }
+
+    /**
+     * Sets the time-weighted statistics of the total number of customers queued or in service.
+     *
+     * @param queueLength The system-wide queue length accumulator
+     */
+    public void setQueueLengthStatistics(TimeWeightedStatistics queueLength) {
+        this.queueLength = queueLength;
+    }
+
+    /**
+     * Gets the wait times at all stations combined (one observation per station visit).
+     *
+     * @return A new accumulator merging the wait times of all stations
+     */
+    public RunningStatistics getWaitStatistics() {
+        RunningStatistics all = new RunningStatistics();
+        for (StationStatistics station : stations) {
+            all.merge(station.getWaitTime());
+        }
+        return all;
+    }
+
+    /**
+     * Gets the per-station statistics.
+     *
+     * @return The station statistics, in service point order
+     */
+    public StationStatistics[] getStationStatistics() {
+        return stations;
+    }
+
+    /**
+     * Sets the per-station statistics.
+     *
+     * @param stations The station statistics, in service point order
+     */
+    public void setStationStatistics(StationStatistics[] stations) {
+        this.stations = stations;
+    }
+
+    /**
+     * Gets the batch-means confidence interval of the average wait (time in system).
+     *
+     * @return The interval, or null if not computed
+     */
+    public ConfidenceInterval getWaitInterval() {
+        return waitInterval;
+    }
+
+    /**
+     * Sets the batch-means confidence interval of the average wait.
+     *
+     * @param waitInterval The interval
+     */
+    public void setWaitInterval(ConfidenceInterval waitInterval) {
+        this.waitInterval = waitInterval;
+    }
+
+    /**
+     * Gets the batch-means confidence interval of the throughput in customers per hour.
+     *
+     * @return The interval, or null if not computed
+     */
+    public ConfidenceInterval getThroughputInterval() {
+        return throughputInterval;
+    }
+
+    /**
+     * Sets the batch-means confidence interval of the throughput.
+     *
+     * @param throughputInterval The interval
+     */
+    public void setThroughputInterval(ConfidenceInterval throughputInterval) {
+        this.throughputInterval = throughputInterval;
+    }
+
+    /**
+     * Checks whether the run ended because the target precision was reached.
+     *
+     * @return true if the precision stopping rule ended the run
+     */
+    public boolean isStoppedByPrecision() {
+        return stoppedByPrecision;
+    }
+
+    /**
+     * Sets whether the run ended because the target precision was reached.
+     *
+     * @param stoppedByPrecision true if the precision stopping rule ended the run
+     */
+    public void setStoppedByPrecision(boolean stoppedByPrecision) {
+        this.stoppedByPrecision = stoppedByPrecision;
+    }
+
+    /**
+     * Gets the length of the automatically detected warm-up, i.e. the time at which the
+     * statistics were reset; 0 if MSER-5 found no transient or gave up.
+     *
+     * @return The time up to which the warm-up was discarded, or NaN if none was detected
+     */
+    public double getWarmUpTime() {
+        return warmUpTime;
+    }
+
+    /**
+     * Sets the length of the automatically detected warm-up.
+     *
+     * @param warmUpTime The time up to which the warm-up was discarded, or NaN
+     */
+    public void setWarmUpTime(double warmUpTime) {
+        this.warmUpTime = warmUpTime;
+    }
+
+    /**
+     * Gets the simulation time from which the statistics were collected; equal to the
+     * warm-up time when a warm-up was discarded, and 0 otherwise.
+     *
+     * @return The start of the observation period
+     */
+    public double getStatisticsStartTime() {
+        return statisticsStartTime;
+    }
+
+    /**
+     * Sets the simulation time from which the statistics were collected.
+     *
+     * @param statisticsStartTime The start of the observation period
+     */
+    public void setStatisticsStartTime(double statisticsStartTime) {
+        this.statisticsStartTime = statisticsStartTime;
+    }
+
+    /**
+     * Gets the mean of the inter-arrival times sampled during the observation period.
+     *
+     * @return The observed mean inter-arrival time in seconds, or NaN
+     */
+    public double getObservedInterArrivalTime() {
+        return observedInterArrivalTime;
+    }
+
+    /**
+     * Gets the mean of the inter-arrival time distribution.
+     *
+     * @return The expected inter-arrival time in seconds, or NaN if unknown
+     */
+    public double getExpectedInterArrivalTime() {
+        return expectedInterArrivalTime;
+    }
+
+    /**
+     * Sets the observed and expected mean inter-arrival times, the arrival control variate.
+     *
+     * @param observed The mean of the sampled inter-arrival times
+     * @param expected The mean of the inter-arrival time distribution
+     */
+    public void setInterArrivalTimes(double observed, double expected) {
+        this.observedInterArrivalTime = observed;
+        this.expectedInterArrivalTime = expected;
+    }
+
+    /**
+     * Gets the regeneration cycles of the run, for steady-state intervals from this run alone.
+     *
+     * @return The completed cycles
+     */
+    public RegenerativeCycles getRegenerativeCycles() {
+        return regenerativeCycles;
+    }
+
+    /**
+     * Sets the regeneration cycles of the run.
+     *
+     * @param regenerativeCycles The completed cycles
+     */
+    public void setRegenerativeCycles(RegenerativeCycles regenerativeCycles) {
+        this.regenerativeCycles = regenerativeCycles;
+    }
 }
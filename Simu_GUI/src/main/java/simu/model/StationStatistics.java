@@ -0,0 +1,118 @@
+package simu.model;
+
+import simu.stats.LogLinearHistogram;
+import simu.stats.OccupancyDistribution;
+import simu.stats.QuantileSketch;
+import simu.stats.RunningStatistics;
+import simu.stats.TimeWeightedStatistics;
+
+/**
+ * Snapshot of the statistics of one service point at the end of a run.
+ * The streaming accumulators are copied, so the snapshot does not change
+ * if the service point keeps running.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class StationStatistics {
+    /** Name of the service point */
+    private final String name;
+    /** Number of customers who completed service */
+    private final int customersServed;
+    /** Utilization in percent of the simulation time */
+    private final double utilization;
+    /** Largest queue length observed */
+    private final int peakQueueLength;
+    /** Wait times (queue join to service start) */
+    private final RunningStatistics waitTime;
+    /** Quantile sketch of the wait times */
+    private final QuantileSketch waitQuantiles;
+    /** Histogram of the wait times */
+    private final LogLinearHistogram waitHistogram;
+    /** Service times */
+    private final RunningStatistics serviceTime;
+    /** Histogram of the service times */
+    private final LogLinearHistogram serviceHistogram;
+    /** Sojourn times (queue join to departure) */
+    private final RunningStatistics sojournTime;
+    /** Time-weighted queue length */
+    private final TimeWeightedStatistics queueLength;
+    /** Time-weighted distribution of the queue length */
+    private final OccupancyDistribution queueOccupancy;
+    /** Mean of the service time distribution, or NaN if unknown */
+    private final double expectedServiceTime;
+
+    /**
+     * Takes a snapshot of a service point.
+     *
+     * @param servicePoint The service point, with finalized statistics
+     * @param simulationTime The simulation time used for the utilization
+     */
+    public StationStatistics(ServicePoint servicePoint, double simulationTime) {
+        this.name = servicePoint.getName();
+        this.customersServed = servicePoint.getTotalCustomersServed();
+        this.utilization = servicePoint.getUtilization(simulationTime);
+        this.peakQueueLength = servicePoint.getPeakQueueLength();
+        this.waitTime = servicePoint.getWaitStatistics().copy();
+        this.waitQuantiles = servicePoint.getWaitQuantiles().copy();
+        this.waitHistogram = servicePoint.getWaitHistogram().copy();
+        this.serviceTime = servicePoint.getServiceStatistics().copy();
+        this.serviceHistogram = servicePoint.getServiceHistogram().copy();
+        this.sojournTime = servicePoint.getSojournStatistics().copy();
+        this.queueLength = servicePoint.getQueueLengthStatistics().copy();
+        this.queueOccupancy = servicePoint.getQueueOccupancy().copy();
+        this.expectedServiceTime = servicePoint.getExpectedServiceTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCustomersServed() {
+        return customersServed;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public int getPeakQueueLength() {
+        return peakQueueLength;
+    }
+
+    public RunningStatistics getWaitTime() {
+        return waitTime;
+    }
+
+    public QuantileSketch getWaitQuantiles() {
+        return waitQuantiles;
+    }
+
+    public LogLinearHistogram getWaitHistogram() {
+        return waitHistogram;
+    }
+
+    public RunningStatistics getServiceTime() {
+        return serviceTime;
+    }
+
+    public LogLinearHistogram getServiceHistogram() {
+        return serviceHistogram;
+    }
+
+    public RunningStatistics getSojournTime() {
+        return sojournTime;
+    }
+
+    public TimeWeightedStatistics getQueueLength() {
+        return queueLength;
+    }
+
+    public OccupancyDistribution getQueueOccupancy() {
+        return queueOccupancy;
+    }
+
+    public double getExpectedServiceTime() {
+        return expectedServiceTime;
+    }
+}
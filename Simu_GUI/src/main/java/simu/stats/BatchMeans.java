@@ -0,0 +1,159 @@
+package simu.stats;
+
+/**
+ * Batch-means estimator of a steady-state mean with a confidence interval,
+ * for the correlated output of a single long run. Consecutive observations
+ * are grouped into batches whose means are treated as approximately
+ * independent. Memory is constant: when the maximum number of batches is
+ * reached, neighbouring batches are merged pairwise and the batch size
+ * doubles, so the number of batches stays between half the maximum and the
+ * maximum while the batches grow with the run, which weakens the
+ * correlation between them.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class BatchMeans {
+    /** Default maximum number of batches */
+    public static final int DEFAULT_MAX_BATCHES = 40;
+
+    /** Means of the completed batches */
+    private final double[] batchMeans;
+    /** Size of a batch at construction */
+    private final long initialBatchSize;
+    /** Current number of observations per batch */
+    private long batchSize;
+    /** Number of completed batches */
+    private int batchCount = 0;
+    /** Sum of the observations in the current batch */
+    private double currentSum = 0.0;
+    /** Number of observations in the current batch */
+    private long currentCount = 0;
+    /** Number of observations */
+    private long count = 0;
+    /** Sum of all observations */
+    private double sum = 0.0;
+
+    /**
+     * Constructs an estimator with the default maximum number of batches.
+     *
+     * @param initialBatchSize Number of observations per batch at the start
+     */
+    public BatchMeans(long initialBatchSize) {
+        this(initialBatchSize, DEFAULT_MAX_BATCHES);
+    }
+
+    /**
+     * Constructs an estimator.
+     *
+     * @param initialBatchSize Number of observations per batch at the start
+     * @param maxBatches Maximum number of batches (even, at least 4)
+     */
+    public BatchMeans(long initialBatchSize, int maxBatches) {
+        if (initialBatchSize < 1 || maxBatches < 4 || maxBatches % 2 != 0) {
+            throw new IllegalArgumentException("Need initialBatchSize >= 1 and an even maxBatches >= 4");
+        }
+        this.initialBatchSize = initialBatchSize;
+        this.batchSize = initialBatchSize;
+        this.batchMeans = new double[maxBatches];
+    }
+
+    /**
+     * Adds an observation.
+     *
+     * @param x The observed value
+     */
+    public void add(double x) {
+        count++;
+        sum += x;
+        currentSum += x;
+        currentCount++;
+        if (currentCount == batchSize) {
+            batchMeans[batchCount++] = currentSum / batchSize;
+            currentSum = 0.0;
+            currentCount = 0;
+            if (batchCount == batchMeans.length) {
+                collapse();
+            }
+        }
+    }
+
+    /**
+     * Removes all observations and restores the initial batch size.
+     */
+    public void reset() {
+        batchSize = initialBatchSize;
+        batchCount = 0;
+        currentSum = 0.0;
+        currentCount = 0;
+        count = 0;
+        sum = 0.0;
+    }
+
+    /**
+     * Gets the number of observations.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of all observations, including the incomplete batch.
+     *
+     * @return The mean, or NaN if there are no observations
+     */
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    /**
+     * Gets the number of completed batches.
+     *
+     * @return The batch count
+     */
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Gets the current number of observations per batch.
+     *
+     * @return The batch size
+     */
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Computes the Student-t confidence interval from the completed batches.
+     *
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval around the overall mean; the half-width is infinite with fewer than two batches
+     */
+    public ConfidenceInterval getConfidenceInterval(double confidence) {
+        if (batchCount < 2) {
+            return new ConfidenceInterval(getMean(), Double.POSITIVE_INFINITY, confidence, batchCount);
+        }
+        RunningStatistics batches = new RunningStatistics();
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(batchMeans[i]);
+        }
+        double t = StudentT.quantile(0.5 + confidence / 2, batchCount - 1);
+        double halfWidth = t * batches.getStandardDeviation() / Math.sqrt(batchCount);
+        return new ConfidenceInterval(getMean(), halfWidth, confidence, batchCount);
+    }
+
+    /**
+     * Merges neighbouring batches pairwise and doubles the batch size.
+     */
+    private void collapse() {
+        int half = batchCount / 2;
+        for (int i = 0; i < half; i++) {
+            batchMeans[i] = (batchMeans[2 * i] + batchMeans[2 * i + 1]) / 2;
+        }
+        batchCount = half;
+        batchSize *= 2;
+    }
+}
@@ -0,0 +1,327 @@
+package simu.stats;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bootstrap confidence intervals for statistics whose sampling distribution
+ * is not close to normal, such as the mean of a skewed per-replication metric
+ * (peak queue length, 95th-percentile wait) or a quantile across replications.
+ * The observations are resampled with replacement many times and the
+ * statistic is evaluated on each resample; the interval is read off the
+ * distribution of these bootstrap replicates, either directly (percentile
+ * method) or after correcting for bias and skewness (BCa, with the
+ * acceleration estimated by the jackknife).
+ * <p>
+ * Resamples are drawn in parallel on a fork-join pool in chunks of
+ * {@value #CHUNK_SIZE}; every chunk has its own random stream split from the
+ * seed in a fixed order, so the result depends on the seed only, not on the
+ * number of threads or how the chunks are scheduled.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class Bootstrap {
+    /** Number of resamples drawn by one task with its own random stream */
+    public static final int CHUNK_SIZE = 1000;
+
+    /**
+     * How the interval is derived from the bootstrap replicates.
+     */
+    public enum Method {
+        /** Quantiles of the bootstrap replicates */
+        PERCENTILE,
+        /** Bias-corrected and accelerated quantiles of the bootstrap replicates */
+        BCA
+    }
+
+    /**
+     * A statistic of a sample.
+     */
+    public interface Statistic {
+        /**
+         * Evaluates the statistic.
+         *
+         * @param sample The observations; a scratch array that may be reordered
+         * @param length Number of observations in the array to use
+         * @return The value of the statistic
+         */
+        double evaluate(double[] sample, int length);
+    }
+
+    /** The sample mean */
+    public static final Statistic MEAN = (sample, length) -> {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += sample[i];
+        }
+        return sum / length;
+    };
+
+    /** Evaluates the statistic on each resample */
+    private final Statistic statistic;
+    /** Number of resamples */
+    private final int resamples;
+    /** Seed from which the random streams of the chunks are split */
+    private long seed = 4851L;
+    /** Pool that draws the resamples */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Constructs a bootstrap for a statistic.
+     *
+     * @param statistic The statistic, e.g. {@link #MEAN}
+     * @param resamples Number of resamples, at least 1 (e.g. 10,000)
+     */
+    public Bootstrap(Statistic statistic, int resamples) {
+        if (resamples < 1) {
+            throw new IllegalArgumentException("resamples must be at least 1");
+        }
+        this.statistic = statistic;
+        this.resamples = resamples;
+    }
+
+    /**
+     * Gets the statistic that estimates a quantile of the sample.
+     *
+     * @param q The quantile, between 0 and 1
+     * @return The statistic (interpolates between the two order statistics around the quantile,
+     *         found by selection in linear time rather than by sorting)
+     */
+    public static Statistic quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be between 0 and 1: " + q);
+        }
+        return (sample, length) -> {
+            double position = q * (length - 1);
+            int below = (int) position;
+            double value = select(sample, length, below);
+            if (below + 1 >= length) {
+                return value;
+            }
+            // After selection, the next order statistic is the smallest value to the right
+            double next = sample[below + 1];
+            for (int i = below + 2; i < length; i++) {
+                next = Math.min(next, sample[i]);
+            }
+            return value + (position - below) * (next - value);
+        };
+    }
+
+    /**
+     * Sets the seed of the resampling, so that intervals can be reproduced.
+     *
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the pool that draws the resamples.
+     *
+     * @param pool The pool (default: the common pool)
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Draws the bootstrap replicates of the statistic.
+     *
+     * @param data The observations; not modified
+     * @return The value of the statistic on each resample, sorted ascending
+     */
+    public double[] replicates(double[] data) {
+        if (data.length < 1) {
+            throw new IllegalArgumentException("No observations");
+        }
+        int chunks = (resamples + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = root.split();
+        }
+        double[] replicates = new double[resamples];
+        pool.invoke(new ResampleTask(data, streams, replicates, 0, chunks));
+        Arrays.sort(replicates);
+        return replicates;
+    }
+
+    /**
+     * Computes a bootstrap confidence interval.
+     *
+     * @param data The observations, at least two; not modified
+     * @param confidence Confidence level, e.g. 0.95
+     * @param method Percentile or BCa
+     * @return The interval around the statistic of the data
+     */
+    public ConfidenceInterval interval(double[] data, double confidence, Method method) {
+        if (data.length < 2) {
+            throw new IllegalArgumentException("Need at least two observations");
+        }
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("confidence must be between 0 and 1: " + confidence);
+        }
+        double estimate = statistic.evaluate(data.clone(), data.length);
+        double[] replicates = replicates(data);
+        double alpha = (1 - confidence) / 2;
+        double lowerLevel = alpha;
+        double upperLevel = 1 - alpha;
+        if (method == Method.BCA && replicates[0] < replicates[replicates.length - 1]) {
+            double z0 = biasCorrection(replicates, estimate);
+            double a = acceleration(data);
+            double zLower = StudentT.normalQuantile(alpha);
+            double zUpper = -zLower;
+            lowerLevel = StudentT.normalCdf(z0 + (z0 + zLower) / (1 - a * (z0 + zLower)));
+            upperLevel = StudentT.normalCdf(z0 + (z0 + zUpper) / (1 - a * (z0 + zUpper)));
+        }
+        return ConfidenceInterval.ofBounds(estimate,
+                interpolate(replicates, replicates.length, lowerLevel),
+                interpolate(replicates, replicates.length, upperLevel),
+                confidence, data.length);
+    }
+
+    /**
+     * Bias correction z0: the normal quantile of the fraction of replicates below the estimate.
+     */
+    private static double biasCorrection(double[] sortedReplicates, double estimate) {
+        int n = sortedReplicates.length;
+        int below = 0;
+        int equal = 0;
+        for (double r : sortedReplicates) {
+            if (r < estimate) {
+                below++;
+            } else if (r == estimate) {
+                equal++;
+            }
+        }
+        double fraction = (below + 0.5 * equal) / n;
+        // Keep z0 finite when the estimate lies outside the replicates
+        fraction = Math.min(Math.max(fraction, 0.5 / n), 1 - 0.5 / n);
+        return StudentT.normalQuantile(fraction);
+    }
+
+    /**
+     * Acceleration a from the skewness of the jackknife (leave-one-out) values of the statistic.
+     */
+    private double acceleration(double[] data) {
+        int n = data.length;
+        double[] jackknife = new double[n];
+        double[] buffer = new double[n - 1];
+        double mean = 0.0;
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(data, 0, buffer, 0, i);
+            System.arraycopy(data, i + 1, buffer, i, n - 1 - i);
+            jackknife[i] = statistic.evaluate(buffer, n - 1);
+            mean += jackknife[i];
+        }
+        mean /= n;
+        double sumOfSquares = 0.0;
+        double sumOfCubes = 0.0;
+        for (double value : jackknife) {
+            double d = mean - value;
+            sumOfSquares += d * d;
+            sumOfCubes += d * d * d;
+        }
+        return sumOfSquares > 0 ? sumOfCubes / (6 * Math.pow(sumOfSquares, 1.5)) : 0.0;
+    }
+
+    /**
+     * Moves the k-th smallest value to index k, with smaller values before it and
+     * larger ones after it (quickselect with median-of-three pivots).
+     */
+    private static double select(double[] a, int length, int k) {
+        int left = 0;
+        int right = length - 1;
+        while (right > left) {
+            int middle = (left + right) >>> 1;
+            if (a[middle] < a[left]) swap(a, middle, left);
+            if (a[right] < a[left]) swap(a, right, left);
+            if (a[right] < a[middle]) swap(a, right, middle);
+            double pivot = a[middle];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return a[k];
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * Linear interpolation between the order statistics of a sorted array.
+     */
+    private static double interpolate(double[] sorted, int length, double p) {
+        double position = p * (length - 1);
+        int below = (int) Math.floor(position);
+        if (below >= length - 1) {
+            return sorted[length - 1];
+        }
+        if (below < 0) {
+            return sorted[0];
+        }
+        double weight = position - below;
+        return sorted[below] + weight * (sorted[below + 1] - sorted[below]);
+    }
+
+    /**
+     * Draws the resamples of a range of chunks: one chunk directly, otherwise both halves in parallel.
+     */
+    private class ResampleTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final double[] data;
+        /** Not serialized: tasks only live while a pool draws the resamples */
+        private final transient SplittableRandom[] streams;
+        private final double[] replicates;
+        private final int from;
+        private final int to;
+
+        ResampleTask(double[] data, SplittableRandom[] streams, double[] replicates, int from, int to) {
+            this.data = data;
+            this.streams = streams;
+            this.replicates = replicates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                SplittableRandom random = streams[from];
+                int n = data.length;
+                double[] buffer = new double[n];
+                int end = Math.min(resamples, (from + 1) * CHUNK_SIZE);
+                for (int r = from * CHUNK_SIZE; r < end; r++) {
+                    for (int i = 0; i < n; i++) {
+                        buffer[i] = data[random.nextInt(n)];
+                    }
+                    replicates[r] = statistic.evaluate(buffer, n);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ResampleTask(data, streams, replicates, from, middle),
+                    new ResampleTask(data, streams, replicates, middle, to));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package simu.stats;
+
+import java.util.Locale;
+
+/**
+ * Confidence interval for a mean: a point estimate with a symmetric half-width,
+ * or, for bootstrap intervals, with bounds that need not be symmetric around it.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class ConfidenceInterval {
+    /** Point estimate */
+    private final double mean;
+    /** Half-width of the interval */
+    private final double halfWidth;
+    /** Lower bound */
+    private final double lower;
+    /** Upper bound */
+    private final double upper;
+    /** Whether the bounds are symmetric around the point estimate */
+    private final boolean symmetric;
+    /** Confidence level, e.g. 0.95 */
+    private final double confidence;
+    /** Number of (approximately independent) observations the interval is based on */
+    private final long sampleSize;
+
+    /**
+     * Constructs a confidence interval.
+     *
+     * @param mean Point estimate
+     * @param halfWidth Half-width of the interval (infinite if it cannot be estimated yet)
+     * @param confidence Confidence level, e.g. 0.95
+     * @param sampleSize Number of observations the interval is based on
+     */
+    public ConfidenceInterval(double mean, double halfWidth, double confidence, long sampleSize) {
+        this.mean = mean;
+        this.halfWidth = halfWidth;
+        this.lower = mean - halfWidth;
+        this.upper = mean + halfWidth;
+        this.symmetric = true;
+        this.confidence = confidence;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Constructs an interval with explicit bounds.
+     *
+     * @param mean Point estimate
+     * @param lower Lower bound
+     * @param upper Upper bound
+     * @param confidence Confidence level, e.g. 0.95
+     * @param sampleSize Number of observations the interval is based on
+     */
+    private ConfidenceInterval(double mean, double lower, double upper, double confidence, long sampleSize) {
+        this.mean = mean;
+        this.halfWidth = (upper - lower) / 2;
+        this.lower = lower;
+        this.upper = upper;
+        this.symmetric = false;
+        this.confidence = confidence;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Creates an interval from its bounds, e.g. a bootstrap interval; the half-width
+     * is half the length of the interval.
+     *
+     * @param mean Point estimate
+     * @param lower Lower bound
+     * @param upper Upper bound
+     * @param confidence Confidence level, e.g. 0.95
+     * @param sampleSize Number of observations the interval is based on
+     * @return The interval
+     */
+    public static ConfidenceInterval ofBounds(double mean, double lower, double upper,
+                                              double confidence, long sampleSize) {
+        return new ConfidenceInterval(mean, lower, upper, confidence, sampleSize);
+    }
+
+    /**
+     * Computes the Student-t confidence interval for the mean of independent
+     * observations summarized by their running statistics.
+     *
+     * @param statistics Mean and variance of the observations
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval; the half-width is infinite with fewer than two observations
+     */
+    public static ConfidenceInterval of(RunningStatistics statistics, double confidence) {
+        long n = statistics.getCount();
+        if (n < 2) {
+            return new ConfidenceInterval(n == 1 ? statistics.getMean() : Double.NaN,
+                    Double.POSITIVE_INFINITY, confidence, n);
+        }
+        double t = StudentT.quantile(0.5 + confidence / 2, (int) Math.min(n - 1, Integer.MAX_VALUE));
+        return new ConfidenceInterval(statistics.getMean(),
+                t * statistics.getStandardDeviation() / Math.sqrt(n), confidence, n);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public long getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * Gets the half-width relative to the magnitude of the point estimate.
+     *
+     * @return The relative half-width, infinite if the mean is 0 or the half-width is unknown
+     */
+    public double getRelativeHalfWidth() {
+        if (mean == 0 || Double.isNaN(mean)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return halfWidth / Math.abs(mean);
+    }
+
+    /**
+     * Checks whether a value lies within the interval.
+     *
+     * @param value The value
+     * @return true if the value is between the lower and upper bound
+     */
+    public boolean contains(double value) {
+        return value >= getLower() && value <= getUpper();
+    }
+
+    @Override
+    public String toString() {
+        if (!symmetric) {
+            return String.format(Locale.ROOT, "%.4f [%.4f, %.4f] (%.0f%%, n=%d)",
+                    mean, lower, upper, confidence * 100, sampleSize);
+        }
+        return String.format(Locale.ROOT, "%.4f +/- %.4f (%.0f%%, n=%d)",
+                mean, halfWidth, confidence * 100, sampleSize);
+    }
+}
@@ -0,0 +1,301 @@
+package simu.stats;
+
+/**
+ * Control-variate estimator of the mean of a response across replications.
+ * Each replication contributes its response (e.g. the average wait) and the
+ * deviations of some of its inputs from their known means (e.g. the observed
+ * mean inter-arrival time minus {@code 3600 / arrivalRate}). Replications whose
+ * inputs happened to be "fast" or "slow" produce correspondingly biased
+ * responses; regressing the response on the input deviations and removing the
+ * fitted part gives
+ * <pre>
+ *   Y_cv = mean(Y) - beta' mean(X - mu)
+ * </pre>
+ * with a smaller variance than {@code mean(Y)} whenever the inputs explain
+ * part of the response's variability.
+ * <p>
+ * The means and co-moments are updated in one pass with Welford's method and
+ * can be merged, so replications can be accumulated on several threads.
+ * Controls are selected forward, in order: a control that has no variance
+ * (e.g. the service time of a deterministic station), is a linear combination
+ * of earlier ones, or does not lower the estimated variance of the estimate is
+ * left out of the fit, so adding a weak control cannot widen the interval.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class ControlVariates {
+    /** Number of controls */
+    private final int controls;
+    /** Number of replications */
+    private long count = 0;
+    /** Means of the controls, then of the response */
+    private final double[] means;
+    /** Co-moments (sums of cross products of deviations from the means), same order */
+    private final double[][] comoments;
+
+    /**
+     * Constructs an estimator.
+     *
+     * @param controls Number of controls
+     */
+    public ControlVariates(int controls) {
+        if (controls < 1) {
+            throw new IllegalArgumentException("Need at least one control");
+        }
+        this.controls = controls;
+        this.means = new double[controls + 1];
+        this.comoments = new double[controls + 1][controls + 1];
+    }
+
+    /**
+     * Adds one replication.
+     *
+     * @param response The output of the replication
+     * @param deviations For each control, the observed input mean minus its known mean
+     */
+    public void add(double response, double... deviations) {
+        if (deviations.length != controls) {
+            throw new IllegalArgumentException("Expected " + controls + " controls, got " + deviations.length);
+        }
+        count++;
+        double[] delta = new double[controls + 1];
+        for (int i = 0; i <= controls; i++) {
+            double value = i < controls ? deviations[i] : response;
+            delta[i] = value - means[i];
+            means[i] += delta[i] / count;
+        }
+        double weight = (count - 1.0) / count;
+        for (int i = 0; i <= controls; i++) {
+            for (int j = 0; j <= controls; j++) {
+                comoments[i][j] += weight * delta[i] * delta[j];
+            }
+        }
+    }
+
+    /**
+     * Merges the replications of another estimator into this one.
+     *
+     * @param other An estimator with the same number of controls; not modified
+     */
+    public void merge(ControlVariates other) {
+        if (other.controls != controls) {
+            throw new IllegalArgumentException("Cannot merge estimators with different numbers of controls");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double[] delta = new double[controls + 1];
+        for (int i = 0; i <= controls; i++) {
+            delta[i] = other.means[i] - means[i];
+        }
+        double weight = (double) count * other.count / total;
+        for (int i = 0; i <= controls; i++) {
+            for (int j = 0; j <= controls; j++) {
+                comoments[i][j] += other.comoments[i][j] + weight * delta[i] * delta[j];
+            }
+            means[i] += delta[i] * other.count / total;
+        }
+        count = total;
+    }
+
+    /**
+     * Creates an independent copy of this estimator.
+     *
+     * @return A new estimator with the same state
+     */
+    public ControlVariates copy() {
+        ControlVariates copy = new ControlVariates(controls);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Gets the number of replications.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the fitted regression coefficients.
+     *
+     * @return One coefficient per control; 0 for controls left out of the fit
+     */
+    public double[] getCoefficients() {
+        return fit().beta.clone();
+    }
+
+    /**
+     * Computes the confidence interval of the control-variate estimate. The Student-t
+     * quantile has {@code n - k - 1} degrees of freedom for {@code k} fitted controls.
+     *
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval; the half-width is infinite if there are too few replications
+     */
+    public ConfidenceInterval getInterval(double confidence) {
+        Fit fit = fit();
+        int df = (int) Math.min(count - fit.fitted - 1, Integer.MAX_VALUE);
+        if (df < 1 || !(fit.variance >= 0)) {
+            return new ConfidenceInterval(fit.estimate, Double.POSITIVE_INFINITY, confidence, count);
+        }
+        double t = StudentT.quantile(0.5 + confidence / 2, df);
+        return new ConfidenceInterval(fit.estimate, t * Math.sqrt(fit.variance), confidence, count);
+    }
+
+    /**
+     * Computes the ordinary confidence interval of the response mean, without controls.
+     *
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval; the half-width is infinite with fewer than two replications
+     */
+    public ConfidenceInterval getUncontrolledInterval(double confidence) {
+        if (count < 2) {
+            return new ConfidenceInterval(count == 1 ? means[controls] : Double.NaN,
+                    Double.POSITIVE_INFINITY, confidence, count);
+        }
+        double t = StudentT.quantile(0.5 + confidence / 2, (int) Math.min(count - 1, Integer.MAX_VALUE));
+        return new ConfidenceInterval(means[controls], t * Math.sqrt(uncontrolledVariance()), confidence, count);
+    }
+
+    /**
+     * Gets the variance reduction achieved by the controls: one minus the ratio of the
+     * estimated variance of the control-variate estimate to that of the plain mean.
+     *
+     * @return The reduction, e.g. 0.6 for 60% less variance; NaN if it cannot be estimated yet
+     */
+    public double getVarianceReduction() {
+        Fit fit = fit();
+        double plain = uncontrolledVariance();
+        if (count - fit.fitted - 1 < 1 || !(plain > 0)) {
+            return Double.NaN;
+        }
+        return 1 - fit.variance / plain;
+    }
+
+    /**
+     * Estimated variance of the plain response mean.
+     */
+    private double uncontrolledVariance() {
+        return count > 1 ? comoments[controls][controls] / (count - 1) / count : Double.NaN;
+    }
+
+    /**
+     * Fits the regression of the response on the controls by forward selection: each
+     * control in turn is added to the Cholesky factor of the co-moment matrix of the
+     * controls selected so far, and kept only if it lowers the estimated variance of the
+     * estimate. Controls that are linear combinations of earlier ones, and controls that
+     * explain too little to pay for the degree of freedom they cost, are left out.
+     */
+    private Fit fit() {
+        int[] selected = new int[controls];
+        double[][] l = new double[controls][];
+        Fit best = solve(l, 0, selected);
+        if (count < 2) {
+            return best;
+        }
+        int k = 0;
+        for (int c = 0; c < controls && k < count - 2; c++) {
+            double diagonal = comoments[c][c];
+            if (!(diagonal > 0)) {
+                continue;
+            }
+            // Row k of the factor for candidate column c
+            double[] row = new double[k + 1];
+            for (int j = 0; j < k; j++) {
+                double sum = comoments[c][selected[j]];
+                for (int m = 0; m < j; m++) {
+                    sum -= row[m] * l[j][m];
+                }
+                row[j] = sum / l[j][j];
+            }
+            double pivot = diagonal;
+            for (int m = 0; m < k; m++) {
+                pivot -= row[m] * row[m];
+            }
+            if (pivot <= 1e-10 * diagonal) {
+                continue;
+            }
+            row[k] = Math.sqrt(pivot);
+            l[k] = row;
+            selected[k] = c;
+            Fit candidate = solve(l, k + 1, selected);
+            if (candidate.variance < best.variance) {
+                best = candidate;
+                k++;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Solves the regression on the first {@code k} selected controls, given their factor.
+     */
+    private Fit solve(double[][] l, int k, int[] selected) {
+        Fit fit = new Fit();
+        fit.beta = new double[controls];
+        fit.fitted = k;
+        fit.estimate = count > 0 ? means[controls] : Double.NaN;
+        if (count < 2) {
+            fit.variance = Double.NaN;
+            return fit;
+        }
+
+        // Solve L z = Sxy and L w = mean(X); then beta = L^-T z
+        double[] z = forward(l, k, selected, comoments[controls]);
+        double[] w = forward(l, k, selected, means);
+        double[] b = new double[k];
+        for (int i = k - 1; i >= 0; i--) {
+            double sum = z[i];
+            for (int j = i + 1; j < k; j++) {
+                sum -= l[j][i] * b[j];
+            }
+            b[i] = sum / l[i][i];
+        }
+
+        double explained = 0.0;
+        double leverage = 0.0;
+        for (int i = 0; i < k; i++) {
+            fit.beta[selected[i]] = b[i];
+            fit.estimate -= b[i] * means[selected[i]];
+            explained += z[i] * z[i];
+            leverage += w[i] * w[i];
+        }
+        double residual = Math.max(0.0, comoments[controls][controls] - explained);
+        long df = count - k - 1;
+        fit.variance = df > 0 ? residual / df * (1.0 / count + leverage) : Double.NaN;
+        return fit;
+    }
+
+    /**
+     * Forward substitution with the lower triangular factor over the selected controls.
+     */
+    private static double[] forward(double[][] l, int k, int[] selected, double[] rhs) {
+        double[] y = new double[k];
+        for (int i = 0; i < k; i++) {
+            double sum = rhs[selected[i]];
+            for (int j = 0; j < i; j++) {
+                sum -= l[i][j] * y[j];
+            }
+            y[i] = sum / l[i][i];
+        }
+        return y;
+    }
+
+    /**
+     * Result of a regression fit.
+     */
+    private static final class Fit {
+        /** Coefficient per control */
+        double[] beta;
+        /** Number of controls in the fit */
+        int fitted;
+        /** Control-variate estimate of the response mean */
+        double estimate;
+        /** Estimated variance of the estimate */
+        double variance;
+    }
+}
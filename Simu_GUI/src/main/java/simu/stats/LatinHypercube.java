@@ -0,0 +1,171 @@
+package simu.stats;
+
+import java.util.SplittableRandom;
+
+/**
+ * Maximin Latin hypercube designs in the unit cube. A Latin hypercube of n
+ * points divides every dimension into n equal intervals and puts exactly one
+ * point in each, so every parameter is sampled evenly on its own; of all such
+ * designs, a maximin design keeps the points as far apart as possible, so no
+ * region of the space is sampled twice while another is left out.
+ * <p>
+ * The design starts from a random permutation per dimension and is improved
+ * by swapping the levels of two points in one dimension, keeping swaps that
+ * lower the Morris-Mitchell criterion
+ * <pre>
+ *   phi_p = (sum over pairs of d_ij^-p)^(1/p)
+ * </pre>
+ * which with p = 50 ranks designs by their smallest distance first and
+ * by the number of pairs at that distance next. A swap only changes the
+ * distances of the two swapped points, so each step costs O(n * dimensions)
+ * time and no distance matrix is kept.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class LatinHypercube {
+    /** Number of dimensions */
+    private final int dimensions;
+    /** Seed of the random permutations and swaps */
+    private long seed = 4851L;
+    /** Number of swaps tried, or -1 for the default */
+    private int iterations = -1;
+
+    /**
+     * Constructs a design generator.
+     *
+     * @param dimensions Number of dimensions, at least 1
+     */
+    public LatinHypercube(int dimensions) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("Need at least one dimension");
+        }
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Sets the seed, so that designs can be reproduced.
+     *
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the number of swaps tried by the maximin optimization.
+     *
+     * @param iterations The number of swaps; 0 gives a random Latin hypercube
+     *                   (default: 20 per point, at least 2,000)
+     */
+    public void setIterations(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("iterations must not be negative");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Generates a design.
+     *
+     * @param n Number of points, at least 1
+     * @return The points, one row per point, at the centres of their intervals
+     */
+    public double[][] design(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Need at least one point");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        // Levels 0..n-1 per dimension; distances are measured in levels, which keeps d^-p in range
+        int[][] levels = new int[n][dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            for (int i = 0; i < n; i++) {
+                levels[i][d] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = levels[i][d];
+                levels[i][d] = levels[j][d];
+                levels[j][d] = t;
+            }
+        }
+
+        int swaps = iterations >= 0 ? iterations : Math.max(2_000, 20 * n);
+        for (int s = 0; s < swaps && n > 2; s++) {
+            int d = random.nextInt(dimensions);
+            int a = random.nextInt(n);
+            int b = random.nextInt(n - 1);
+            if (b >= a) {
+                b++;
+            }
+            // Change of sum(d^-p) over the pairs of a and b with the other points
+            double change = 0.0;
+            for (int j = 0; j < n; j++) {
+                if (j == a || j == b) {
+                    continue;
+                }
+                double da = squaredDistance(levels[a], levels[j]);
+                double db = squaredDistance(levels[b], levels[j]);
+                double oa = levels[a][d] - levels[j][d];
+                double ob = levels[b][d] - levels[j][d];
+                double swappedA = da - oa * oa + ob * ob;
+                double swappedB = db - ob * ob + oa * oa;
+                change += term(swappedA) + term(swappedB) - term(da) - term(db);
+            }
+            if (change < 0) {
+                int t = levels[a][d];
+                levels[a][d] = levels[b][d];
+                levels[b][d] = t;
+            }
+        }
+
+        double[][] points = new double[n][dimensions];
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < dimensions; d++) {
+                points[i][d] = (levels[i][d] + 0.5) / n;
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Gets the smallest distance between two points of a design.
+     *
+     * @param points The points, one row per point
+     * @return The minimum Euclidean distance, infinite for fewer than two points
+     */
+    public static double minimumDistance(double[][] points) {
+        double minimum = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < points.length; i++) {
+            for (int j = i + 1; j < points.length; j++) {
+                double sum = 0.0;
+                for (int d = 0; d < points[i].length; d++) {
+                    double diff = points[i][d] - points[j][d];
+                    sum += diff * diff;
+                }
+                minimum = Math.min(minimum, sum);
+            }
+        }
+        return Math.sqrt(minimum);
+    }
+
+    private static double squaredDistance(int[] x, int[] y) {
+        double sum = 0.0;
+        for (int d = 0; d < x.length; d++) {
+            double diff = x[d] - y[d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    /**
+     * Contribution d^-50 of a pair with squared distance {@code squared}, by repeated squaring.
+     */
+    private static double term(double squared) {
+        double s2 = squared * squared;
+        double s4 = s2 * s2;
+        double s8 = s4 * s4;
+        double s16 = s8 * s8;
+        return 1.0 / (s16 * s8 * squared);
+    }
+}
@@ -0,0 +1,405 @@
+package simu.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Histogram with fixed relative precision over a wide value range (HDR style).
+ * Values are converted to integer multiples of the lowest discernible value
+ * and counted in log-linear buckets: every power of two is split into the
+ * same number of linear sub-buckets, so the bucket width is always within
+ * the configured number of significant decimal digits of the value.
+ * <p>
+ * All counts live in one preallocated {@code long[]}; recording is O(1) and
+ * does not allocate. Histograms with the same configuration can be merged
+ * without loss, e.g. across replications or threads, and written in a compact
+ * binary form or as CSV for plotting.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class LogLinearHistogram {
+    /** Identifies the binary format */
+    private static final int MAGIC = 0x53494D48; // "SIMH"
+
+    /** Lowest discernible value (the size of one unit) */
+    private final double lowestValue;
+    /** Highest trackable value; larger values are counted in the top bucket */
+    private final double highestValue;
+    /** Number of significant decimal digits kept */
+    private final int significantDigits;
+
+    /** Largest trackable value in units */
+    private final long highestUnits;
+    /** log2 of half the number of sub-buckets per bucket */
+    private final int subBucketHalfCountMagnitude;
+    /** Half the number of sub-buckets per bucket */
+    private final int subBucketHalfCount;
+    /** Mask selecting values that fall into the first bucket */
+    private final long subBucketMask;
+    /** Base used to derive the bucket index from the leading zeros of a value */
+    private final int leadingZeroCountBase;
+
+    /** Counts per bucket */
+    private final long[] counts;
+    /** Total number of recorded values */
+    private long totalCount = 0;
+    /** Number of values above the highest trackable value */
+    private long overflowCount = 0;
+    /** Sum of the recorded values, for the exact mean */
+    private double sum = 0.0;
+    /** Smallest recorded value */
+    private double min = Double.POSITIVE_INFINITY;
+    /** Largest recorded value */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Constructs a histogram.
+     *
+     * @param lowestValue Lowest discernible value, e.g. 0.001 for millisecond resolution of seconds
+     * @param highestValue Highest trackable value
+     * @param significantDigits Number of significant decimal digits kept (1 to 4)
+     */
+    public LogLinearHistogram(double lowestValue, double highestValue, int significantDigits) {
+        if (!(lowestValue > 0) || !(highestValue >= 2 * lowestValue)) {
+            throw new IllegalArgumentException("Need 0 < lowestValue and highestValue >= 2 * lowestValue");
+        }
+        if (significantDigits < 1 || significantDigits > 4) {
+            throw new IllegalArgumentException("significantDigits must be between 1 and 4");
+        }
+        this.lowestValue = lowestValue;
+        this.highestValue = highestValue;
+        this.significantDigits = significantDigits;
+        this.highestUnits = (long) Math.ceil(highestValue / lowestValue);
+
+        long largestSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestSingleUnitResolution - 1);
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketCountMagnitude;
+
+        int bucketCount = 1;
+        long smallestUntrackable = subBucketCount;
+        while (smallestUntrackable <= highestUnits) {
+            smallestUntrackable <<= 1;
+            bucketCount++;
+        }
+        this.counts = new long[(bucketCount + 1) * subBucketHalfCount];
+    }
+
+    /**
+     * Creates a histogram for durations in seconds, from milliseconds to about a day,
+     * with two significant digits (1% relative precision).
+     *
+     * @return The histogram
+     */
+    public static LogLinearHistogram forDurations() {
+        return new LogLinearHistogram(0.001, 100_000.0, 2);
+    }
+
+    /**
+     * Records a value. Negative values are counted as 0, values above the
+     * highest trackable value in the top bucket.
+     *
+     * @param value The value to record
+     */
+    public void record(double value) {
+        recordCount(value, 1);
+    }
+
+    /**
+     * Records a value several times.
+     *
+     * @param value The value to record
+     * @param count How many times to record it
+     */
+    public void recordCount(double value, long count) {
+        if (Double.isNaN(value) || count <= 0) {
+            return;
+        }
+        long units;
+        if (value <= 0) {
+            units = 0;
+        } else if (value > highestValue) {
+            units = highestUnits;
+            overflowCount += count;
+        } else {
+            units = (long) (value / lowestValue);
+        }
+        counts[countsIndex(units)] += count;
+        totalCount += count;
+        sum += value * count;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Adds all counts of another histogram to this one.
+     *
+     * @param other The histogram to merge; it is not modified
+     * @throws IllegalArgumentException if the histograms are configured differently
+     */
+    public void merge(LogLinearHistogram other) {
+        if (!sameConfiguration(other)) {
+            throw new IllegalArgumentException("Cannot merge histograms with different ranges or precision");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        overflowCount += other.overflowCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Creates an independent copy of this histogram.
+     *
+     * @return The copy
+     */
+    public LogLinearHistogram copy() {
+        LogLinearHistogram copy = new LogLinearHistogram(lowestValue, highestValue, significantDigits);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0;
+        overflowCount = 0;
+        sum = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The total count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the number of values recorded above the highest trackable value.
+     *
+     * @return The overflow count
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * Gets the exact mean of the recorded values.
+     *
+     * @return The mean, or NaN if nothing was recorded
+     */
+    public double getMean() {
+        return totalCount > 0 ? sum / totalCount : Double.NaN;
+    }
+
+    /**
+     * Gets the smallest recorded value.
+     *
+     * @return The minimum, or NaN if nothing was recorded
+     */
+    public double getMin() {
+        return totalCount > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum, or NaN if nothing was recorded
+     */
+    public double getMax() {
+        return totalCount > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Gets the value at a percentile, accurate to the histogram's precision.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The upper bound of the bucket containing the percentile, or NaN if nothing was recorded
+     */
+    public double getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return Double.NaN;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return Math.min(max, getBucketUpperBound(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the number of buckets.
+     *
+     * @return The length of the counts array
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Gets the count of a bucket.
+     *
+     * @param index Index of the bucket
+     * @return The number of values recorded in it
+     */
+    public long getCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Gets the lowest value counted in a bucket.
+     *
+     * @param index Index of the bucket
+     * @return The inclusive lower bound
+     */
+    public double getBucketLowerBound(int index) {
+        return valueFromIndex(index) * lowestValue;
+    }
+
+    /**
+     * Gets the upper bound of the values counted in a bucket.
+     *
+     * @param index Index of the bucket
+     * @return The exclusive upper bound
+     */
+    public double getBucketUpperBound(int index) {
+        long units = valueFromIndex(index);
+        return (units + (1L << bucketIndexOfCountsIndex(index))) * lowestValue;
+    }
+
+    /**
+     * Writes the histogram in a compact binary form: the configuration
+     * followed by the non-empty buckets as (index, count) pairs.
+     *
+     * @param out The destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeDouble(lowestValue);
+        out.writeDouble(highestValue);
+        out.writeByte(significantDigits);
+        out.writeLong(totalCount);
+        out.writeLong(overflowCount);
+        out.writeDouble(sum);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        int nonEmpty = 0;
+        for (long c : counts) {
+            if (c != 0) {
+                nonEmpty++;
+            }
+        }
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a histogram written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in The source
+     * @return The histogram
+     * @throws IOException if reading fails or the data is not a histogram
+     */
+    public static LogLinearHistogram readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a histogram");
+        }
+        LogLinearHistogram histogram = new LogLinearHistogram(in.readDouble(), in.readDouble(), in.readByte());
+        histogram.totalCount = in.readLong();
+        histogram.overflowCount = in.readLong();
+        histogram.sum = in.readDouble();
+        histogram.min = in.readDouble();
+        histogram.max = in.readDouble();
+        int nonEmpty = in.readInt();
+        for (int n = 0; n < nonEmpty; n++) {
+            int index = in.readInt();
+            if (index < 0 || index >= histogram.counts.length) {
+                throw new IOException("Bucket index out of range: " + index);
+            }
+            histogram.counts[index] = in.readLong();
+        }
+        return histogram;
+    }
+
+    /**
+     * Writes the non-empty buckets as CSV rows
+     * {@code label,lowerBound,upperBound,count,cumulativeFraction}.
+     *
+     * @param writer The destination
+     * @param label Value of the first column, identifying the histogram
+     */
+    public void writeCsvRows(PrintWriter writer, String label) {
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                cumulative += counts[i];
+                writer.printf(Locale.ROOT, "%s,%.4f,%.4f,%d,%.6f%n", label,
+                        getBucketLowerBound(i), getBucketUpperBound(i), counts[i],
+                        (double) cumulative / totalCount);
+            }
+        }
+    }
+
+    private boolean sameConfiguration(LogLinearHistogram other) {
+        return lowestValue == other.lowestValue
+                && highestValue == other.highestValue
+                && significantDigits == other.significantDigits;
+    }
+
+    /**
+     * Maps a value in units to its index in the counts array.
+     */
+    private int countsIndex(long units) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(units | subBucketMask);
+        int subBucketIndex = (int) (units >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private int bucketIndexOfCountsIndex(int index) {
+        return Math.max(0, (index >> subBucketHalfCountMagnitude) - 1);
+    }
+
+    /**
+     * Maps an index in the counts array to the lowest value in units it counts.
+     */
+    private long valueFromIndex(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return (long) subBucketIndex << bucketIndex;
+    }
+}
@@ -0,0 +1,74 @@
+package simu.stats;
+
+/**
+ * Initial-transient detection with the Marginal Standard Error Rule (MSER).
+ * The output series is grouped into batches of {@code m} observations
+ * (MSER-5 uses {@code m = 5}); for each candidate truncation point {@code d}
+ * the statistic
+ * <pre>
+ *   MSER(d) = sum over j &gt; d of (Z_j - mean(Z_{d+1..k}))^2 / (k - d)^2
+ * </pre>
+ * is computed over the batch means {@code Z}, and the warm-up ends at the
+ * {@code d} that minimizes it: discarding more data would no longer reduce
+ * the standard error of the mean. A minimum in the second half of the series
+ * means the run is too short to tell, and no truncation point is returned.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public final class Mser {
+    /** Batch size of MSER-5 */
+    public static final int DEFAULT_BATCH_SIZE = 5;
+
+    private Mser() {
+    }
+
+    /**
+     * Finds the MSER truncation point of a series.
+     *
+     * @param series The output series, e.g. the mean queue length per time window
+     * @param length Number of observations of the series to use
+     * @param batchSize Observations per batch, e.g. {@link #DEFAULT_BATCH_SIZE}
+     * @return The number of leading observations to discard (a multiple of the batch size),
+     *         or -1 if the minimum lies in the second half of the series or there are
+     *         fewer than four batches
+     */
+    public static int truncationPoint(double[] series, int length, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        int k = Math.min(length, series.length) / batchSize;
+        if (k < 4) {
+            return -1;
+        }
+        double[] batches = new double[k];
+        for (int j = 0; j < k; j++) {
+            double sum = 0.0;
+            for (int i = j * batchSize; i < (j + 1) * batchSize; i++) {
+                sum += series[i];
+            }
+            batches[j] = sum / batchSize;
+        }
+
+        // Suffix sums give MSER(d) for every d in one backward pass; at least two batches are kept
+        double sum = 0.0;
+        double sumOfSquares = 0.0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestD = 0;
+        for (int d = k - 1; d >= 0; d--) {
+            sum += batches[d];
+            sumOfSquares += batches[d] * batches[d];
+            int remaining = k - d;
+            if (remaining < 2) {
+                continue;
+            }
+            double squaredDeviations = Math.max(0.0, sumOfSquares - sum * sum / remaining);
+            double mser = squaredDeviations / ((double) remaining * remaining);
+            if (mser <= best) {
+                best = mser;
+                bestD = d;
+            }
+        }
+        return bestD <= k / 2 ? bestD * batchSize : -1;
+    }
+}
@@ -0,0 +1,152 @@
+package simu.stats;
+
+import java.util.Arrays;
+
+/**
+ * Time-weighted distribution of a non-negative integer quantity, such as a
+ * queue length. For every level the total time the quantity spent at that
+ * level is kept in a primitive array, which grows by doubling when a new
+ * maximum level is reached; recording is otherwise O(1) and does not allocate.
+ * <p>
+ * From the distribution, the fraction of time the quantity was at least
+ * {@code k} can be read for any {@code k}, e.g. how long a queue held five or
+ * more customers.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class OccupancyDistribution {
+    /** Time spent at each level */
+    private double[] timeAtLevel = new double[16];
+    /** Highest level held for a positive time, or -1 if none */
+    private int maxLevel = -1;
+    /** Total time recorded */
+    private double totalTime = 0.0;
+
+    /**
+     * Records that the quantity held a level for some time.
+     *
+     * @param level The level held (negative levels are counted as 0)
+     * @param duration How long it was held; non-positive durations are ignored
+     */
+    public void record(int level, double duration) {
+        if (!(duration > 0)) {
+            return;
+        }
+        if (level < 0) {
+            level = 0;
+        }
+        if (level >= timeAtLevel.length) {
+            timeAtLevel = Arrays.copyOf(timeAtLevel, Math.max(level + 1, timeAtLevel.length * 2));
+        }
+        timeAtLevel[level] += duration;
+        totalTime += duration;
+        if (level > maxLevel) {
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Adds the recorded time of another distribution to this one.
+     *
+     * @param other The distribution to merge; it is not modified
+     */
+    public void merge(OccupancyDistribution other) {
+        if (other.maxLevel >= timeAtLevel.length) {
+            timeAtLevel = Arrays.copyOf(timeAtLevel, other.timeAtLevel.length);
+        }
+        for (int level = 0; level <= other.maxLevel; level++) {
+            timeAtLevel[level] += other.timeAtLevel[level];
+        }
+        totalTime += other.totalTime;
+        maxLevel = Math.max(maxLevel, other.maxLevel);
+    }
+
+    /**
+     * Creates an independent copy of this distribution.
+     *
+     * @return The copy
+     */
+    public OccupancyDistribution copy() {
+        OccupancyDistribution copy = new OccupancyDistribution();
+        copy.timeAtLevel = timeAtLevel.clone();
+        copy.maxLevel = maxLevel;
+        copy.totalTime = totalTime;
+        return copy;
+    }
+
+    /**
+     * Removes all recorded time.
+     */
+    public void reset() {
+        Arrays.fill(timeAtLevel, 0.0);
+        maxLevel = -1;
+        totalTime = 0.0;
+    }
+
+    /**
+     * Gets the total time recorded.
+     *
+     * @return The recorded time
+     */
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Gets the highest level held for a positive time.
+     *
+     * @return The maximum level, or -1 if nothing was recorded
+     */
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * Gets the fraction of time the quantity was exactly at a level.
+     *
+     * @param level The level
+     * @return The fraction of the recorded time, or 0 if nothing was recorded
+     */
+    public double getFraction(int level) {
+        if (totalTime <= 0 || level < 0 || level > maxLevel) {
+            return 0.0;
+        }
+        return timeAtLevel[level] / totalTime;
+    }
+
+    /**
+     * Gets the fraction of time the quantity was at least a level, P(X &gt;= k).
+     *
+     * @param k The level
+     * @return The fraction of the recorded time, or 0 if nothing was recorded
+     */
+    public double getFractionAtLeast(int k) {
+        if (totalTime <= 0 || k > maxLevel) {
+            return 0.0;
+        }
+        if (k <= 0) {
+            return 1.0;
+        }
+        double below = 0.0;
+        for (int level = 0; level < k; level++) {
+            below += timeAtLevel[level];
+        }
+        return Math.max(0.0, 1.0 - below / totalTime);
+    }
+
+    /**
+     * Gets the whole curve P(X &gt;= k) for k = 0 to the maximum level.
+     *
+     * @return The fractions indexed by k; empty if nothing was recorded
+     */
+    public double[] getFractionAtLeastCurve() {
+        double[] curve = new double[maxLevel + 1];
+        double remaining = totalTime;
+        for (int k = 0; k <= maxLevel; k++) {
+            curve[k] = Math.max(0.0, remaining / totalTime);
+            remaining -= timeAtLevel[k];
+        }
+        return curve;
+    }
+}
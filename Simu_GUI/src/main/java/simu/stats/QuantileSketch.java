@@ -0,0 +1,373 @@
+package simu.stats;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable streaming quantile sketch (KLL).
+ * Observations are kept in a hierarchy of compactors; an item on level
+ * {@code h} stands for {@code 2^h} observations. When the sketch exceeds its
+ * capacity, the lowest full level is sorted and every other item is promoted
+ * to the next level, so memory stays around {@code 3k} values however many
+ * observations are recorded. With the default {@code k = 200} the rank error
+ * of a quantile is typically below one percent.
+ * <p>
+ * Recording is amortized O(1) and only allocates when a new level is added,
+ * i.e. logarithmically often. Sketches of the same {@code k} from independent
+ * runs can be merged. The coin flips of the compactions come from a
+ * fixed-seed generator, so results are reproducible.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class QuantileSketch {
+    /** Default accuracy parameter */
+    public static final int DEFAULT_K = 200;
+    /** Capacity ratio between consecutive levels */
+    private static final double C = 2.0 / 3.0;
+    /** Smallest capacity of a level */
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    /** Accuracy parameter: capacity of the top level */
+    private final int k;
+    /** Items per level */
+    private double[][] levels = new double[1][];
+    /** Number of items on each level */
+    private int[] sizes = new int[1];
+    /** Number of levels in use */
+    private int levelCount = 1;
+    /** Number of items in all levels */
+    private int totalSize = 0;
+    /** Capacity of all levels together */
+    private int totalCapacity;
+
+    /** Number of observations */
+    private long count = 0;
+    /** Smallest observation */
+    private double min = Double.POSITIVE_INFINITY;
+    /** Largest observation */
+    private double max = Double.NEGATIVE_INFINITY;
+    /** State of the xorshift generator used for the compaction coin flips */
+    private long randomState = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Constructs a sketch with the default accuracy.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Constructs a sketch.
+     *
+     * @param k Accuracy parameter (at least 8); larger values give smaller errors and use more memory
+     */
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8");
+        }
+        this.k = k;
+        levels[0] = new double[k];
+        totalCapacity = capacity(0);
+    }
+
+    /**
+     * Adds an observation.
+     *
+     * @param x The observed value
+     */
+    public void add(double x) {
+        if (Double.isNaN(x)) {
+            return;
+        }
+        count++;
+        if (x < min) {
+            min = x;
+        }
+        if (x > max) {
+            max = x;
+        }
+        push(0, x);
+        totalSize++;
+        if (totalSize > totalCapacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds all observations of another sketch to this one.
+     *
+     * @param other The sketch to merge; it is not modified
+     * @throws IllegalArgumentException if the sketches have different accuracy parameters
+     */
+    public void merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with k=" + k + " and k=" + other.k);
+        }
+        if (other.count == 0) {
+            return;
+        }
+        while (levelCount < other.levelCount) {
+            addLevel();
+        }
+        for (int h = 0; h < other.levelCount; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                push(h, other.levels[h][i]);
+            }
+            totalSize += other.sizes[h];
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (totalSize > totalCapacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Creates an independent copy of this sketch.
+     *
+     * @return The copy
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(k);
+        copy.levels = new double[levels.length][];
+        for (int h = 0; h < levelCount; h++) {
+            copy.levels[h] = levels[h].clone();
+        }
+        copy.sizes = sizes.clone();
+        copy.levelCount = levelCount;
+        copy.totalSize = totalSize;
+        copy.totalCapacity = totalCapacity;
+        copy.count = count;
+        copy.min = min;
+        copy.max = max;
+        copy.randomState = randomState;
+        return copy;
+    }
+
+    /**
+     * Removes all observations.
+     */
+    public void reset() {
+        Arrays.fill(sizes, 0);
+        totalSize = 0;
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Gets the number of observations.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the smallest observation.
+     *
+     * @return The minimum, or NaN if there are no observations
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Gets the largest observation.
+     *
+     * @return The maximum, or NaN if there are no observations
+     */
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Estimates a quantile.
+     *
+     * @param q The quantile, between 0 and 1 (e.g. 0.95 for the 95th percentile)
+     * @return The estimated quantile, or NaN if there are no observations
+     */
+    public double getQuantile(double q) {
+        return getQuantiles(q)[0];
+    }
+
+    /**
+     * Estimates several quantiles at once.
+     *
+     * @param qs The quantiles, each between 0 and 1
+     * @return The estimates in the same order, NaN if there are no observations
+     */
+    public double[] getQuantiles(double... qs) {
+        double[] result = new double[qs.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        double[] values = new double[totalSize];
+        long[] weights = new long[totalSize];
+        sortedItems(values, weights);
+        long totalWeight = 0;
+        for (long w : weights) {
+            totalWeight += w;
+        }
+        for (int j = 0; j < qs.length; j++) {
+            double q = qs[j];
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+            }
+            if (q == 0) {
+                result[j] = min;
+                continue;
+            }
+            if (q == 1) {
+                result[j] = max;
+                continue;
+            }
+            double target = q * totalWeight;
+            long cumulative = 0;
+            result[j] = max;
+            for (int i = 0; i < values.length; i++) {
+                cumulative += weights[i];
+                if (cumulative >= target) {
+                    result[j] = values[i];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the fraction of observations less than or equal to a value.
+     *
+     * @param x The value
+     * @return The estimated cumulative fraction, or NaN if there are no observations
+     */
+    public double getRank(double x) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long below = 0;
+        long total = 0;
+        for (int h = 0; h < levelCount; h++) {
+            long weight = 1L << h;
+            for (int i = 0; i < sizes[h]; i++) {
+                total += weight;
+                if (levels[h][i] <= x) {
+                    below += weight;
+                }
+            }
+        }
+        return (double) below / total;
+    }
+
+    /**
+     * Fills the arrays with all retained items sorted by value, with their weights,
+     * by sorting a copy of every level and merging the levels.
+     */
+    private void sortedItems(double[] values, long[] weights) {
+        double[][] sorted = new double[levelCount][];
+        int[] heads = new int[levelCount];
+        for (int h = 0; h < levelCount; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+        for (int n = 0; n < values.length; n++) {
+            int best = -1;
+            for (int h = 0; h < levelCount; h++) {
+                if (heads[h] < sorted[h].length
+                        && (best < 0 || sorted[h][heads[h]] < sorted[best][heads[best]])) {
+                    best = h;
+                }
+            }
+            values[n] = sorted[best][heads[best]++];
+            weights[n] = 1L << best;
+        }
+    }
+
+    /**
+     * Compacts the lowest level that is at or above its capacity.
+     */
+    private void compress() {
+        for (int h = 0; h < levelCount; h++) {
+            if (sizes[h] >= capacity(h)) {
+                if (h + 1 == levelCount) {
+                    addLevel();
+                }
+                compact(h);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and promotes every other item to the level above.
+     * With an odd number of items, one item stays behind.
+     */
+    private void compact(int h) {
+        double[] items = levels[h];
+        int size = sizes[h];
+        Arrays.sort(items, 0, size);
+        int keep = size & 1;
+        int offset = nextBit();
+        for (int i = keep + offset; i < size; i += 2) {
+            push(h + 1, items[i]);
+        }
+        int promoted = (size - keep) / 2;
+        // With an odd size the smallest item, already at index 0, stays on this level
+        sizes[h] = keep;
+        totalSize -= size - keep - promoted;
+    }
+
+    /**
+     * Appends an item to a level, growing its buffer if needed.
+     */
+    private void push(int h, double x) {
+        double[] items = levels[h];
+        if (sizes[h] == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels[h] = items;
+        }
+        items[sizes[h]++] = x;
+    }
+
+    /**
+     * Adds an empty level on top and recomputes the capacities.
+     */
+    private void addLevel() {
+        if (levelCount == levels.length) {
+            levels = Arrays.copyOf(levels, levelCount * 2);
+            sizes = Arrays.copyOf(sizes, levelCount * 2);
+        }
+        levels[levelCount] = new double[k];
+        sizes[levelCount] = 0;
+        levelCount++;
+        totalCapacity = 0;
+        for (int h = 0; h < levelCount; h++) {
+            totalCapacity += capacity(h);
+        }
+    }
+
+    /**
+     * Gets the capacity of a level: {@code k} for the top level, shrinking by
+     * a factor of 2/3 per level below it.
+     */
+    private int capacity(int h) {
+        int depth = levelCount - 1 - h;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(C, depth)));
+    }
+
+    /**
+     * Returns a pseudo-random bit (xorshift64).
+     */
+    private int nextBit() {
+        long x = randomState;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        randomState = x;
+        return (int) (x >>> 63);
+    }
+}
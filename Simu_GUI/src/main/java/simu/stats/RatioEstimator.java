@@ -0,0 +1,133 @@
+package simu.stats;
+
+import java.util.Locale;
+
+/**
+ * Ratio estimator {@code r = sum(Y) / sum(X)} of independent, identically
+ * distributed pairs (Y, X), e.g. the total wait and the number of customers of
+ * each regeneration cycle. The confidence interval follows from the central
+ * limit theorem for {@code Y - r X}:
+ * <pre>
+ *   r +/- t * sqrt(S_YY - 2 r S_YX + r^2 S_XX) / (mean(X) * sqrt(n))
+ * </pre>
+ * with the sample (co)variances S over the n pairs. The means and co-moments
+ * are updated in one pass with Welford's method and can be merged.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class RatioEstimator {
+    /** Number of pairs */
+    private long count = 0;
+    /** Mean of the numerators */
+    private double meanY = 0.0;
+    /** Mean of the denominators */
+    private double meanX = 0.0;
+    /** Sum of squared deviations of the numerators */
+    private double syy = 0.0;
+    /** Sum of squared deviations of the denominators */
+    private double sxx = 0.0;
+    /** Sum of cross products of the deviations */
+    private double sxy = 0.0;
+
+    /**
+     * Adds a pair.
+     *
+     * @param numerator The Y of the pair, e.g. the total wait of a cycle
+     * @param denominator The X of the pair, e.g. the number of customers of a cycle
+     */
+    public void add(double numerator, double denominator) {
+        count++;
+        double dy = numerator - meanY;
+        double dx = denominator - meanX;
+        meanY += dy / count;
+        meanX += dx / count;
+        syy += dy * (numerator - meanY);
+        sxx += dx * (denominator - meanX);
+        sxy += dx * (numerator - meanY);
+    }
+
+    /**
+     * Merges the pairs of another estimator into this one.
+     *
+     * @param other The estimator to merge; not modified
+     */
+    public void merge(RatioEstimator other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double dy = other.meanY - meanY;
+        double dx = other.meanX - meanX;
+        double weight = (double) count * other.count / total;
+        syy += other.syy + dy * dy * weight;
+        sxx += other.sxx + dx * dx * weight;
+        sxy += other.sxy + dx * dy * weight;
+        meanY += dy * other.count / total;
+        meanX += dx * other.count / total;
+        count = total;
+    }
+
+    /**
+     * Creates an independent copy of this estimator.
+     *
+     * @return A new estimator with the same state
+     */
+    public RatioEstimator copy() {
+        RatioEstimator copy = new RatioEstimator();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Removes all pairs.
+     */
+    public void reset() {
+        count = 0;
+        meanY = 0.0;
+        meanX = 0.0;
+        syy = 0.0;
+        sxx = 0.0;
+        sxy = 0.0;
+    }
+
+    /**
+     * Gets the number of pairs.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the ratio of the sums.
+     *
+     * @return {@code sum(Y) / sum(X)}, or NaN if the denominators sum to 0
+     */
+    public double getRatio() {
+        return meanX != 0 ? meanY / meanX : Double.NaN;
+    }
+
+    /**
+     * Computes the confidence interval of the ratio.
+     *
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval; the half-width is infinite with fewer than two pairs
+     */
+    public ConfidenceInterval getInterval(double confidence) {
+        double ratio = getRatio();
+        if (count < 2 || Double.isNaN(ratio)) {
+            return new ConfidenceInterval(ratio, Double.POSITIVE_INFINITY, confidence, count);
+        }
+        double variance = Math.max(0.0, (syy - 2 * ratio * sxy + ratio * ratio * sxx) / (count - 1));
+        double t = StudentT.quantile(0.5 + confidence / 2, (int) Math.min(count - 1, Integer.MAX_VALUE));
+        double halfWidth = t * Math.sqrt(variance / count) / Math.abs(meanX);
+        return new ConfidenceInterval(ratio, halfWidth, confidence, count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d, ratio=%.4f", count, getRatio());
+    }
+}
@@ -0,0 +1,157 @@
+package simu.stats;
+
+/**
+ * Regenerative estimator of steady-state means from a single long run. A
+ * system regenerates when it returns to a state from which its future is
+ * independent of its past, e.g. when a customer arrives at an empty cafeteria
+ * (all queues empty, nobody in service, and the next inter-arrival time drawn
+ * afresh). The run between two regenerations is a cycle; cycles are
+ * independent and identically distributed, so ratios of cycle sums estimate
+ * steady-state means with {@link RatioEstimator} confidence intervals, without
+ * a warm-up period to discard and without separate replications:
+ * <ul>
+ *   <li>mean time in system = sum of times in system / number of customers,</li>
+ *   <li>throughput = number of customers / cycle length,</li>
+ *   <li>mean number in system = area under the number in system / cycle length.</li>
+ * </ul>
+ * The run before the first regeneration and the unfinished last cycle are
+ * left out.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class RegenerativeCycles {
+    /** Seconds per hour, for the throughput */
+    private static final double HOUR = 3600.0;
+
+    /** Time in system per customer, over the cycles */
+    private final RatioEstimator timeInSystem = new RatioEstimator();
+    /** Customers per second, over the cycles */
+    private final RatioEstimator throughput = new RatioEstimator();
+    /** Time-average number in system, over the cycles */
+    private final RatioEstimator numberInSystem = new RatioEstimator();
+
+    /** Start of the current cycle, or NaN before the first regeneration */
+    private double cycleStart = Double.NaN;
+    /** Customers who left during the current cycle */
+    private long cycleCustomers = 0;
+    /** Sum of their times in system */
+    private double cycleTimeInSystem = 0.0;
+    /** Area under the number in system during the current cycle */
+    private double cycleArea = 0.0;
+    /** Time of the last change of the number in system */
+    private double lastTime = 0.0;
+    /** Number in system since the last change */
+    private int lastNumber = 0;
+
+    /**
+     * Records a regeneration: ends the current cycle, if any, and starts a new one.
+     *
+     * @param time The simulation time of the regeneration
+     */
+    public void regenerate(double time) {
+        accumulate(time);
+        if (!Double.isNaN(cycleStart)) {
+            double length = time - cycleStart;
+            timeInSystem.add(cycleTimeInSystem, cycleCustomers);
+            throughput.add(cycleCustomers, length);
+            numberInSystem.add(cycleArea, length);
+        }
+        cycleStart = time;
+        cycleCustomers = 0;
+        cycleTimeInSystem = 0.0;
+        cycleArea = 0.0;
+    }
+
+    /**
+     * Records that a customer left the system.
+     *
+     * @param timeInSystem The customer's time from arrival to departure
+     */
+    public void customerLeft(double timeInSystem) {
+        cycleCustomers++;
+        cycleTimeInSystem += timeInSystem;
+    }
+
+    /**
+     * Records that the number of customers in the system changed.
+     *
+     * @param time The current simulation time
+     * @param number The new number in system
+     */
+    public void update(double time, int number) {
+        accumulate(time);
+        lastNumber = number;
+    }
+
+    /**
+     * Adds the completed cycles of another estimator, e.g. of an independent run.
+     *
+     * @param other The estimator to merge; not modified
+     */
+    public void merge(RegenerativeCycles other) {
+        timeInSystem.merge(other.timeInSystem);
+        throughput.merge(other.throughput);
+        numberInSystem.merge(other.numberInSystem);
+    }
+
+    /**
+     * Creates a copy holding the completed cycles of this estimator.
+     *
+     * @return A new estimator
+     */
+    public RegenerativeCycles copy() {
+        RegenerativeCycles copy = new RegenerativeCycles();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Gets the number of completed cycles.
+     *
+     * @return The cycle count
+     */
+    public long getCycleCount() {
+        return throughput.getCount();
+    }
+
+    /**
+     * Computes the confidence interval of the steady-state mean time in system.
+     *
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval in seconds
+     */
+    public ConfidenceInterval getTimeInSystemInterval(double confidence) {
+        return timeInSystem.getInterval(confidence);
+    }
+
+    /**
+     * Computes the confidence interval of the steady-state throughput.
+     *
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval in customers per hour
+     */
+    public ConfidenceInterval getThroughputInterval(double confidence) {
+        ConfidenceInterval perSecond = throughput.getInterval(confidence);
+        return new ConfidenceInterval(perSecond.getMean() * HOUR, perSecond.getHalfWidth() * HOUR,
+                confidence, perSecond.getSampleSize());
+    }
+
+    /**
+     * Computes the confidence interval of the steady-state mean number in system.
+     *
+     * @param confidence Confidence level, e.g. 0.95
+     * @return The interval
+     */
+    public ConfidenceInterval getNumberInSystemInterval(double confidence) {
+        return numberInSystem.getInterval(confidence);
+    }
+
+    /**
+     * Adds the area under the number in system up to the given time.
+     */
+    private void accumulate(double time) {
+        cycleArea += lastNumber * (time - lastTime);
+        lastTime = time;
+    }
+}
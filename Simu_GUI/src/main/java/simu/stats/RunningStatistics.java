@@ -0,0 +1,165 @@
+package simu.stats;
+
+import java.util.Locale;
+
+/**
+ * Streaming mean and variance of a sequence of observations.
+ * Uses Welford's algorithm, which is numerically stable also when the
+ * observations are large compared to their spread, and Chan's parallel
+ * formula for merging accumulators of independent runs.
+ * Recording is O(1) and does not allocate.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class RunningStatistics {
+    /** Number of observations */
+    private long count = 0;
+    /** Running mean */
+    private double mean = 0.0;
+    /** Sum of squared differences from the running mean */
+    private double m2 = 0.0;
+    /** Smallest observation */
+    private double min = Double.POSITIVE_INFINITY;
+    /** Largest observation */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds an observation.
+     *
+     * @param x The observed value
+     */
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        if (x < min) {
+            min = x;
+        }
+        if (x > max) {
+            max = x;
+        }
+    }
+
+    /**
+     * Adds all observations of another accumulator to this one.
+     *
+     * @param other The accumulator to merge; it is not modified
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            copyFrom(other);
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Creates an independent copy of this accumulator.
+     *
+     * @return The copy
+     */
+    public RunningStatistics copy() {
+        RunningStatistics copy = new RunningStatistics();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Removes all observations.
+     */
+    public void reset() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Gets the number of observations.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the observations.
+     *
+     * @return The mean, or 0 if there are no observations
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the sum of the observations.
+     *
+     * @return The sum
+     */
+    public double getSum() {
+        return mean * count;
+    }
+
+    /**
+     * Gets the sample variance (with n - 1 in the denominator).
+     *
+     * @return The variance, or 0 with fewer than two observations
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    /**
+     * Gets the sample standard deviation.
+     *
+     * @return The standard deviation, or 0 with fewer than two observations
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the smallest observation.
+     *
+     * @return The minimum, or NaN if there are no observations
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Gets the largest observation.
+     *
+     * @return The maximum, or NaN if there are no observations
+     */
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    private void copyFrom(RunningStatistics other) {
+        count = other.count;
+        mean = other.mean;
+        m2 = other.m2;
+        min = other.min;
+        max = other.max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d mean=%.3f sd=%.3f min=%.3f max=%.3f",
+                count, getMean(), getStandardDeviation(), getMin(), getMax());
+    }
+}
@@ -0,0 +1,163 @@
+package simu.stats;
+
+/**
+ * Sobol low-discrepancy sequence in the unit cube. The first {@code 2^m}
+ * points of every dimension fall one into each interval of width
+ * {@code 2^-m}, and projections onto pairs of dimensions are far more even
+ * than random points, so a design of n Sobol points covers the parameter
+ * space about as well as a much larger random sample.
+ * <p>
+ * Points are generated in Gray code order from direction numbers of Joe and
+ * Kuo (primitive polynomials up to degree 7), with 32 bits of resolution.
+ * The first point is the origin; designs are best balanced when their size
+ * is a power of two.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class SobolSequence {
+    /** Largest supported number of dimensions */
+    public static final int MAX_DIMENSIONS = 32;
+    /** Bits of resolution */
+    private static final int BITS = 32;
+
+    /**
+     * Degree s, coefficients a and initial direction numbers m of the primitive
+     * polynomial of dimensions 2 and up.
+     */
+    private static final int[][] DIRECTIONS = {
+            {1, 0, 1},
+            {2, 1, 1, 3},
+            {3, 1, 1, 3, 1},
+            {3, 2, 1, 1, 1},
+            {4, 1, 1, 1, 3, 3},
+            {4, 4, 1, 3, 5, 13},
+            {5, 2, 1, 1, 5, 5, 17},
+            {5, 4, 1, 1, 5, 5, 5},
+            {5, 7, 1, 1, 7, 11, 19},
+            {5, 11, 1, 1, 5, 1, 1},
+            {5, 13, 1, 1, 1, 3, 11},
+            {5, 14, 1, 3, 5, 5, 31},
+            {6, 1, 1, 3, 3, 9, 7, 49},
+            {6, 13, 1, 1, 1, 15, 21, 21},
+            {6, 16, 1, 3, 1, 13, 27, 49},
+            {6, 19, 1, 1, 1, 15, 7, 5},
+            {6, 22, 1, 3, 1, 15, 13, 25},
+            {6, 25, 1, 1, 5, 5, 19, 61},
+            {7, 1, 1, 3, 7, 11, 23, 15, 103},
+            {7, 4, 1, 3, 7, 13, 13, 15, 69},
+            {7, 7, 1, 1, 3, 13, 7, 35, 63},
+            {7, 8, 1, 3, 5, 9, 1, 25, 53},
+            {7, 14, 1, 3, 1, 13, 9, 35, 107},
+            {7, 19, 1, 3, 1, 5, 27, 61, 31},
+            {7, 21, 1, 1, 5, 11, 19, 41, 61},
+            {7, 28, 1, 3, 5, 3, 3, 13, 69},
+            {7, 31, 1, 1, 7, 13, 1, 19, 1},
+            {7, 32, 1, 3, 7, 5, 13, 19, 59},
+            {7, 37, 1, 1, 3, 9, 25, 29, 41},
+            {7, 41, 1, 3, 5, 13, 23, 1, 55},
+            {7, 42, 1, 3, 7, 3, 13, 59, 17}
+    };
+
+    /** Number of dimensions */
+    private final int dimensions;
+    /** Direction numbers per dimension and bit */
+    private final int[][] v;
+    /** Current point as 32-bit fractions */
+    private final int[] x;
+    /** Index of the next point */
+    private long index = 0;
+
+    /**
+     * Constructs the sequence.
+     *
+     * @param dimensions Number of dimensions, 1 to {@value #MAX_DIMENSIONS}
+     */
+    public SobolSequence(int dimensions) {
+        if (dimensions < 1 || dimensions > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Sobol sequences support 1 to " + MAX_DIMENSIONS
+                    + " dimensions: " + dimensions);
+        }
+        this.dimensions = dimensions;
+        this.v = new int[dimensions][BITS];
+        this.x = new int[dimensions];
+        for (int j = 0; j < BITS; j++) {
+            v[0][j] = 1 << (BITS - 1 - j);
+        }
+        for (int d = 1; d < dimensions; d++) {
+            int[] row = DIRECTIONS[d - 1];
+            int s = row[0];
+            int a = row[1];
+            for (int j = 0; j < s; j++) {
+                v[d][j] = row[2 + j] << (BITS - 1 - j);
+            }
+            for (int j = s; j < BITS; j++) {
+                int value = v[d][j - s] ^ (v[d][j - s] >>> s);
+                for (int k = 1; k < s; k++) {
+                    if (((a >>> (s - 1 - k)) & 1) != 0) {
+                        value ^= v[d][j - k];
+                    }
+                }
+                v[d][j] = value;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of dimensions.
+     *
+     * @return The dimensions
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Writes the next point of the sequence.
+     *
+     * @param point An array of at least {@link #getDimensions()} elements, receiving
+     *              coordinates in [0, 1)
+     */
+    public void next(double[] point) {
+        if (index > 0) {
+            // Gray code order: flip the direction number of the lowest zero bit of the previous index
+            int bit = Long.numberOfTrailingZeros(~(index - 1));
+            if (bit >= BITS) {
+                throw new IllegalStateException("Sobol sequence exhausted after 2^" + BITS + " points");
+            }
+            for (int d = 0; d < dimensions; d++) {
+                x[d] ^= v[d][bit];
+            }
+        }
+        index++;
+        for (int d = 0; d < dimensions; d++) {
+            point[d] = (x[d] & 0xFFFFFFFFL) / 4294967296.0;
+        }
+    }
+
+    /**
+     * Generates the next points of the sequence.
+     *
+     * @param n Number of points
+     * @return The points, one row per point
+     */
+    public double[][] next(int n) {
+        double[][] points = new double[n][dimensions];
+        for (int i = 0; i < n; i++) {
+            next(points[i]);
+        }
+        return points;
+    }
+
+    /**
+     * Skips points of the sequence.
+     *
+     * @param n Number of points to skip
+     */
+    public void skip(long n) {
+        double[] scratch = new double[dimensions];
+        for (long i = 0; i < n; i++) {
+            next(scratch);
+        }
+    }
+}
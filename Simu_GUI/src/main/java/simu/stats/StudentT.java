@@ -0,0 +1,127 @@
+package simu.stats;
+
+/**
+ * Quantiles of Student's t and the standard normal distribution, as needed
+ * for confidence intervals. The t quantile uses Hill's approximation
+ * (Algorithm 396, CACM 1970), accurate to about six significant digits for
+ * any number of degrees of freedom; the normal quantile uses Acklam's
+ * rational approximation with a relative error below 1.2e-9, and the normal
+ * distribution function a Chebyshev fit of the complementary error function
+ * with a relative error below 1.2e-7.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public final class StudentT {
+
+    /** Coefficients of Acklam's approximation, shared so that sampling by inversion does not allocate */
+    private static final double[] ACKLAM_A = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+    private static final double[] ACKLAM_B = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01};
+    private static final double[] ACKLAM_C = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+    private static final double[] ACKLAM_D = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+            3.754408661907416e+00};
+
+    private StudentT() {
+    }
+
+    /**
+     * Gets a quantile of Student's t distribution.
+     *
+     * @param p The cumulative probability, between 0 and 1 (e.g. 0.975 for a two-sided 95% interval)
+     * @param degreesOfFreedom Degrees of freedom, at least 1
+     * @return The quantile
+     */
+    public static double quantile(double p, int degreesOfFreedom) {
+        if (!(p > 0 && p < 1)) {
+            throw new IllegalArgumentException("p must be between 0 and 1: " + p);
+        }
+        if (degreesOfFreedom < 1) {
+            throw new IllegalArgumentException("degreesOfFreedom must be at least 1");
+        }
+        if (p == 0.5) {
+            return 0.0;
+        }
+        // Hill's algorithm works with the two-tailed probability
+        double twoTailed = 2 * Math.min(p, 1 - p);
+        double t = upperTwoTailed(twoTailed, degreesOfFreedom);
+        return p > 0.5 ? t : -t;
+    }
+
+    /**
+     * Gets a quantile of the standard normal distribution.
+     *
+     * @param p The cumulative probability, between 0 and 1
+     * @return The quantile
+     */
+    public static double normalQuantile(double p) {
+        if (!(p > 0 && p < 1)) {
+            throw new IllegalArgumentException("p must be between 0 and 1: " + p);
+        }
+        final double[] a = ACKLAM_A, b = ACKLAM_B, c = ACKLAM_C, d = ACKLAM_D;
+        final double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /**
+     * Gets the cumulative probability of the standard normal distribution.
+     *
+     * @param x The value
+     * @return The probability of a standard normal variable being at most x
+     */
+    public static double normalCdf(double x) {
+        double z = Math.abs(x) / Math.sqrt(2);
+        double t = 1 / (1 + 0.5 * z);
+        double erfc = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? 1 - erfc / 2 : erfc / 2;
+    }
+
+    /**
+     * Hill's algorithm: the positive t with two-tailed probability {@code p}.
+     */
+    private static double upperTwoTailed(double p, int n) {
+        if (n == 1) {
+            double angle = p * Math.PI / 2;
+            return Math.cos(angle) / Math.sin(angle);
+        }
+        if (n == 2) {
+            return Math.sqrt(2 / (p * (2 - p)) - 2);
+        }
+        double a = 1 / (n - 0.5);
+        double b = 48 / (a * a);
+        double c = ((20700 * a / b - 98) * a - 16) * a + 96.36;
+        double d = ((94.5 / (b + c) - 3) / b + 1) * Math.sqrt(a * Math.PI / 2) * n;
+        double x = d * p;
+        double y = Math.pow(x, 2.0 / n);
+        if (y > 0.05 + a) {
+            x = -normalQuantile(0.5 * p);
+            y = x * x;
+            if (n < 5) {
+                c += 0.3 * (n - 4.5) * (x + 0.6);
+            }
+            c = (((0.05 * d * x - 5) * x - 7) * x - 2) * x + b + c;
+            y = (((((0.4 * y + 6.3) * y + 36) * y + 94.5) / c - y - 3) / b + 1) * x;
+            y = a * y * y;
+            y = Math.expm1(y);
+        } else {
+            y = ((1 / (((n + 6) / (n * y) - 0.089 * d - 0.822) * (n + 2) * 3)
+                    + 0.5 / (n + 4)) * y - 1) * (n + 1) / (n + 2) + 1 / y;
+        }
+        return Math.sqrt(n * y);
+    }
+}
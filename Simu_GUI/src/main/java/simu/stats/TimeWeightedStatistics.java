@@ -0,0 +1,206 @@
+package simu.stats;
+
+import java.util.Locale;
+
+/**
+ * Streaming time-weighted mean and variance of a piecewise constant quantity,
+ * such as a queue length. Each value is weighted by how long it was held,
+ * using the weighted form of Welford's algorithm. Recording is O(1) and does
+ * not allocate.
+ * <p>
+ * Call {@link #update(double, double)} whenever the quantity changes and
+ * {@link #close(double)} at the end of the observation period so that the
+ * last value is weighted up to that time.
+ *
+ * @author Group 8
+ * @version 1.0
+ */
+public class TimeWeightedStatistics {
+    /** Total time observed */
+    private double totalTime = 0.0;
+    /** Time-weighted running mean */
+    private double mean = 0.0;
+    /** Time-weighted sum of squared differences from the running mean */
+    private double m2 = 0.0;
+    /** Smallest value held for a positive time */
+    private double min = Double.POSITIVE_INFINITY;
+    /** Largest value held for a positive time */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /** Time of the last update, or NaN before the first update */
+    private double lastTime = Double.NaN;
+    /** Value held since the last update */
+    private double lastValue = 0.0;
+
+    /**
+     * Records that the quantity changed to a new value at the given time.
+     * The previous value is weighted by the time it was held.
+     *
+     * @param time The current simulation time
+     * @param value The new value of the quantity
+     */
+    public void update(double time, double value) {
+        accumulate(time);
+        lastTime = time;
+        lastValue = value;
+    }
+
+    /**
+     * Weights the current value up to the given time, e.g. at the end of the run.
+     * The quantity keeps its value, so further updates are possible.
+     *
+     * @param time The current simulation time
+     */
+    public void close(double time) {
+        accumulate(time);
+        lastTime = time;
+    }
+
+    /**
+     * Adds the time-weighted observations of another accumulator to this one.
+     * Only closed periods are merged.
+     *
+     * @param other The accumulator to merge; it is not modified
+     */
+    public void merge(TimeWeightedStatistics other) {
+        if (other.totalTime <= 0) {
+            return;
+        }
+        if (totalTime <= 0) {
+            totalTime = other.totalTime;
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            double total = totalTime + other.totalTime;
+            double delta = other.mean - mean;
+            mean += delta * other.totalTime / total;
+            m2 += other.m2 + delta * delta * (totalTime * other.totalTime / total);
+            totalTime = total;
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Creates an independent copy of this accumulator.
+     *
+     * @return The copy
+     */
+    public TimeWeightedStatistics copy() {
+        TimeWeightedStatistics copy = new TimeWeightedStatistics();
+        copy.totalTime = totalTime;
+        copy.mean = mean;
+        copy.m2 = m2;
+        copy.min = min;
+        copy.max = max;
+        copy.lastTime = lastTime;
+        copy.lastValue = lastValue;
+        return copy;
+    }
+
+    /**
+     * Discards all observations; the current value is kept and weighted from the given time on.
+     *
+     * @param time The simulation time from which observation restarts
+     */
+    public void reset(double time) {
+        totalTime = 0.0;
+        mean = 0.0;
+        m2 = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        lastTime = time;
+    }
+
+    /**
+     * Gets the total time observed.
+     *
+     * @return The observed time
+     */
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Gets the time-weighted mean.
+     *
+     * @return The mean over the observed time, or 0 if no time was observed
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the time-weighted variance of the quantity over the observed time.
+     *
+     * @return The variance, or 0 if no time was observed
+     */
+    public double getVariance() {
+        return totalTime > 0 ? m2 / totalTime : 0.0;
+    }
+
+    /**
+     * Gets the time-weighted standard deviation.
+     *
+     * @return The standard deviation
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the smallest value held for a positive time.
+     *
+     * @return The minimum, or NaN if no time was observed
+     */
+    public double getMin() {
+        return totalTime > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Gets the largest value held for a positive time.
+     *
+     * @return The maximum, or NaN if no time was observed
+     */
+    public double getMax() {
+        return totalTime > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Gets the current value of the quantity.
+     *
+     * @return The value set by the last update
+     */
+    public double getCurrentValue() {
+        return lastValue;
+    }
+
+    /**
+     * Weights the current value by the time elapsed since the last update.
+     */
+    private void accumulate(double time) {
+        if (Double.isNaN(lastTime)) {
+            return;
+        }
+        double dt = time - lastTime;
+        if (dt <= 0) {
+            return;
+        }
+        totalTime += dt;
+        double delta = lastValue - mean;
+        mean += delta * dt / totalTime;
+        m2 += dt * delta * (lastValue - mean);
+        if (lastValue < min) {
+            min = lastValue;
+        }
+        if (lastValue > max) {
+            max = lastValue;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "T=%.1f mean=%.3f sd=%.3f min=%.0f max=%.0f",
+                totalTime, getMean(), getStandardDeviation(), getMin(), getMax());
+    }
+}
@@ -0,0 +1,26 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for antithetic variates of the RandomGenerator.
+ */
+class RandomGeneratorTest {
+
+    @Test
+    void sample_returnsExactlyOneMinusUWhenAntithetic() {
+        RandomGenerator original = new RandomGenerator(12345);
+        RandomGenerator antithetic = new RandomGenerator(12345);
+        antithetic.setAntithetic(true);
+
+        for (int i = 0; i < 10_000; i++) {
+            double u = original.sample();
+            double v = antithetic.sample();
+            assertTrue(u > 0 && u < 1, "U out of range: " + u);
+            assertEquals(1 - u, v, Math.ulp(1.0), "sample " + i);
+        }
+        assertEquals(original.getSeed(), antithetic.getSeed());
+    }
+}
@@ -0,0 +1,99 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the expansion of parameter ranges into experimental designs.
+ */
+class ParameterGridTest {
+
+    @Test
+    void fullFactorial_containsEveryCombinationOnce() {
+        ParameterGrid grid = new ParameterGrid()
+                .addRange(Parameter.ARRIVAL_RATE, 60, 240, 4)
+                .addLevels(Parameter.CASHIER_TIME, 15, 20, 25)
+                .addToggle(Parameter.COFFEE_ENABLED);
+        List<Scenario> scenarios = grid.fullFactorial();
+
+        assertEquals(24, scenarios.size());
+        assertEquals(24, new HashSet<>(scenarios).size());
+        assertEquals(60.0, scenarios.get(0).get(Parameter.ARRIVAL_RATE), 0.0);
+        assertEquals(120.0, scenarios.get(6).get(Parameter.ARRIVAL_RATE), 0.0);
+        assertTrue(scenarios.get(1).isEnabled(Parameter.COFFEE_ENABLED));
+        assertEquals(45.0, scenarios.get(23).get(Parameter.GRILL_TIME), 0.0);   // not varied
+    }
+
+    @Test
+    void fractionalFactorial_isBalancedAndOrthogonal() {
+        ParameterGrid grid = new ParameterGrid();
+        Parameter[] factors = {Parameter.GRILL_TIME, Parameter.VEGAN_TIME, Parameter.NORMAL_TIME,
+                Parameter.CASHIER_TIME, Parameter.SELF_SERVICE_ENABLED, Parameter.COFFEE_ENABLED,
+                Parameter.VARIABILITY_ENABLED};
+        for (Parameter factor : factors) {
+            if (factor.isToggle()) {
+                grid.addToggle(factor);
+            } else {
+                grid.addLevels(factor, 10, 20);
+            }
+        }
+        List<Scenario> scenarios = grid.fractionalFactorial(4);   // 2^(7-4) = 8 runs
+        assertEquals(8, scenarios.size());
+        assertEquals(8, new HashSet<>(scenarios).size());
+
+        for (int i = 0; i < factors.length; i++) {
+            int sum = 0;
+            for (int j = 0; j < factors.length; j++) {
+                int product = 0;
+                for (Scenario scenario : scenarios) {
+                    product += code(scenario, factors[i]) * code(scenario, factors[j]);
+                }
+                if (i != j) {
+                    assertEquals(0, product, factors[i] + " x " + factors[j]);
+                }
+            }
+            for (Scenario scenario : scenarios) {
+                sum += code(scenario, factors[i]);
+            }
+            assertEquals(0, sum, factors[i].toString());
+        }
+        assertThrows(IllegalArgumentException.class, () -> grid.fractionalFactorial(5));
+    }
+
+    @Test
+    void fractionalFactorial_keepsMainEffectsClearOfTwoFactorInteractions() {
+        ParameterGrid grid = new ParameterGrid();
+        Parameter[] factors = {Parameter.GRILL_TIME, Parameter.VEGAN_TIME, Parameter.NORMAL_TIME,
+                Parameter.CASHIER_TIME, Parameter.SELF_SERVICE_TIME, Parameter.COFFEE_TIME, Parameter.ARRIVAL_RATE};
+        for (Parameter factor : factors) {
+            grid.addLevels(factor, 10, 20);
+        }
+        List<Scenario> scenarios = grid.fractionalFactorial(3);   // 2^(7-3) = 16 runs, resolution IV
+        assertEquals(16, scenarios.size());
+
+        for (Parameter main : factors) {
+            for (int i = 0; i < factors.length; i++) {
+                for (int j = i + 1; j < factors.length; j++) {
+                    if (factors[i] == main || factors[j] == main) {
+                        continue;
+                    }
+                    int product = 0;
+                    for (Scenario scenario : scenarios) {
+                        product += code(scenario, main) * code(scenario, factors[i]) * code(scenario, factors[j]);
+                    }
+                    assertEquals(0, product, main + " aliased with " + factors[i] + " x " + factors[j]);
+                }
+            }
+        }
+    }
+
+    /** -1/+1 coding of a two-level factor */
+    private static int code(Scenario scenario, Parameter factor) {
+        double value = scenario.get(factor);
+        return value == 0.0 || value == 10.0 ? -1 : 1;
+    }
+}
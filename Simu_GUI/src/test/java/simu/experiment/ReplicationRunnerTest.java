@@ -0,0 +1,77 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.framework.Clock;
+import simu.framework.RandomStreams;
+import simu.framework.Trace;
+import simu.model.Customer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for running replications in parallel.
+ */
+class ReplicationRunnerTest {
+
+    @BeforeEach
+    void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void run_givesTheSameSummaryInParallelAsSerially() {
+        Scenario scenario = Scenario.defaults().with(Parameter.ARRIVAL_RATE, 180);
+        ReplicationRunner serial = new ReplicationRunner(scenario.engineFactory(), 3600);
+        serial.setParallelism(1);
+        serial.setRandomStreams(new RandomStreams(77));
+        ReplicationRunner parallel = new ReplicationRunner(scenario.engineFactory(), 3600);
+        parallel.setParallelism(4);
+        parallel.setRandomStreams(new RandomStreams(77));
+
+        ReplicationSummary expected = serial.run(8);
+        ReplicationSummary actual = parallel.run(8);
+
+        assertEquals(8, actual.getReplicationCount());
+        for (String metric : expected.getMetricNames()) {
+            assertArrayEquals(expected.getValues(metric), actual.getValues(metric), metric);
+            ReplicationSummaryTest.assertClose(expected.getInterval(metric, 0.95).getMean(),
+                    actual.getInterval(metric, 0.95).getMean(), metric);
+        }
+    }
+
+    @Test
+    void runReplication_onAReusedThreadStartsFromClockZeroAndCustomerOne() {
+        Scenario scenario = Scenario.defaults();
+        RandomStreams streams = RandomStreams.defaultStreams();
+        double[] clockAtStart = new double[1];
+        int[] firstId = new int[1];
+        Thread[] threads = new Thread[2];
+        ReplicationRunner.EngineFactory probe = (replication, replicationStreams) -> {
+            clockAtStart[0] = Clock.getInstance().getTime();
+            firstId[0] = new Customer().getId();
+            return scenario.createEngine(replicationStreams);
+        };
+
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> {
+                threads[0] = Thread.currentThread();
+                ReplicationRunner.runReplication(scenario.engineFactory(), 0, streams.forReplication(0), 3600);
+            }));
+            pool.invoke(ForkJoinTask.adapt(() -> {
+                threads[1] = Thread.currentThread();
+                ReplicationRunner.runReplication(probe, 1, streams.forReplication(1), 3600);
+            }));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertSame(threads[0], threads[1]);
+        assertEquals(0.0, clockAtStart[0], 0.0);
+        assertEquals(1, firstId[0]);
+    }
+}
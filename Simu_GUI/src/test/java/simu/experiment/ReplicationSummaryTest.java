@@ -0,0 +1,96 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simu.framework.RandomStreams;
+import simu.framework.Trace;
+import simu.model.SimulationStatistics;
+import simu.stats.ConfidenceInterval;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for combining replication results into a ReplicationSummary.
+ */
+class ReplicationSummaryTest {
+
+    /** Results of six short replications of the default scenario at a higher load */
+    private static SimulationStatistics[] replications;
+
+    @BeforeAll
+    static void runReplications() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        Scenario scenario = Scenario.defaults().with(Parameter.ARRIVAL_RATE, 180);
+        RandomStreams streams = new RandomStreams(2024);
+        replications = new SimulationStatistics[6];
+        for (int r = 0; r < replications.length; r++) {
+            replications[r] = ReplicationRunner.runReplication(scenario.engineFactory(), r,
+                    streams.forReplication(r), 3600);
+        }
+    }
+
+    @Test
+    void merge_inAnyTreeShapeEqualsSequentialAdd() {
+        ReplicationSummary sequential = new ReplicationSummary();
+        for (SimulationStatistics statistics : replications) {
+            sequential.add(statistics);
+        }
+
+        // (0 + 1) + 2 and 3 + (4 + 5), then the two halves
+        ReplicationSummary left = summaryOf(0, 2);
+        left.merge(summaryOf(2, 3));
+        ReplicationSummary right = summaryOf(4, 6);
+        ReplicationSummary rightHalf = summaryOf(3, 4);
+        rightHalf.merge(right);
+        left.merge(rightHalf);
+
+        assertEquals(sequential.getReplicationCount(), left.getReplicationCount());
+        assertEquals(sequential.getMetricNames(), left.getMetricNames());
+        for (String metric : sequential.getMetricNames()) {
+            assertArrayEquals(sequential.getValues(metric), left.getValues(metric), metric);
+            assertIntervalEquals(sequential.getInterval(metric, 0.95), left.getInterval(metric, 0.95), metric);
+        }
+        for (String metric : ReplicationSummary.CONTROLLED_METRICS) {
+            assertIntervalEquals(sequential.getControlledInterval(metric, 0.95),
+                    left.getControlledInterval(metric, 0.95), metric);
+        }
+    }
+
+    @Test
+    void addPair_averagesEachMetricOverThePair() {
+        ReplicationSummary pairs = new ReplicationSummary();
+        pairs.addPair(replications[0], replications[1]);
+        pairs.addPair(replications[2], replications[3]);
+
+        assertEquals(4, pairs.getReplicationCount());
+        assertEquals(2, pairs.getStatistics("AvgWait").getCount());
+        double[] waits = pairs.getValues("AvgWait");
+        assertEquals((replications[0].getAverageWait() + replications[1].getAverageWait()) / 2, waits[0], 1e-9);
+        assertEquals((replications[2].getAverageWait() + replications[3].getAverageWait()) / 2, waits[1], 1e-9);
+        double[] served = pairs.getValues("Customers");
+        assertEquals((replications[0].getCustomersServed() + replications[1].getCustomersServed()) / 2.0,
+                served[0], 1e-9);
+    }
+
+    private static ReplicationSummary summaryOf(int from, int to) {
+        ReplicationSummary summary = new ReplicationSummary();
+        for (int r = from; r < to; r++) {
+            summary.add(replications[r]);
+        }
+        return summary;
+    }
+
+    private static void assertIntervalEquals(ConfidenceInterval expected, ConfidenceInterval actual, String metric) {
+        assertClose(expected.getMean(), actual.getMean(), metric);
+        assertClose(expected.getHalfWidth(), actual.getHalfWidth(), metric);
+    }
+
+    /** Compares up to rounding; NaN and infinities (e.g. a metric with no spread) must match exactly */
+    static void assertClose(double expected, double actual, String metric) {
+        if (Double.isFinite(expected)) {
+            assertEquals(expected, actual, 1e-9 * Math.max(1.0, Math.abs(expected)), metric);
+        } else {
+            assertEquals(expected, actual, metric);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.framework.Trace;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the variance-based sensitivity analysis.
+ */
+class SensitivityAnalysisTest {
+
+    @BeforeEach
+    void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void sensitivityAnalysis_givesNoWeightToAnUnusedParameter() {
+        DesignSpace space = new DesignSpace()
+                .addRange(Parameter.ARRIVAL_RATE, 60, 180)
+                .addRange(Parameter.COFFEE_TIME, 5, 15);   // the coffee station is closed
+        SensitivityAnalysis analysis = new SensitivityAnalysis(space, 16, 1, 3600);
+        analysis.setParallelism(2);
+
+        List<Scenario> scenarios = analysis.scenarios();
+        assertEquals(analysis.getEvaluationCount(), scenarios.size());
+        // A_B^1 takes the arrival rate from B and the coffee time from A
+        assertEquals(scenarios.get(1).get(Parameter.ARRIVAL_RATE), scenarios.get(2).get(Parameter.ARRIVAL_RATE));
+        assertEquals(scenarios.get(0).get(Parameter.COFFEE_TIME), scenarios.get(2).get(Parameter.COFFEE_TIME));
+
+        SensitivityAnalysis.Result result = analysis.run();
+        assertEquals(0.0, result.getTotal(Parameter.COFFEE_TIME).getMean(), 1e-12);
+        assertTrue(result.getTotal(Parameter.ARRIVAL_RATE).getMean() > 0.5);
+        assertEquals(List.of(Parameter.ARRIVAL_RATE, Parameter.COFFEE_TIME), result.getRanking());
+    }
+}
@@ -0,0 +1,127 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.framework.RandomStreams;
+import simu.framework.Trace;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for staffings, their cost and the search for the cheapest one.
+ */
+class StaffingOptimizerTest {
+
+    @BeforeEach
+    void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void staffing_scalesServiceTimesAndClosesUnstaffedStations() {
+        Staffing staffing = new Staffing(new int[]{3, 1, 1, 2, 0}, true, 20);
+        Scenario scenario = staffing.toScenario(Scenario.defaults());
+
+        assertEquals(15.0, scenario.get(Parameter.GRILL_TIME), 1e-12);
+        assertEquals(10.0, scenario.get(Parameter.CASHIER_TIME), 1e-12);
+        assertFalse(scenario.isEnabled(Parameter.COFFEE_ENABLED));
+        assertTrue(scenario.isEnabled(Parameter.SELF_SERVICE_ENABLED));
+        assertEquals(20.0, scenario.get(Parameter.MAX_QUEUE_CAPACITY), 0.0);
+        assertEquals(9, staffing.getTotalStaff());   // two staff at each of the two tills
+        assertEquals(staffing, staffing.withStaff(Staffing.Station.GRILL, 2).withStaff(Staffing.Station.GRILL, 3));
+    }
+
+    @Test
+    void costModel_chargesRejectionsWhenNoCustomerIsServed() {
+        // Meals take longer than the run: one customer per station gets in and nobody leaves
+        Scenario blocked = Scenario.defaults()
+                .with(Parameter.GRILL_TIME, 1e6)
+                .with(Parameter.VEGAN_TIME, 1e6)
+                .with(Parameter.NORMAL_TIME, 1e6)
+                .with(Parameter.MAX_QUEUE_CAPACITY, 1);
+        ReplicationSummary summary = new ReplicationSummary();
+        summary.add(ReplicationRunner.runReplication(blocked.engineFactory(), 0,
+                new RandomStreams(5).forReplication(0), 3600));
+        assertEquals(0.0, summary.getStatistics("Customers").getMean(), 0.0);
+        assertTrue(summary.getStatistics("Rejected").getMean() > 0);
+        double rejectedPerHour = summary.getStatistics("RejectedPerHour").getMean();
+        assertTrue(rejectedPerHour > 0);
+
+        CostModel model = new CostModel(15, 5, 0, 2);
+        assertEquals(2 * rejectedPerHour, model.getServiceCost(summary), 1e-12);
+    }
+
+    @Test
+    void optimize_reusesCachedStaffingsInLaterSearches() {
+        StaffingOptimizer optimizer = smallSearch();
+        List<StaffingOptimizer.Evaluation> first = optimizer.optimize(60_000, 10);
+        assertEquals(2, optimizer.getEvaluationCount());   // the grill with 1 or 2 staff
+        assertEquals(2, first.size());
+
+        List<StaffingOptimizer.Evaluation> second = optimizer.optimize(60_000, 10);
+        assertEquals(2, optimizer.getEvaluationCount());
+        assertSame(first.get(0), second.get(0));
+        assertSame(first.get(1), second.get(1));
+        assertTrue(first.get(0).getCost() <= first.get(1).getCost());
+    }
+
+    @Test
+    void optimize_ignoresDuplicateQueueCapacities() {
+        StaffingOptimizer optimizer = smallSearch();
+        int capacity = (int) Scenario.defaults().get(Parameter.MAX_QUEUE_CAPACITY);
+        optimizer.setQueueCapacities(capacity, capacity, capacity);
+
+        // With the duplicates counted, the space never fills and the search runs until the budget is spent
+        List<StaffingOptimizer.Evaluation> best = assertTimeout(Duration.ofSeconds(30),
+                () -> optimizer.optimize(60_000, 10));
+        assertEquals(2, optimizer.getEvaluationCount());
+        assertEquals(2, best.size());
+    }
+
+    @Test
+    void optimize_stopsWhenCancelledAndReturnsOnlySimulatedStaffings() {
+        StaffingOptimizer optimizer = new StaffingOptimizer(Scenario.defaults(), new CostModel(15, 5, 30, 2), 2, 3600);
+        optimizer.setParallelism(2);
+        optimizer.setBatchSize(2);
+        optimizer.setListener((best, evaluations) -> optimizer.cancel());
+
+        List<StaffingOptimizer.Evaluation> best = optimizer.optimize(60_000, 5);
+
+        // Cancelled on the first improvement: the starting staffing only
+        assertEquals(1, optimizer.getEvaluationCount());
+        assertEquals(1, best.size());
+        assertEquals(2, best.get(0).getSummary().getReplicationCount());
+    }
+
+    @Test
+    void optimize_returnsOnlyCompleteEvaluationsWhenTheBudgetRunsOut() {
+        StaffingOptimizer optimizer = new StaffingOptimizer(Scenario.defaults(), new CostModel(15, 5, 30, 2), 2, 3600);
+        optimizer.setParallelism(2);
+        optimizer.setBatchSize(2);
+
+        List<StaffingOptimizer.Evaluation> best = optimizer.optimize(200, 1000);
+
+        assertTrue(optimizer.getEvaluationCount() < 486, "searched all 486 staffings within the budget");
+        assertEquals(optimizer.getEvaluationCount(), best.size());
+        for (StaffingOptimizer.Evaluation evaluation : best) {
+            assertEquals(2, evaluation.getSummary().getReplicationCount(), evaluation.toString());
+            assertFalse(Double.isNaN(evaluation.getCost()), evaluation.toString());
+        }
+    }
+
+    /** A search over two staffings: only the grill staff varies */
+    private static StaffingOptimizer smallSearch() {
+        StaffingOptimizer optimizer = new StaffingOptimizer(Scenario.defaults(), new CostModel(15, 5, 30, 2), 1, 1800);
+        for (Staffing.Station station : Staffing.Station.values()) {
+            optimizer.setStaffRange(station, 1, 1);
+        }
+        optimizer.setStaffRange(Staffing.Station.GRILL, 1, 2);
+        optimizer.setSelfServiceVaried(false);
+        optimizer.setParallelism(2);
+        optimizer.setBatchSize(2);
+        return optimizer;
+    }
+}
@@ -0,0 +1,89 @@
+package simu.experiment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.framework.Trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for running parameter sweeps on the fork-join pool.
+ */
+class SweepRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void run_writesRowsInScenarioOrderForAnyNumberOfThreads() throws IOException {
+        List<Scenario> scenarios = new ParameterGrid()
+                .addRange(Parameter.ARRIVAL_RATE, 60, 180, 4)
+                .addToggle(Parameter.SELF_SERVICE_ENABLED)
+                .fullFactorial();
+
+        SweepRunner serial = new SweepRunner(scenarios, 2, 3600);
+        serial.setParallelism(1);
+        assertEquals(8, serial.run(directory.resolve("serial.csv").toString()));
+        SweepRunner parallel = new SweepRunner(scenarios, 2, 3600);
+        parallel.setParallelism(4);
+        List<Integer> completionOrder = new ArrayList<>();
+        parallel.setListener((index, scenario, summary, completed, total) -> completionOrder.add(index));
+        assertEquals(8, parallel.run(directory.resolve("parallel.csv").toString()));
+
+        List<String> rows = Files.readAllLines(directory.resolve("parallel.csv"));
+        assertEquals(Files.readAllLines(directory.resolve("serial.csv")), rows);
+        assertEquals(9, rows.size());
+        for (int s = 0; s < 8; s++) {
+            assertTrue(rows.get(s + 1).startsWith(s + ","), rows.get(s + 1));
+        }
+        assertEquals(8, completionOrder.size());
+    }
+
+    @Test
+    void cancel_skipsJobsThatHaveNotStarted() throws IOException {
+        List<Scenario> scenarios = new ParameterGrid()
+                .addRange(Parameter.ARRIVAL_RATE, 60, 240, 10)
+                .fullFactorial();
+        SweepRunner runner = new SweepRunner(scenarios, 2, 3600);
+        runner.setParallelism(1);
+        runner.setListener((index, scenario, summary, completed, total) -> runner.cancel());
+
+        int completed = runner.run(directory.resolve("cancelled.csv").toString());
+
+        assertTrue(runner.isCancelled());
+        assertEquals(1, completed);
+        // Header and the one completed scenario
+        assertEquals(2, Files.readAllLines(directory.resolve("cancelled.csv")).size());
+    }
+
+    @Test
+    void replicationsUseTheSameStreamsInEveryScenario() throws IOException {
+        // The coffee station is closed, so its service time cannot change anything
+        Scenario base = Scenario.defaults().with(Parameter.ARRIVAL_RATE, 150);
+        List<Scenario> scenarios = List.of(base.with(Parameter.COFFEE_TIME, 5), base.with(Parameter.COFFEE_TIME, 50));
+        SweepRunner runner = new SweepRunner(scenarios, 3, 3600);
+        List<double[]> waits = new ArrayList<>(List.of(new double[0], new double[0]));
+        runner.setListener((index, scenario, summary, completed, total) ->
+                waits.set(index, summary.getValues("AvgWait")));
+        runner.run(null);
+
+        assertEquals(3, waits.get(0).length);
+        assertArrayEquals(waits.get(0), waits.get(1));
+        // ...while the replications themselves differ
+        assertNotEquals(waits.get(0)[0], waits.get(0)[1]);
+        assertFalse(Arrays.stream(waits.get(0)).anyMatch(Double::isNaN));
+    }
+}
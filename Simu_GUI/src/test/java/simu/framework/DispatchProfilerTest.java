@@ -0,0 +1,70 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+import simu.model.EventType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-event-type dispatch profiler.
+ */
+class DispatchProfilerTest {
+
+    /** An event type that is not an enum */
+    private static final class NamedEventType implements IEventType {
+        private final String name;
+
+        NamedEventType(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NamedEventType && ((NamedEventType) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Test
+    void recordEvent_acceptsEventTypesThatAreNotEnums() {
+        DispatchProfiler profiler = new DispatchProfiler();
+        IEventType custom = new NamedEventType("CUSTOM");
+        profiler.recordEvent(custom, 100);
+        profiler.recordEvent(EventType.ARR1, 50);
+        profiler.recordEvent(new NamedEventType("CUSTOM"), 300);   // equal, not the same instance
+        profiler.recordEvent(EventType.ARR1, 20);
+
+        List<DispatchProfiler.Row> rows = profiler.getRows();
+        assertEquals(2, rows.size());
+        assertEquals("CUSTOM", rows.get(0).name);
+        assertEquals(2, rows.get(0).count);
+        assertEquals(400, rows.get(0).totalNanos);
+        assertEquals(300, rows.get(0).maxNanos);
+        assertEquals(EventType.ARR1.toString(), rows.get(1).name);
+        assertEquals(35.0, rows.get(1).getMeanNanos(), 0.0);
+    }
+
+    @Test
+    void recordEvent_growsPastTheInitialNumberOfTypes() {
+        DispatchProfiler profiler = new DispatchProfiler();
+        for (int i = 0; i < 40; i++) {
+            profiler.recordEvent(new NamedEventType("T" + i), i + 1);
+        }
+
+        List<DispatchProfiler.Row> rows = profiler.getRows();
+        assertEquals(40, rows.size());
+        assertEquals("T39", rows.get(0).name);
+        assertEquals("T0", rows.get(39).name);
+    }
+}
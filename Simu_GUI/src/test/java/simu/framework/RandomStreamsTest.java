@@ -0,0 +1,87 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+import simu.experiment.Parameter;
+import simu.experiment.ReplicationRunner;
+import simu.experiment.Scenario;
+import simu.model.ServicePointFactory;
+import simu.model.SimulationStatistics;
+import simu.model.StationStatistics;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the named random streams behind common random numbers.
+ */
+class RandomStreamsTest {
+
+    @Test
+    void seed_staysWithinTheRangeOfTheGenerator() {
+        for (long base : new long[] {0, 1, -1, RandomStreams.DEFAULT_SEED, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            RandomStreams streams = new RandomStreams(base);
+            for (int i = 0; i < 1000; i++) {
+                long seed = streams.forReplication(i).seed("stream." + i);
+                assertTrue(seed >= 1 && seed <= 2147483646L, "seed out of range: " + seed);
+            }
+        }
+    }
+
+    @Test
+    void seed_differsBetweenStreamNames() {
+        RandomStreams streams = new RandomStreams(RandomStreams.DEFAULT_SEED);
+        Set<Long> seeds = new HashSet<>();
+        for (int station = 0; station < 7; station++) {
+            seeds.add(streams.seed(ServicePointFactory.serviceStream(station)));
+        }
+        seeds.add(streams.seed("arrivals"));
+        seeds.add(streams.seed("customer.meal"));
+        seeds.add(streams.seed("customer.payment"));
+        seeds.add(streams.seed("customer.coffee"));
+        assertEquals(11, seeds.size());
+    }
+
+    @Test
+    void forReplication_givesTheSameStreamsForTheSameIndex() {
+        RandomStreams first = new RandomStreams(99).forReplication(3);
+        RandomStreams second = new RandomStreams(99).forReplication(3);
+
+        assertEquals(first.getSeed(), second.getSeed());
+        assertEquals(first.seed("arrivals"), second.seed("arrivals"));
+        assertNotEquals(first.getSeed(), new RandomStreams(99).forReplication(4).getSeed());
+        assertTrue(new RandomStreams(99).antithetic().forReplication(3).isAntithetic());
+    }
+
+    @Test
+    void scenariosDifferingOnlyAfterTheMealStationsSeeTheSameCustomers() {
+        // Self-service only changes where customers pay, after they leave the meal stations
+        Scenario closed = Scenario.defaults()
+                .with(Parameter.VARIABILITY_ENABLED, 1)
+                .with(Parameter.ARRIVAL_RATE, 180);
+        Scenario open = closed.with(Parameter.SELF_SERVICE_ENABLED, 1);
+        RandomStreams streams = new RandomStreams(31).forReplication(0);
+
+        SimulationStatistics withoutSelfService = ReplicationRunner.runReplication(
+                closed.engineFactory(), 0, streams, 3600);
+        SimulationStatistics withSelfService = ReplicationRunner.runReplication(
+                open.engineFactory(), 0, streams, 3600);
+
+        assertEquals(withoutSelfService.getObservedInterArrivalTime(),
+                withSelfService.getObservedInterArrivalTime(), 0.0);
+        int[] mealStations = {ServicePointFactory.GRILL_STATION, ServicePointFactory.VEGAN_STATION,
+                ServicePointFactory.NORMAL_STATION};
+        for (int station : mealStations) {
+            StationStatistics expected = withoutSelfService.getStationStatistics()[station];
+            StationStatistics actual = withSelfService.getStationStatistics()[station];
+            assertTrue(expected.getCustomersServed() > 0, expected.getName());
+            assertEquals(expected.getCustomersServed(), actual.getCustomersServed(), expected.getName());
+            assertEquals(expected.getServiceTime().getMean(), actual.getServiceTime().getMean(), 0.0,
+                    expected.getName());
+            assertEquals(expected.getWaitTime().getMean(), actual.getWaitTime().getMean(), 0.0,
+                    expected.getName());
+        }
+        assertNotEquals(withoutSelfService.getAverageWait(), withSelfService.getAverageWait());
+    }
+}
@@ -0,0 +1,85 @@
+package simu.model;
+
+import controller.HeadlessController;
+import org.junit.jupiter.api.Test;
+import simu.framework.Clock;
+import simu.framework.Trace;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation regression gate for steady-state event processing.
+ * Runs a headless MyEngine for a fixed number of events on the test thread,
+ * measures the bytes allocated per dispatched event and fails when it exceeds
+ * the budget checked in as {@code allocation-budget.properties}.
+ * The number of events can be raised with {@code -Dsimu.alloc.events=5000000}.
+ */
+class AllocationBudgetTest {
+
+    /** Arrival rate that keeps every station below full utilization */
+    private static final double ARRIVAL_RATE = 120.0;
+    /** Events per simulated second at the arrival rate above (about 3.5 events per customer) */
+    private static final double EVENTS_PER_SECOND = 3.5 * ARRIVAL_RATE / 3600.0;
+
+    @Test
+    void steadyStateAllocationStaysWithinBudget() throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long events = Long.getLong("simu.alloc.events", 1_000_000L);
+        double budget = loadBudget();
+
+        // Warm-up run so that JIT compilation and class loading are not measured
+        runEngine(events / 5);
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        MyEngine engine = runEngine(events);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        double bytesPerEvent = (double) allocated / engine.getDispatchedEvents();
+        assertTrue(engine.getDispatchedEvents() >= events * 0.9,
+                "Run was too short to measure steady state: " + engine.getDispatchedEvents() + " events");
+        assertTrue(bytesPerEvent <= budget,
+                String.format("Allocation regression: %.1f bytes/event over %d events exceeds budget of %.1f",
+                        bytesPerEvent, engine.getDispatchedEvents(), budget));
+    }
+
+    /**
+     * Runs a headless simulation long enough for roughly the given number of events.
+     */
+    private static MyEngine runEngine(long events) {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        Clock.getInstance().reset();
+        Customer.reset();
+        MyEngine engine = new MyEngine(new HeadlessController(),
+                45.0, 40.0, 30.0,
+                20.0, 12.0, 10.0,
+                true, true, true,
+                ARRIVAL_RATE, Integer.MAX_VALUE);
+        engine.setResultsFile(null);
+        engine.setSimulationTime(events / EVENTS_PER_SECOND);
+        engine.run();
+        return engine;
+    }
+
+    /**
+     * Reads the checked-in bytes-per-event budget.
+     */
+    private static double loadBudget() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budget.properties")) {
+            assertNotNull(in, "allocation-budget.properties is missing from the test resources");
+            properties.load(in);
+        }
+        return Double.parseDouble(properties.getProperty("bytesPerEvent"));
+    }
+}
@@ -0,0 +1,118 @@
+package simu.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.framework.Clock;
+import simu.framework.Trace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ring buffer behind service point queues.
+ */
+class CustomerQueueTest {
+
+    @BeforeEach
+    void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        Clock.newInstance();
+        Customer.reset();
+    }
+
+    @Test
+    void poll_returnsCustomersInArrivalOrder() {
+        CustomerQueue queue = new CustomerQueue();
+        assertNull(queue.peek());
+        assertNull(queue.poll());
+        assertTrue(Double.isNaN(queue.peekEnqueueTime()));
+
+        Customer[] customers = customers(5);
+        for (int i = 0; i < customers.length; i++) {
+            queue.add(customers[i], i * 10.0);
+        }
+        for (int i = 0; i < customers.length; i++) {
+            assertSame(customers[i], queue.peek());
+            assertEquals(i * 10.0, queue.peekEnqueueTime(), 0.0);
+            assertSame(customers[i], queue.poll());
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void add_wrapsAroundTheEndOfTheBufferAtCapacity() {
+        CustomerQueue queue = new CustomerQueue();
+        Customer[] customers = customers(16);
+        // Move the head to the middle, then fill the buffer so the tail wraps to the front
+        for (int i = 0; i < 8; i++) {
+            queue.add(customers[i], i);
+        }
+        for (int i = 0; i < 8; i++) {
+            assertSame(customers[i], queue.poll());
+        }
+        for (int i = 0; i < 16; i++) {
+            queue.add(customers[i], 100 + i);
+        }
+
+        assertEquals(16, queue.size());
+        for (int i = 0; i < 16; i++) {
+            assertEquals(100.0 + i, queue.peekEnqueueTime(), 0.0);
+            assertSame(customers[i], queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void add_growsWhileWrappedWithoutReorderingTheQueue() {
+        CustomerQueue queue = new CustomerQueue();
+        Customer[] customers = customers(60);
+        for (int i = 0; i < 11; i++) {
+            queue.add(customers[i], i);
+        }
+        for (int i = 0; i < 11; i++) {
+            queue.poll();
+        }
+        // Head at 11 of 16: the buffer wraps after 5 customers and grows twice
+        for (int i = 11; i < 60; i++) {
+            queue.add(customers[i], i);
+        }
+
+        assertEquals(49, queue.size());
+        for (int i = 11; i < 60; i++) {
+            assertEquals(i, queue.peekEnqueueTime(), 0.0);
+            assertSame(customers[i], queue.poll(), "customer " + i);
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void discardEnqueueTimes_onlyAffectsCustomersAlreadyQueued() {
+        CustomerQueue queue = new CustomerQueue();
+        Customer[] customers = customers(20);
+        for (int i = 0; i < 14; i++) {
+            queue.add(customers[i], i);
+        }
+        for (int i = 0; i < 10; i++) {
+            queue.poll();
+        }
+        for (int i = 14; i < 18; i++) {
+            queue.add(customers[i], i);   // wraps to the front of the buffer
+        }
+        queue.discardEnqueueTimes();
+        queue.add(customers[18], 18);
+
+        for (int i = 10; i < 18; i++) {
+            assertTrue(Double.isNaN(queue.peekEnqueueTime()), "customer " + i);
+            queue.poll();
+        }
+        assertEquals(18.0, queue.peekEnqueueTime(), 0.0);
+    }
+
+    private static Customer[] customers(int n) {
+        CustomerStore store = new CustomerStore();
+        Customer[] customers = new Customer[n];
+        for (int i = 0; i < n; i++) {
+            customers[i] = store.acquire();
+        }
+        return customers;
+    }
+}
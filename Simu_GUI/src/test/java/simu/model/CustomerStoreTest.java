@@ -0,0 +1,42 @@
+package simu.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.framework.Clock;
+import simu.framework.Trace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the recycling of customer handles in the CustomerStore.
+ */
+class CustomerStoreTest {
+
+    @BeforeEach
+    void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        Clock.newInstance();
+        Customer.reset();
+    }
+
+    @Test
+    void release_recyclesTheViewAndRejectsASecondRelease() {
+        CustomerStore store = new CustomerStore(2);
+        Customer first = store.acquire();
+        Customer second = store.acquire();
+        assertEquals(2, store.size());
+
+        first.release();
+        assertEquals(1, store.size());
+        assertThrows(IllegalStateException.class, first::release);
+        assertEquals(1, store.size());
+
+        // The released view comes back for the next arrival, and can be released once more
+        Customer third = store.acquire();
+        assertSame(first, third);
+        assertEquals(2, store.capacity());
+        third.release();
+        second.release();
+        assertEquals(0, store.size());
+    }
+}
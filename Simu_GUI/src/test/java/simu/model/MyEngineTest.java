@@ -4,8 +4,10 @@ import controller.IControllerMtoV;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import simu.framework.Trace;
+import simu.framework.WindowedTimeSeries;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -53,6 +55,12 @@ class MyEngineTest {
         @Override
         public void updateStatistics(double throughput, double avgWaitTime,
                                      int peakQueue, double simTime) {}
+
+        @Override
+        public void updateUtilization(double[] utilizationPercentages, double simTime) {}
+
+        @Override
+        public void updateTimeSeries(WindowedTimeSeries timeSeries, int window) {}
     }
 
     @BeforeEach
@@ -132,6 +140,61 @@ class MyEngineTest {
         assertEquals(1, selfService.getQueueLength(), "Self-service queue should contain one customer");
     }
 
+    // ----------------------------------------------------------------------
+    // 2b. routeToPayment: SELF_SERVICE falls back to a cashier, queued once, when self-service is closed
+    // ----------------------------------------------------------------------
+    @Test
+    void routeToPayment_selfServicePayerQueuesOnceAtCashierWhenSelfServiceDisabled() throws Exception {
+        MyEngine closed = new MyEngine(new DummyController(),
+                10, 10, 10, 10, 10, 10,
+                false, false, false,   // variability, self-service and coffee off
+                0, 10);
+
+        Field f1 = MyEngine.class.getDeclaredField("cashierStation");
+        f1.setAccessible(true);
+        ServicePoint cashier1 = (ServicePoint) f1.get(closed);
+        Field f2 = MyEngine.class.getDeclaredField("cashierStation2");
+        f2.setAccessible(true);
+        ServicePoint cashier2 = (ServicePoint) f2.get(closed);
+
+        Customer c = new Customer();
+        c.setPaymentType(PaymentType.SELF_SERVICE);
+        int station = closed.routeToPayment(c);
+
+        assertTrue(station == 1 || station == 2, "Should be redirected to a cashier, was " + station);
+        assertEquals(1, cashier1.getQueueLength() + cashier2.getQueueLength(),
+                "The customer must be queued exactly once");
+    }
+
+    // ----------------------------------------------------------------------
+    // 2c. detectWarmUp: keeps all data when MSER finds no truncation point in time
+    // ----------------------------------------------------------------------
+    @Test
+    void detectWarmUp_fallsBackToNoTruncationWhenTheSeriesNeverSettles() throws Exception {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        engine.setWarmUpDetection(true);
+        Method detect = MyEngine.class.getDeclaredMethod("detectWarmUp", double.class);
+        detect.setAccessible(true);
+
+        // A series still rising at every check never yields a truncation point
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(Double.isNaN(engine.getWarmUpTime()), "Gave up early at window " + i);
+            detect.invoke(engine, (double) i);
+        }
+
+        assertEquals(0.0, engine.getWarmUpTime(), 0.0);
+    }
+
+    // ----------------------------------------------------------------------
+    // 2d. profileFile: the profile is named after the results file
+    // ----------------------------------------------------------------------
+    @Test
+    void profileFile_isDerivedFromTheResultsFile() {
+        assertEquals("SimulationResultsProfile.csv", MyEngine.profileFile("SimulationResults.csv"));
+        assertEquals("out/run3Profile.csv", MyEngine.profileFile("out/run3.csv"));
+        assertEquals("resultsProfile.csv", MyEngine.profileFile("results"));
+    }
+
     // ----------------------------------------------------------------------
     // 3. shouldSendToPayment: should return false when all payment-related queues are full
     // ----------------------------------------------------------------------
@@ -0,0 +1,55 @@
+package simu.model;
+
+import eduni.distributions.FixedTimeGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.framework.Clock;
+import simu.framework.EventList;
+import simu.framework.Trace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the statistics a service point keeps across a warm-up reset.
+ */
+class ServicePointTest {
+
+    @BeforeEach
+    void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        Clock.newInstance();
+        Customer.reset();
+    }
+
+    @Test
+    void averages_countOnlyWaitsAndServicesRecordedAfterReset() {
+        Clock clock = Clock.getInstance();
+        ServicePoint point = new ServicePoint(new FixedTimeGenerator(10.0), new EventList(),
+                EventType.DEP1, "Test");
+
+        point.addQueue(new Customer());
+        point.addQueue(new Customer());
+        point.beginService();
+
+        // The first customer is in service and the second waiting when the statistics are reset
+        clock.setTime(5.0);
+        point.resetStatistics();
+
+        clock.setTime(10.0);
+        point.removeQueue();
+        point.beginService();
+        clock.setTime(12.0);
+        point.addQueue(new Customer());
+        clock.setTime(20.0);
+        point.removeQueue();
+        point.beginService();
+        clock.setTime(30.0);
+        point.removeQueue();
+
+        assertEquals(3, point.getTotalCustomersServed());
+        // Only the third customer's wait (20 - 12) was recorded
+        assertEquals(8.0, point.getAverageWaitTime(), 1e-12);
+        // Only the services started at 10 and 20 were sampled after the reset
+        assertEquals(10.0, point.getAverageServiceTime(), 1e-12);
+    }
+}
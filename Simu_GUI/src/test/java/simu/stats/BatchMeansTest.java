@@ -0,0 +1,72 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batch-means estimator.
+ */
+class BatchMeansTest {
+
+    @Test
+    void intervalCoversTheMeanOfACorrelatedProcess() {
+        Random random = new Random(5);
+        BatchMeans batches = new BatchMeans(10);
+        double x = 0;
+        for (int i = 0; i < 200_000; i++) {
+            x = 0.9 * x + random.nextGaussian();   // AR(1) around 0
+            batches.add(10.0 + x);
+        }
+        ConfidenceInterval interval = batches.getConfidenceInterval(0.95);
+
+        assertTrue(batches.getBatchCount() >= BatchMeans.DEFAULT_MAX_BATCHES / 2);
+        assertTrue(batches.getBatchCount() < BatchMeans.DEFAULT_MAX_BATCHES);
+        assertTrue(interval.contains(10.0), interval.toString());
+        assertTrue(interval.getRelativeHalfWidth() < 0.01, interval.toString());
+    }
+
+    @Test
+    void collapse_mergesNeighbouringBatchesAndDoublesTheBatchSize() {
+        BatchMeans batches = new BatchMeans(1, 4);
+        for (int i = 1; i <= 4; i++) {
+            batches.add(i);
+        }
+        // 1, 2, 3, 4 collapse into the batches 1.5 and 3.5
+        assertEquals(2, batches.getBatchCount());
+        assertEquals(2, batches.getBatchSize());
+        assertEquals(2.5, batches.getMean(), 1e-12);
+
+        for (int i = 5; i <= 8; i++) {
+            batches.add(i);
+        }
+        // 1.5, 3.5, 5.5, 7.5 collapse into 2.5 and 6.5
+        assertEquals(2, batches.getBatchCount());
+        assertEquals(4, batches.getBatchSize());
+        ConfidenceInterval interval = batches.getConfidenceInterval(0.95);
+        double sd = Math.sqrt(8.0);   // of 2.5 and 6.5
+        assertEquals(4.5, interval.getMean(), 1e-12);
+        assertEquals(StudentT.quantile(0.975, 1) * sd / Math.sqrt(2), interval.getHalfWidth(), 1e-9);
+
+        batches.add(9);   // an incomplete batch counts in the mean only
+        assertEquals(5.0, batches.getMean(), 1e-12);
+        assertEquals(2, batches.getBatchCount());
+    }
+
+    @Test
+    void intervalIsUnboundedWithFewerThanTwoBatches() {
+        BatchMeans batches = new BatchMeans(10);
+        for (int i = 0; i < 15; i++) {
+            batches.add(i);
+        }
+        assertEquals(1, batches.getBatchCount());
+        assertEquals(Double.POSITIVE_INFINITY, batches.getConfidenceInterval(0.95).getHalfWidth());
+
+        batches.reset();
+        assertEquals(0, batches.getCount());
+        assertTrue(Double.isNaN(batches.getMean()));
+        assertEquals(10, batches.getBatchSize());
+    }
+}
@@ -0,0 +1,63 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the parallel bootstrap.
+ */
+class BootstrapTest {
+
+    @Test
+    void bcaIntervalFollowsTheSkewOfTheData() {
+        Random random = new Random(13);
+        double[] data = new double[200];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = -Math.log(1 - random.nextDouble()) * 10.0;   // exponential, mean 10
+        }
+
+        Bootstrap bootstrap = new Bootstrap(Bootstrap.MEAN, 20_000);
+        ConfidenceInterval percentile = bootstrap.interval(data, 0.95, Bootstrap.Method.PERCENTILE);
+        ConfidenceInterval bca = bootstrap.interval(data, 0.95, Bootstrap.Method.BCA);
+        assertTrue(percentile.contains(10.0), percentile.toString());
+        assertTrue(bca.contains(10.0), bca.toString());
+        // Right-skewed data: the interval reaches further above the estimate than below it
+        assertTrue(bca.getUpper() - bca.getMean() > bca.getMean() - bca.getLower(), bca.toString());
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            bootstrap.setPool(single);
+            assertEquals(bca.getLower(), bootstrap.interval(data, 0.95, Bootstrap.Method.BCA).getLower(), 0.0);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void bcaIntervalOfConstantDataCollapsesToThePoint() {
+        double[] data = new double[50];
+        Arrays.fill(data, 7.5);
+
+        Bootstrap bootstrap = new Bootstrap(Bootstrap.MEAN, 2_000);
+        for (Bootstrap.Method method : Bootstrap.Method.values()) {
+            ConfidenceInterval interval = bootstrap.interval(data, 0.95, method);
+            assertEquals(7.5, interval.getMean(), 0.0, method.toString());
+            assertEquals(7.5, interval.getLower(), 0.0, method.toString());
+            assertEquals(7.5, interval.getUpper(), 0.0, method.toString());
+        }
+    }
+
+    @Test
+    void interval_rejectsTooLittleDataAndInvalidConfidence() {
+        Bootstrap bootstrap = new Bootstrap(Bootstrap.MEAN, 100);
+        assertThrows(IllegalArgumentException.class,
+                () -> bootstrap.interval(new double[]{1.0}, 0.95, Bootstrap.Method.BCA));
+        assertThrows(IllegalArgumentException.class,
+                () -> bootstrap.interval(new double[]{1.0, 2.0}, 1.0, Bootstrap.Method.PERCENTILE));
+    }
+}
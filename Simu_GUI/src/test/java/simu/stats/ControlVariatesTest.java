@@ -0,0 +1,67 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for control-variate estimates.
+ */
+class ControlVariatesTest {
+
+    @Test
+    void removeTheVarianceExplainedByTheInputs() {
+        Random random = new Random(17);
+        ControlVariates all = new ControlVariates(2);
+        ControlVariates left = new ControlVariates(2);
+        ControlVariates right = new ControlVariates(2);
+        for (int i = 0; i < 200; i++) {
+            double x = random.nextGaussian();
+            double y = 50.0 + 4.0 * x + random.nextGaussian();   // mean 50, mostly explained by x
+            all.add(y, x, 0.0);                                  // second control has no variance
+            (i < 80 ? left : right).add(y, x, 0.0);
+        }
+
+        assertEquals(4.0, all.getCoefficients()[0], 0.3);
+        assertEquals(0.0, all.getCoefficients()[1], 0.0);
+        assertTrue(all.getInterval(0.95).contains(50.0), all.getInterval(0.95).toString());
+        assertTrue(all.getVarianceReduction() > 0.8, "reduction " + all.getVarianceReduction());
+        assertTrue(all.getInterval(0.95).getHalfWidth() < all.getUncontrolledInterval(0.95).getHalfWidth());
+
+        left.merge(right);
+        assertEquals(all.getInterval(0.95).getMean(), left.getInterval(0.95).getMean(), 1e-9);
+    }
+
+    @Test
+    void leavesOutAControlThatRepeatsAnEarlierOne() {
+        Random random = new Random(29);
+        ControlVariates estimator = new ControlVariates(2);
+        for (int i = 0; i < 50; i++) {
+            double x = random.nextGaussian();
+            estimator.add(10.0 + 2.0 * x + 0.1 * random.nextGaussian(), x, 3.0 * x);
+        }
+
+        double[] coefficients = estimator.getCoefficients();
+        assertEquals(2.0, coefficients[0], 0.1);
+        assertEquals(0.0, coefficients[1], 0.0);
+        assertTrue(Double.isFinite(estimator.getInterval(0.95).getHalfWidth()));
+    }
+
+    @Test
+    void fallsBackToThePlainMeanWithoutEnoughReplications() {
+        ControlVariates estimator = new ControlVariates(1);
+        assertTrue(Double.isNaN(estimator.getInterval(0.95).getMean()));
+        estimator.add(5.0, 0.5);
+        assertEquals(Double.POSITIVE_INFINITY, estimator.getInterval(0.95).getHalfWidth());
+
+        // Two replications cannot pay for a control
+        estimator.add(7.0, -0.5);
+        assertEquals(0.0, estimator.getCoefficients()[0], 0.0);
+        assertEquals(6.0, estimator.getInterval(0.95).getMean(), 1e-12);
+        assertEquals(estimator.getUncontrolledInterval(0.95).getHalfWidth(),
+                estimator.getInterval(0.95).getHalfWidth(), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> estimator.add(1.0, 0.0, 0.0));
+    }
+}
@@ -0,0 +1,49 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for maximin Latin hypercube designs.
+ */
+class LatinHypercubeTest {
+
+    @Test
+    void stratifiesEveryDimensionAndSpreadsThePoints() {
+        LatinHypercube hypercube = new LatinHypercube(11);
+        double[][] maximin = hypercube.design(64);
+        hypercube.setIterations(0);
+        double[][] random = hypercube.design(64);
+
+        for (int d = 0; d < 11; d++) {
+            boolean[] cells = new boolean[64];
+            for (int i = 0; i < 64; i++) {
+                cells[(int) (maximin[i][d] * 64)] = true;
+            }
+            for (int cell = 0; cell < 64; cell++) {
+                assertTrue(cells[cell], "Hypercube dimension " + d + " misses cell " + cell);
+            }
+        }
+        assertTrue(LatinHypercube.minimumDistance(maximin) > LatinHypercube.minimumDistance(random));
+    }
+
+    @Test
+    void design_isReproducibleForTheSameSeed() {
+        LatinHypercube first = new LatinHypercube(3);
+        first.setSeed(8);
+        LatinHypercube second = new LatinHypercube(3);
+        second.setSeed(8);
+
+        assertArrayEquals(first.design(20), second.design(20));
+        double[][] single = first.design(1);
+        assertArrayEquals(new double[]{0.5, 0.5, 0.5}, single[0], 0.0);
+    }
+
+    @Test
+    void rejectsEmptyDesigns() {
+        assertThrows(IllegalArgumentException.class, () -> new LatinHypercube(0));
+        assertThrows(IllegalArgumentException.class, () -> new LatinHypercube(2).design(0));
+        assertThrows(IllegalArgumentException.class, () -> new LatinHypercube(2).setIterations(-1));
+    }
+}
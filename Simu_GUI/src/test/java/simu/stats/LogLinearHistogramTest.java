@@ -0,0 +1,110 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the log-linear histogram.
+ */
+class LogLinearHistogramTest {
+
+    @Test
+    void keepsRelativePrecisionAndMergesLosslessly() {
+        Random random = new Random(11);
+        LogLinearHistogram all = LogLinearHistogram.forDurations();
+        LogLinearHistogram left = LogLinearHistogram.forDurations();
+        LogLinearHistogram right = LogLinearHistogram.forDurations();
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -Math.log(1 - random.nextDouble()) * 45.0;
+            all.record(values[i]);
+            (i % 2 == 0 ? left : right).record(values[i]);
+        }
+        Arrays.sort(values);
+        left.merge(right);
+
+        for (double p : new double[]{50, 90, 99}) {
+            double exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            assertEquals(exact, all.getValueAtPercentile(p), exact * 0.01, "p" + p);
+        }
+        for (int i = 0; i < all.getBucketCount(); i++) {
+            assertEquals(all.getCount(i), left.getCount(i));
+        }
+    }
+
+    @Test
+    void countsValuesAboveTheHighestTrackableValueInTheTopBucket() {
+        LogLinearHistogram histogram = new LogLinearHistogram(0.001, 10.0, 2);
+        histogram.record(5.0);
+        histogram.record(10.0);   // the highest trackable value itself is not an overflow
+        histogram.record(20.0);
+        histogram.record(1e9);
+
+        assertEquals(4, histogram.getTotalCount());
+        assertEquals(2, histogram.getOverflowCount());
+        assertEquals(1e9, histogram.getMax(), 0.0);
+        assertEquals((5.0 + 10.0 + 20.0 + 1e9) / 4, histogram.getMean(), 1e-6);
+        // Overflows land in the top bucket, not beyond it
+        double top = histogram.getValueAtPercentile(100);
+        assertTrue(top >= 10.0 && top < 20.0, "top bucket bound " + top);
+    }
+
+    @Test
+    void readFrom_restoresWhatWriteToWrote() throws IOException {
+        Random random = new Random(23);
+        LogLinearHistogram histogram = new LogLinearHistogram(0.01, 1000.0, 3);
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record(-Math.log(1 - random.nextDouble()) * 60.0);
+        }
+        histogram.record(5000.0);
+
+        LogLinearHistogram read = LogLinearHistogram.readFrom(new DataInputStream(
+                new ByteArrayInputStream(toBytes(histogram))));
+
+        assertEquals(histogram.getTotalCount(), read.getTotalCount());
+        assertEquals(1, read.getOverflowCount());
+        assertEquals(histogram.getMean(), read.getMean(), 0.0);
+        assertEquals(histogram.getMin(), read.getMin(), 0.0);
+        assertEquals(histogram.getMax(), read.getMax(), 0.0);
+        assertEquals(histogram.getBucketCount(), read.getBucketCount());
+        for (int i = 0; i < histogram.getBucketCount(); i++) {
+            assertEquals(histogram.getCount(i), read.getCount(i), "bucket " + i);
+        }
+        read.merge(histogram);   // same configuration
+        assertEquals(2 * histogram.getTotalCount(), read.getTotalCount());
+    }
+
+    @Test
+    void readFrom_rejectsDataThatIsNotAHistogram() {
+        byte[] bytes = new byte[64];
+        assertThrows(IOException.class, () -> LogLinearHistogram.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+
+    @Test
+    void readFrom_restoresAnEmptyHistogram() throws IOException {
+        LogLinearHistogram empty = LogLinearHistogram.forDurations();
+
+        LogLinearHistogram read = LogLinearHistogram.readFrom(new DataInputStream(
+                new ByteArrayInputStream(toBytes(empty))));
+
+        assertEquals(0, read.getTotalCount());
+        assertTrue(Double.isNaN(read.getValueAtPercentile(50)));
+        assertTrue(Double.isNaN(read.getMin()));
+    }
+
+    private static byte[] toBytes(LogLinearHistogram histogram) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
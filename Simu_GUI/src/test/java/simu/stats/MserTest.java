@@ -0,0 +1,51 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MSER warm-up detection.
+ */
+class MserTest {
+
+    @Test
+    void truncatesTheInitialTransient() {
+        Random random = new Random(9);
+        double[] series = new double[500];
+        for (int i = 0; i < series.length; i++) {
+            double offset = i < 100 ? 10.0 * (1 - i / 100.0) : 0.0;   // starts 10 below, reaches steady state at 100
+            series[i] = 20.0 - offset + random.nextGaussian();
+        }
+
+        int truncation = Mser.truncationPoint(series, series.length, Mser.DEFAULT_BATCH_SIZE);
+        assertTrue(truncation >= 60 && truncation <= 150, "truncation " + truncation);
+    }
+
+    @Test
+    void returnsMinusOneForFewerThanFourBatches() {
+        double[] series = new double[100];
+        assertEquals(-1, Mser.truncationPoint(series, 19, Mser.DEFAULT_BATCH_SIZE));
+        assertEquals(0, Mser.truncationPoint(series, 20, Mser.DEFAULT_BATCH_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> Mser.truncationPoint(series, 100, 0));
+    }
+
+    @Test
+    void returnsMinusOneWhenTheSeriesNeverSettles() {
+        double[] series = new double[500];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = i;   // still rising at the end of the run
+        }
+        assertEquals(-1, Mser.truncationPoint(series, series.length, Mser.DEFAULT_BATCH_SIZE));
+    }
+
+    @Test
+    void keepsAllOfAConstantSeries() {
+        double[] series = new double[100];
+        Arrays.fill(series, 3.0);
+        assertEquals(0, Mser.truncationPoint(series, series.length, Mser.DEFAULT_BATCH_SIZE));
+    }
+}
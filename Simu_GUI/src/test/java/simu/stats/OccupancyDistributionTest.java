@@ -0,0 +1,61 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the time-weighted occupancy distribution.
+ */
+class OccupancyDistributionTest {
+
+    @Test
+    void givesFractionOfTimeAtOrAboveEachLevel() {
+        OccupancyDistribution occupancy = new OccupancyDistribution();
+        occupancy.record(0, 10.0);
+        occupancy.record(2, 30.0);
+        occupancy.record(25, 20.0);
+        occupancy.record(1, 40.0);
+
+        assertEquals(100.0, occupancy.getTotalTime(), 1e-12);
+        assertEquals(25, occupancy.getMaxLevel());
+        assertEquals(1.0, occupancy.getFractionAtLeast(0), 1e-12);
+        assertEquals(0.9, occupancy.getFractionAtLeast(1), 1e-12);
+        assertEquals(0.5, occupancy.getFractionAtLeast(2), 1e-12);
+        assertEquals(0.2, occupancy.getFractionAtLeast(20), 1e-12);
+        assertEquals(0.0, occupancy.getFractionAtLeast(26), 1e-12);
+        assertEquals(0.2, occupancy.getFractionAtLeastCurve()[25], 1e-12);
+
+        OccupancyDistribution merged = occupancy.copy();
+        merged.merge(occupancy);
+        assertEquals(0.5, merged.getFractionAtLeast(2), 1e-12);
+    }
+
+    @Test
+    void ignoresEmptyIntervalsAndCountsNegativeLevelsAsZero() {
+        OccupancyDistribution occupancy = new OccupancyDistribution();
+        assertEquals(-1, occupancy.getMaxLevel());
+        assertEquals(0.0, occupancy.getFractionAtLeast(0), 0.0);
+        assertEquals(0, occupancy.getFractionAtLeastCurve().length);
+
+        occupancy.record(3, 0.0);
+        occupancy.record(4, Double.NaN);
+        occupancy.record(-2, 5.0);
+        assertEquals(5.0, occupancy.getTotalTime(), 0.0);
+        assertEquals(0, occupancy.getMaxLevel());
+        assertEquals(1.0, occupancy.getFraction(0), 1e-12);
+    }
+
+    @Test
+    void merge_growsToTheHigherLevelsOfTheOtherDistribution() {
+        OccupancyDistribution low = new OccupancyDistribution();
+        low.record(1, 10.0);
+        OccupancyDistribution high = new OccupancyDistribution();
+        high.record(500, 10.0);
+
+        low.merge(high);
+        assertEquals(500, low.getMaxLevel());
+        assertEquals(0.5, low.getFractionAtLeast(2), 1e-12);
+        assertEquals(0.5, low.getFraction(500), 1e-12);
+    }
+}
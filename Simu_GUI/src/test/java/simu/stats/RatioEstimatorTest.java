@@ -0,0 +1,43 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ratio estimator.
+ */
+class RatioEstimatorTest {
+
+    @Test
+    void intervalOfMergedEstimatorsEqualsTheCombinedOne() {
+        RatioEstimator all = new RatioEstimator();
+        RatioEstimator left = new RatioEstimator();
+        RatioEstimator right = new RatioEstimator();
+        Random random = new Random(19);
+        for (int i = 0; i < 500; i++) {
+            double x = 1 + random.nextInt(5);
+            double y = x * 3.0 + random.nextGaussian();
+            all.add(y, x);
+            (i % 3 == 0 ? left : right).add(y, x);
+        }
+        left.merge(right);
+        assertTrue(all.getInterval(0.95).contains(3.0), all.getInterval(0.95).toString());
+        assertEquals(all.getInterval(0.95).getHalfWidth(), left.getInterval(0.95).getHalfWidth(), 1e-12);
+    }
+
+    @Test
+    void hasNoRatioWhileTheDenominatorsSumToZero() {
+        RatioEstimator ratio = new RatioEstimator();
+        assertTrue(Double.isNaN(ratio.getRatio()));
+        ratio.add(3.0, 0.0);
+        assertTrue(Double.isNaN(ratio.getInterval(0.95).getMean()));
+
+        ratio.add(3.0, 2.0);
+        assertEquals(3.0, ratio.getRatio(), 1e-12);
+        ratio.reset();
+        assertEquals(0, ratio.getCount());
+    }
+}
@@ -0,0 +1,54 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for regenerative-cycle estimates.
+ */
+class RegenerativeCyclesTest {
+
+    @Test
+    void estimateRatiosOfCycleSums() {
+        RegenerativeCycles cycles = new RegenerativeCycles();
+        cycles.update(0.0, 0);
+        // Cycle 1: one customer from 10 to 30
+        cycles.regenerate(10.0);
+        cycles.update(10.0, 1);
+        cycles.customerLeft(20.0);
+        cycles.update(30.0, 0);
+        // Cycle 2: two customers, 50-70 and 55-95
+        cycles.regenerate(50.0);
+        cycles.update(50.0, 1);
+        cycles.update(55.0, 2);
+        cycles.customerLeft(20.0);
+        cycles.update(70.0, 1);
+        cycles.customerLeft(40.0);
+        cycles.update(95.0, 0);
+        cycles.regenerate(110.0);
+        cycles.update(110.0, 1);   // unfinished cycle, left out
+
+        assertEquals(2, cycles.getCycleCount());
+        assertEquals(80.0 / 3, cycles.getTimeInSystemInterval(0.95).getMean(), 1e-12);
+        assertEquals(3 / 100.0 * 3600, cycles.getThroughputInterval(0.95).getMean(), 1e-9);
+        assertEquals(80.0 / 100, cycles.getNumberInSystemInterval(0.95).getMean(), 1e-12);
+    }
+
+    @Test
+    void givesNoEstimateBeforeTheFirstCycleCompletes() {
+        RegenerativeCycles cycles = new RegenerativeCycles();
+        cycles.regenerate(0.0);
+        cycles.update(0.0, 1);
+        cycles.customerLeft(5.0);
+        cycles.update(5.0, 0);
+
+        assertEquals(0, cycles.getCycleCount());
+        assertEquals(Double.POSITIVE_INFINITY, cycles.getTimeInSystemInterval(0.95).getHalfWidth());
+
+        RegenerativeCycles merged = cycles.copy();
+        cycles.regenerate(20.0);
+        merged.merge(cycles);
+        assertEquals(1, merged.getCycleCount());
+    }
+}
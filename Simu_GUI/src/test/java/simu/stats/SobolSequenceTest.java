@@ -0,0 +1,56 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Sobol low-discrepancy sequence.
+ */
+class SobolSequenceTest {
+
+    @Test
+    void stratifiesEveryDimension() {
+        double[][] sobol = new SobolSequence(11).next(64);
+
+        for (int d = 0; d < 11; d++) {
+            boolean[] cells = new boolean[64];
+            for (int i = 0; i < 64; i++) {
+                cells[(int) (sobol[i][d] * 64)] = true;
+            }
+            for (int cell = 0; cell < 64; cell++) {
+                assertTrue(cells[cell], "Sobol dimension " + d + " misses cell " + cell);
+            }
+        }
+    }
+
+    @Test
+    void firstPointsFillTheDyadicIntervals() {
+        double[][] points = new SobolSequence(2).next(4);
+        assertArrayEquals(new double[]{0.0, 0.0}, points[0], 0.0);
+        assertEquals(0.5, points[1][0], 0.0);
+        // The next two points take the remaining quarters, in Gray code order
+        double[] quarters = {points[2][0], points[3][0]};
+        Arrays.sort(quarters);
+        assertArrayEquals(new double[]{0.25, 0.75}, quarters, 0.0);
+    }
+
+    @Test
+    void skipContinuesWhereTheSkippedPointsWouldHaveEnded() {
+        SobolSequence generated = new SobolSequence(5);
+        generated.next(37);
+        SobolSequence skipped = new SobolSequence(5);
+        skipped.skip(37);
+
+        assertArrayEquals(generated.next(10), skipped.next(10));
+    }
+
+    @Test
+    void rejectsUnsupportedDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new SobolSequence(0));
+        assertThrows(IllegalArgumentException.class, () -> new SobolSequence(SobolSequence.MAX_DIMENSIONS + 1));
+        assertEquals(SobolSequence.MAX_DIMENSIONS, new SobolSequence(SobolSequence.MAX_DIMENSIONS).getDimensions());
+    }
+}
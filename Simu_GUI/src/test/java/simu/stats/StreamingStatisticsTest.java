@@ -0,0 +1,108 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming statistics accumulators.
+ */
+class StreamingStatisticsTest {
+
+    @Test
+    void runningStatistics_matchesTwoPassVarianceForLargeOffsets() {
+        Random random = new Random(42);
+        double[] values = new double[10_000];
+        RunningStatistics stats = new RunningStatistics();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1e9 + random.nextGaussian() * 3.0;
+            stats.add(values[i]);
+        }
+
+        double mean = 0;
+        for (double v : values) mean += v;
+        mean /= values.length;
+        double ss = 0;
+        for (double v : values) ss += (v - mean) * (v - mean);
+
+        assertEquals(values.length, stats.getCount());
+        assertEquals(mean, stats.getMean(), 1e-4);
+        assertEquals(ss / (values.length - 1), stats.getVariance(), 1e-6);
+    }
+
+    @Test
+    void runningStatistics_mergeEqualsSequentialRecording() {
+        Random random = new Random(7);
+        RunningStatistics all = new RunningStatistics();
+        RunningStatistics left = new RunningStatistics();
+        RunningStatistics right = new RunningStatistics();
+        for (int i = 0; i < 5_000; i++) {
+            double v = random.nextDouble() * 100;
+            all.add(v);
+            (i % 3 == 0 ? left : right).add(v);
+        }
+        left.merge(right);
+
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getMean(), left.getMean(), 1e-9);
+        assertEquals(all.getVariance(), left.getVariance(), 1e-7);
+        assertEquals(all.getMin(), left.getMin());
+        assertEquals(all.getMax(), left.getMax());
+    }
+
+    @Test
+    void timeWeightedStatistics_weightsValuesByHoldingTime() {
+        TimeWeightedStatistics stats = new TimeWeightedStatistics();
+        stats.update(0.0, 0);   // 0 for 10 s
+        stats.update(10.0, 2);  // 2 for 30 s
+        stats.update(40.0, 1);  // 1 for 60 s
+        stats.close(100.0);
+
+        double mean = (0 * 10 + 2 * 30 + 1 * 60) / 100.0;
+        double variance = (10 * mean * mean + 30 * (2 - mean) * (2 - mean) + 60 * (1 - mean) * (1 - mean)) / 100.0;
+        assertEquals(100.0, stats.getTotalTime(), 1e-12);
+        assertEquals(mean, stats.getMean(), 1e-12);
+        assertEquals(variance, stats.getVariance(), 1e-12);
+        assertEquals(2.0, stats.getMax());
+    }
+
+    @Test
+    void quantileSketch_estimatesQuantilesWithinOnePercentRank() {
+        Random random = new Random(3);
+        QuantileSketch sketch = new QuantileSketch();
+        double[] values = new double[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -Math.log(1 - random.nextDouble()) * 30.0;
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.5, 0.9, 0.95, 0.99}) {
+            double estimate = sketch.getQuantile(q);
+            int rank = Arrays.binarySearch(values, estimate);
+            double estimatedRank = (rank >= 0 ? rank : -rank - 1) / (double) values.length;
+            assertEquals(q, estimatedRank, 0.01, "rank of estimated " + q + " quantile");
+        }
+        assertEquals(values.length, sketch.getCount());
+        assertEquals(values[0], sketch.getMin());
+        assertEquals(values[values.length - 1], sketch.getMax());
+    }
+
+    @Test
+    void quantileSketch_mergedSketchesMatchTheCombinedStream() {
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < 50_000; i++) {
+            left.add(i);
+            right.add(50_000 + i);
+        }
+        left.merge(right);
+
+        assertEquals(100_000, left.getCount());
+        assertEquals(50_000, left.getQuantile(0.5), 1_000);
+        assertEquals(90_000, left.getQuantile(0.9), 1_000);
+    }
+}
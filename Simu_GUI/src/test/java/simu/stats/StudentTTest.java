@@ -0,0 +1,31 @@
+package simu.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Student-t and normal quantiles.
+ */
+class StudentTTest {
+
+    @Test
+    void quantile_matchesTabulatedValues() {
+        assertEquals(12.7062, StudentT.quantile(0.975, 1), 1e-3);
+        assertEquals(4.3027, StudentT.quantile(0.975, 2), 1e-3);
+        assertEquals(2.2281, StudentT.quantile(0.975, 10), 1e-3);
+        assertEquals(2.0423, StudentT.quantile(0.975, 30), 1e-3);
+        assertEquals(-2.7969, StudentT.quantile(0.005, 24), 1e-3);
+        assertEquals(1.95996, StudentT.normalQuantile(0.975), 1e-5);
+    }
+
+    @Test
+    void normalQuantile_isSymmetricAndInvertsTheCdf() {
+        for (double p : new double[]{1e-6, 0.01, 0.02425, 0.3, 0.5, 0.8}) {
+            assertEquals(-StudentT.normalQuantile(p), StudentT.normalQuantile(1 - p), 1e-9, "p=" + p);
+            assertEquals(p, StudentT.normalCdf(StudentT.normalQuantile(p)), 1e-6, "p=" + p);
+        }
+        assertThrows(IllegalArgumentException.class, () -> StudentT.normalQuantile(0.0));
+        assertThrows(IllegalArgumentException.class, () -> StudentT.normalQuantile(1.0));
+    }
+}